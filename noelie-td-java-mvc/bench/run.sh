@@ -0,0 +1,34 @@
+#!/bin/sh
+# Lance les benchmarks JMH (voir README.md).
+# Les arguments sont transmis à JMH, par exemple :
+#   ./run.sh AuteurBenchmark -p size=1000
+set -e
+cd "$(dirname "$0")"
+
+JMH_VERSION=1.37
+H2_VERSION=2.2.224
+MAVEN=https://repo1.maven.org/maven2
+
+mkdir -p lib build results
+
+# Dépendances des benchmarks (téléchargées une seule fois dans bench/lib)
+fetch() {
+    [ -f "lib/$2" ] || curl -fsSL -o "lib/$2" "$MAVEN/$1/$2"
+}
+fetch org/openjdk/jmh/jmh-core/$JMH_VERSION jmh-core-$JMH_VERSION.jar
+fetch org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION jmh-generator-annprocess-$JMH_VERSION.jar
+fetch net/sf/jopt-simple/jopt-simple/5.0.4 jopt-simple-5.0.4.jar
+fetch org/apache/commons/commons-math3/3.6.1 commons-math3-3.6.1.jar
+fetch com/h2database/h2/$H2_VERSION h2-$H2_VERSION.jar
+
+CP="lib/*:../lib/*"
+
+# Compilation de l'application + benchmarks (le processeur d'annotations JMH génère le code de mesure)
+rm -rf build/classes
+mkdir -p build/classes
+javac -encoding UTF-8 -cp "$CP" -d build/classes \
+    $(find ../src src -name '*.java' ! -path '../src/tests/*')
+
+# Résultats au format JSON, un fichier par lancement, pour comparer les exécutions
+java -cp "build/classes:$CP" org.openjdk.jmh.Main \
+    -rf json -rff "results/jmh-$(date +%Y%m%d-%H%M%S).json" "$@"
@@ -0,0 +1,109 @@
+package bench;
+
+import controllers.AuteurController;
+import models.Auteur;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks des auteurs (contrôleur + DAO models.Auteur) sur la base embarquée.
+ * Temps moyen par appel, en microsecondes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx3g"})
+public class AuteurBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private AuteurController controller;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchDatabase.start(size);
+        controller = new AuteurController();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchDatabase.stop();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, size + 1);
+    }
+
+    @Benchmark
+    public List<Auteur> getAllAuteurs() {
+        return controller.fetchAllAuteurs();
+    }
+
+    /** Même auteur à chaque appel : servi par le cache (AuteurCache). */
+    @Benchmark
+    public Auteur getAuteurByIdCached() {
+        return controller.findAuteurById(1);
+    }
+
+    /** Auteur au hasard : au-delà de la capacité du cache, la plupart des appels vont en base. */
+    @Benchmark
+    public Auteur getAuteurByIdRandom() {
+        return controller.findAuteurById(randomId());
+    }
+
+    @Benchmark
+    public boolean existsHit() {
+        int id = randomId();
+        return Auteur.exists("Prenom" + id, "Nom" + id, null);
+    }
+
+    @Benchmark
+    public boolean existsMiss() {
+        return Auteur.exists("Prenom", "Absent" + randomId(), null);
+    }
+
+    /** Nouvel auteur à chaque appel (la table grandit pendant la mesure). */
+    @Benchmark
+    public Auteur createAuteur() {
+        return controller.createAuteur("Bench", "Auteur" + (sequence++));
+    }
+
+    /** Doublon refusé par l'index unique (retourne null). */
+    @Benchmark
+    public Auteur createAuteurDuplicate() {
+        int id = randomId();
+        return controller.createAuteur("Prenom" + id, "Nom" + id);
+    }
+
+    /** Alterne deux noms sur le même auteur pour que chaque UPDATE modifie réellement la ligne. */
+    @Benchmark
+    public boolean modifyAuteur() {
+        return controller.modifyAuteur(1, "Prenom1", (sequence++ & 1) == 0 ? "Nom1-bis" : "Nom1");
+    }
+
+    /** Ajout puis suppression : la taille de la table reste stable. */
+    @Benchmark
+    public boolean createThenRemoveAuteur() {
+        Auteur a = controller.createAuteur("Bench", "Temporaire" + (sequence++));
+        return a != null && controller.removeAuteur(a.getIdAuteur());
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import config.DBConnection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base embarquée des benchmarks
+ * ------------------------------
+ * H2 en mémoire, en mode de compatibilité MySQL : même schéma et mêmes index
+ * que la base mangaworldoJAVA (clé étrangère + contraintes d'unicité de sql/001).
+ *
+ * L'application lit son URL dans les propriétés système (voir DBConnection) :
+ * il suffit de les définir avant le premier appel à un DAO.
+ * Chaque fork JMH est une JVM neuve : une base par taille de jeu de données.
+ */
+final class BenchDatabase {
+
+    static final String URL = "jdbc:h2:mem:mangaworldo;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private BenchDatabase() {}
+
+    /**
+     * Crée le schéma et insère "size" auteurs et "size" œuvres (l'œuvre i appartient à l'auteur i).
+     * Noms générés : "Prenom<i>" / "Nom<i>" et "Oeuvre <i>".
+     */
+    static void start(int size) throws SQLException {
+        System.setProperty("mangaworldo.db.url", URL);
+        System.setProperty("mangaworldo.db.user", "sa");
+        System.setProperty("mangaworldo.db.password", "");
+
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            st.execute("CREATE TABLE auteur ("
+                    + " id_auteur INT AUTO_INCREMENT PRIMARY KEY,"
+                    + " prenom_auteur VARCHAR(100) NOT NULL,"
+                    + " nom_auteur VARCHAR(100) NOT NULL,"
+                    + " CONSTRAINT uq_auteur_prenom_nom UNIQUE (prenom_auteur, nom_auteur))");
+            st.execute("CREATE TABLE oeuvre ("
+                    + " id_oeuvre INT AUTO_INCREMENT PRIMARY KEY,"
+                    + " nom_oeuvre VARCHAR(255) NOT NULL,"
+                    + " id_auteur INT NOT NULL,"
+                    + " CONSTRAINT fk_oeuvre_auteur FOREIGN KEY (id_auteur) REFERENCES auteur (id_auteur),"
+                    + " CONSTRAINT uq_oeuvre_nom_auteur UNIQUE (nom_oeuvre, id_auteur))");
+            // SYSTEM_RANGE : table virtuelle 1..size, colonne "X" (majuscule, d'où les guillemets)
+            st.execute("INSERT INTO auteur (id_auteur, prenom_auteur, nom_auteur)"
+                    + " SELECT \"X\", CONCAT('Prenom', \"X\"), CONCAT('Nom', \"X\") FROM SYSTEM_RANGE(1, " + size + ")");
+            st.execute("INSERT INTO oeuvre (id_oeuvre, nom_oeuvre, id_auteur)"
+                    + " SELECT \"X\", CONCAT('Oeuvre ', \"X\"), \"X\" FROM SYSTEM_RANGE(1, " + size + ")");
+            // Les id générés ensuite continuent après les lignes du jeu de données
+            st.execute("ALTER TABLE auteur ALTER COLUMN id_auteur RESTART WITH " + (size + 1));
+            st.execute("ALTER TABLE oeuvre ALTER COLUMN id_oeuvre RESTART WITH " + (size + 1));
+        }
+        DBConnection.getPool().warmUp(1);
+    }
+
+    static void stop() {
+        DBConnection.closeConnection();
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "");
+             Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        } catch (SQLException e) {
+            System.err.println("Erreur fermeture base de benchmark : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package bench;
+
+import controllers.OeuvreController;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks des œuvres (contrôleur + DAO models.Oeuvre) et du remplissage
+ * du tableau de OeuvreView, sur la base embarquée.
+ * Temps moyen par appel, en microsecondes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx3g"})
+public class OeuvreBenchmark {
+
+    // Même taille de page que OeuvreView
+    private static final int PAGE_SIZE = 200;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private OeuvreController controller;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchDatabase.start(size);
+        controller = new OeuvreController();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchDatabase.stop();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(1, size + 1);
+    }
+
+    @Benchmark
+    public List<Oeuvre> getAllOeuvres() {
+        return controller.fetchAllOeuvres();
+    }
+
+    @Benchmark
+    public List<OeuvreAuteur> getAllOeuvresAvecAuteur() {
+        return controller.fetchAllOeuvresAvecAuteur();
+    }
+
+    @Benchmark
+    public Oeuvre getOeuvreById() {
+        return Oeuvre.getOeuvreById(randomId());
+    }
+
+    /**
+     * Remplace l'ancien oeuvreExists : le doublon est maintenant refusé
+     * par l'index unique (nom_oeuvre, id_auteur) au moment de l'INSERT.
+     */
+    @Benchmark
+    public Oeuvre createOeuvreDuplicate() {
+        int id = randomId();
+        return controller.createOeuvre("Oeuvre " + id, id);
+    }
+
+    @Benchmark
+    public boolean modifyOeuvre() {
+        return controller.modifyOeuvre(1, (sequence++ & 1) == 0 ? "Oeuvre 1-bis" : "Oeuvre 1", 1);
+    }
+
+    /** Ajout puis suppression : la taille de la table reste stable. */
+    @Benchmark
+    public boolean createThenRemoveOeuvre() {
+        Oeuvre o = controller.createOeuvre("Temporaire " + (sequence++), randomId());
+        return o != null && controller.removeOeuvre(o.getIdOeuvre());
+    }
+
+    /**
+     * Ouverture de OeuvreView : nombre de lignes (taille de la barre de défilement)
+     * puis première page, et lecture de chaque cellule comme le fait la JTable.
+     */
+    @Benchmark
+    public void tableOpen(Blackhole bh) {
+        bh.consume(controller.countOeuvres());
+        readCells(controller.fetchOeuvresAvecAuteurPage(0, PAGE_SIZE), bh);
+    }
+
+    /** Saut à un endroit quelconque de la barre de défilement (pagination par clé). */
+    @Benchmark
+    public void tableScrollToRandomPage(Blackhole bh) {
+        readCells(controller.fetchOeuvresAvecAuteurPage(randomId() - 1, PAGE_SIZE), bh);
+    }
+
+    private static void readCells(List<OeuvreAuteur> page, Blackhole bh) {
+        for (OeuvreAuteur ligne : page) {
+            bh.consume(ligne.getIdOeuvre());
+            bh.consume(ligne.getNomOeuvre());
+            bh.consume(ligne.getNomCompletAuteur());
+        }
+    }
+}
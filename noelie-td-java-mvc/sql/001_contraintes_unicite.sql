@@ -0,0 +1,24 @@
+-- ---------------------------------------------------------------------------
+-- 001 : contraintes d'unicité (base mangaworldoJAVA)
+-- ---------------------------------------------------------------------------
+-- Les DAO (models.Auteur, models.Oeuvre) ne vérifient plus les doublons par un
+-- SELECT COUNT(*) avant d'écrire : c'est la base qui refuse le doublon, en un
+-- seul aller-retour et sans "course" entre deux utilisateurs simultanés.
+--
+-- Règles :
+--   - un auteur est unique par (prenom_auteur, nom_auteur)
+--   - une œuvre est unique par (nom_oeuvre, id_auteur)
+--
+-- ⚠️ Les doublons déjà présents empêchent la création des index.
+-- Pour les repérer avant d'exécuter ce script :
+--   SELECT prenom_auteur, nom_auteur, COUNT(*) FROM auteur
+--   GROUP BY prenom_auteur, nom_auteur HAVING COUNT(*) > 1;
+--   SELECT nom_oeuvre, id_auteur, COUNT(*) FROM oeuvre
+--   GROUP BY nom_oeuvre, id_auteur HAVING COUNT(*) > 1;
+-- ---------------------------------------------------------------------------
+
+ALTER TABLE auteur
+    ADD CONSTRAINT uq_auteur_prenom_nom UNIQUE (prenom_auteur, nom_auteur);
+
+ALTER TABLE oeuvre
+    ADD CONSTRAINT uq_oeuvre_nom_auteur UNIQUE (nom_oeuvre, id_auteur);
@@ -0,0 +1,17 @@
+-- ---------------------------------------------------------------------------
+-- 002 : index sur oeuvre.id_auteur (base mangaworldoJAVA)
+-- ---------------------------------------------------------------------------
+-- Requêtes concernées (filtre sur id_auteur seul) :
+--   - Auteur.deleteAuteur(s)  : DELETE ... AND NOT EXISTS (SELECT 1 FROM oeuvre WHERE id_auteur = ...)
+--   - Oeuvre.getOeuvresByAuteur : ... FROM oeuvre WHERE id_auteur = ?
+-- L'index unique (nom_oeuvre, id_auteur) de 001 ne sert pas ici : id_auteur
+-- n'y est pas en première colonne. Sans index, MySQL parcourt toute la table
+-- (EXPLAIN : type = ALL), ce que signale le journal des requêtes lentes.
+--
+-- ⚠️ Si la clé étrangère oeuvre → auteur existe déjà, InnoDB a créé un index
+-- sur id_auteur automatiquement. Vérifier avant d'exécuter :
+--   SHOW INDEX FROM oeuvre WHERE Column_name = 'id_auteur' AND Seq_in_index = 1;
+-- Si une ligne apparaît, ce script est inutile.
+-- ---------------------------------------------------------------------------
+
+CREATE INDEX idx_oeuvre_id_auteur ON oeuvre (id_auteur);
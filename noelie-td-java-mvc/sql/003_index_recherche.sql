@@ -0,0 +1,14 @@
+-- ---------------------------------------------------------------------------
+-- 003 : index pour la recherche en base (base mangaworldoJAVA)
+-- ---------------------------------------------------------------------------
+-- Requêtes concernées (champ de recherche, lancé avec -Dmangaworldo.search=base) :
+--   - Auteur.searchAuteurs : ... WHERE nom_auteur LIKE 'xxx%' OR prenom_auteur LIKE 'xxx%'
+--   - Oeuvre.searchOeuvresAvecAuteur : ... WHERE o.nom_oeuvre LIKE 'xxx%'
+-- Un LIKE "commence par" peut utiliser un index dont c'est la première colonne :
+--   - nom_oeuvre : index unique (nom_oeuvre, id_auteur) de 001, rien à ajouter ;
+--   - prenom_auteur : index unique (prenom_auteur, nom_auteur) de 001 ;
+--   - nom_auteur : pas d'index → ci-dessous. Avec les deux, MySQL combine
+--     les index pour le OR (EXPLAIN : type = index_merge) au lieu de lire toute la table.
+-- ---------------------------------------------------------------------------
+
+CREATE INDEX idx_auteur_nom ON auteur (nom_auteur);
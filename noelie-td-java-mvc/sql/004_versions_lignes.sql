@@ -0,0 +1,98 @@
+-- ---------------------------------------------------------------------------
+-- 004 : versions de lignes et suppressions (base mangaworldoJAVA)
+-- ---------------------------------------------------------------------------
+-- Objectif : qu'un poste voie les modifications faites par les autres postes
+-- sans relire tout le catalogue. Il garde un "repère" (la dernière version vue)
+-- et ne demande que ce qui a changé depuis :
+--   SELECT ... FROM auteur WHERE version > :repere ORDER BY version LIMIT n
+--   SELECT id FROM suppression WHERE nom_table = 'auteur' AND version > :repere
+-- (voir models.ChangeLog).
+--
+-- Principe :
+--   - catalogue_version : un compteur unique, augmenté de 1 à chaque ligne écrite ;
+--   - auteur.version / oeuvre.version : valeur du compteur à la dernière écriture
+--     de la ligne ; version_creation : valeur à sa création (ajout ou modification ?) ;
+--   - suppression : une "pierre tombale" par ligne supprimée (la ligne n'existe plus,
+--     il faut bien garder une trace pour prévenir les autres postes).
+-- Ce sont des triggers qui tiennent ces valeurs à jour : toute écriture est versionnée,
+-- même faite par un autre programme ou à la main dans phpMyAdmin.
+--
+-- Pourquoi un compteur plutôt qu'une date (updated_at) ?
+--   - deux écritures dans la même seconde (ou milliseconde) auraient la même date ;
+--   - l'horloge du serveur peut reculer (changement d'heure, NTP).
+-- Le compteur est une seule ligne : chaque transaction qui écrit la verrouille jusqu'à
+-- son COMMIT, les versions sont donc validées dans l'ordre. Un poste qui a lu la
+-- version V ne peut plus voir apparaître plus tard une ligne de version <= V.
+--
+-- Les lignes déjà présentes gardent la version 0 : elles sont antérieures à tout repère.
+-- Purge : les pierres tombales peuvent être supprimées quand plus aucun poste n'a
+-- de repère plus ancien (ex: la nuit, application fermée partout) :
+--   DELETE FROM suppression WHERE version <= (SELECT valeur FROM catalogue_version);
+-- ---------------------------------------------------------------------------
+
+CREATE TABLE catalogue_version (
+    id     TINYINT NOT NULL PRIMARY KEY,
+    valeur BIGINT  NOT NULL
+);
+INSERT INTO catalogue_version (id, valeur) VALUES (1, 0);
+
+ALTER TABLE auteur
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN version_creation BIGINT NOT NULL DEFAULT 0,
+    ADD INDEX idx_auteur_version (version);
+
+ALTER TABLE oeuvre
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN version_creation BIGINT NOT NULL DEFAULT 0,
+    ADD INDEX idx_oeuvre_version (version);
+
+CREATE TABLE suppression (
+    nom_table VARCHAR(16) NOT NULL,
+    id        INT         NOT NULL,
+    version   BIGINT      NOT NULL,
+    PRIMARY KEY (nom_table, version)
+);
+
+DELIMITER //
+
+CREATE TRIGGER trg_auteur_version_ajout BEFORE INSERT ON auteur FOR EACH ROW
+BEGIN
+    UPDATE catalogue_version SET valeur = valeur + 1 WHERE id = 1;
+    SET NEW.version = (SELECT valeur FROM catalogue_version WHERE id = 1);
+    SET NEW.version_creation = NEW.version;
+END//
+
+CREATE TRIGGER trg_auteur_version_modif BEFORE UPDATE ON auteur FOR EACH ROW
+BEGIN
+    UPDATE catalogue_version SET valeur = valeur + 1 WHERE id = 1;
+    SET NEW.version = (SELECT valeur FROM catalogue_version WHERE id = 1);
+END//
+
+CREATE TRIGGER trg_auteur_suppression AFTER DELETE ON auteur FOR EACH ROW
+BEGIN
+    UPDATE catalogue_version SET valeur = valeur + 1 WHERE id = 1;
+    INSERT INTO suppression (nom_table, id, version)
+        SELECT 'auteur', OLD.id_auteur, valeur FROM catalogue_version WHERE id = 1;
+END//
+
+CREATE TRIGGER trg_oeuvre_version_ajout BEFORE INSERT ON oeuvre FOR EACH ROW
+BEGIN
+    UPDATE catalogue_version SET valeur = valeur + 1 WHERE id = 1;
+    SET NEW.version = (SELECT valeur FROM catalogue_version WHERE id = 1);
+    SET NEW.version_creation = NEW.version;
+END//
+
+CREATE TRIGGER trg_oeuvre_version_modif BEFORE UPDATE ON oeuvre FOR EACH ROW
+BEGIN
+    UPDATE catalogue_version SET valeur = valeur + 1 WHERE id = 1;
+    SET NEW.version = (SELECT valeur FROM catalogue_version WHERE id = 1);
+END//
+
+CREATE TRIGGER trg_oeuvre_suppression AFTER DELETE ON oeuvre FOR EACH ROW
+BEGIN
+    UPDATE catalogue_version SET valeur = valeur + 1 WHERE id = 1;
+    INSERT INTO suppression (nom_table, id, version)
+        SELECT 'oeuvre', OLD.id_oeuvre, valeur FROM catalogue_version WHERE id = 1;
+END//
+
+DELIMITER ;
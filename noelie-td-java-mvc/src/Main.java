@@ -1,6 +1,27 @@
+import config.DBConnection;
 import controllers.AuteurController;
+import controllers.ExportController;
 import controllers.OeuvreController;
+import controllers.UnitOfWorkController;
+import metrics.StartupTimer;
+import models.CatalogEvents;
+import repositories.AuteurRepository;
+import repositories.Backend;
+import repositories.InMemoryCatalog;
+import repositories.JdbcAuteurRepository;
+import repositories.JdbcOeuvreRepository;
+import repositories.JdbcUnitOfWorkRepository;
+import repositories.OeuvreRepository;
+import repositories.UnitOfWorkRepository;
+import search.CatalogSearch;
 import views.MainWindow;
+import views.SharedCatalog;
+
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Classe Main
@@ -11,22 +32,89 @@ import views.MainWindow;
  * 1. Comprendre le rôle de la méthode main.
  * 2. Lancer l'application avec la fenêtre principale.
  * 3. Initier les contrôleurs pour la gestion des auteurs et des œuvres.
+ *
+ * Démarrage en parallèle :
+ * - pendant que l'EDT construit la fenêtre, des threads d'arrière-plan ouvrent les
+ *   connexions du pool, décodent l'image de fond et construisent l'index de recherche ;
+ * - le catalogue partagé lit déjà le nombre de lignes et la première page de chaque table :
+ *   le premier clic sur "Gérer les auteurs" / "Gérer les œuvres" affiche des lignes tout de suite ;
+ * - chaque phase écrit sa durée ([Démarrage] dans la console), ainsi que le temps
+ *   jusqu'à la première fenêtre utilisable.
  */
 public class Main {
 
     public static void main(String[] args) {
+        StartupTimer timer = new StartupTimer();
 
         // -----------------------------
         // 1. Initialisation des contrôleurs
         // -----------------------------
-        AuteurController auteurController = new AuteurController();
-        OeuvreController oeuvreController = new OeuvreController();
+        // Stockage choisi au démarrage : MySQL (par défaut) ou mémoire (--memoire)
+        AuteurRepository auteurRepository;
+        OeuvreRepository oeuvreRepository;
+        UnitOfWorkRepository unitOfWorkRepository; // mode brouillon : enregistrement en une transaction
+        boolean memoire = Backend.select(args) == Backend.MEMOIRE;
+        if (memoire) {
+            InMemoryCatalog catalog = new InMemoryCatalog();
+            auteurRepository = catalog.auteurs();
+            oeuvreRepository = catalog.oeuvres();
+            unitOfWorkRepository = catalog.unitOfWork();
+        } else {
+            auteurRepository = new JdbcAuteurRepository();
+            oeuvreRepository = new JdbcOeuvreRepository();
+            unitOfWorkRepository = new JdbcUnitOfWorkRepository();
+        }
+
+        // Index de recherche partagé : construit en arrière-plan, puis tenu à jour par les changements publiés.
+        // Catalogue trop gros pour la mémoire : -Dmangaworldo.search=base (les vues interrogent la base)
+        CatalogSearch search = "base".equalsIgnoreCase(System.getProperty("mangaworldo.search"))
+                ? null : new CatalogSearch();
+        // Changements du catalogue : publiés par les deux contrôleurs, reçus par l'index et les fenêtres
+        CatalogEvents events = new CatalogEvents();
+        if (search != null) events.addListener(search);
+        AuteurController auteurController = new AuteurController(auteurRepository, search, events);
+        OeuvreController oeuvreController = new OeuvreController(oeuvreRepository, search, events);
+        UnitOfWorkController unitOfWorkController = new UnitOfWorkController(unitOfWorkRepository, events);
+        ExportController exportController = new ExportController();
+        if (search != null) {
+            Runnable indexed = timer.begin("index de recherche");
+            search.buildInBackground(auteurRepository, oeuvreRepository, () -> {
+                indexed.run();
+                System.out.println("[Démarrage] index : " + search.getAuteurCount() + " auteur(s), "
+                        + search.getOeuvreCount() + " œuvre(s)");
+            });
+        }
 
         // -----------------------------
-        // 2. Création et affichage de la fenêtre principale
+        // 2. Phases d'arrière-plan, lancées avant la construction de la fenêtre
         // -----------------------------
-        // Passe les contrôleurs à la vue pour permettre les opérations CRUD
-        MainWindow mainWindow = new MainWindow(auteurController, oeuvreController);
-        mainWindow.showWindow();
+        ExecutorService startup = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "startup");
+            t.setDaemon(true);
+            return t;
+        });
+        if (!memoire) {
+            timer.timeAsync("connexions du pool", DBConnection::warmUpPool, startup)
+                    .thenAccept(opened -> System.out.println("[Démarrage] " + opened + " connexion(s) ouverte(s)"));
+        }
+        CompletableFuture<BufferedImage> image = timer.timeAsync("image de fond", MainWindow::loadBackgroundImage, startup);
+        startup.shutdown(); // les threads s'arrêtent une fois ces phases terminées
+
+        // -----------------------------
+        // 3. Création et affichage de la fenêtre principale (sur l'EDT)
+        // -----------------------------
+        SwingUtilities.invokeLater(() -> {
+            // Catalogue partagé : préchargé pendant la construction de la fenêtre
+            SharedCatalog catalog = new SharedCatalog(auteurController, oeuvreController, unitOfWorkController);
+            catalog.prefetch(timer.begin("préchargement du catalogue"));
+
+            // Passe les contrôleurs à la vue pour permettre les opérations CRUD
+            MainWindow mainWindow = timer.time("construction de la fenêtre",
+                    () -> new MainWindow(auteurController, oeuvreController, exportController, catalog));
+            image.thenAccept(img -> SwingUtilities.invokeLater(() -> mainWindow.setBackgroundImage(img)));
+            mainWindow.showWindow();
+            // Après les événements d'affichage déjà en file : la fenêtre répond aux clics
+            SwingUtilities.invokeLater(() -> timer.milestone("première fenêtre utilisable"));
+        });
     }
 }
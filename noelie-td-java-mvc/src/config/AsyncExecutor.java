@@ -0,0 +1,142 @@
+package config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécution asynchrone des appels aux contrôleurs
+ * ------------------------------------------------
+ * Chaque appel (requête JDBC bloquante) tourne dans un thread d'arrière-plan et
+ * renvoie tout de suite un CompletableFuture : plusieurs requêtes indépendantes
+ * peuvent être lancées en même temps, sans gérer de threads.
+ *
+ * 1. Threads virtuels (Java 21+) : un thread par appel, presque gratuit à créer et à bloquer.
+ *    L'application est compilée pour Java 17 : la méthode est cherchée par réflexion ;
+ *    sur une JVM plus ancienne, repli sur un pool de MAX_CONCURRENT threads classiques.
+ * 2. Au plus MAX_CONCURRENT appels en cours (Semaphore) : au-delà, les appels attendent
+ *    leur tour au lieu d'épuiser le pool de connexions (10) et de bloquer les fenêtres.
+ *    -Dmangaworldo.async.max=N (8 par défaut : il reste des connexions pour les fenêtres).
+ *
+ * Voir AsyncAuteurController / AsyncOeuvreController.
+ */
+public final class AsyncExecutor {
+
+    private static final int MAX_CONCURRENT = Integer.getInteger("mangaworldo.async.max", 8);
+
+    private static volatile AsyncExecutor shared;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final boolean virtualThreads;
+
+    /**
+     * param maxConcurrent nombre maximum d'appels exécutés en même temps
+     */
+    public AsyncExecutor(int maxConcurrent) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent < 1 : " + maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true); // premier arrivé, premier servi
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadPool(maxConcurrent);
+    }
+
+    /**
+     * Exécuteur commun à toute l'application (créé au premier appel)
+     */
+    public static AsyncExecutor shared() {
+        AsyncExecutor e = shared;
+        if (e == null) {
+            synchronized (AsyncExecutor.class) {
+                e = shared;
+                if (e == null) {
+                    e = new AsyncExecutor(MAX_CONCURRENT);
+                    shared = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Lance work en arrière-plan.
+     * return le résultat ; en cas d'exception, le CompletableFuture échoue avec elle
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return work.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Lance work en arrière-plan (sans résultat).
+     */
+    public CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public boolean usesVirtualThreads() { return virtualThreads; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+
+    /**
+     * Appels en cours d'exécution (les autres attendent leur tour)
+     */
+    public int getRunning() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Refuse les nouveaux appels ; ceux déjà lancés se terminent.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() si la JVM le propose, sinon null.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // Java 17 à 20 (ou threads virtuels en préversion non activée)
+        }
+    }
+
+    /**
+     * Pool de threads classiques : pas plus de threads que d'appels autorisés en même temps.
+     */
+    private static ExecutorService newPlatformThreadPool(int size) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "async-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,660 @@
+package config;
+
+import metrics.SqlMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Classe ConnectionPool
+ * ----------------------
+ * Pool de connexions JDBC borné, utilisé par DBConnection.
+ *
+ * Pourquoi un pool ?
+ * - Les DAO (Auteur, Oeuvre) ferment la connexion avec try-with-resources.
+ * - Sans pool, chaque fermeture coupe la connexion MySQL et l'appel suivant
+ *   repaye toute la poignée de main (TCP + authentification).
+ * - Ici, close() sur la connexion obtenue la rend simplement au pool.
+ *
+ * Fonctionnalités :
+ * 1. Taille maximale : au-delà, les demandeurs attendent (maxWaitMillis).
+ * 2. Éviction des connexions inactives depuis plus de idleTimeoutMillis.
+ * 3. Validation à l'emprunt (isValid) si la connexion est restée inactive.
+ * 4. Détection de fuites : connexion empruntée depuis trop longtemps
+ *    (la pile de l'emprunteur n'est capturée que si leakTrace est activé : coûteux à chaque emprunt).
+ * 5. Statistiques (voir getStats()).
+ * 6. Cache de PreparedStatement par connexion (voir StatementCache).
+ * 7. Mesures SQL (temps d'attente, durée de chaque requête) : voir metrics.SqlMetrics.
+ */
+public class ConnectionPool {
+
+    // Une connexion utilisée il y a moins de VALIDATION_BYPASS_NANOS n'est pas revalidée
+    // (évite un aller-retour "ping" à chaque emprunt dans les boucles serrées).
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MAINTENANCE_PERIOD_MILLIS = 10_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final boolean leakTrace;
+    private final int statementCacheSize;
+    private final SqlMetrics metrics;
+
+    // ----- État protégé par le verrou -----
+    private final ReentrantLock lock = new ReentrantLock(true); // équitable : premier arrivé, premier servi
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // LIFO : la plus récente est réutilisée
+    private final Set<PooledConnection> borrowed = new HashSet<>();
+    private int total;       // connexions physiques ouvertes (ou en cours d'ouverture)
+    private int waiting;     // threads en attente d'une connexion
+    private boolean closed;
+
+    // ----- Statistiques -----
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    // compteurs des caches de requêtes des connexions déjà fermées
+    private final AtomicLong retiredStatementHits = new AtomicLong();
+    private final AtomicLong retiredStatementMisses = new AtomicLong();
+    private final AtomicLong retiredStatementEvictions = new AtomicLong();
+
+    private final ScheduledExecutorService maintenance;
+
+    /**
+     * param maxSize nombre maximum de connexions physiques
+     * param maxWaitMillis attente maximale d'une connexion libre avant erreur
+     * param idleTimeoutMillis durée d'inactivité avant fermeture d'une connexion
+     * param leakThresholdMillis durée d'emprunt au-delà de laquelle on signale une fuite (0 = désactivé)
+     * param statementCacheSize nombre de requêtes préparées gardées par connexion (0 = pas de cache)
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        this(url, user, password, maxSize, maxWaitMillis, idleTimeoutMillis, leakThresholdMillis,
+                statementCacheSize, new SqlMetrics());
+    }
+
+    /**
+     * param metrics mesures alimentées par ce pool (partageables entre pools successifs)
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize, SqlMetrics metrics) {
+        this(url, user, password, maxSize, maxWaitMillis, idleTimeoutMillis, leakThresholdMillis,
+                false, statementCacheSize, metrics);
+    }
+
+    /**
+     * param leakTrace capturer la pile de chaque emprunt pour l'afficher en cas de fuite
+     *                 (diagnostic : une exception créée à chaque getConnection())
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          boolean leakTrace, int statementCacheSize, SqlMetrics metrics) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize doit être > 0");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakTrace = leakTrace;
+        this.statementCacheSize = statementCacheSize;
+        this.metrics = metrics;
+
+        // Thread "démon" : il ne bloque pas la fermeture de l'application
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                MAINTENANCE_PERIOD_MILLIS, MAINTENANCE_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emprunter une connexion
+     * -----------------------
+     * - Réutilise une connexion libre si possible (validée si inactive depuis un moment).
+     * - Sinon en ouvre une nouvelle tant que maxSize n'est pas atteint.
+     * - Sinon attend qu'une connexion soit rendue (au plus maxWaitMillis).
+     * La connexion retournée doit être fermée (close) pour être rendue au pool.
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection handle = acquire(start);
+            metrics.recordConnectionAcquired(System.nanoTime() - start);
+            return handle;
+        } catch (SQLException e) {
+            metrics.recordConnectionFailed(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private Connection acquire(long start) throws SQLException {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        while (true) {
+            PooledConnection pc;
+            boolean mustCreate = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) throw new SQLException("Le pool de connexions est fermé");
+                    pc = idle.pollFirst();
+                    if (pc != null) break;
+                    if (total < maxSize) {
+                        total++; // on réserve la place avant d'ouvrir (hors verrou)
+                        mustCreate = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLTransientConnectionException("Aucune connexion disponible après "
+                                + maxWaitMillis + " ms (pool plein : " + maxSize + " connexions)");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Attente d'une connexion interrompue", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mustCreate) {
+                pc = openPhysical();
+            } else if (!validate(pc)) {
+                destroy(pc);
+                continue; // on retente avec une autre connexion
+            }
+
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+            borrows.incrementAndGet();
+            Connection handle = pc.borrow(leakTrace && leakThresholdMillis > 0);
+            lock.lock();
+            try {
+                borrowed.add(pc);
+            } finally {
+                lock.unlock();
+            }
+            return handle;
+        }
+    }
+
+    /**
+     * Ouvre au plus n connexions à l'avance (démarrage de l'application).
+     * Les connexions sont placées directement dans la file des connexions libres.
+     * return nombre de connexions réellement ouvertes
+     */
+    public int warmUp(int n) {
+        int opened = 0;
+        for (int i = 0; i < n; i++) {
+            lock.lock();
+            try {
+                if (closed || total >= maxSize) break;
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledConnection pc = openPhysical();
+                lock.lock();
+                try {
+                    idle.offerLast(pc);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+                opened++;
+            } catch (SQLException e) {
+                System.err.println("Erreur warmUp du pool : " + e.getMessage());
+                break;
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Ouvre une connexion physique ; la place doit déjà être réservée dans total.
+     */
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            created.incrementAndGet();
+            return new PooledConnection(this, physical, new StatementCache(statementCacheSize, metrics));
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                total--; // libère la place réservée
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean validate(PooledConnection pc) {
+        if (System.nanoTime() - pc.lastUsedNanos < VALIDATION_BYPASS_NANOS) return true;
+        try {
+            if (pc.physical.isValid(VALIDATION_TIMEOUT_SECONDS)) return true;
+        } catch (SQLException e) {
+            // connexion inutilisable : traitée comme un échec de validation
+        }
+        validationFailures.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Appelé par la connexion logique lors de close() : remet la connexion
+     * dans un état propre puis la rend au pool.
+     */
+    void release(PooledConnection pc) {
+        boolean reusable = !pc.broken;
+        if (reusable) {
+            try {
+                // Un DAO peut avoir désactivé l'auto-commit sans le réactiver :
+                // la transaction non validée est annulée avant réutilisation.
+                if (!pc.physical.getAutoCommit()) {
+                    pc.physical.rollback();
+                    pc.physical.setAutoCommit(true);
+                }
+                if (pc.physical.isReadOnly()) pc.physical.setReadOnly(false);
+                pc.physical.clearWarnings();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            if (reusable && !closed) {
+                pc.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(pc);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pc);
+    }
+
+    private void destroy(PooledConnection pc) {
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            total--;
+            available.signal(); // une place vient de se libérer
+        } finally {
+            lock.unlock();
+        }
+        destroyed.incrementAndGet();
+        retiredStatementHits.addAndGet(pc.statements.getHits());
+        retiredStatementMisses.addAndGet(pc.statements.getMisses());
+        retiredStatementEvictions.addAndGet(pc.statements.getEvictions());
+        pc.closePhysical();
+    }
+
+    /**
+     * Tâche périodique : éviction des connexions inactives et détection de fuites.
+     */
+    private void runMaintenance() {
+        List<PooledConnection> toClose = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+        long now = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsedNanos > TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis)) {
+                    it.remove();
+                    toClose.add(pc);
+                }
+            }
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pc : borrowed) {
+                    if (!pc.leakReported && nowMillis - pc.borrowedAtMillis > leakThresholdMillis) {
+                        pc.leakReported = true;
+                        leaked.add(pc);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : toClose) {
+            evictions.incrementAndGet();
+            destroy(pc);
+        }
+        for (PooledConnection pc : leaked) {
+            leaks.incrementAndGet();
+            System.err.println("Fuite de connexion probable : empruntée depuis plus de "
+                    + leakThresholdMillis + " ms sans être fermée. Emprunt effectué ici :");
+            if (pc.borrowTrace != null) pc.borrowTrace.printStackTrace();
+            else System.err.println("  (pile non capturée : relancer avec -Dmangaworldo.db.pool.leaktrace=true)");
+        }
+    }
+
+    /**
+     * Ferme le pool : les connexions libres sont fermées immédiatement,
+     * les connexions empruntées le seront lors de leur close().
+     */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll(); // réveille les threads en attente (ils recevront une erreur)
+        } finally {
+            lock.unlock();
+        }
+        maintenance.shutdownNow();
+        for (PooledConnection pc : toClose) destroy(pc);
+    }
+
+    public SqlMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Photographie des statistiques du pool à un instant donné.
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            long stmtHits = retiredStatementHits.get();
+            long stmtMisses = retiredStatementMisses.get();
+            long stmtEvictions = retiredStatementEvictions.get();
+            for (PooledConnection pc : idle) {
+                stmtHits += pc.statements.getHits();
+                stmtMisses += pc.statements.getMisses();
+                stmtEvictions += pc.statements.getEvictions();
+            }
+            for (PooledConnection pc : borrowed) {
+                stmtHits += pc.statements.getHits();
+                stmtMisses += pc.statements.getMisses();
+                stmtEvictions += pc.statements.getEvictions();
+            }
+            return new Stats(maxSize, total, borrowed.size(), idle.size(), waiting,
+                    created.get(), destroyed.get(), borrows.get(), timeouts.get(),
+                    validationFailures.get(), evictions.get(), leaks.get(), totalWaitNanos.get(),
+                    stmtHits, stmtMisses, stmtEvictions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ====================================================================
+    // ================== Connexion physique + connexion logique ==========
+    // ====================================================================
+
+    /**
+     * Connexion physique gérée par le pool.
+     * À chaque emprunt, une nouvelle connexion "logique" (proxy) est créée :
+     * un close() en double sur une ancienne référence ne peut donc pas
+     * rendre la connexion d'un autre emprunteur.
+     */
+    static final class PooledConnection {
+        final ConnectionPool pool;
+        final Connection physical;
+        final StatementCache statements;
+        volatile long lastUsedNanos = System.nanoTime();
+        volatile long borrowedAtMillis;
+        volatile Throwable borrowTrace;
+        volatile boolean leakReported;
+        volatile boolean broken; // erreur réseau détectée : ne pas remettre dans le pool
+
+        PooledConnection(ConnectionPool pool, Connection physical, StatementCache statements) {
+            this.pool = pool;
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        Connection borrow(boolean traceBorrower) {
+            borrowedAtMillis = System.currentTimeMillis();
+            borrowTrace = traceBorrower ? new Throwable("Emprunt de connexion") : null;
+            leakReported = false;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LogicalConnection(this));
+        }
+
+        void closePhysical() {
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la fermeture d'une connexion du pool : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Connexion logique : délègue tout à la connexion physique,
+     * sauf close() qui rend la connexion au pool
+     * et prepareStatement(sql) / prepareStatement(sql, autoGeneratedKeys)
+     * qui passent par le cache de requêtes de la connexion.
+     */
+    private static final class LogicalConnection implements InvocationHandler {
+        private final PooledConnection owner;
+        private boolean closed;
+
+        LogicalConnection(PooledConnection owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        owner.pool.release(owner);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || owner.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                    if (!closed) {
+                        return isCacheable(method) ? prepareCached(proxy, args) : prepareUncached(proxy, method, args);
+                    }
+                    break;
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy))
+                            + (closed ? " (rendue)" : "");
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Connexion déjà rendue au pool");
+            try {
+                return method.invoke(owner.physical, args);
+            } catch (InvocationTargetException e) {
+                throw inspect(e.getCause());
+            }
+        }
+
+        /**
+         * Seules les formes prepareStatement(String) et prepareStatement(String, int)
+         * sont mises en cache ; les autres (curseurs spécifiques...) sont déléguées.
+         */
+        private static boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+
+        private Object prepareCached(Object proxy, Object[] args) throws Throwable {
+            String sql = (String) args[0];
+            String key = args.length == 1 ? sql : sql + "\u0000" + args[1];
+            try {
+                return owner.statements.prepare(key, sql, (Connection) proxy, () -> args.length == 1
+                        ? owner.physical.prepareStatement(sql)
+                        : owner.physical.prepareStatement(sql, (Integer) args[1]));
+            } catch (SQLException e) {
+                throw inspect(e);
+            }
+        }
+
+        private Object prepareUncached(Object proxy, Method method, Object[] args) throws Throwable {
+            try {
+                PreparedStatement physical = (PreparedStatement) method.invoke(owner.physical, args);
+                return owner.statements.wrapUncached((String) args[0], physical, (Connection) proxy);
+            } catch (InvocationTargetException e) {
+                throw inspect(e.getCause());
+            }
+        }
+
+        private Throwable inspect(Throwable cause) {
+            // SQLState "08xxx" = erreur de connexion : la connexion physique est jetée au retour
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) owner.broken = true;
+            }
+            return cause;
+        }
+    }
+
+    /**
+     * Statistiques du pool (valeurs immuables).
+     */
+    public static final class Stats {
+        private final int maxSize;
+        private final int total;
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final long created;
+        private final long destroyed;
+        private final long borrows;
+        private final long timeouts;
+        private final long validationFailures;
+        private final long evictions;
+        private final long leaks;
+        private final long totalWaitNanos;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        Stats(int maxSize, int total, int active, int idle, int waiting, long created, long destroyed,
+              long borrows, long timeouts, long validationFailures, long evictions, long leaks,
+              long totalWaitNanos, long statementCacheHits, long statementCacheMisses,
+              long statementCacheEvictions) {
+            this.maxSize = maxSize;
+            this.total = total;
+            this.active = active;
+            this.idle = idle;
+            this.waiting = waiting;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrows = borrows;
+            this.timeouts = timeouts;
+            this.validationFailures = validationFailures;
+            this.evictions = evictions;
+            this.leaks = leaks;
+            this.totalWaitNanos = totalWaitNanos;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getTotal() { return total; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getWaiting() { return waiting; }
+        public long getCreated() { return created; }
+        public long getDestroyed() { return destroyed; }
+        public long getBorrows() { return borrows; }
+        public long getTimeouts() { return timeouts; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getEvictions() { return evictions; }
+        public long getLeaks() { return leaks; }
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+        /** Proportion de prepareStatement servis par le cache (0 à 1). */
+        public double getStatementCacheHitRatio() {
+            long requests = statementCacheHits + statementCacheMisses;
+            return requests == 0 ? 0 : (double) statementCacheHits / requests;
+        }
+
+        /** Temps d'attente moyen d'un emprunt, en microsecondes. */
+        public double getAverageWaitMicros() {
+            return borrows == 0 ? 0 : totalWaitNanos / 1000.0 / borrows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pool[total=%d/%d, actives=%d, libres=%d, en attente=%d, créées=%d, "
+                            + "fermées=%d, emprunts=%d, attente moy.=%.1f µs, timeouts=%d, "
+                            + "validations échouées=%d, évictions=%d, fuites=%d, "
+                            + "cache requêtes=%d hits/%d miss (%.0f %%), %d évincées]",
+                    total, maxSize, active, idle, waiting, created, destroyed, borrows,
+                    getAverageWaitMicros(), timeouts, validationFailures, evictions, leaks,
+                    statementCacheHits, statementCacheMisses, getStatementCacheHitRatio() * 100,
+                    statementCacheEvictions);
+        }
+    }
+}
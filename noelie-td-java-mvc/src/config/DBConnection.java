@@ -1,54 +1,172 @@
 package config;
 
+import metrics.SlowQueryLog;
+import metrics.SqlMetrics;
+
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 /**
  * Classe DBConnection
  * ----------------------
- * Fournit une connexion unique à la base de données (Singleton).
+ * Point d'accès unique aux connexions de la base de données.
+ * Les connexions proviennent d'un pool (voir ConnectionPool) :
+ * fermer une connexion dans un DAO la rend au pool au lieu de la couper.
  * Objectifs pédagogiques BTS SIO :
  * 1. Centraliser la gestion de la connexion
- * 2. Réutiliser la connexion dans les DAO
+ * 2. Réutiliser les connexions dans les DAO
  * 3. Gérer les exceptions de connexion
  */
 public class DBConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:8889/mangaworldoJAVA?useSSL=false&serverTimezone=UTC";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
+    // Valeurs par défaut, remplaçables au lancement (ex: base embarquée des benchmarks) :
+    // -Dmangaworldo.db.url=... -Dmangaworldo.db.user=... -Dmangaworldo.db.password=...
+    private static final String URL = System.getProperty("mangaworldo.db.url",
+            "jdbc:mysql://localhost:8889/mangaworldoJAVA?useSSL=false&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true"); // executeBatch() → un seul INSERT multi-lignes
+    private static final String USER = System.getProperty("mangaworldo.db.user", "root");
+    private static final String PASSWORD = System.getProperty("mangaworldo.db.password", "root");
+
+    // Paramètres du pool de connexions
+    private static final int POOL_MAX_SIZE = 10;                 // connexions simultanées maximum
+    private static final long POOL_MAX_WAIT_MILLIS = 5_000;      // attente maximale d'une connexion libre
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 300_000; // fermeture après 5 min d'inactivité
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000; // alerte si empruntée plus d'1 min
+    // Pile de l'emprunteur affichée avec l'alerte (-Dmangaworldo.db.pool.leaktrace=true, diagnostic seulement)
+    private static final boolean POOL_LEAK_TRACE = Boolean.getBoolean("mangaworldo.db.pool.leaktrace");
+    private static final int STATEMENT_CACHE_SIZE = 64;          // requêtes préparées gardées par connexion
+    // Connexions ouvertes dès le démarrage (-Dmangaworldo.db.pool.warmup=N, 0 = aucune)
+    private static final int POOL_WARM_UP = Integer.getInteger("mangaworldo.db.pool.warmup", 3);
+
+    // Mesures SQL (JMX + résumé périodique ; -Dmangaworldo.metrics.log.seconds=0 pour couper le résumé)
+    private static final SqlMetrics METRICS = new SqlMetrics();
+    private static final long METRICS_LOG_SECONDS = Long.getLong("mangaworldo.metrics.log.seconds", 60);
+
+    // Journal des requêtes lentes (seuil en ms, 0 = désactivé ; paramètres masqués si redact=true)
+    private static final long SLOW_QUERY_MILLIS = Long.getLong("mangaworldo.slowquery.millis", 500);
+    private static final String SLOW_QUERY_FILE = System.getProperty("mangaworldo.slowquery.file", "logs/slow-queries.log");
+    private static final boolean SLOW_QUERY_REDACT = Boolean.getBoolean("mangaworldo.slowquery.redact");
+
+    // Recherche côté serveur (champ de recherche sans index en mémoire) : durée maximale d'une requête
+    public static final int SEARCH_TIMEOUT_SECONDS = Integer.getInteger("mangaworldo.search.timeout.seconds", 5);
 
-    private static Connection connection = null;
+    // Repli pour les pilotes qui ne connaissent pas le mode "ligne par ligne" de MySQL
+    private static final int STREAMING_FETCH_SIZE = 1_000;
+
+    private static volatile ConnectionPool pool = null;
 
     // Constructeur privé pour éviter l'instanciation
     private DBConnection() {}
 
     /**
-     * Retourne la connexion unique à la base de données
+     * Retourne le pool de connexions (créé au premier appel)
      */
-    public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            } catch (SQLException e) {
-                System.err.println("Erreur lors de la connexion à la base de données : " + e.getMessage());
-                throw e;
+    public static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null || p.isClosed()) {
+            synchronized (DBConnection.class) {
+                p = pool;
+                if (p == null || p.isClosed()) {
+                    p = new ConnectionPool(URL, USER, PASSWORD, POOL_MAX_SIZE,
+                            POOL_MAX_WAIT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS,
+                            POOL_LEAK_TRACE, STATEMENT_CACHE_SIZE, METRICS);
+                    pool = p;
+                    METRICS.register();
+                    if (SLOW_QUERY_MILLIS > 0 && METRICS.getSlowQueryLog() == null) {
+                        METRICS.setSlowQueryLog(new SlowQueryLog(SLOW_QUERY_MILLIS, Paths.get(SLOW_QUERY_FILE),
+                                SLOW_QUERY_REDACT, DBConnection::getConnection));
+                    }
+                    METRICS.startLogging(METRICS_LOG_SECONDS);
+                }
             }
         }
-        return connection;
+        return p;
+    }
+
+    /**
+     * Ouvre à l'avance POOL_WARM_UP connexions (démarrage, hors du thread graphique) :
+     * la première requête de l'utilisateur ne paie pas la connexion au serveur.
+     * return nombre de connexions ouvertes
+     */
+    public static int warmUpPool() {
+        return getPool().warmUp(POOL_WARM_UP);
+    }
+
+    /**
+     * Mesures SQL de l'application (durées, erreurs, lignes, attente du pool)
+     */
+    public static SqlMetrics getMetrics() {
+        return METRICS;
+    }
+
+    /**
+     * Emprunte une connexion au pool.
+     * À utiliser avec try-with-resources : close() rend la connexion au pool.
+     */
+    public static Connection getConnection() throws SQLException {
+        try {
+            return getPool().getConnection();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la connexion à la base de données : " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Prépare une requête de lecture en flux (grands volumes)
+     * -------------------------------------------------------
+     * - Curseur en avant seulement, lecture seule.
+     * - fetchSize = Integer.MIN_VALUE : MySQL envoie les lignes une à une au lieu
+     *   de charger tout le résultat en mémoire côté client.
+     * - Autres pilotes : lecture par paquets de STREAMING_FETCH_SIZE lignes.
+     * - Ce statement n'est pas mis en cache (forme à 3 arguments) : une requête
+     *   en flux occupe la connexion jusqu'à la fermeture du ResultSet.
+     */
+    public static PreparedStatement prepareStreaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            ps.setFetchSize(Integer.MIN_VALUE);
+        } catch (SQLException e) {
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+        }
+        return ps;
+    }
+
+    /**
+     * Motif LIKE "commence par" pour une saisie utilisateur : ses caractères % et _
+     * (jokers SQL) et \ (échappement) sont cherchés tels quels.
+     */
+    public static String likePrefix(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 1);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('%').toString();
     }
 
     /**
-     * Ferme la connexion si nécessaire
+     * Indique si l'erreur vient d'une contrainte d'unicité (doublon).
+     * - MySQL : code 1062 (ER_DUP_ENTRY) ou 1586 (ER_DUP_ENTRY_WITH_KEY_NAME)
+     * - Norme SQL (H2, PostgreSQL...) : SQLState 23505
+     * Une clé étrangère invalide (MySQL 1452) a aussi le SQLState 23000 :
+     * c'est pourquoi on teste le code d'erreur et pas seulement la classe d'exception.
+     */
+    public static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == 1062 || e.getErrorCode() == 1586 || "23505".equals(e.getSQLState());
+    }
+
+    /**
+     * Ferme le pool et toutes ses connexions
      */
     public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
-            }
+        ConnectionPool p = pool;
+        if (p != null) {
+            p.shutdown();
         }
     }
 }
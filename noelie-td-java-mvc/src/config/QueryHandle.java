@@ -0,0 +1,57 @@
+package config;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Poignée d'annulation d'une requête en cours
+ * --------------------------------------------
+ * Une requête s'exécute dans un thread de travail ; l'EDT veut pouvoir l'arrêter
+ * (ex: l'utilisateur a retapé dans le champ de recherche : l'ancienne recherche ne sert plus).
+ *
+ * - Le DAO attache son Statement juste avant l'exécution (attach) et le détache après (detach).
+ * - cancel() peut être appelé depuis n'importe quel thread : Statement.cancel() demande au
+ *   serveur MySQL d'interrompre la requête (KILL QUERY), qui échoue alors avec une SQLException.
+ * - Annulée avant même d'avoir commencé : attach() lève tout de suite une SQLException.
+ */
+public final class QueryHandle {
+
+    private Statement statement;
+    private boolean cancelled;
+
+    /**
+     * Enregistre la requête qui va s'exécuter.
+     * throws SQLException si la poignée a déjà été annulée (inutile d'exécuter)
+     */
+    public synchronized void attach(Statement statement) throws SQLException {
+        if (cancelled) throw new SQLException("Requête annulée avant son exécution");
+        this.statement = statement;
+    }
+
+    /**
+     * La requête est terminée : cancel() n'a plus d'effet sur elle.
+     */
+    public synchronized void detach() {
+        statement = null;
+    }
+
+    /**
+     * Annule la requête en cours (ou à venir).
+     * Sous le verrou : detach() attend la fin de l'annulation, la connexion ne peut donc pas
+     * être rendue au pool puis réutilisée (et sa requête suivante tuée) pendant ce temps.
+     */
+    public synchronized void cancel() {
+        if (cancelled) return;
+        cancelled = true;
+        if (statement == null) return;
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            System.err.println("Erreur annulation de requête : " + e.getMessage());
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,368 @@
+package config;
+
+import metrics.SlowQueryLog;
+import metrics.SqlMetrics;
+import metrics.StatementStats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classe StatementCache
+ * ----------------------
+ * Cache de PreparedStatement attaché à UNE connexion physique du pool.
+ *
+ * Principe :
+ * - La clé est le texte SQL (les requêtes des DAO sont fixes, seuls les "?" changent).
+ * - Le premier prepareStatement(sql) prépare réellement la requête (miss).
+ * - Les suivants réutilisent la requête déjà préparée (hit) : il ne reste
+ *   qu'à lier les paramètres et exécuter.
+ * - close() sur le PreparedStatement obtenu le rend au cache au lieu de le fermer.
+ * - Taille bornée : la requête la moins récemment utilisée est évincée (LRU).
+ *
+ * Une connexion n'est utilisée que par un seul thread à la fois (emprunt au pool),
+ * le cache n'a donc pas besoin de verrou ; seuls les compteurs sont lus ailleurs.
+ *
+ * Chaque exécution (execute*) est chronométrée et comptée dans SqlMetrics,
+ * ainsi que les lignes lues (ResultSet) ou modifiées. Les paramètres liés (setXxx)
+ * sont gardés pour le journal des requêtes lentes (SlowQueryLog).
+ *
+ * Durée retenue pour le journal des requêtes lentes :
+ * - requête en cache : exécution + lecture du ResultSet, jusqu'au dernier next() ou au close() ;
+ * - requête hors cache (wrapUncached : curseurs lus en flux par RowStream, l'export...) :
+ *   exécution seule. Le curseur reste ouvert pendant que l'appelant traite chaque ligne
+ *   (écriture du fichier d'export, remplissage de l'index de recherche), ce temps-là
+ *   n'est pas celui de la base.
+ */
+final class StatementCache {
+
+    private final int capacity;
+    private final SqlMetrics metrics;
+
+    // accessOrder = true : l'ordre d'itération va du moins récemment utilisé au plus récent
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    StatementCache(int capacity, SqlMetrics metrics) {
+        this.capacity = capacity;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Fabrique d'un PreparedStatement physique (appelée en cas de miss).
+     */
+    interface Preparer {
+        PreparedStatement prepare() throws SQLException;
+    }
+
+    /**
+     * Retourne un PreparedStatement logique pour la clé donnée.
+     * param sql texte de la requête (pour les mesures ; la clé peut contenir davantage)
+     * param logicalConnection connexion renvoyée par getConnection() sur le statement
+     */
+    PreparedStatement prepare(String key, String sql, Connection logicalConnection, Preparer preparer) throws SQLException {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+        } else if (entry != null) {
+            // Même requête déjà ouverte (requêtes imbriquées) : statement jetable, non mis en cache
+            misses.incrementAndGet();
+            StatementStats stats = metrics.statsFor(sql); // avant prepare() : rien à fermer si erreur
+            return wrap(new Entry(key, sql, preparer.prepare(), false, stats), logicalConnection);
+        } else {
+            misses.incrementAndGet();
+            StatementStats stats = metrics.statsFor(sql);
+            entry = new Entry(key, sql, preparer.prepare(), true, stats);
+            if (capacity > 0) {
+                entries.put(key, entry);
+                evictIfNeeded();
+            } else {
+                entry.cached = false;
+            }
+        }
+        entry.inUse = true;
+        return wrap(entry, logicalConnection);
+    }
+
+    /**
+     * Statement préparé hors cache (curseurs spécifiques, lecture en flux...) :
+     * mesuré comme les autres, fermé réellement au close().
+     */
+    PreparedStatement wrapUncached(String sql, PreparedStatement physical, Connection logicalConnection) throws SQLException {
+        StatementStats stats;
+        try {
+            stats = metrics.statsFor(sql);
+        } catch (RuntimeException e) {
+            physical.close(); // le statement ne sera jamais rendu à l'appelant
+            throw e;
+        }
+        Entry entry = new Entry(sql, sql, physical, false, stats);
+        entry.streamed = true;
+        entry.inUse = true;
+        return wrap(entry, logicalConnection);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            evictions.incrementAndGet();
+            eldest.cached = false;
+            if (!eldest.inUse) eldest.closePhysical(); // sinon fermé lors de son close()
+        }
+    }
+
+    /**
+     * Ferme tous les statements (appelé quand la connexion physique est fermée).
+     */
+    void clear() {
+        for (Entry entry : entries.values()) {
+            entry.cached = false;
+            if (!entry.inUse) entry.closePhysical();
+        }
+        entries.clear();
+    }
+
+    long getHits() { return hits.get(); }
+    long getMisses() { return misses.get(); }
+    long getEvictions() { return evictions.get(); }
+
+    private PreparedStatement wrap(Entry entry, Connection logicalConnection) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new LogicalStatement(entry, logicalConnection));
+    }
+
+    /**
+     * Un statement physique et son état dans le cache.
+     */
+    private static final class Entry {
+        final String key;
+        final String sql;
+        final PreparedStatement physical;
+        final StatementStats stats;
+        boolean cached;  // false : fermer réellement au close()
+        boolean inUse;
+        boolean streamed; // hors cache, lu en flux : lenteur jugée sur l'exécution seule
+
+        Entry(String key, String sql, PreparedStatement physical, boolean cached, StatementStats stats) {
+            this.key = key;
+            this.sql = sql;
+            this.physical = physical;
+            this.cached = cached;
+            this.stats = stats;
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la fermeture d'une requête en cache : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Statement logique : délègue au statement physique,
+     * close() le remet à disposition dans le cache.
+     */
+    private final class LogicalStatement implements InvocationHandler {
+        private final Entry entry;
+        private final Connection logicalConnection;
+        private boolean closed;
+        private Object[] parameters; // index 1 = premier "?" (pour le journal des requêtes lentes)
+
+        LogicalStatement(Entry entry, Connection logicalConnection) {
+            this.entry = entry;
+            this.logicalConnection = logicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return entry.physical.toString();
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Requête déjà fermée");
+            if (method.getName().startsWith("execute")) return execute(proxy, method, args);
+            if (args != null && args.length >= 2 && args[0] instanceof Integer && method.getName().startsWith("set")) {
+                remember((Integer) args[0], args[1]); // setString(1, "..."), setInt(2, 42)...
+            } else if ("clearParameters".equals(method.getName())) {
+                parameters = null;
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void remember(int index, Object value) {
+            if (index <= 0) return;
+            if (parameters == null) parameters = new Object[Math.max(8, index + 1)];
+            else if (index >= parameters.length) parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            parameters[index] = value;
+        }
+
+        private Object[] boundParameters() {
+            if (parameters == null) return null;
+            int last = parameters.length - 1;
+            while (last > 0 && parameters[last] == null) last--;
+            return Arrays.copyOf(parameters, last + 1);
+        }
+
+        /**
+         * execute / executeQuery / executeUpdate / executeBatch... chronométrés.
+         */
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                long nanos = System.nanoTime() - start;
+                entry.stats.recordExecution(nanos, true);
+                SlowQueryLog slowLog = metrics.getSlowQueryLog();
+                if (slowLog != null) slowLog.record(entry.sql, boundParameters(), nanos, -1, true);
+                throw e.getCause();
+            }
+            long nanos = System.nanoTime() - start;
+            entry.stats.recordExecution(nanos, false);
+
+            if (result instanceof ResultSet) {
+                // Les lignes lues sont comptées au fil des next() ;
+                // la lenteur est jugée à la fin du parcours (voir le commentaire de la classe)
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new CountingResultSet((ResultSet) result, (PreparedStatement) proxy, entry,
+                                start, nanos, boundParameters(), metrics.getSlowQueryLog()));
+            }
+            long rows = -1;
+            if (result instanceof Integer) rows = (Integer) result;
+            else if (result instanceof Long) rows = (Long) result;
+            else if (result instanceof int[]) {
+                rows = 0;
+                for (int n : (int[]) result) if (n > 0) rows += n;
+            }
+            entry.stats.recordRows(rows);
+            SlowQueryLog slowLog = metrics.getSlowQueryLog();
+            if (slowLog != null) slowLog.record(entry.sql, boundParameters(), nanos, rows, false);
+            return result;
+        }
+
+        private void release() throws SQLException {
+            entry.inUse = false;
+            if (!entry.cached || entry.physical.isClosed()) {
+                discard();
+                return;
+            }
+            try {
+                // Remise à zéro : le prochain emprunteur part d'un statement "neuf"
+                entry.physical.clearParameters();
+                entry.physical.clearBatch();
+                entry.physical.clearWarnings();
+            } catch (SQLException e) {
+                discard(); // statement douteux : on ne le réutilise pas
+            }
+        }
+
+        private void discard() throws SQLException {
+            if (entry.cached && entries.get(entry.key) == entry) entries.remove(entry.key);
+            entry.cached = false;
+            entry.physical.close();
+        }
+    }
+
+    /**
+     * ResultSet qui compte les lignes lues ; le total est ajouté aux mesures
+     * à la fin du parcours ou à la fermeture.
+     */
+    private static final class CountingResultSet implements InvocationHandler {
+        private final ResultSet physical;
+        private final PreparedStatement statement;
+        private final Entry entry;
+        private final long startNanos;
+        private final long executionNanos;
+        private final Object[] parameters;
+        private final SlowQueryLog slowLog;
+        private long rows;
+        private boolean recorded;
+
+        CountingResultSet(ResultSet physical, PreparedStatement statement, Entry entry,
+                          long startNanos, long executionNanos, Object[] parameters, SlowQueryLog slowLog) {
+            this.physical = physical;
+            this.statement = statement;
+            this.entry = entry;
+            this.startNanos = startNanos;
+            this.executionNanos = executionNanos;
+            this.parameters = parameters;
+            this.slowLog = slowLog;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getStatement":
+                    return statement;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    record();
+                    break;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if ("next".equals(method.getName())) {
+                if ((Boolean) result) rows++;
+                else record();
+            }
+            return result;
+        }
+
+        private void record() {
+            if (recorded) return;
+            recorded = true;
+            entry.stats.recordRows(rows);
+            if (slowLog == null) return;
+            long nanos = entry.streamed ? executionNanos : System.nanoTime() - startNanos;
+            slowLog.record(entry.sql, parameters, nanos, rows, false);
+        }
+    }
+}
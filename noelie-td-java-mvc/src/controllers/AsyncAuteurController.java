@@ -0,0 +1,111 @@
+package controllers;
+
+import config.AsyncExecutor;
+import config.QueryHandle;
+import models.Auteur;
+import models.BatchResult;
+import models.ChangeSet;
+import models.DeleteResult;
+import search.SearchResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contrôleur Auteur asynchrone
+ * -----------------------------
+ * Les mêmes opérations que AuteurController, mais chacune renvoie tout de suite un
+ * CompletableFuture : la requête s'exécute en arrière-plan (voir config.AsyncExecutor,
+ * qui limite le nombre de requêtes simultanées).
+ *
+ * Exemple : deux lectures indépendantes lancées en même temps
+ *   CompletableFuture<Integer> nb = auteurController.async().countAuteurs();
+ *   CompletableFuture<List<Auteur>> page = auteurController.async().fetchAuteursPage(0, 50);
+ *   nb.thenCombine(page, (n, auteurs) -> ...);
+ *
+ * Les callbacks (thenAccept...) s'exécutent dans un thread d'arrière-plan :
+ * une vue Swing repasse sur l'EDT avec SwingUtilities.invokeLater.
+ * Les changements sont publiés comme en synchrone (CatalogEvents).
+ */
+public class AsyncAuteurController {
+
+    private final AuteurController controller;
+    private final AsyncExecutor executor;
+
+    /**
+     * param controller contrôleur synchrone qui fait le travail
+     * param executor threads et limite de requêtes simultanées
+     */
+    public AsyncAuteurController(AuteurController controller, AsyncExecutor executor) {
+        this.controller = controller;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<SearchResult<Auteur>> searchAuteurs(String query, int limit) {
+        return executor.supply(() -> controller.searchAuteurs(query, limit));
+    }
+
+    public CompletableFuture<List<Auteur>> fetchAllAuteurs() {
+        return executor.supply(controller::fetchAllAuteurs);
+    }
+
+    public CompletableFuture<List<Auteur>> fetchAuteursPage(int afterId, int limit) {
+        return executor.supply(() -> controller.fetchAuteursPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<Auteur>> fetchAuteursByPrefix(String prefix, int limit, QueryHandle handle) {
+        return executor.supply(() -> controller.fetchAuteursByPrefix(prefix, limit, handle));
+    }
+
+    public CompletableFuture<int[]> fetchAuteurIds(int afterId, int limit) {
+        return executor.supply(() -> controller.fetchAuteurIds(afterId, limit));
+    }
+
+    public CompletableFuture<Integer> countAuteurs() {
+        return executor.supply(controller::countAuteurs);
+    }
+
+    public CompletableFuture<int[]> countAuteursAndMaxId() {
+        return executor.supply(controller::countAuteursAndMaxId);
+    }
+
+    public CompletableFuture<Long> fetchCatalogVersion() {
+        return executor.supply(controller::fetchCatalogVersion);
+    }
+
+    public CompletableFuture<ChangeSet<Auteur>> fetchAuteurChangesSince(long watermark, int limit) {
+        return executor.supply(() -> controller.fetchAuteurChangesSince(watermark, limit));
+    }
+
+    public CompletableFuture<Auteur> createAuteur(String prenom, String nom) {
+        return executor.supply(() -> controller.createAuteur(prenom, nom));
+    }
+
+    public CompletableFuture<List<BatchResult<Auteur>>> createAuteurs(List<Auteur> auteurs) {
+        return executor.supply(() -> controller.createAuteurs(auteurs));
+    }
+
+    public CompletableFuture<List<BatchResult<Auteur>>> createAuteurs(List<Auteur> auteurs, int chunkSize) {
+        return executor.supply(() -> controller.createAuteurs(auteurs, chunkSize));
+    }
+
+    public CompletableFuture<Boolean> modifyAuteur(int id, String prenom, String nom) {
+        return executor.supply(() -> controller.modifyAuteur(id, prenom, nom));
+    }
+
+    public CompletableFuture<Boolean> removeAuteur(int id) {
+        return executor.supply(() -> controller.removeAuteur(id));
+    }
+
+    public CompletableFuture<DeleteResult> removeAuteurs(List<Integer> ids) {
+        return executor.supply(() -> controller.removeAuteurs(ids));
+    }
+
+    public CompletableFuture<DeleteResult> removeAuteurs(List<Integer> ids, int chunkSize) {
+        return executor.supply(() -> controller.removeAuteurs(ids, chunkSize));
+    }
+
+    public CompletableFuture<Auteur> findAuteurById(int id) {
+        return executor.supply(() -> controller.findAuteurById(id));
+    }
+}
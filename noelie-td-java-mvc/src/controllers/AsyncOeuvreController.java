@@ -0,0 +1,99 @@
+package controllers;
+
+import config.AsyncExecutor;
+import config.QueryHandle;
+import models.BatchResult;
+import models.ChangeSet;
+import models.DeleteResult;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+import search.SearchResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contrôleur Oeuvre asynchrone
+ * -----------------------------
+ * Les mêmes opérations que OeuvreController, chacune renvoyant un CompletableFuture
+ * (même fonctionnement que AsyncAuteurController).
+ */
+public class AsyncOeuvreController {
+
+    private final OeuvreController controller;
+    private final AsyncExecutor executor;
+
+    public AsyncOeuvreController(OeuvreController controller, AsyncExecutor executor) {
+        this.controller = controller;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<SearchResult<OeuvreAuteur>> searchOeuvres(String query, int limit) {
+        return executor.supply(() -> controller.searchOeuvres(query, limit));
+    }
+
+    public CompletableFuture<List<Oeuvre>> fetchAllOeuvres() {
+        return executor.supply(controller::fetchAllOeuvres);
+    }
+
+    public CompletableFuture<List<OeuvreAuteur>> fetchAllOeuvresAvecAuteur() {
+        return executor.supply(controller::fetchAllOeuvresAvecAuteur);
+    }
+
+    public CompletableFuture<List<OeuvreAuteur>> fetchOeuvresAvecAuteurPage(int afterId, int limit) {
+        return executor.supply(() -> controller.fetchOeuvresAvecAuteurPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<OeuvreAuteur>> fetchOeuvresAvecAuteurByPrefix(String prefix, int limit,
+                                                                              QueryHandle handle) {
+        return executor.supply(() -> controller.fetchOeuvresAvecAuteurByPrefix(prefix, limit, handle));
+    }
+
+    public CompletableFuture<int[]> fetchOeuvreIds(int afterId, int limit) {
+        return executor.supply(() -> controller.fetchOeuvreIds(afterId, limit));
+    }
+
+    public CompletableFuture<Integer> countOeuvres() {
+        return executor.supply(controller::countOeuvres);
+    }
+
+    public CompletableFuture<int[]> countOeuvresAndMaxId() {
+        return executor.supply(controller::countOeuvresAndMaxId);
+    }
+
+    public CompletableFuture<ChangeSet<Oeuvre>> fetchOeuvreChangesSince(long watermark, int limit) {
+        return executor.supply(() -> controller.fetchOeuvreChangesSince(watermark, limit));
+    }
+
+    public CompletableFuture<Oeuvre> createOeuvre(String nom, int idAuteur) {
+        return executor.supply(() -> controller.createOeuvre(nom, idAuteur));
+    }
+
+    public CompletableFuture<List<BatchResult<Oeuvre>>> createOeuvres(List<Oeuvre> oeuvres) {
+        return executor.supply(() -> controller.createOeuvres(oeuvres));
+    }
+
+    public CompletableFuture<List<BatchResult<Oeuvre>>> createOeuvres(List<Oeuvre> oeuvres, int chunkSize) {
+        return executor.supply(() -> controller.createOeuvres(oeuvres, chunkSize));
+    }
+
+    public CompletableFuture<Boolean> modifyOeuvre(int id, String nom, int idAuteur) {
+        return executor.supply(() -> controller.modifyOeuvre(id, nom, idAuteur));
+    }
+
+    public CompletableFuture<Boolean> removeOeuvre(int id) {
+        return executor.supply(() -> controller.removeOeuvre(id));
+    }
+
+    public CompletableFuture<DeleteResult> removeOeuvres(List<Integer> ids) {
+        return executor.supply(() -> controller.removeOeuvres(ids));
+    }
+
+    public CompletableFuture<DeleteResult> removeOeuvres(List<Integer> ids, int chunkSize) {
+        return executor.supply(() -> controller.removeOeuvres(ids, chunkSize));
+    }
+
+    public CompletableFuture<List<Oeuvre>> fetchOeuvresByAuteur(int idAuteur) {
+        return executor.supply(() -> controller.fetchOeuvresByAuteur(idAuteur));
+    }
+}
@@ -1,6 +1,17 @@
 package controllers;
 
+import config.AsyncExecutor;
+import config.QueryHandle;
 import models.Auteur;
+import models.BatchResult;
+import models.CatalogEvents;
+import models.ChangeSet;
+import models.DeleteResult;
+import repositories.AuteurRepository;
+import repositories.JdbcAuteurRepository;
+import search.CatalogSearch;
+import search.SearchResult;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -13,25 +24,186 @@ import java.util.List;
  *
  * BTS SIO : Séparer la logique de présentation (Vue) et la logique métier (Modèle).
  * Ici les méthodes sont nommées en logique métier (dans le model c'est la logique CRUD)
+ *
+ * Le stockage (MySQL ou mémoire) est un AuteurRepository choisi au démarrage.
+ * Chaque modification réussie est publiée (CatalogEvents) : l'index de recherche et
+ * les fenêtres ouvertes se mettent à jour sans relire la base.
  */
 public class AuteurController {
 
+    // Taille par défaut d'un paquet pour les créations en lot
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final AuteurRepository repository;
+    private final CatalogSearch search; // null : pas de recherche
+    private final CatalogEvents events;
+    private volatile AsyncAuteurController async; // créé au premier appel de async()
+
+    /**
+     * Contrôleur sur la base MySQL
+     */
+    public AuteurController() {
+        this(new JdbcAuteurRepository());
+    }
+
+    /**
+     * param repository stockage des auteurs (JDBC ou mémoire)
+     */
+    public AuteurController(AuteurRepository repository) {
+        this(repository, null, new CatalogEvents());
+    }
+
+    /**
+     * param search index de recherche partagé avec le contrôleur des œuvres (peut être null)
+     * param events diffusion des changements, partagée avec le contrôleur des œuvres
+     */
+    public AuteurController(AuteurRepository repository, CatalogSearch search, CatalogEvents events) {
+        this.repository = repository;
+        this.search = search;
+        this.events = events;
+    }
+
+    /**
+     * Index de recherche (null si l'application a été lancée sans)
+     */
+    public CatalogSearch getSearch() {
+        return search;
+    }
+
+    /**
+     * Changements publiés après chaque création, modification ou suppression réussie
+     */
+    public CatalogEvents getEvents() {
+        return events;
+    }
+
+    /**
+     * Les mêmes opérations en asynchrone (CompletableFuture), sur l'exécuteur commun
+     */
+    public AsyncAuteurController async() {
+        AsyncAuteurController a = async;
+        if (a == null) {
+            a = new AsyncAuteurController(this, AsyncExecutor.shared());
+            async = a; // deux créations simultanées sont sans conséquence
+        }
+        return a;
+    }
+
+    /**
+     * Rechercher des auteurs par prénom / nom, sans requête SQL
+     * param query mots recherchés (sans casse ni accents)
+     * return au plus limit auteurs triés par id, ou null si la recherche n'est pas disponible
+     */
+    public SearchResult<Auteur> searchAuteurs(String query, int limit) {
+        if (search == null || !search.isReady()) return null;
+        return search.searchAuteurs(query, limit);
+    }
+
     /**
      * Récupérer tous les auteurs
      * return liste des auteurs
      */
     public List<Auteur> fetchAllAuteurs() {
-        return Auteur.getAllAuteurs();
+        return repository.findAll();
+    }
+
+    /**
+     * Récupérer une page d'auteurs (pagination par clé primaire)
+     * param afterId dernier id déjà affiché (0 pour la première page)
+     * param limit nombre maximum d'auteurs
+     * return auteurs triés par id
+     */
+    public List<Auteur> fetchAuteursPage(int afterId, int limit) {
+        return repository.findPage(afterId, limit);
+    }
+
+    /**
+     * Rechercher en base les auteurs dont le nom ou le prénom commence par prefix
+     * (champ de recherche quand il n'y a pas d'index en mémoire)
+     * param handle permet à la vue d'annuler la requête (nouvelle saisie)
+     * return au plus limit auteurs triés par nom
+     */
+    public List<Auteur> fetchAuteursByPrefix(String prefix, int limit, QueryHandle handle) {
+        return repository.findByPrefix(prefix, limit, handle);
+    }
+
+    /**
+     * Récupérer seulement les identifiants qui suivent afterId (triés)
+     */
+    public int[] fetchAuteurIds(int afterId, int limit) {
+        return repository.findIds(afterId, limit);
+    }
+
+    /**
+     * Nombre total d'auteurs
+     */
+    public int countAuteurs() {
+        return repository.count();
+    }
+
+    /**
+     * Nombre total d'auteurs et plus grand id, lus au même instant
+     * return {nombre, plus grand id}
+     */
+    public int[] countAuteursAndMaxId() {
+        return repository.countAndMaxId();
+    }
+
+    /**
+     * Version actuelle du catalogue : repère de départ de la synchronisation
+     * return -1 si elle n'est pas disponible (base sans versions de lignes)
+     */
+    public long fetchCatalogVersion() {
+        return repository.currentVersion();
+    }
+
+    /**
+     * Récupérer les changements faits depuis un repère, par ce poste ou par d'autres
+     * (ajouts, modifications, suppressions). Ils sont publiés comme ceux faits ici :
+     * l'index de recherche et les fenêtres ouvertes se mettent à jour.
+     * param watermark repère renvoyé par l'appel précédent (ou fetchCatalogVersion)
+     * param limit nombre maximum de lignes changées
+     * return les changements (avec le nouveau repère), ou null en cas d'erreur
+     */
+    public ChangeSet<Auteur> fetchAuteurChangesSince(long watermark, int limit) {
+        ChangeSet<Auteur> changes = repository.findChangesSince(watermark, limit);
+        if (changes == null) return null;
+        for (Auteur a : changes.getCreated()) events.auteurCreated(a);
+        for (Auteur a : changes.getUpdated()) events.auteurUpdated(a);
+        events.auteursDeleted(Arrays.stream(changes.getDeletedIds()).boxed().toList()); // un seul événement pour toutes les suppressions
+        return changes;
     }
 
     /**
      * Ajouter un auteur
      * param prenom prénom de l'auteur
      * param nom nom de l'auteur
-     * return true si ajout réussi, false sinon
+     * return l'auteur créé (avec son id) si ajout réussi, null sinon (doublon ou erreur)
+     */
+    public Auteur createAuteur(String prenom, String nom) {
+        Auteur cree = repository.add(prenom, nom);
+        if (cree != null) events.auteurCreated(cree);
+        return cree;
+    }
+
+    /**
+     * Créer plusieurs auteurs en une fois (import, saisie en masse)
+     * param auteurs auteurs à créer (prénom et nom renseignés)
+     * return un résultat par auteur : inséré (avec son id), doublon ou échec
+     */
+    public List<BatchResult<Auteur>> createAuteurs(List<Auteur> auteurs) {
+        return createAuteurs(auteurs, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * param chunkSize nombre d'auteurs envoyés par transaction
      */
-    public boolean createAuteur(String prenom, String nom) {
-        return Auteur.addAuteur(prenom, nom);
+    public List<BatchResult<Auteur>> createAuteurs(List<Auteur> auteurs, int chunkSize) {
+        List<BatchResult<Auteur>> results = repository.addAll(auteurs, chunkSize);
+        for (BatchResult<Auteur> r : results) {
+            if (r.isInserted()) events.auteurCreated(r.getItem());
+        }
+        return results;
     }
 
     /**
@@ -42,7 +214,15 @@ public class AuteurController {
      * return true si modification réussie, false sinon
      */
     public boolean modifyAuteur(int id, String prenom, String nom) {
-        return Auteur.updateAuteur(id, prenom, nom);
+        boolean success = repository.update(id, prenom, nom);
+        if (success) {
+            Auteur modifie = new Auteur();
+            modifie.setIdAuteur(id);
+            modifie.setPrenomAuteur(prenom);
+            modifie.setNomAuteur(nom);
+            events.auteurUpdated(modifie);
+        }
+        return success;
     }
 
     /**
@@ -51,7 +231,27 @@ public class AuteurController {
      * return true si suppression réussie, false sinon
      */
     public boolean removeAuteur(int id) {
-        return Auteur.deleteAuteur(id);
+        boolean success = repository.delete(id);
+        if (success) events.auteurDeleted(id);
+        return success;
+    }
+
+    /**
+     * Supprimer plusieurs auteurs en une fois (sélection multiple, nettoyage)
+     * param ids identifiants des auteurs
+     * return auteurs supprimés, et auteurs bloqués car encore liés à des œuvres
+     */
+    public DeleteResult removeAuteurs(List<Integer> ids) {
+        return removeAuteurs(ids, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * param chunkSize nombre d'auteurs supprimés par instruction (et par transaction)
+     */
+    public DeleteResult removeAuteurs(List<Integer> ids, int chunkSize) {
+        DeleteResult result = repository.deleteAll(ids, chunkSize);
+        events.auteursDeleted(result.getDeletedIds()); // un seul événement pour tout le lot
+        return result;
     }
 
     /**
@@ -60,7 +260,7 @@ public class AuteurController {
      * return Auteur correspondant ou null si inexistant
      */
     public Auteur findAuteurById(int id) {
-        return Auteur.getAuteurById(id);
+        return repository.findById(id);
     }
 }
 
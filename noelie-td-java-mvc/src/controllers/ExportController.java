@@ -0,0 +1,33 @@
+package controllers;
+
+import export.CatalogExporter;
+import export.CatalogExporter.Dataset;
+import export.CatalogExporter.Format;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Contrôleur Export
+ * ----------------------
+ * Rôle :
+ * 1. Faire le lien entre la vue (bouton "Exporter") et l'export du catalogue.
+ * 2. L'export est long : la vue doit l'appeler hors de l'EDT (SwingWorker).
+ */
+public class ExportController {
+
+    /**
+     * Exporter un jeu de données dans un fichier
+     * param dataset auteurs, œuvres ou œuvres avec auteur
+     * param format CSV ou JSON
+     * param target fichier de destination (remplacé s'il existe)
+     * param listener progression en lignes et lignes/seconde (peut être null)
+     * return le bilan de l'export (nombre de lignes, durée, débit)
+     */
+    public CatalogExporter.Report exportCatalog(Dataset dataset, Format format, Path target,
+                                                CatalogExporter.ProgressListener listener)
+            throws SQLException, IOException {
+        return CatalogExporter.export(dataset, format, target, listener);
+    }
+}
@@ -1,6 +1,18 @@
 package controllers;
 
+import config.AsyncExecutor;
+import config.QueryHandle;
+import models.BatchResult;
+import models.CatalogEvents;
+import models.ChangeSet;
+import models.DeleteResult;
 import models.Oeuvre;
+import models.OeuvreAuteur;
+import repositories.JdbcOeuvreRepository;
+import repositories.OeuvreRepository;
+import search.CatalogSearch;
+import search.SearchResult;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -12,25 +24,182 @@ import java.util.List;
  * 3. Appelle les méthodes du modèle et retourne les résultats à la vue.
  *
  * BTS SIO : Séparer la logique de présentation (Vue) et la logique métier (Modèle).
+ *
+ * Le stockage (MySQL ou mémoire) est un OeuvreRepository choisi au démarrage.
+ * Chaque modification réussie est publiée (CatalogEvents) : l'index de recherche et
+ * les fenêtres ouvertes se mettent à jour sans relire la base.
  */
 public class OeuvreController {
 
+    // Taille par défaut d'un paquet pour les créations en lot
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final OeuvreRepository repository;
+    private final CatalogSearch search; // null : pas de recherche
+    private final CatalogEvents events;
+    private volatile AsyncOeuvreController async; // créé au premier appel de async()
+
+    /**
+     * Contrôleur sur la base MySQL
+     */
+    public OeuvreController() {
+        this(new JdbcOeuvreRepository());
+    }
+
+    /**
+     * param repository stockage des œuvres (JDBC ou mémoire)
+     */
+    public OeuvreController(OeuvreRepository repository) {
+        this(repository, null, new CatalogEvents());
+    }
+
+    /**
+     * param search index de recherche partagé avec le contrôleur des auteurs (peut être null)
+     * param events diffusion des changements, partagée avec le contrôleur des auteurs
+     */
+    public OeuvreController(OeuvreRepository repository, CatalogSearch search, CatalogEvents events) {
+        this.repository = repository;
+        this.search = search;
+        this.events = events;
+    }
+
+    /**
+     * Index de recherche (null si l'application a été lancée sans)
+     */
+    public CatalogSearch getSearch() {
+        return search;
+    }
+
+    /**
+     * Changements publiés après chaque création, modification ou suppression réussie
+     */
+    public CatalogEvents getEvents() {
+        return events;
+    }
+
+    /**
+     * Les mêmes opérations en asynchrone (CompletableFuture), sur l'exécuteur commun
+     */
+    public AsyncOeuvreController async() {
+        AsyncOeuvreController a = async;
+        if (a == null) {
+            a = new AsyncOeuvreController(this, AsyncExecutor.shared());
+            async = a; // deux créations simultanées sont sans conséquence
+        }
+        return a;
+    }
+
+    /**
+     * Rechercher des œuvres par titre ou nom d'auteur, sans requête SQL
+     * return au plus limit lignes triées par id, ou null si la recherche n'est pas disponible
+     */
+    public SearchResult<OeuvreAuteur> searchOeuvres(String query, int limit) {
+        if (search == null || !search.isReady()) return null;
+        return search.searchOeuvres(query, limit);
+    }
+
     /**
      * Récupérer toutes les œuvres
      * return Liste d'objets Oeuvre
      */
     public List<Oeuvre> fetchAllOeuvres() {
-        return Oeuvre.getAllOeuvres();
+        return repository.findAll();
+    }
+
+    /**
+     * Récupérer toutes les œuvres avec le nom de leur auteur (une seule requête)
+     * return Liste de lignes OeuvreAuteur
+     */
+    public List<OeuvreAuteur> fetchAllOeuvresAvecAuteur() {
+        return repository.findAllAvecAuteur();
+    }
+
+    /**
+     * Récupérer une page d'œuvres avec leur auteur (pagination par clé primaire)
+     * param afterId dernier id déjà affiché (0 pour la première page)
+     * param limit nombre maximum de lignes
+     * return lignes triées par id d'œuvre
+     */
+    public List<OeuvreAuteur> fetchOeuvresAvecAuteurPage(int afterId, int limit) {
+        return repository.findAvecAuteurPage(afterId, limit);
+    }
+
+    /**
+     * Rechercher en base les œuvres dont le titre commence par prefix, avec leur auteur
+     * (champ de recherche quand il n'y a pas d'index en mémoire)
+     * param handle permet à la vue d'annuler la requête (nouvelle saisie)
+     * return au plus limit lignes triées par titre
+     */
+    public List<OeuvreAuteur> fetchOeuvresAvecAuteurByPrefix(String prefix, int limit, QueryHandle handle) {
+        return repository.findAvecAuteurByPrefix(prefix, limit, handle);
+    }
+
+    /**
+     * Récupérer seulement les identifiants d'œuvres qui suivent afterId (triés)
+     */
+    public int[] fetchOeuvreIds(int afterId, int limit) {
+        return repository.findIds(afterId, limit);
+    }
+
+    /**
+     * Nombre total d'œuvres
+     */
+    public int countOeuvres() {
+        return repository.count();
+    }
+
+    /**
+     * Nombre total d'œuvres et plus grand id, lus au même instant
+     * return {nombre, plus grand id}
+     */
+    public int[] countOeuvresAndMaxId() {
+        return repository.countAndMaxId();
+    }
+
+    /**
+     * Récupérer les changements d'œuvres faits depuis un repère, par ce poste ou par d'autres.
+     * Ils sont publiés comme ceux faits ici (index de recherche, fenêtres ouvertes).
+     * return les changements (avec le nouveau repère), ou null en cas d'erreur
+     */
+    public ChangeSet<Oeuvre> fetchOeuvreChangesSince(long watermark, int limit) {
+        ChangeSet<Oeuvre> changes = repository.findChangesSince(watermark, limit);
+        if (changes == null) return null;
+        for (Oeuvre o : changes.getCreated()) events.oeuvreCreated(o);
+        for (Oeuvre o : changes.getUpdated()) events.oeuvreUpdated(o);
+        events.oeuvresDeleted(Arrays.stream(changes.getDeletedIds()).boxed().toList()); // un seul événement
+        return changes;
     }
 
     /**
      * Ajouter une œuvre
      * param nom nom de l'œuvre
      * param idAuteur identifiant de l'auteur
-     * return true si l'ajout a réussi, false si doublon ou erreur
+     * return l'œuvre créée (avec son id) si l'ajout a réussi, null si doublon ou erreur
+     */
+    public Oeuvre createOeuvre(String nom, int idAuteur) {
+        Oeuvre creee = repository.add(nom, idAuteur);
+        if (creee != null) events.oeuvreCreated(creee);
+        return creee;
+    }
+
+    /**
+     * Créer plusieurs œuvres en une fois
+     * param oeuvres œuvres à créer (nom et idAuteur renseignés)
+     * return un résultat par œuvre : insérée (avec son id), doublon ou échec
+     */
+    public List<BatchResult<Oeuvre>> createOeuvres(List<Oeuvre> oeuvres) {
+        return createOeuvres(oeuvres, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * param chunkSize nombre d'œuvres envoyées par transaction
      */
-    public boolean createOeuvre(String nom, int idAuteur) {
-        return Oeuvre.addOeuvre(nom, idAuteur);
+    public List<BatchResult<Oeuvre>> createOeuvres(List<Oeuvre> oeuvres, int chunkSize) {
+        List<BatchResult<Oeuvre>> results = repository.addAll(oeuvres, chunkSize);
+        for (BatchResult<Oeuvre> r : results) {
+            if (r.isInserted()) events.oeuvreCreated(r.getItem());
+        }
+        return results;
     }
 
     /**
@@ -41,7 +210,15 @@ public class OeuvreController {
      * return true si la modification a réussi, false si doublon ou erreur
      */
    public boolean modifyOeuvre(int id, String nom, int idAuteur) {
-    return Oeuvre.updateOeuvre(id, idAuteur, nom);
+    boolean success = repository.update(id, nom, idAuteur);
+    if (success) {
+        Oeuvre modifiee = new Oeuvre();
+        modifiee.setIdOeuvre(id);
+        modifiee.setNomOeuvre(nom);
+        modifiee.setIdAuteur(idAuteur);
+        events.oeuvreUpdated(modifiee);
+    }
+    return success;
 }
 
     /**
@@ -50,7 +227,36 @@ public class OeuvreController {
      * return true si la suppression a réussi, false si erreur
      */
     public boolean removeOeuvre(int id) {
-        return Oeuvre.deleteOeuvre(id);
+        boolean success = repository.delete(id);
+        if (success) events.oeuvreDeleted(id);
+        return success;
+    }
+
+    /**
+     * Supprimer plusieurs œuvres en une fois (sélection multiple, nettoyage)
+     * param ids identifiants des œuvres
+     * return œuvres supprimées (et non traitées en cas d'erreur)
+     */
+    public DeleteResult removeOeuvres(List<Integer> ids) {
+        return removeOeuvres(ids, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * param chunkSize nombre d'œuvres supprimées par instruction (et par transaction)
+     */
+    public DeleteResult removeOeuvres(List<Integer> ids, int chunkSize) {
+        DeleteResult result = repository.deleteAll(ids, chunkSize);
+        events.oeuvresDeleted(result.getDeletedIds()); // un seul événement pour tout le lot
+        return result;
+    }
+
+    /**
+     * Récupérer les œuvres d'un auteur
+     * param idAuteur identifiant de l'auteur
+     * return œuvres triées par id (liste vide si aucune)
+     */
+    public List<Oeuvre> fetchOeuvresByAuteur(int idAuteur) {
+        return repository.findByAuteur(idAuteur);
     }
 }
 
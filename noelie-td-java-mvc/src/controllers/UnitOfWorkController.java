@@ -0,0 +1,56 @@
+package controllers;
+
+import models.Auteur;
+import models.CatalogEvents;
+import models.CommitResult;
+import models.Oeuvre;
+import models.UnitOfWork;
+import repositories.JdbcUnitOfWorkRepository;
+import repositories.UnitOfWorkRepository;
+
+import java.util.List;
+
+/**
+ * Contrôleur de l'unité de travail
+ * ---------------------------------
+ * Enregistre en une fois les modifications notées en mode brouillon (voir models.UnitOfWork).
+ * Après un enregistrement réussi, chaque ligne est publiée (CatalogEvents) comme si elle
+ * avait été modifiée seule : index de recherche et fenêtres ouvertes se mettent à jour.
+ * En cas d'échec, rien n'est publié (rien n'a été enregistré).
+ */
+public class UnitOfWorkController {
+
+    private final UnitOfWorkRepository repository;
+    private final CatalogEvents events;
+
+    /**
+     * Contrôleur sur la base MySQL
+     * param events diffusion des changements, partagée avec les autres contrôleurs
+     */
+    public UnitOfWorkController(CatalogEvents events) {
+        this(new JdbcUnitOfWorkRepository(), events);
+    }
+
+    public UnitOfWorkController(UnitOfWorkRepository repository, CatalogEvents events) {
+        this.repository = repository;
+        this.events = events;
+    }
+
+    /**
+     * Enregistrer toutes les modifications en attente, ou aucune
+     * param work modifications à enregistrer (pas vidée : à l'appelant de le faire si succès)
+     * return résultat : lignes enregistrées avec leurs vrais id, ou message d'erreur
+     */
+    public CommitResult commit(UnitOfWork work) {
+        if (work.isEmpty()) return CommitResult.success(List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+        CommitResult result = repository.commit(work);
+        if (!result.isSuccess()) return result;
+        for (Auteur a : result.getCreatedAuteurs()) events.auteurCreated(a);
+        for (Auteur a : result.getUpdatedAuteurs()) events.auteurUpdated(a);
+        for (Oeuvre o : result.getCreatedOeuvres()) events.oeuvreCreated(o);
+        for (Oeuvre o : result.getUpdatedOeuvres()) events.oeuvreUpdated(o);
+        for (int id : result.getDeletedOeuvreIds()) events.oeuvreDeleted(id);
+        for (int id : result.getDeletedAuteurIds()) events.auteurDeleted(id);
+        return result;
+    }
+}
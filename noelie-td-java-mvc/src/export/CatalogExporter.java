@@ -0,0 +1,318 @@
+package export;
+
+import config.DBConnection;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Export du catalogue en CSV ou JSON
+ * -----------------------------------
+ * Objectif : exporter des tables de n'importe quelle taille avec une mémoire constante.
+ *
+ * Principe :
+ * 1. La requête est lue en flux (DBConnection.prepareStreaming) : une ligne à la fois,
+ *    jamais de List<Auteur> de plusieurs millions d'éléments.
+ * 2. Chaque ligne est écrite immédiatement dans un BufferedWriter, puis oubliée.
+ * 3. Le fichier est d'abord écrit en ".part" puis renommé : un export interrompu
+ *    ne laisse jamais un fichier incomplet sous le nom demandé.
+ * 4. La progression (lignes, lignes/seconde) est signalée régulièrement.
+ *
+ * Les colonnes sont lues dans les métadonnées du ResultSet : le même code sert
+ * pour les auteurs, les œuvres et la jointure œuvre + auteur.
+ */
+public final class CatalogExporter {
+
+    /**
+     * Données exportables.
+     */
+    public enum Dataset {
+        AUTEURS("Auteurs",
+                "SELECT id_auteur, prenom_auteur, nom_auteur FROM auteur ORDER BY id_auteur"),
+        OEUVRES("Œuvres",
+                "SELECT id_oeuvre, nom_oeuvre, id_auteur FROM oeuvre ORDER BY id_oeuvre"),
+        OEUVRES_AVEC_AUTEUR("Œuvres avec leur auteur",
+                "SELECT o.id_oeuvre, o.nom_oeuvre, a.id_auteur, a.prenom_auteur, a.nom_auteur " +
+                "FROM oeuvre o JOIN auteur a ON o.id_auteur = a.id_auteur ORDER BY o.id_oeuvre");
+
+        private final String label;
+        private final String sql;
+
+        Dataset(String label, String sql) {
+            this.label = label;
+            this.sql = sql;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum Format {
+        CSV("csv"), JSON("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Suivi de progression (appelé depuis le thread d'export).
+     */
+    public interface ProgressListener {
+        void progress(long rows, double rowsPerSecond);
+    }
+
+    /**
+     * Bilan d'un export terminé.
+     */
+    public static final class Report {
+        private final long rows;
+        private final long elapsedNanos;
+
+        Report(long rows, long elapsedNanos) {
+            this.rows = rows;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() { return rows; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond(rows, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d lignes en %d ms (%.0f lignes/s)", rows, getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+
+    // Fréquence des rappels de progression (en lignes et en temps)
+    private static final int PROGRESS_EVERY_ROWS = 10_000;
+    private static final long PROGRESS_EVERY_NANOS = 500_000_000L;
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private CatalogExporter() {}
+
+    /**
+     * Exporte un jeu de données dans un fichier.
+     * param listener peut être null
+     * Si le thread est interrompu, l'export s'arrête (InterruptedIOException) et le fichier n'est pas créé.
+     */
+    public static Report export(Dataset dataset, Format format, Path target, ProgressListener listener)
+            throws SQLException, IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long start = System.nanoTime();
+        long rows;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = DBConnection.prepareStreaming(conn, dataset.sql);
+             ResultSet rs = ps.executeQuery();
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(Files.newOutputStream(partial), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS)) {
+
+            RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new JsonWriter(out);
+            rows = write(rs, writer, start, listener);
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        long elapsed = System.nanoTime() - start;
+        if (listener != null) listener.progress(rows, rowsPerSecond(rows, elapsed));
+        return new Report(rows, elapsed);
+    }
+
+    private static long write(ResultSet rs, RowWriter writer, long start, ProgressListener listener)
+            throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] names = new String[columns];
+        boolean[] numeric = new boolean[columns];
+        for (int c = 0; c < columns; c++) {
+            names[c] = meta.getColumnLabel(c + 1).toLowerCase();
+            numeric[c] = isNumeric(meta.getColumnType(c + 1));
+        }
+
+        writer.begin(names);
+        long rows = 0;
+        long lastReport = start;
+        while (rs.next()) {
+            writer.row(rs, names, numeric);
+            rows++;
+            if (rows % PROGRESS_EVERY_ROWS == 0) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Export annulé");
+                long now = System.nanoTime();
+                if (listener != null && now - lastReport >= PROGRESS_EVERY_NANOS) {
+                    listener.progress(rows, rowsPerSecond(rows, now - start));
+                    lastReport = now;
+                }
+            }
+        }
+        writer.end();
+        return rows;
+    }
+
+    private static double rowsPerSecond(long rows, long nanos) {
+        return nanos > 0 ? rows * 1e9 / nanos : 0;
+    }
+
+    private static boolean isNumeric(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Écriture d'un format : en-tête, une ligne à la fois, fin.
+     */
+    private interface RowWriter {
+        void begin(String[] names) throws IOException;
+        void row(ResultSet rs, String[] names, boolean[] numeric) throws SQLException, IOException;
+        void end() throws IOException;
+    }
+
+    /**
+     * CSV (RFC 4180) : séparateur ";" pour s'ouvrir directement dans un tableur français.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private static final char SEPARATOR = ';';
+        private final Writer out;
+
+        CsvWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(String[] names) throws IOException {
+            out.write('\uFEFF'); // BOM : accents reconnus par Excel
+            for (int c = 0; c < names.length; c++) {
+                if (c > 0) out.write(SEPARATOR);
+                field(names[c]);
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs, String[] names, boolean[] numeric) throws SQLException, IOException {
+            for (int c = 0; c < names.length; c++) {
+                if (c > 0) out.write(SEPARATOR);
+                String value = rs.getString(c + 1);
+                if (value != null) field(value);
+            }
+            out.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char ch = value.charAt(i);
+                quote = ch == SEPARATOR || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                if (ch == '"') out.write('"'); // guillemet doublé
+                out.write(ch);
+            }
+            out.write('"');
+        }
+
+        @Override
+        public void end() {
+        }
+    }
+
+    /**
+     * JSON : un tableau d'objets, une ligne par objet.
+     */
+    private static final class JsonWriter implements RowWriter {
+        private final Writer out;
+        private boolean first = true;
+
+        JsonWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(String[] names) throws IOException {
+            out.write('[');
+        }
+
+        @Override
+        public void row(ResultSet rs, String[] names, boolean[] numeric) throws SQLException, IOException {
+            out.write(first ? "\n  {" : ",\n  {");
+            first = false;
+            for (int c = 0; c < names.length; c++) {
+                if (c > 0) out.write(", ");
+                string(names[c]);
+                out.write(": ");
+                String value = rs.getString(c + 1);
+                if (value == null) out.write("null");
+                else if (numeric[c]) out.write(value);
+                else string(value);
+            }
+            out.write('}');
+        }
+
+        private void string(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                switch (ch) {
+                    case '"': out.write("\\\""); break;
+                    case '\\': out.write("\\\\"); break;
+                    case '\n': out.write("\\n"); break;
+                    case '\r': out.write("\\r"); break;
+                    case '\t': out.write("\\t"); break;
+                    default:
+                        if (ch < 0x20) out.write(String.format("\\u%04x", (int) ch));
+                        else out.write(ch);
+                }
+            }
+            out.write('"');
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.write(first ? "]\n" : "\n]\n");
+        }
+    }
+}
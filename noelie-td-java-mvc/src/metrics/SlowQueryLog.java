@@ -0,0 +1,218 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal des requêtes lentes
+ * ----------------------------
+ * Toute exécution plus longue que le seuil est écrite dans un fichier avec :
+ * - la requête, ses paramètres (masquables), la durée et le nombre de lignes ;
+ * - la méthode de contrôleur (et du modèle) qui l'a lancée ;
+ * - le plan d'exécution (EXPLAIN) de la base : un "type = ALL" sur une grosse
+ *   table révèle par exemple un index manquant.
+ *
+ * Rien n'est fait dans le thread de la requête à part copier les informations :
+ * EXPLAIN et écriture du fichier ont lieu dans un thread d'arrière-plan.
+ * EXPLAIN n'est relancé pour une même forme de requête qu'après EXPLAIN_INTERVAL_MILLIS.
+ */
+public final class SlowQueryLog {
+
+    /**
+     * Fournit une connexion pour EXPLAIN (en pratique DBConnection::getConnection).
+     */
+    public interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+
+    private static final long EXPLAIN_INTERVAL_MILLIS = 10 * 60_000; // un plan par forme toutes les 10 min
+    private static final int QUEUE_CAPACITY = 200;                    // au-delà, les entrées sont abandonnées
+    private static final int MAX_PARAM_LENGTH = 100;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final long thresholdNanos;
+    private final Path file;
+    private final boolean redactParameters;
+    private final ConnectionSource connections;
+
+    private final ThreadPoolExecutor worker;
+    private final Map<String, Long> lastExplainMillis = new ConcurrentHashMap<>();
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * param thresholdMillis durée à partir de laquelle une requête est "lente"
+     * param file fichier du journal (ajout en fin de fichier)
+     * param redactParameters true : les valeurs des paramètres sont masquées (seul leur type apparaît)
+     */
+    public SlowQueryLog(long thresholdMillis, Path file, boolean redactParameters, ConnectionSource connections) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file;
+        this.redactParameters = redactParameters;
+        this.connections = connections;
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "slow-query-log");
+                    t.setDaemon(true);
+                    return t;
+                }, (r, executor) -> dropped.increment());
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    public long getLoggedCount() {
+        return logged.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Signale une exécution terminée ; ne fait rien si elle est sous le seuil.
+     * Appelé dans le thread de la requête : le contrôleur appelant est encore dans la pile.
+     * param parameters valeurs liées aux "?" (index 1 = case 1), peut être null
+     * param nanos durée mesurée par StatementCache : lecture du ResultSet comprise,
+     *             sauf pour un curseur lu en flux (exécution seule)
+     * param rows lignes lues ou modifiées (-1 si inconnu)
+     */
+    public void record(String sql, Object[] parameters, long nanos, long rows, boolean failed) {
+        if (nanos < thresholdNanos || sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) return;
+
+        String when = LocalDateTime.now().format(DATE);
+        String caller = findCaller();
+        Object[] params = parameters != null ? parameters.clone() : new Object[0];
+        worker.execute(() -> write(when, sql, params, nanos, rows, failed, caller));
+    }
+
+    /**
+     * Premier contrôleur (et premier modèle) de la pile d'appels.
+     */
+    private static String findCaller() {
+        return StackWalker.getInstance().walk(frames -> {
+            String model = null;
+            for (StackWalker.StackFrame f : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String cls = f.getClassName();
+                if (model == null && cls.startsWith("models.")) {
+                    model = simpleName(cls) + "." + f.getMethodName();
+                } else if (cls.startsWith("controllers.")) {
+                    String controller = simpleName(cls) + "." + f.getMethodName();
+                    return model != null ? controller + " (" + model + ")" : controller;
+                }
+            }
+            return model != null ? model : "appelant inconnu";
+        });
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // ----- Thread d'arrière-plan -----
+
+    private void write(String when, String sql, Object[] params, long nanos, long rows, boolean failed, String caller) {
+        StringBuilder entry = new StringBuilder();
+        entry.append("=== ").append(when)
+                .append(String.format(Locale.ROOT, " | %.1f ms", nanos / 1_000_000.0))
+                .append(" | ").append(rows >= 0 ? rows + " lignes" : "lignes inconnues")
+                .append(failed ? " | ERREUR" : "")
+                .append(" | ").append(caller).append(System.lineSeparator());
+        entry.append("SQL : ").append(sql).append(System.lineSeparator());
+        entry.append("Paramètres : ").append(formatParameters(params)).append(System.lineSeparator());
+        entry.append(explain(sql, params)).append(System.lineSeparator());
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(entry.toString());
+            }
+            logged.increment();
+        } catch (IOException e) {
+            System.err.println("Erreur écriture du journal des requêtes lentes : " + e.getMessage());
+        }
+    }
+
+    private String formatParameters(Object[] params) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i < params.length; i++) {
+            if (i > 1) sb.append(", ");
+            Object value = params[i];
+            if (value == null) sb.append("NULL");
+            else if (redactParameters) sb.append('<').append(value.getClass().getSimpleName()).append('>');
+            else if (value instanceof Number || value instanceof Boolean) sb.append(value);
+            else if (value instanceof CharSequence) {
+                String text = value.toString();
+                if (text.length() > MAX_PARAM_LENGTH) text = text.substring(0, MAX_PARAM_LENGTH) + "...";
+                sb.append('\'').append(text.replace("'", "''")).append('\'');
+            } else sb.append('<').append(value.getClass().getSimpleName()).append('>');
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * EXPLAIN avec les mêmes paramètres, au plus une fois par forme de requête et par intervalle.
+     */
+    private String explain(String sql, Object[] params) {
+        String shape = SqlMetrics.shapeOf(sql);
+        long now = System.currentTimeMillis();
+        Long last = lastExplainMillis.get(shape);
+        if (last != null && now - last < EXPLAIN_INTERVAL_MILLIS) {
+            return "EXPLAIN : déjà capturé pour cette requête il y a " + (now - last) / 1000 + " s";
+        }
+        lastExplainMillis.put(shape, now);
+
+        StringBuilder sb = new StringBuilder("EXPLAIN :");
+        try (Connection conn = connections.getConnection();
+             PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i < params.length; i++) ps.setObject(i, params[i]);
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                sb.append(System.lineSeparator()).append("  ");
+                for (int c = 1; c <= columns; c++) {
+                    if (c > 1) sb.append(" | ");
+                    sb.append(meta.getColumnLabel(c));
+                }
+                while (rs.next()) {
+                    sb.append(System.lineSeparator()).append("  ");
+                    for (int c = 1; c <= columns; c++) {
+                        if (c > 1) sb.append(" | ");
+                        sb.append(rs.getString(c));
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            sb.append(" impossible (").append(e.getMessage()).append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Arrête le thread d'arrière-plan (les entrées en attente sont écrites).
+     */
+    public void shutdown() {
+        worker.shutdown();
+    }
+}
@@ -0,0 +1,208 @@
+package metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Mesures SQL de l'application
+ * -----------------------------
+ * Alimentées par le pool de connexions (config.ConnectionPool / StatementCache) :
+ * - pour chaque forme de requête : appels, erreurs, lignes, histogramme des durées ;
+ * - pour le pool : nombre d'emprunts, échecs, temps d'attente d'une connexion.
+ *
+ * Publication :
+ * 1. JMX (register) : JConsole / VisualVM → mangaworldo:type=SqlMetrics
+ * 2. Journal périodique (startLogging) : les requêtes les plus coûteuses sur la sortie standard
+ *
+ * Coût : deux System.nanoTime() et quelques compteurs atomiques par exécution,
+ * la forme de la requête est calculée une seule fois par texte SQL.
+ */
+public class SqlMetrics implements SqlMetricsMXBean {
+
+    public static final String OBJECT_NAME = "mangaworldo:type=SqlMetrics";
+
+    private static final int MAX_CACHED_SQL = 10_000; // textes SQL distincts mémorisés
+    private static final int LOG_TOP = 10;            // requêtes affichées dans le journal
+
+    // Listes de "?" de taille variable, quelle que soit leur longueur (même 1) :
+    // IN ((?, ?), (?, ?), ...) → IN ((?, ?), ...)   et   IN (?, ?, ?) → IN (?, ...)
+    // Quantificateurs possessifs (*+) : sans retour arrière, une liste de centaines de "?"
+    // (un paquet de BatchInsert) ne provoque pas de StackOverflowError dans le moteur d'expressions.
+    private static final Pattern IN_ROW_LIST = Pattern.compile(
+            "(?i)\\bIN\\s*+\\(\\s*+\\((\\?(?:\\s*+,\\s*+\\?)*+)\\)(?:\\s*+,\\s*+\\(\\?(?:\\s*+,\\s*+\\?)*+\\))*+\\s*+\\)");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*+\\(\\s*+\\?(?:\\s*+,\\s*+\\?)*+\\s*+\\)");
+    // VALUES (?, ?), (?, ?), ... (INSERT multi-lignes)
+    private static final Pattern ROW_LIST = Pattern.compile(
+            "\\((\\?(?:\\s*+,\\s*+\\?)*+)\\)(?:\\s*+,\\s*+\\(\\?(?:\\s*+,\\s*+\\?)*+\\))++");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final ConcurrentHashMap<String, StatementStats> byShape = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, StatementStats> bySql = new ConcurrentHashMap<>();
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionErrors = new LongAdder();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+
+    private volatile SlowQueryLog slowQueryLog;
+    private ScheduledExecutorService logger;
+    private long lastLoggedActivity = -1;
+
+    /**
+     * Compteurs de la requête sql (créés au premier appel).
+     * À appeler lors de la préparation, pas à chaque exécution.
+     */
+    public StatementStats statsFor(String sql) {
+        StatementStats stats = bySql.get(sql);
+        if (stats != null) return stats;
+        stats = byShape.computeIfAbsent(shapeOf(sql), StatementStats::new);
+        if (bySql.size() < MAX_CACHED_SQL) bySql.put(sql, stats);
+        return stats;
+    }
+
+    /**
+     * Forme d'une requête : espaces normalisés, listes de "?" de longueur variable réduites.
+     * Ex : "... IN ((?, ?), (?, ?), (?, ?))" → "... IN ((?, ?), ...)"
+     * Public pour les vérifications de tests/TestMain.
+     */
+    public static String shapeOf(String sql) {
+        String shape = SPACES.matcher(sql.trim()).replaceAll(" ");
+        shape = IN_ROW_LIST.matcher(shape).replaceAll("IN (($1), ...)");
+        shape = IN_LIST.matcher(shape).replaceAll("IN (?, ...)");
+        shape = ROW_LIST.matcher(shape).replaceAll("($1), ...");
+        return shape;
+    }
+
+    /**
+     * Journal des requêtes lentes alimenté avec ces mesures (null = désactivé).
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        SlowQueryLog previous = this.slowQueryLog;
+        this.slowQueryLog = slowQueryLog;
+        if (previous != null && previous != slowQueryLog) previous.shutdown();
+    }
+
+    public void recordConnectionAcquired(long waitNanos) {
+        acquisitions.increment();
+        connectionWait.record(waitNanos);
+    }
+
+    public void recordConnectionFailed(long waitNanos) {
+        acquisitionErrors.increment();
+        connectionWait.record(waitNanos);
+    }
+
+    // ----- Lecture (JMX) -----
+
+    @Override
+    public List<StatementSnapshot> getStatements() {
+        List<StatementSnapshot> list = new ArrayList<>(byShape.size());
+        for (StatementStats stats : byShape.values()) {
+            if (stats.getCalls() > 0) list.add(stats.snapshot());
+        }
+        list.sort(Comparator.comparingDouble(StatementSnapshot::getTotalMillis).reversed());
+        return list;
+    }
+
+    @Override
+    public long getConnectionAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    @Override
+    public long getConnectionAcquisitionErrors() {
+        return acquisitionErrors.sum();
+    }
+
+    @Override
+    public double getConnectionWaitMeanMicros() {
+        return connectionWait.getMeanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getConnectionWaitP99Micros() {
+        return connectionWait.getPercentileNanos(99) / 1_000.0;
+    }
+
+    @Override
+    public double getConnectionWaitMaxMicros() {
+        return connectionWait.getMaxNanos() / 1_000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (StatementStats stats : byShape.values()) stats.reset();
+        acquisitions.reset();
+        acquisitionErrors.reset();
+        connectionWait.reset();
+    }
+
+    // ----- Publication -----
+
+    /**
+     * Enregistre ces mesures dans le serveur JMX de la JVM (sans effet si déjà fait).
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // déjà enregistré (pool recréé) : rien à faire
+        } catch (JMException e) {
+            System.err.println("Erreur enregistrement JMX des mesures SQL : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit un résumé toutes les periodSeconds secondes, seulement s'il y a eu de l'activité.
+     * param periodSeconds 0 ou moins : pas de journal
+     */
+    public synchronized void startLogging(long periodSeconds) {
+        if (periodSeconds <= 0 || logger != null) return;
+        logger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sql-metrics-log");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.scheduleAtFixedRate(this::logSnapshot, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopLogging() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+        }
+    }
+
+    private void logSnapshot() {
+        List<StatementSnapshot> statements = getStatements();
+        long activity = getConnectionAcquisitions();
+        for (StatementSnapshot s : statements) activity += s.getCalls();
+        if (activity == lastLoggedActivity) return; // rien de neuf depuis le dernier résumé
+        lastLoggedActivity = activity;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[SQL] connexions : %,d emprunts, %d échecs, attente moy=%.0f µs p99=%.0f µs max=%.0f µs%n",
+                getConnectionAcquisitions(), getConnectionAcquisitionErrors(),
+                getConnectionWaitMeanMicros(), getConnectionWaitP99Micros(), getConnectionWaitMaxMicros()));
+        for (int i = 0; i < Math.min(LOG_TOP, statements.size()); i++) {
+            sb.append("[SQL] ").append(statements.get(i)).append(System.lineSeparator());
+        }
+        System.out.print(sb);
+    }
+}
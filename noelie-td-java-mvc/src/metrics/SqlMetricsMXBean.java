@@ -0,0 +1,26 @@
+package metrics;
+
+import java.util.List;
+
+/**
+ * Interface JMX des mesures SQL (visible dans JConsole / VisualVM,
+ * sous "mangaworldo:type=SqlMetrics").
+ */
+public interface SqlMetricsMXBean {
+
+    /** Une ligne par forme de requête, triées par temps total décroissant. */
+    List<StatementSnapshot> getStatements();
+
+    long getConnectionAcquisitions();
+
+    long getConnectionAcquisitionErrors();
+
+    double getConnectionWaitMeanMicros();
+
+    double getConnectionWaitP99Micros();
+
+    double getConnectionWaitMaxMicros();
+
+    /** Remet tous les compteurs à zéro. */
+    void reset();
+}
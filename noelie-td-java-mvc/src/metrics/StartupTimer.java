@@ -0,0 +1,71 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Durées du démarrage
+ * --------------------
+ * Chaque phase du démarrage (connexions, image, fenêtre, préchargement...) écrit
+ * sa durée et le moment où elle se termine, compté depuis la création du chronomètre
+ * (début de main) :
+ *   [Démarrage] connexions du pool (3)      212 ms  (fin à    230 ms)
+ *
+ * Un jalon (ex: "première fenêtre utilisable") écrit aussi le temps depuis le lancement
+ * de la JVM, qui comprend le chargement des classes avant main.
+ *
+ * Utilisable depuis plusieurs threads : les phases tournent en parallèle.
+ */
+public final class StartupTimer {
+
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Phase exécutée dans le thread appelant.
+     */
+    public <T> T time(String phase, Supplier<T> action) {
+        Runnable end = begin(phase);
+        try {
+            return action.get();
+        } finally {
+            end.run();
+        }
+    }
+
+    /**
+     * Phase exécutée par executor ; la durée est écrite à la fin (même en cas d'erreur).
+     */
+    public <T> CompletableFuture<T> timeAsync(String phase, Supplier<T> action, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> time(phase, action), executor);
+    }
+
+    /**
+     * Phase qui se termine ailleurs (ex: chargement en SwingWorker) :
+     * le Runnable renvoyé est à appeler à la fin, une seule fois.
+     */
+    public Runnable begin(String phase) {
+        long begin = System.nanoTime();
+        return () -> log(phase, System.nanoTime() - begin);
+    }
+
+    /**
+     * Jalon : temps écoulé depuis le début de main et depuis le lancement de la JVM.
+     */
+    public void milestone(String name) {
+        long sinceMain = millis(System.nanoTime() - startNanos);
+        long sinceJvm = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("[Démarrage] %s : %d ms après main, %d ms après le lancement de la JVM%n",
+                name, sinceMain, sinceJvm);
+    }
+
+    private void log(String phase, long durationNanos) {
+        System.out.printf("[Démarrage] %-32s %6d ms  (fin à %6d ms)%n",
+                phase, millis(durationNanos), millis(System.nanoTime() - startNanos));
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
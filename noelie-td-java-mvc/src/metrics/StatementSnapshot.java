@@ -0,0 +1,56 @@
+package metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Photographie (immuable) des mesures d'une forme de requête.
+ * Durées en microsecondes, total en millisecondes.
+ * Exposée telle quelle par JMX (chaque getter devient un attribut).
+ */
+public final class StatementSnapshot {
+
+    private final String sql;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p95Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+    private final double totalMillis;
+
+    @ConstructorProperties({"sql", "calls", "errors", "rows", "meanMicros", "p50Micros",
+            "p95Micros", "p99Micros", "maxMicros", "totalMillis"})
+    public StatementSnapshot(String sql, long calls, long errors, long rows, double meanMicros,
+                             double p50Micros, double p95Micros, double p99Micros, double maxMicros,
+                             double totalMillis) {
+        this.sql = sql;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+        this.totalMillis = totalMillis;
+    }
+
+    public String getSql() { return sql; }
+    public long getCalls() { return calls; }
+    public long getErrors() { return errors; }
+    public long getRows() { return rows; }
+    public double getMeanMicros() { return meanMicros; }
+    public double getP50Micros() { return p50Micros; }
+    public double getP95Micros() { return p95Micros; }
+    public double getP99Micros() { return p99Micros; }
+    public double getMaxMicros() { return maxMicros; }
+    public double getTotalMillis() { return totalMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%,d appels, %d erreurs, %,d lignes, moy=%.0f µs p50=%.0f µs p95=%.0f µs p99=%.0f µs max=%.0f µs | %s",
+                calls, errors, rows, meanMicros, p50Micros, p95Micros, p99Micros, maxMicros, sql);
+    }
+}
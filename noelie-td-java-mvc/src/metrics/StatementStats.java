@@ -0,0 +1,67 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une forme de requête SQL (même texte aux paramètres près)
+ * -------------------------------------------------------------------
+ * - appels, erreurs, lignes lues ou modifiées ;
+ * - histogramme des durées d'exécution.
+ * Les compteurs sont des LongAdder : peu coûteux même avec plusieurs threads.
+ */
+public final class StatementStats {
+
+    private final String sql;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    StatementStats(String sql) {
+        this.sql = sql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Une exécution terminée.
+     * param nanos durée de l'exécution
+     * param failed true si elle a levé une SQLException
+     */
+    public void recordExecution(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) errors.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * Lignes renvoyées (SELECT) ou modifiées (INSERT / UPDATE / DELETE).
+     */
+    public void recordRows(long count) {
+        if (count > 0) rows.add(count);
+    }
+
+    public long getCalls() { return calls.sum(); }
+    public long getErrors() { return errors.sum(); }
+    public long getRows() { return rows.sum(); }
+    public LatencyHistogram getLatency() { return latency; }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        latency.reset();
+    }
+
+    public StatementSnapshot snapshot() {
+        return new StatementSnapshot(sql, getCalls(), getErrors(), getRows(),
+                latency.getMeanNanos() / 1_000.0,
+                latency.getPercentileNanos(50) / 1_000.0,
+                latency.getPercentileNanos(95) / 1_000.0,
+                latency.getPercentileNanos(99) / 1_000.0,
+                latency.getMaxNanos() / 1_000.0,
+                latency.getTotalNanos() / 1_000_000.0);
+    }
+}
@@ -1,11 +1,15 @@
 package models;
 
 import config.DBConnection;
+import config.QueryHandle;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Classe Auteur (fusion Modèle + DAO pour débutants)
@@ -19,6 +23,9 @@ import java.util.Objects;
  */
 public class Auteur {
 
+    // Cache des auteurs lus par identifiant (voir AuteurCache)
+    private static final AuteurCache CACHE = new AuteurCache(10_000);
+
     // ================== ATTRIBUTS (données du Modèle) ==================
     private int idAuteur;        // Identifiant unique de l'auteur (clé primaire en BDD)
     private String prenomAuteur; // Prénom de l'auteur
@@ -67,6 +74,13 @@ public class Auteur {
     // ================== PARTIE "DAO" (Accès base de données) =============
     // ====================================================================
 
+    /**
+     * Accès au cache des auteurs (statistiques, vidage...)
+     */
+    public static AuteurCache getCache() {
+        return CACHE;
+    }
+
     /**
      * Lire tous les auteurs
      * ----------------------
@@ -77,6 +91,7 @@ public class Auteur {
     public static List<Auteur> getAllAuteurs() {
         List<Auteur> auteurs = new ArrayList<>();
         String sql = "SELECT * FROM auteur"; // requête SQL
+        long generation = CACHE.generation();
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql); // Préparation (plus sûr que Statement)
@@ -90,17 +105,241 @@ public class Auteur {
                 auteurs.add(a); // ajout à la liste
             }
 
+            // Réchauffe le cache si la liste y tient entièrement
+            if (auteurs.size() <= CACHE.getCapacity()) {
+                for (Auteur a : auteurs) CACHE.putIfFresh(a, generation);
+            }
+
         } catch (SQLException e) {
             System.err.println("Erreur getAllAuteurs : " + e.getMessage());
         }
         return auteurs;
     }
 
+    /**
+     * Parcourir tous les auteurs en flux
+     * ----------------------------------
+     * - Aucune liste en mémoire : les auteurs arrivent un par un depuis le curseur.
+     * - À utiliser avec try-with-resources, qui rend la connexion au pool :
+     *   try (Stream<Auteur> auteurs = Auteur.streamAuteurs(false)) { ... }
+     * - Les auteurs lus ne passent pas par le cache (parcours complet, souvent unique).
+     * param reuseRow true : un seul objet Auteur, rempli à chaque ligne (ne pas le conserver)
+     */
+    public static Stream<Auteur> streamAuteurs(boolean reuseRow) {
+        return RowStream.open("SELECT id_auteur, prenom_auteur, nom_auteur FROM auteur ORDER BY id_auteur",
+                Auteur::mapAuteur, reuseRow);
+    }
+
+    /**
+     * Visiter tous les auteurs (variante sans Stream : la fermeture est faite ici)
+     * return le nombre d'auteurs visités
+     */
+    public static long forEachAuteur(Consumer<? super Auteur> visitor, boolean reuseRow) {
+        long[] count = {0};
+        try (Stream<Auteur> auteurs = streamAuteurs(reuseRow)) {
+            auteurs.forEach(a -> {
+                visitor.accept(a);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    // Remplit "reuse" (ou un nouvel Auteur) avec la ligne courante
+    private static Auteur mapAuteur(ResultSet rs, Auteur reuse) throws SQLException {
+        Auteur a = reuse != null ? reuse : new Auteur();
+        a.setIdAuteur(rs.getInt("id_auteur"));
+        a.setPrenomAuteur(rs.getString("prenom_auteur"));
+        a.setNomAuteur(rs.getString("nom_auteur"));
+        return a;
+    }
+
+    /**
+     * Lire une page d'auteurs (pagination par clé)
+     * --------------------------------------------
+     * - On ne demande que les auteurs dont l'id est après le dernier id déjà affiché.
+     * - ORDER BY + LIMIT sur la clé primaire : la base lit directement l'index,
+     *   le coût reste le même en début ou en fin de table (contrairement à OFFSET).
+     * param afterId dernier id de la page précédente (0 pour la première page)
+     * param limit nombre maximum d'auteurs
+     */
+    public static List<Auteur> getAuteursPage(int afterId, int limit) {
+        List<Auteur> auteurs = new ArrayList<>();
+        String sql = "SELECT id_auteur, prenom_auteur, nom_auteur FROM auteur "
+                + "WHERE id_auteur > ? ORDER BY id_auteur LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Auteur a = new Auteur();
+                    a.setIdAuteur(rs.getInt("id_auteur"));
+                    a.setPrenomAuteur(rs.getString("prenom_auteur"));
+                    a.setNomAuteur(rs.getString("nom_auteur"));
+                    auteurs.add(a);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getAuteursPage : " + e.getMessage());
+        }
+        return auteurs;
+    }
+
+    /**
+     * Rechercher en base les auteurs dont le nom ou le prénom commence par prefix
+     * (sans casse ni accents : collation MySQL). Utilisé quand le catalogue est trop
+     * gros pour l'index de recherche en mémoire.
+     * param limit nombre maximum d'auteurs
+     * param handle permet d'annuler la requête depuis un autre thread (nouvelle saisie)
+     * return auteurs triés par nom ; liste vide (ou partielle) si annulée, trop longue ou en erreur
+     */
+    public static List<Auteur> searchAuteurs(String prefix, int limit, QueryHandle handle) {
+        List<Auteur> auteurs = new ArrayList<>();
+        String sql = "SELECT id_auteur, prenom_auteur, nom_auteur FROM auteur "
+                + "WHERE nom_auteur LIKE ? OR prenom_auteur LIKE ? "
+                + "ORDER BY nom_auteur, prenom_auteur LIMIT ?";
+        String pattern = DBConnection.likePrefix(prefix);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, pattern);
+            ps.setString(2, pattern);
+            ps.setInt(3, limit);
+            ps.setQueryTimeout(DBConnection.SEARCH_TIMEOUT_SECONDS); // au-delà : SQLTimeoutException
+
+            handle.attach(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next() && !handle.isCancelled()) {
+                    Auteur a = new Auteur();
+                    a.setIdAuteur(rs.getInt("id_auteur"));
+                    a.setPrenomAuteur(rs.getString("prenom_auteur"));
+                    a.setNomAuteur(rs.getString("nom_auteur"));
+                    auteurs.add(a);
+                }
+            } finally {
+                handle.detach(); // avant de rendre la connexion au pool
+            }
+
+        } catch (SQLException e) {
+            if (!handle.isCancelled()) System.err.println("Erreur searchAuteurs : " + e.getMessage());
+        }
+        return auteurs;
+    }
+
+    /**
+     * Lire seulement les identifiants (requête légère, utilisée pour "sauter" de page en page)
+     * param afterId on lit les id strictement supérieurs
+     * param limit nombre maximum d'identifiants
+     */
+    public static int[] getAuteurIds(int afterId, int limit) {
+        String sql = "SELECT id_auteur FROM auteur WHERE id_auteur > ? ORDER BY id_auteur LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                int[] ids = new int[Math.min(limit, 1024)];
+                int n = 0;
+                while (rs.next()) {
+                    if (n == ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+                    ids[n++] = rs.getInt(1);
+                }
+                return Arrays.copyOf(ids, n);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getAuteurIds : " + e.getMessage());
+        }
+        return new int[0];
+    }
+
+    /**
+     * Compter les auteurs
+     */
+    public static int countAuteurs() {
+        String sql = "SELECT COUNT(*) FROM auteur";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) return rs.getInt(1);
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countAuteurs : " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Compter les auteurs et lire le plus grand id, en une seule requête (même instant)
+     * --------------------------------------------------------------------------------
+     * Les id sont auto-incrémentés : un auteur d'id > maxId a été créé après le comptage.
+     * Le tableau s'en sert pour ne pas compter deux fois un auteur déjà compté (voir LazyTableModel).
+     * return {nombre, plus grand id (0 si table vide)}, ou {0, -1} en cas d'erreur
+     */
+    public static int[] countAuteursAndMaxId() {
+        String sql = "SELECT COUNT(*), COALESCE(MAX(id_auteur), 0) FROM auteur";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) return new int[]{rs.getInt(1), rs.getInt(2)};
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countAuteursAndMaxId : " + e.getMessage());
+        }
+        return new int[]{0, -1};
+    }
+
+    /**
+     * Changements depuis un repère (autres postes compris)
+     * ----------------------------------------------------
+     * - Auteurs créés ou modifiés et id supprimés depuis la version "since" (voir ChangeLog).
+     * - Les auteurs changés sont retirés du cache : un autre poste a pu les renommer.
+     * return null en cas d'erreur (garder l'ancien repère)
+     */
+    public static ChangeSet<Auteur> getAuteurChanges(long since, int limit) {
+        ChangeSet<Auteur> changes = ChangeLog.read("auteur", "id_auteur, prenom_auteur, nom_auteur",
+                Auteur::mapAuteur, since, limit);
+        if (changes != null) {
+            for (Auteur a : changes.getUpdated()) CACHE.invalidate(a.getIdAuteur());
+            for (int id : changes.getDeletedIds()) CACHE.invalidate(id);
+        }
+        return changes;
+    }
+
+    // Génération du cache, à lire avant une requête qui le remplit (voir cacheFromRow)
+    static long cacheGeneration() {
+        return CACHE.generation();
+    }
+
+    // Met en cache l'auteur d'une ligne de jointure (colonnes id_auteur, prenom_auteur, nom_auteur)
+    static void cacheFromRow(ResultSet rs, long generation) throws SQLException {
+        Auteur a = new Auteur();
+        a.setIdAuteur(rs.getInt("id_auteur"));
+        a.setPrenomAuteur(rs.getString("prenom_auteur"));
+        a.setNomAuteur(rs.getString("nom_auteur"));
+        CACHE.putIfFresh(a, generation);
+    }
+
     /**
      * Vérifier si un auteur existe déjà (éviter doublons)
      * ---------------------------------------------------
      * - La requête contient des "?" : ce sont des paramètres à remplacer.
      * - Exemple : "prenom_auteur = ?" sera remplacé par le prénom fourni.
+     * - N'est plus appelée avant chaque écriture : l'index unique (prenom_auteur, nom_auteur)
+     *   refuse directement les doublons (voir sql/001_contraintes_unicite.sql).
      */
     public static boolean exists(String prenom, String nom, Integer excludeId) {
         String sql = "SELECT COUNT(*) FROM auteur WHERE prenom_auteur = ? AND nom_auteur = ?";
@@ -129,37 +368,108 @@ public class Auteur {
     /**
      * Ajouter un auteur
      * -----------------
-     * - Vérifie d'abord si l'auteur existe déjà (via exists()).
-     * - Si non, insère une nouvelle ligne en BDD.
+     * - Insère directement une nouvelle ligne en BDD (un seul aller-retour).
+     * - Les doublons sont refusés par l'index unique (prenom_auteur, nom_auteur) :
+     *   pas de SELECT préalable, et pas de doublon possible même si deux
+     *   utilisateurs ajoutent le même auteur au même moment.
+     * - RETURN_GENERATED_KEYS : la base renvoie l'id auto-incrémenté créé.
+     * - Retourne l'auteur enregistré (avec son id), ou null si doublon / erreur.
+     *   La vue peut ainsi ajouter la ligne sans recharger tout le tableau.
      */
-    public static boolean addAuteur(String prenom, String nom) {
-        if (exists(prenom, nom, null)) return false; // évite les doublons
-
+    public static Auteur addAuteur(String prenom, String nom) {
         String sql = "INSERT INTO auteur (prenom_auteur, nom_auteur) VALUES (?, ?)";
 
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, prenom); // premier "?"
             ps.setString(2, nom);    // deuxième "?"
 
-            return ps.executeUpdate() > 0; // executeUpdate = renvoie nb lignes modifiées
+            if (ps.executeUpdate() == 0) return null; // executeUpdate = renvoie nb lignes modifiées
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) return null;
+                Auteur a = new Auteur();
+                a.setIdAuteur(keys.getInt(1)); // id généré par la base
+                a.setPrenomAuteur(prenom);
+                a.setNomAuteur(nom);
+                CACHE.put(a);
+                return a;
+            }
 
         } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e)) return null; // doublon refusé par la base
             System.err.println("Erreur addAuteur : " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Ajouter plusieurs auteurs en lot
+     * --------------------------------
+     * - Les auteurs sont envoyés par paquets de chunkSize : un executeBatch()
+     *   et un commit par paquet au lieu d'un aller-retour par auteur.
+     * - Les doublons (déjà en base ou répétés dans la liste) sont signalés, pas insérés.
+     * - Les objets insérés reçoivent leur id généré.
+     * - Retourne un résultat par auteur, dans l'ordre de la liste.
+     */
+    public static List<BatchResult<Auteur>> addAuteurs(List<Auteur> auteurs, int chunkSize) {
+        List<BatchResult<Auteur>> resultats = BatchInsert.insert(auteurs, chunkSize, AUTEUR_BATCH, "addAuteurs");
+        for (BatchResult<Auteur> r : resultats) {
+            if (r.isInserted()) CACHE.put(r.getItem());
+        }
+        return resultats;
+    }
+
+    // Particularités de la table auteur pour l'insertion en lot
+    private static final BatchInsert.Spec<Auteur> AUTEUR_BATCH = new BatchInsert.Spec<>() {
+        @Override
+        public String insertSql() {
+            return "INSERT INTO auteur (prenom_auteur, nom_auteur) VALUES (?, ?)";
+        }
+
+        @Override
+        public String existingSql(int n) {
+            return "SELECT prenom_auteur, nom_auteur FROM auteur WHERE (prenom_auteur, nom_auteur) IN ("
+                    + BatchInsert.placeholders(n, 2) + ")";
+        }
+
+        @Override
+        public int bindKey(PreparedStatement ps, int index, Auteur a) throws SQLException {
+            ps.setString(index, a.getPrenomAuteur());
+            ps.setString(index + 1, a.getNomAuteur());
+            return index + 2;
+        }
+
+        @Override
+        public void bindInsert(PreparedStatement ps, Auteur a) throws SQLException {
+            bindKey(ps, 1, a);
+        }
+
+        @Override
+        public String keyOf(Auteur a) {
+            return BatchInsert.foldKey(a.getPrenomAuteur()) + '\u0000' + BatchInsert.foldKey(a.getNomAuteur());
+        }
+
+        @Override
+        public String keyOf(ResultSet rs) throws SQLException {
+            return BatchInsert.foldKey(rs.getString(1)) + '\u0000' + BatchInsert.foldKey(rs.getString(2));
+        }
+
+        @Override
+        public void setId(Auteur a, int id) {
+            a.setIdAuteur(id);
+        }
+    };
+
     /**
      * Modifier un auteur
      * ------------------
-     * - Vérifie d’abord si ce prénom/nom existe déjà pour un autre auteur.
-     * - Met ensuite à jour les colonnes avec UPDATE.
+     * - Met à jour les colonnes avec UPDATE (un seul aller-retour).
+     * - Si ce prénom/nom existe déjà pour un autre auteur, l'index unique
+     *   refuse la modification → false.
      */
     public static boolean updateAuteur(int idAuteur, String prenom, String nom) {
-        if (exists(prenom, nom, idAuteur)) return false; // doublon → impossible
-
         String sql = "UPDATE auteur SET prenom_auteur = ?, nom_auteur = ? WHERE id_auteur = ?";
 
         try (Connection conn = DBConnection.getConnection();
@@ -169,9 +479,12 @@ public class Auteur {
             ps.setString(2, nom);    // deuxième "?"
             ps.setInt(3, idAuteur);  // troisième "?"
 
-            return ps.executeUpdate() > 0;
+            boolean modifie = ps.executeUpdate() > 0;
+            CACHE.invalidate(idAuteur); // le nom a (peut-être) changé
+            return modifie;
 
         } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e)) return false; // doublon → impossible
             System.err.println("Erreur updateAuteur : " + e.getMessage());
             return false;
         }
@@ -180,37 +493,23 @@ public class Auteur {
     /**
      * Supprimer un auteur
      * -------------------
-     * - Avant de supprimer, on vérifie si l'auteur est utilisé dans la table oeuvre.
-     * - Si oui → suppression impossible.
-     * - Sinon → suppression validée avec commit.
+     * - Un auteur utilisé dans la table oeuvre ne doit pas être supprimé.
+     * - La vérification est faite par la même instruction (NOT EXISTS) : pas de
+     *   COUNT(*) préalable, pas de transaction, et aucune œuvre ne peut être
+     *   ajoutée entre la vérification et la suppression.
+     * - 0 ligne supprimée → auteur lié à des œuvres (ou inexistant).
      */
     public static boolean deleteAuteur(int idAuteur) {
-        String checkSql = "SELECT COUNT(*) FROM oeuvre WHERE id_auteur = ?";
-        String deleteSql = "DELETE FROM auteur WHERE id_auteur = ?";
-
-        try (Connection conn = DBConnection.getConnection()) {
-            conn.setAutoCommit(false); // désactive commit automatique
-
-            // Vérifie si l'auteur est lié à une œuvre
-            try (PreparedStatement psCheck = conn.prepareStatement(checkSql)) {
-                psCheck.setInt(1, idAuteur);
-                try (ResultSet rs = psCheck.executeQuery()) {
-                    if (rs.next() && rs.getInt(1) > 0) {
-                        conn.rollback(); // annulation
-                        return false;    // suppression interdite
-                    }
-                }
-            }
+        String sql = "DELETE FROM auteur WHERE id_auteur = ?"
+                + " AND NOT EXISTS (SELECT 1 FROM oeuvre WHERE oeuvre.id_auteur = auteur.id_auteur)";
 
-            // Supprime si pas lié
-            try (PreparedStatement psDelete = conn.prepareStatement(deleteSql)) {
-                psDelete.setInt(1, idAuteur);
-                if (psDelete.executeUpdate() > 0) {
-                    conn.commit(); // valide la suppression
-                    return true;
-                } else {
-                    conn.rollback(); // annule si rien supprimé
-                }
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, idAuteur);
+            if (ps.executeUpdate() > 0) {
+                CACHE.invalidate(idAuteur);
+                return true;
             }
 
         } catch (SQLException e) {
@@ -219,14 +518,48 @@ public class Auteur {
         return false;
     }
 
+    /**
+     * Supprimer plusieurs auteurs en une fois
+     * ---------------------------------------
+     * - Par paquets de chunkSize : une requête pour repérer les auteurs encore liés
+     *   à des œuvres, puis UN DELETE ... WHERE id_auteur IN (...) AND NOT EXISTS (...)
+     *   pour tous les autres, et un commit (voir BulkDelete).
+     * - Les auteurs liés à des œuvres ne sont pas supprimés : ils sont "bloqués".
+     */
+    public static DeleteResult deleteAuteurs(List<Integer> ids, int chunkSize) {
+        DeleteResult result = BulkDelete.delete(ids, chunkSize, AUTEUR_DELETE, "deleteAuteurs");
+        for (int id : result.getDeletedIds()) CACHE.invalidate(id);
+        return result;
+    }
+
+    // Particularités de la table auteur pour la suppression en lot
+    private static final BulkDelete.Spec AUTEUR_DELETE = new BulkDelete.Spec() {
+        @Override
+        public String lockSql(int n) {
+            return "SELECT id_auteur, EXISTS (SELECT 1 FROM oeuvre WHERE oeuvre.id_auteur = auteur.id_auteur)"
+                    + " FROM auteur WHERE id_auteur IN (" + BulkDelete.placeholders(n) + ") FOR UPDATE";
+        }
+
+        @Override
+        public String deleteSql(int n) {
+            return "DELETE FROM auteur WHERE id_auteur IN (" + BulkDelete.placeholders(n) + ")"
+                    + " AND NOT EXISTS (SELECT 1 FROM oeuvre WHERE oeuvre.id_auteur = auteur.id_auteur)";
+        }
+    };
+
     /**
      * Récupérer un auteur par son ID
      * ------------------------------
-     * - Exécute SELECT avec un "?" remplacé par l’ID fourni.
-     * - Si trouvé, retourne un objet Auteur.
+     * - Regarde d'abord dans le cache (aucune requête si l'auteur y est).
+     * - Sinon exécute SELECT avec un "?" remplacé par l’ID fourni.
+     * - Si trouvé, retourne un objet Auteur (et le met en cache).
      */
     public static Auteur getAuteurById(int idAuteur) {
+        Auteur cached = CACHE.get(idAuteur);
+        if (cached != null) return cached;
+
         String sql = "SELECT * FROM auteur WHERE id_auteur = ?";
+        long generation = CACHE.generation();
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -239,6 +572,7 @@ public class Auteur {
                     a.setIdAuteur(rs.getInt("id_auteur"));
                     a.setPrenomAuteur(rs.getString("prenom_auteur"));
                     a.setNomAuteur(rs.getString("nom_auteur"));
+                    CACHE.putIfFresh(a, generation);
                     return a;
                 }
             }
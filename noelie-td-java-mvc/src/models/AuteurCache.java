@@ -0,0 +1,131 @@
+package models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe AuteurCache
+ * -------------------
+ * Cache en mémoire des auteurs, indexé par idAuteur ("identity map").
+ *
+ * Pourquoi ?
+ * - getAuteurById est appelé très souvent (formulaires, boutons "Modifier"...).
+ * - Les noms d'auteurs changent rarement : inutile de relire la base à chaque fois.
+ *
+ * Règles :
+ * 1. Taille bornée : l'auteur le moins récemment utilisé est évincé (LRU).
+ * 2. Les écritures (ajout, modification, suppression) mettent le cache à jour.
+ * 3. Les objets sont copiés en entrée et en sortie : modifier un Auteur obtenu
+ *    ne modifie pas le cache.
+ * 4. Statistiques : hits, misses, taux de succès.
+ */
+public class AuteurCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Integer, Auteur> entries;
+
+    // Incrémenté à chaque invalidation : une lecture commencée avant une écriture
+    // ne doit pas remettre en cache une valeur périmée (voir putIfFresh).
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public AuteurCache(int capacity) {
+        this.capacity = capacity;
+        // accessOrder = true : ordre du moins récemment utilisé au plus récent
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Auteur> eldest) {
+                if (size() > AuteurCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retourne une copie de l'auteur en cache, ou null s'il n'y est pas.
+     */
+    public synchronized Auteur get(int idAuteur) {
+        Auteur a = entries.get(idAuteur);
+        if (a == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(a);
+    }
+
+    /**
+     * "Tampon" à relever AVANT de lire la base, puis à passer à putIfFresh.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Met l'auteur en cache seulement si aucune invalidation n'a eu lieu
+     * depuis le tampon relevé avant la lecture en base.
+     */
+    public synchronized void putIfFresh(Auteur a, long generationAvantLecture) {
+        if (a != null && generation == generationAvantLecture) {
+            entries.put(a.getIdAuteur(), copy(a));
+        }
+    }
+
+    /**
+     * Met l'auteur en cache (valeur venant d'être écrite en base).
+     */
+    public synchronized void put(Auteur a) {
+        generation++;
+        entries.put(a.getIdAuteur(), copy(a));
+    }
+
+    /**
+     * Retire un auteur du cache (modification ou suppression en base).
+     */
+    public synchronized void invalidate(int idAuteur) {
+        generation++;
+        entries.remove(idAuteur);
+    }
+
+    /**
+     * Vide complètement le cache.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public int getCapacity() { return capacity; }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+
+    /**
+     * Taux de succès du cache (0 à 1)
+     */
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("AuteurCache[%d/%d entrées, %d hits, %d miss (%.0f %%), %d évictions]",
+                entries.size(), capacity, hits, misses, getHitRatio() * 100, evictions);
+    }
+
+    private static Auteur copy(Auteur source) {
+        Auteur a = new Auteur();
+        a.setIdAuteur(source.getIdAuteur());
+        a.setPrenomAuteur(source.getPrenomAuteur());
+        a.setNomAuteur(source.getNomAuteur());
+        return a;
+    }
+}
@@ -0,0 +1,190 @@
+package models;
+
+import config.DBConnection;
+import util.TextFold;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Insertion en lot (JDBC batching), commune à Auteur et Oeuvre
+ * ------------------------------------------------------------
+ * Pour chaque paquet (chunk) de chunkSize éléments :
+ * 1. Les doublons internes au paquet sont écartés en mémoire.
+ * 2. UNE requête repère les éléments déjà présents en base :
+ *    WHERE (col1, col2) IN ((?, ?), (?, ?), ...)
+ * 3. Les autres sont envoyés d'un coup : addBatch() puis executeBatch(),
+ *    dans UNE transaction (avec rewriteBatchedStatements, MySQL reçoit
+ *    un seul INSERT multi-lignes).
+ * 4. Si le lot échoue (doublon inséré entre-temps par un autre utilisateur,
+ *    clé étrangère invalide...), on annule et on réessaie ligne par ligne
+ *    dans la même transaction pour donner un résultat précis à chaque élément.
+ */
+final class BatchInsert {
+
+    private BatchInsert() {}
+
+    /**
+     * Ce qui change d'une table à l'autre.
+     */
+    interface Spec<T> {
+        /** INSERT avec les paramètres de bindInsert. */
+        String insertSql();
+
+        /** SELECT des colonnes de la clé d'unicité, pour n éléments (n couples "?"). */
+        String existingSql(int n);
+
+        /** Lie la clé d'unicité de item à partir du paramètre index (inclus) ; retourne l'index suivant. */
+        int bindKey(PreparedStatement ps, int index, T item) throws SQLException;
+
+        void bindInsert(PreparedStatement ps, T item) throws SQLException;
+
+        /** Clé d'unicité calculée en mémoire (textes passés par foldKey)... */
+        String keyOf(T item);
+
+        /** ...et la même clé lue sur une ligne de existingSql (même pliage). */
+        String keyOf(ResultSet rs) throws SQLException;
+
+        void setId(T item, int id);
+    }
+
+    /**
+     * Texte d'une clé d'unicité comparé comme le fait l'index unique (collation) :
+     * sans casse ni accents (TextFold, comme le catalogue en mémoire), espaces finaux ignorés.
+     * Sans ce pliage, "Eric" et "éric " passent les étapes 1 et 2 puis font échouer
+     * tout le lot (doublon refusé par l'index), rejoué alors ligne par ligne.
+     */
+    static String foldKey(String text) {
+        return TextFold.fold(text).stripTrailing();
+    }
+
+    /**
+     * Construit "(?, ?), (?, ?), ..." pour n éléments de width colonnes.
+     */
+    static String placeholders(int n, int width) {
+        StringBuilder one = new StringBuilder("(");
+        for (int i = 0; i < width; i++) one.append(i == 0 ? "?" : ", ?");
+        one.append(')');
+        StringBuilder sb = new StringBuilder(n * (one.length() + 2));
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(one);
+        }
+        return sb.toString();
+    }
+
+    static <T> List<BatchResult<T>> insert(List<T> items, int chunkSize, Spec<T> spec, String operation) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize doit être > 0");
+        List<BatchResult<T>> results = new ArrayList<>(Collections.nCopies(items.size(), (BatchResult<T>) null));
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false); // une transaction par paquet
+            try {
+                for (int from = 0; from < items.size(); from += chunkSize) {
+                    int to = Math.min(items.size(), from + chunkSize);
+                    insertChunk(conn, items, from, to, spec, results);
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur " + operation + " : " + e.getMessage());
+        }
+
+        // Éléments non traités (connexion impossible, paquet interrompu...)
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, new BatchResult<>(BatchResult.Status.FAILED, items.get(i), "non traité"));
+            }
+        }
+        return results;
+    }
+
+    private static <T> void insertChunk(Connection conn, List<T> items, int from, int to, Spec<T> spec,
+                                        List<BatchResult<T>> results) throws SQLException {
+        // 1. Doublons internes au paquet
+        Map<String, Integer> candidates = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            String key = spec.keyOf(items.get(i));
+            if (candidates.putIfAbsent(key, i) != null) {
+                results.set(i, new BatchResult<>(BatchResult.Status.DUPLICATE, items.get(i), "doublon dans le lot"));
+            }
+        }
+
+        // 2. Éléments déjà en base : une seule requête pour tout le paquet
+        Set<String> existing = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            try (PreparedStatement ps = conn.prepareStatement(spec.existingSql(candidates.size()))) {
+                int index = 1;
+                for (int i : candidates.values()) index = spec.bindKey(ps, index, items.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) existing.add(spec.keyOf(rs));
+                }
+            }
+        }
+        List<Integer> toInsert = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (results.get(i) != null) continue;
+            if (existing.contains(spec.keyOf(items.get(i)))) {
+                results.set(i, new BatchResult<>(BatchResult.Status.DUPLICATE, items.get(i), null));
+            } else {
+                toInsert.add(i);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            conn.commit();
+            return;
+        }
+
+        // 3. Insertion groupée
+        try (PreparedStatement ps = conn.prepareStatement(spec.insertSql(), Statement.RETURN_GENERATED_KEYS)) {
+            for (int i : toInsert) {
+                spec.bindInsert(ps, items.get(i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i : toInsert) {
+                    if (keys.next()) spec.setId(items.get(i), keys.getInt(1));
+                }
+            }
+            conn.commit();
+            for (int i : toInsert) {
+                results.set(i, new BatchResult<>(BatchResult.Status.INSERTED, items.get(i), null));
+            }
+            return;
+        } catch (SQLException e) {
+            conn.rollback(); // le paquet entier est annulé, on passe au ligne par ligne
+        }
+
+        // 4. Repli ligne par ligne (MySQL : une erreur n'annule que l'instruction fautive)
+        try (PreparedStatement ps = conn.prepareStatement(spec.insertSql(), Statement.RETURN_GENERATED_KEYS)) {
+            for (int i : toInsert) {
+                T item = items.get(i);
+                try {
+                    spec.bindInsert(ps, item);
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) spec.setId(item, keys.getInt(1));
+                    }
+                    results.set(i, new BatchResult<>(BatchResult.Status.INSERTED, item, null));
+                } catch (SQLException e) {
+                    results.set(i, DBConnection.isDuplicateKey(e)
+                            ? new BatchResult<>(BatchResult.Status.DUPLICATE, item, null)
+                            : new BatchResult<>(BatchResult.Status.FAILED, item, e.getMessage()));
+                }
+            }
+        }
+        conn.commit();
+    }
+}
@@ -0,0 +1,40 @@
+package models;
+
+/**
+ * Résultat d'un élément d'une insertion en lot
+ * ---------------------------------------------
+ * Chaque élément envoyé à Auteur.addAuteurs / Oeuvre.addOeuvres reçoit
+ * son propre résultat, dans le même ordre que la liste d'entrée :
+ * - INSERTED  : ligne créée (l'objet porte maintenant son id)
+ * - DUPLICATE : ligne déjà présente en base ou en double dans le lot
+ * - FAILED    : erreur SQL (message renseigné)
+ *
+ * param <T> Auteur ou Oeuvre
+ */
+public class BatchResult<T> {
+
+    public enum Status { INSERTED, DUPLICATE, FAILED }
+
+    private final Status status;
+    private final T item;
+    private final String message;
+
+    public BatchResult(Status status, T item, String message) {
+        this.status = status;
+        this.item = item;
+        this.message = message;
+    }
+
+    public Status getStatus() { return status; }
+    public T getItem() { return item; }
+    public String getMessage() { return message; }
+
+    public boolean isInserted() {
+        return status == Status.INSERTED;
+    }
+
+    @Override
+    public String toString() {
+        return status + (message != null ? " (" + message + ")" : "") + " : " + item;
+    }
+}
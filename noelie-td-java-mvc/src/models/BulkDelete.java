@@ -0,0 +1,133 @@
+package models;
+
+import config.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Suppression en lot, commune à Auteur et Oeuvre
+ * -----------------------------------------------
+ * Avant : une suppression = un aller-retour (et pour un auteur, un COUNT(*) puis un DELETE),
+ * plus un commit. Ici, pour chaque paquet de chunkSize identifiants, dans UNE transaction :
+ * 1. UNE requête lit les lignes existantes et leur état "bloquée" (encore référencée),
+ *    en les verrouillant (FOR UPDATE : personne ne leur ajoute d'œuvre entre-temps) :
+ *    WHERE id IN (?, ?, ...)
+ * 2. UN DELETE ... WHERE id IN (?, ?, ...) AND NOT EXISTS (...) supprime toutes les autres.
+ * 3. Si le nombre de lignes supprimées n'est pas celui attendu, les lignes restantes
+ *    sont relues (requête 1) : elles sont bloquées.
+ * Des milliers de lignes coûtent donc quelques instructions, pas des milliers.
+ */
+final class BulkDelete {
+
+    private BulkDelete() {}
+
+    /**
+     * Ce qui change d'une table à l'autre.
+     */
+    interface Spec {
+        /** SELECT id, bloquée (0 / 1) des lignes existantes parmi n id, FOR UPDATE. */
+        String lockSql(int n);
+
+        /** DELETE des n id, sauf les lignes bloquées. */
+        String deleteSql(int n);
+    }
+
+    /**
+     * Construit "?, ?, ..." pour n paramètres (liste d'un IN).
+     */
+    static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder(n * 3);
+        for (int i = 0; i < n; i++) sb.append(i == 0 ? "?" : ", ?");
+        return sb.toString();
+    }
+
+    static DeleteResult delete(List<Integer> ids, int chunkSize, Spec spec, String operation) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize doit être > 0");
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Integer> deleted = new ArrayList<>();
+        List<Integer> blocked = new ArrayList<>();
+        int done = 0; // identifiants traités (paquets validés)
+        String message = null;
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false); // une transaction par paquet
+            try {
+                for (int from = 0; from < distinct.size(); from += chunkSize) {
+                    int to = Math.min(distinct.size(), from + chunkSize);
+                    deleteChunk(conn, distinct.subList(from, to), spec, deleted, blocked);
+                    done = to;
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur " + operation + " : " + e.getMessage());
+            message = e.getMessage();
+        }
+
+        // Identifiants non traités (connexion impossible, paquet interrompu...)
+        List<Integer> failed = new ArrayList<>(distinct.subList(done, distinct.size()));
+        return new DeleteResult(deleted, blocked, failed, message);
+    }
+
+    private static void deleteChunk(Connection conn, List<Integer> chunk, Spec spec,
+                                    List<Integer> deleted, List<Integer> blocked) throws SQLException {
+        try {
+            // 1. Lignes existantes et bloquées, verrouillées
+            Set<Integer> existing = new HashSet<>();
+            Set<Integer> linked = new HashSet<>();
+            readState(conn, chunk, spec, existing, linked);
+
+            // 2. Un seul DELETE pour tout le paquet
+            int count = 0;
+            if (existing.size() > linked.size()) {
+                try (PreparedStatement ps = conn.prepareStatement(spec.deleteSql(chunk.size()))) {
+                    bind(ps, chunk);
+                    count = ps.executeUpdate();
+                }
+            }
+
+            // 3. Cas rare (base modifiée sans verrou) : ce qui reste est bloqué
+            if (count != existing.size() - linked.size()) {
+                Set<Integer> remaining = new HashSet<>();
+                readState(conn, chunk, spec, remaining, new HashSet<>());
+                linked.clear();
+                linked.addAll(remaining);
+            }
+            conn.commit();
+
+            for (int id : chunk) {
+                if (linked.contains(id)) blocked.add(id);
+                else if (existing.contains(id)) deleted.add(id);
+            }
+        } catch (SQLException e) {
+            conn.rollback(); // le paquet entier est annulé
+            throw e;
+        }
+    }
+
+    private static void readState(Connection conn, List<Integer> chunk, Spec spec,
+                                  Set<Integer> existing, Set<Integer> linked) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(spec.lockSql(chunk.size()))) {
+            bind(ps, chunk);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getInt(1));
+                    if (rs.getInt(2) != 0) linked.add(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, List<Integer> chunk) throws SQLException {
+        for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+    }
+}
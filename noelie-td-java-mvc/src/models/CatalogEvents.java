@@ -0,0 +1,99 @@
+package models;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Diffusion des changements du catalogue (patron "Observateur")
+ * ---------------------------------------------------------------
+ * Les contrôleurs publient ici chaque modification réussie ; les abonnés
+ * (fenêtres ouvertes, index de recherche...) se mettent à jour sans relire la base.
+ *
+ * Une seule instance est partagée par les deux contrôleurs (créée dans Main).
+ * Les abonnés sont prévenus dans l'ordre d'abonnement, dans le thread de la modification.
+ * La liste d'abonnés est copiée à chaque (dés)abonnement : une publication n'est jamais
+ * gênée par une fenêtre qui s'ouvre ou se ferme en même temps.
+ */
+public class CatalogEvents {
+
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CatalogListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void auteurCreated(Auteur auteur) {
+        Auteur copie = copy(auteur);
+        publish(l -> l.auteurCreated(copie));
+    }
+
+    public void auteurUpdated(Auteur auteur) {
+        Auteur copie = copy(auteur);
+        publish(l -> l.auteurUpdated(copie));
+    }
+
+    public void auteurDeleted(int idAuteur) {
+        publish(l -> l.auteurDeleted(idAuteur));
+    }
+
+    public void auteursDeleted(List<Integer> idAuteurs) {
+        if (idAuteurs.isEmpty()) return;
+        List<Integer> copie = List.copyOf(idAuteurs);
+        publish(l -> l.auteursDeleted(copie));
+    }
+
+    public void oeuvreCreated(Oeuvre oeuvre) {
+        Oeuvre copie = copy(oeuvre);
+        publish(l -> l.oeuvreCreated(copie));
+    }
+
+    public void oeuvreUpdated(Oeuvre oeuvre) {
+        Oeuvre copie = copy(oeuvre);
+        publish(l -> l.oeuvreUpdated(copie));
+    }
+
+    public void oeuvreDeleted(int idOeuvre) {
+        publish(l -> l.oeuvreDeleted(idOeuvre));
+    }
+
+    public void oeuvresDeleted(List<Integer> idOeuvres) {
+        if (idOeuvres.isEmpty()) return;
+        List<Integer> copie = List.copyOf(idOeuvres);
+        publish(l -> l.oeuvresDeleted(copie));
+    }
+
+    /**
+     * Prévient chaque abonné ; une erreur chez l'un n'empêche pas les suivants d'être prévenus.
+     */
+    private void publish(Consumer<CatalogListener> event) {
+        for (CatalogListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur écouteur du catalogue : " + e.getMessage());
+            }
+        }
+    }
+
+    // Copies : l'appelant peut réutiliser ou modifier son objet après la publication
+    private static Auteur copy(Auteur source) {
+        Auteur a = new Auteur();
+        a.setIdAuteur(source.getIdAuteur());
+        a.setPrenomAuteur(source.getPrenomAuteur());
+        a.setNomAuteur(source.getNomAuteur());
+        return a;
+    }
+
+    private static Oeuvre copy(Oeuvre source) {
+        Oeuvre o = new Oeuvre();
+        o.setIdOeuvre(source.getIdOeuvre());
+        o.setNomOeuvre(source.getNomOeuvre());
+        o.setIdAuteur(source.getIdAuteur());
+        return o;
+    }
+}
@@ -0,0 +1,49 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Écouteur des changements du catalogue
+ * --------------------------------------
+ * Reçoit chaque création, modification et suppression réussie en base,
+ * publiée par les contrôleurs (voir CatalogEvents) : celles faites par ce poste,
+ * puis celles des autres postes, lues par la synchronisation (fetch...ChangesSince).
+ * Un même changement peut donc arriver deux fois : les écouteurs doivent le supporter
+ * (ex: une création déjà connue est traitée comme une modification).
+ *
+ * Appelé dans le thread qui a fait la modification (souvent un SwingWorker) :
+ * un écouteur graphique doit repasser sur l'EDT (SwingUtilities.invokeLater).
+ * Les objets reçus ne doivent pas être modifiés (ils sont partagés entre écouteurs).
+ * Toutes les méthodes ont une version vide : on n'implémente que celles utiles.
+ */
+public interface CatalogListener {
+
+    default void auteurCreated(Auteur auteur) {
+    }
+
+    default void auteurUpdated(Auteur auteur) {
+    }
+
+    default void auteurDeleted(int idAuteur) {
+    }
+
+    /** Suppression en lot ; par défaut, une suppression à la fois. */
+    default void auteursDeleted(List<Integer> idAuteurs) {
+        for (int id : idAuteurs) auteurDeleted(id);
+    }
+
+    default void oeuvreCreated(Oeuvre oeuvre) {
+    }
+
+    /** oeuvre contient le nouveau titre et le nouvel auteur */
+    default void oeuvreUpdated(Oeuvre oeuvre) {
+    }
+
+    default void oeuvreDeleted(int idOeuvre) {
+    }
+
+    /** Suppression en lot ; par défaut, une suppression à la fois. */
+    default void oeuvresDeleted(List<Integer> idOeuvres) {
+        for (int id : idOeuvres) oeuvreDeleted(id);
+    }
+}
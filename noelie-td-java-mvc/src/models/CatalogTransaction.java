@@ -0,0 +1,243 @@
+package models;
+
+import config.DBConnection;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enregistrement d'une unité de travail en UNE transaction
+ * ---------------------------------------------------------
+ * Toutes les modifications en attente (UnitOfWork) sont envoyées sur une seule connexion,
+ * regroupées par type (addBatch / executeBatch : un aller-retour par type, pas par ligne),
+ * puis validées par un seul COMMIT. À la première erreur, ROLLBACK : rien n'est enregistré.
+ *
+ * Ordre (les dépendances entre lignes sont respectées) :
+ * 1. ajouts d'auteurs (leurs vrais id remplacent les id provisoires des œuvres) ;
+ * 2. modifications d'auteurs ;
+ * 3. ajouts puis modifications d'œuvres ;
+ * 4. suppressions d'œuvres, puis d'auteurs (un auteur qui a encore des œuvres est refusé).
+ *
+ * Une modification ou suppression qui ne touche aucune ligne (supprimée entre-temps
+ * par un autre poste, auteur encore lié à des œuvres) fait échouer l'ensemble.
+ */
+public final class CatalogTransaction {
+
+    private static final String INSERT_AUTEUR = "INSERT INTO auteur (prenom_auteur, nom_auteur) VALUES (?, ?)";
+    private static final String UPDATE_AUTEUR = "UPDATE auteur SET prenom_auteur = ?, nom_auteur = ? WHERE id_auteur = ?";
+    private static final String DELETE_AUTEUR = "DELETE FROM auteur WHERE id_auteur = ?"
+            + " AND NOT EXISTS (SELECT 1 FROM oeuvre WHERE oeuvre.id_auteur = ?)";
+    private static final String INSERT_OEUVRE = "INSERT INTO oeuvre (nom_oeuvre, id_auteur) VALUES (?, ?)";
+    private static final String UPDATE_OEUVRE = "UPDATE oeuvre SET nom_oeuvre = ?, id_auteur = ? WHERE id_oeuvre = ?";
+    private static final String DELETE_OEUVRE = "DELETE FROM oeuvre WHERE id_oeuvre = ?";
+
+    private CatalogTransaction() {}
+
+    /**
+     * Erreur qui annule toute l'unité de travail (message destiné à l'utilisateur).
+     */
+    private static final class Rejected extends Exception {
+        Rejected(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Enregistre toutes les modifications, ou aucune.
+     * L'unité de travail n'est pas modifiée (à vider par l'appelant en cas de succès).
+     */
+    public static CommitResult commit(UnitOfWork work) {
+        List<Auteur> createdAuteurs = copyAuteurs(work.getAuteurs(UnitOfWork.Kind.CREATE));
+        List<Auteur> updatedAuteurs = work.getAuteurs(UnitOfWork.Kind.UPDATE);
+        List<Integer> deletedAuteurIds = new ArrayList<>();
+        for (Auteur a : work.getAuteurs(UnitOfWork.Kind.DELETE)) deletedAuteurIds.add(a.getIdAuteur());
+        List<Oeuvre> createdOeuvres = copyOeuvres(work.getOeuvres(UnitOfWork.Kind.CREATE));
+        List<Oeuvre> updatedOeuvres = copyOeuvres(work.getOeuvres(UnitOfWork.Kind.UPDATE));
+        List<Integer> deletedOeuvreIds = new ArrayList<>();
+        for (Oeuvre o : work.getOeuvres(UnitOfWork.Kind.DELETE)) deletedOeuvreIds.add(o.getIdOeuvre());
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 1. Ajouts d'auteurs : id provisoire → vrai id
+                Map<Integer, Integer> auteurIds = new HashMap<>();
+                if (!createdAuteurs.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(INSERT_AUTEUR, Statement.RETURN_GENERATED_KEYS)) {
+                        for (Auteur a : createdAuteurs) {
+                            ps.setString(1, a.getPrenomAuteur());
+                            ps.setString(2, a.getNomAuteur());
+                            ps.addBatch();
+                        }
+                        executeBatch(ps, "ajout d'auteur");
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (Auteur a : createdAuteurs) {
+                                if (!keys.next()) throw new SQLException("Identifiant d'auteur non renvoyé");
+                                auteurIds.put(a.getIdAuteur(), keys.getInt(1));
+                                a.setIdAuteur(keys.getInt(1));
+                            }
+                        }
+                    }
+                }
+
+                // 2. Modifications d'auteurs
+                if (!updatedAuteurs.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(UPDATE_AUTEUR)) {
+                        for (Auteur a : updatedAuteurs) {
+                            ps.setString(1, a.getPrenomAuteur());
+                            ps.setString(2, a.getNomAuteur());
+                            ps.setInt(3, a.getIdAuteur());
+                            ps.addBatch();
+                        }
+                        checkCounts(executeBatch(ps, "modification d'auteur"), "Auteur", idsOfAuteurs(updatedAuteurs),
+                                "introuvable (supprimé par un autre poste ?)");
+                    }
+                }
+
+                // 3. Œuvres : l'auteur peut être un auteur ajouté à l'étape 1
+                for (Oeuvre o : createdOeuvres) o.setIdAuteur(realAuteurId(o.getIdAuteur(), auteurIds));
+                for (Oeuvre o : updatedOeuvres) o.setIdAuteur(realAuteurId(o.getIdAuteur(), auteurIds));
+                if (!createdOeuvres.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(INSERT_OEUVRE, Statement.RETURN_GENERATED_KEYS)) {
+                        for (Oeuvre o : createdOeuvres) {
+                            ps.setString(1, o.getNomOeuvre());
+                            ps.setInt(2, o.getIdAuteur());
+                            ps.addBatch();
+                        }
+                        executeBatch(ps, "ajout d'œuvre");
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (Oeuvre o : createdOeuvres) {
+                                if (!keys.next()) throw new SQLException("Identifiant d'œuvre non renvoyé");
+                                o.setIdOeuvre(keys.getInt(1));
+                            }
+                        }
+                    }
+                }
+                if (!updatedOeuvres.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(UPDATE_OEUVRE)) {
+                        for (Oeuvre o : updatedOeuvres) {
+                            ps.setString(1, o.getNomOeuvre());
+                            ps.setInt(2, o.getIdAuteur());
+                            ps.setInt(3, o.getIdOeuvre());
+                            ps.addBatch();
+                        }
+                        checkCounts(executeBatch(ps, "modification d'œuvre"), "Œuvre", idsOfOeuvres(updatedOeuvres),
+                                "introuvable (supprimée par un autre poste ?)");
+                    }
+                }
+
+                // 4. Suppressions : œuvres d'abord, puis auteurs (s'ils n'ont plus d'œuvres)
+                if (!deletedOeuvreIds.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(DELETE_OEUVRE)) {
+                        for (int id : deletedOeuvreIds) {
+                            ps.setInt(1, id);
+                            ps.addBatch();
+                        }
+                        checkCounts(executeBatch(ps, "suppression d'œuvre"), "Œuvre", deletedOeuvreIds,
+                                "déjà supprimée");
+                    }
+                }
+                if (!deletedAuteurIds.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(DELETE_AUTEUR)) {
+                        for (int id : deletedAuteurIds) {
+                            ps.setInt(1, id);
+                            ps.setInt(2, id);
+                            ps.addBatch();
+                        }
+                        checkCounts(executeBatch(ps, "suppression d'auteur"), "Auteur", deletedAuteurIds,
+                                "encore lié à des œuvres, ou déjà supprimé");
+                    }
+                }
+
+                conn.commit();
+            } catch (SQLException | Rejected e) {
+                conn.rollback(); // rien n'est enregistré
+                if (e instanceof SQLException) System.err.println("Erreur enregistrement des modifications : " + e.getMessage());
+                return CommitResult.failure(e.getMessage());
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur enregistrement des modifications : " + e.getMessage());
+            return CommitResult.failure(e.getMessage());
+        }
+
+        // Noms d'auteurs changés ou auteurs supprimés : plus valables dans le cache
+        for (Auteur a : updatedAuteurs) Auteur.getCache().invalidate(a.getIdAuteur());
+        for (int id : deletedAuteurIds) Auteur.getCache().invalidate(id);
+        return CommitResult.success(createdAuteurs, updatedAuteurs, deletedAuteurIds,
+                createdOeuvres, updatedOeuvres, deletedOeuvreIds);
+    }
+
+    /**
+     * executeBatch, avec un message clair pour un doublon (index unique) ou une clé étrangère.
+     */
+    private static int[] executeBatch(PreparedStatement ps, String operation) throws SQLException, Rejected {
+        try {
+            return ps.executeBatch();
+        } catch (BatchUpdateException e) {
+            if (DBConnection.isDuplicateKey(e)) throw new Rejected("Doublon refusé (" + operation + ")");
+            throw e;
+        }
+    }
+
+    /**
+     * Chaque instruction doit avoir touché une ligne (SUCCESS_NO_INFO : le pilote ne sait pas, on accepte).
+     */
+    private static void checkCounts(int[] counts, String label, List<Integer> ids, String reason) throws Rejected {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) throw new Rejected(label + " " + ids.get(i) + " " + reason);
+        }
+    }
+
+    private static int realAuteurId(int idAuteur, Map<Integer, Integer> auteurIds) throws Rejected {
+        if (!UnitOfWork.isTemporaryId(idAuteur)) return idAuteur;
+        Integer real = auteurIds.get(idAuteur);
+        if (real == null) throw new Rejected("Œuvre liée à un auteur ajouté puis supprimé");
+        return real;
+    }
+
+    private static List<Integer> idsOfAuteurs(List<Auteur> auteurs) {
+        List<Integer> ids = new ArrayList<>(auteurs.size());
+        for (Auteur a : auteurs) ids.add(a.getIdAuteur());
+        return ids;
+    }
+
+    private static List<Integer> idsOfOeuvres(List<Oeuvre> oeuvres) {
+        List<Integer> ids = new ArrayList<>(oeuvres.size());
+        for (Oeuvre o : oeuvres) ids.add(o.getIdOeuvre());
+        return ids;
+    }
+
+    // Copies : les id et auteurs réels sont écrits dans le résultat, pas dans l'unité de travail
+    private static List<Auteur> copyAuteurs(List<Auteur> auteurs) {
+        List<Auteur> copies = new ArrayList<>(auteurs.size());
+        for (Auteur a : auteurs) {
+            Auteur c = new Auteur();
+            c.setIdAuteur(a.getIdAuteur());
+            c.setPrenomAuteur(a.getPrenomAuteur());
+            c.setNomAuteur(a.getNomAuteur());
+            copies.add(c);
+        }
+        return copies;
+    }
+
+    private static List<Oeuvre> copyOeuvres(List<Oeuvre> oeuvres) {
+        List<Oeuvre> copies = new ArrayList<>(oeuvres.size());
+        for (Oeuvre o : oeuvres) {
+            Oeuvre c = new Oeuvre();
+            c.setIdOeuvre(o.getIdOeuvre());
+            c.setNomOeuvre(o.getNomOeuvre());
+            c.setIdAuteur(o.getIdAuteur());
+            copies.add(c);
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,119 @@
+package models;
+
+import config.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lecture des changements depuis un repère (versions de lignes)
+ * --------------------------------------------------------------
+ * Tables et triggers : voir sql/004_versions_lignes.sql.
+ *
+ * Un poste garde un repère : la dernière version du catalogue qu'il a vue.
+ * Pour se mettre à jour, il demande seulement ce qui a changé depuis :
+ * 1. V = version actuelle du catalogue (compteur catalogue_version, déjà validée) ;
+ * 2. lignes de version comprise entre repère (exclu) et V, par version croissante, au plus limit ;
+ * 3. pierres tombales (table suppression) de la même plage.
+ * Nouveau repère : V, ou la version de la dernière ligne lue si la limite est atteinte
+ * (les suppressions sont alors lues jusqu'à cette version seulement).
+ *
+ * Le coût dépend du nombre de changements, pas de la taille du catalogue
+ * (index sur la colonne version).
+ */
+public final class ChangeLog {
+
+    private ChangeLog() {}
+
+    /**
+     * Version actuelle du catalogue : repère de départ d'un poste, à lire
+     * AVANT de charger les données (un changement fait entre-temps sera relu, pas perdu).
+     * return -1 si la lecture échoue (script 004 non appliqué, base injoignable)
+     */
+    public static long getCurrentVersion() {
+        try (Connection conn = DBConnection.getConnection()) {
+            return currentVersion(conn);
+        } catch (SQLException e) {
+            System.err.println("Erreur getCurrentVersion : " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static long currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT valeur FROM catalogue_version WHERE id = 1");
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) throw new SQLException("Compteur catalogue_version absent");
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * param table nom de la table (constante du DAO, jamais une saisie utilisateur)
+     * param columns colonnes lues pour construire un objet (mapper)
+     * return les changements, ou null en cas d'erreur (le repère ne doit pas avancer)
+     */
+    static <T> ChangeSet<T> read(String table, String columns, RowStream.RowMapper<T> mapper,
+                                 long since, int limit) {
+        return read(table, table, columns, mapper, since, limit);
+    }
+
+    /**
+     * Variante avec jointure : from = table suivie de ses jointures (ex. "oeuvre INNER JOIN auteur a ON ...").
+     * - Les colonnes de version sont préfixées par le nom de la table (la table jointe a aussi les siennes).
+     */
+    static <T> ChangeSet<T> read(String table, String from, String columns, RowStream.RowMapper<T> mapper,
+                                 long since, int limit) {
+        String rowsSql = "SELECT " + columns + ", " + table + ".version, " + table + ".version_creation"
+                + " FROM " + from
+                + " WHERE " + table + ".version > ? AND " + table + ".version <= ?"
+                + " ORDER BY " + table + ".version LIMIT ?";
+        String deletedSql = "SELECT id FROM suppression"
+                + " WHERE nom_table = ? AND version > ? AND version <= ? ORDER BY version";
+
+        try (Connection conn = DBConnection.getConnection()) {
+            long upTo = currentVersion(conn);
+            List<T> created = new ArrayList<>();
+            List<T> updated = new ArrayList<>();
+            long lastVersion = since;
+            try (PreparedStatement ps = conn.prepareStatement(rowsSql)) {
+                ps.setLong(1, since);
+                ps.setLong(2, upTo);
+                ps.setInt(3, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        T row = mapper.map(rs, null);
+                        if (rs.getLong("version_creation") > since) created.add(row);
+                        else updated.add(row);
+                        lastVersion = rs.getLong("version");
+                    }
+                }
+            }
+            boolean complete = created.size() + updated.size() < limit;
+            long watermark = complete ? upTo : lastVersion;
+
+            int[] deleted = new int[16];
+            int count = 0;
+            try (PreparedStatement ps = conn.prepareStatement(deletedSql)) {
+                ps.setString(1, table);
+                ps.setLong(2, since);
+                ps.setLong(3, watermark);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (count == deleted.length) deleted = Arrays.copyOf(deleted, count * 2);
+                        deleted[count++] = rs.getInt(1);
+                    }
+                }
+            }
+            return new ChangeSet<>(created, updated, Arrays.copyOf(deleted, count), watermark, complete);
+
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture des changements (" + table + ") : " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Changements d'une table depuis un repère (synchronisation par différence)
+ * --------------------------------------------------------------------------
+ * Résultat de Auteur.getAuteurChanges / Oeuvre.getOeuvreChanges (voir ChangeLog) :
+ * - created   : lignes créées après le repère (éventuellement modifiées depuis) ;
+ * - updated   : lignes plus anciennes, modifiées après le repère ;
+ * - deletedIds : identifiants des lignes supprimées après le repère ;
+ * - watermark : nouveau repère, à redonner au prochain appel ;
+ * - complete  : false s'il reste des changements au-delà de la limite demandée
+ *               (rappeler tout de suite avec le nouveau repère).
+ *
+ * param <T> Auteur ou Oeuvre
+ */
+public class ChangeSet<T> {
+
+    private final List<T> created;
+    private final List<T> updated;
+    private final int[] deletedIds;
+    private final long watermark;
+    private final boolean complete;
+
+    public ChangeSet(List<T> created, List<T> updated, int[] deletedIds, long watermark, boolean complete) {
+        this.created = created;
+        this.updated = updated;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+        this.complete = complete;
+    }
+
+    public List<T> getCreated() { return created; }
+    public List<T> getUpdated() { return updated; }
+    public int[] getDeletedIds() { return deletedIds; }
+    public long getWatermark() { return watermark; }
+    public boolean isComplete() { return complete; }
+
+    public boolean isEmpty() {
+        return created.isEmpty() && updated.isEmpty() && deletedIds.length == 0;
+    }
+
+    public int size() {
+        return created.size() + updated.size() + deletedIds.length;
+    }
+
+    @Override
+    public String toString() {
+        return "+" + created.size() + " ~" + updated.size() + " -" + deletedIds.length
+                + " (repère " + watermark + (complete ? ")" : ", incomplet)");
+    }
+}
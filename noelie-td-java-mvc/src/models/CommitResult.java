@@ -0,0 +1,68 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Résultat de l'enregistrement d'une unité de travail
+ * ----------------------------------------------------
+ * - succès : toutes les modifications sont en base ; les lignes ajoutées portent
+ *   maintenant leur vrai identifiant (created*), à publier comme des créations ;
+ * - échec : rien n'a été enregistré (transaction annulée), message = première erreur.
+ */
+public class CommitResult {
+
+    private final boolean success;
+    private final String message;
+    private final List<Auteur> createdAuteurs;
+    private final List<Auteur> updatedAuteurs;
+    private final List<Integer> deletedAuteurIds;
+    private final List<Oeuvre> createdOeuvres;
+    private final List<Oeuvre> updatedOeuvres;
+    private final List<Integer> deletedOeuvreIds;
+
+    private CommitResult(boolean success, String message,
+                         List<Auteur> createdAuteurs, List<Auteur> updatedAuteurs, List<Integer> deletedAuteurIds,
+                         List<Oeuvre> createdOeuvres, List<Oeuvre> updatedOeuvres, List<Integer> deletedOeuvreIds) {
+        this.success = success;
+        this.message = message;
+        this.createdAuteurs = createdAuteurs;
+        this.updatedAuteurs = updatedAuteurs;
+        this.deletedAuteurIds = deletedAuteurIds;
+        this.createdOeuvres = createdOeuvres;
+        this.updatedOeuvres = updatedOeuvres;
+        this.deletedOeuvreIds = deletedOeuvreIds;
+    }
+
+    public static CommitResult success(List<Auteur> createdAuteurs, List<Auteur> updatedAuteurs,
+                                       List<Integer> deletedAuteurIds, List<Oeuvre> createdOeuvres,
+                                       List<Oeuvre> updatedOeuvres, List<Integer> deletedOeuvreIds) {
+        return new CommitResult(true, null, createdAuteurs, updatedAuteurs, deletedAuteurIds,
+                createdOeuvres, updatedOeuvres, deletedOeuvreIds);
+    }
+
+    public static CommitResult failure(String message) {
+        return new CommitResult(false, message, List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    public boolean isSuccess() { return success; }
+    public String getMessage() { return message; }
+    public List<Auteur> getCreatedAuteurs() { return createdAuteurs; }
+    public List<Auteur> getUpdatedAuteurs() { return updatedAuteurs; }
+    public List<Integer> getDeletedAuteurIds() { return deletedAuteurIds; }
+    public List<Oeuvre> getCreatedOeuvres() { return createdOeuvres; }
+    public List<Oeuvre> getUpdatedOeuvres() { return updatedOeuvres; }
+    public List<Integer> getDeletedOeuvreIds() { return deletedOeuvreIds; }
+
+    /**
+     * Nombre de lignes enregistrées
+     */
+    public int size() {
+        return createdAuteurs.size() + updatedAuteurs.size() + deletedAuteurIds.size()
+                + createdOeuvres.size() + updatedOeuvres.size() + deletedOeuvreIds.size();
+    }
+
+    @Override
+    public String toString() {
+        return success ? size() + " modification(s) enregistrée(s)" : "Échec : " + message;
+    }
+}
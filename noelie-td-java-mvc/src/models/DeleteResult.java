@@ -0,0 +1,38 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Résultat d'une suppression en lot
+ * ----------------------------------
+ * Pour les identifiants envoyés à Auteur.deleteAuteurs / Oeuvre.deleteOeuvres :
+ * - deleted : lignes supprimées ;
+ * - blocked : lignes gardées car encore référencées (auteur lié à des œuvres) ;
+ * - failed  : lignes non traitées (erreur SQL, message renseigné).
+ * Un identifiant qui n'existe pas (déjà supprimé) n'apparaît dans aucune liste.
+ */
+public class DeleteResult {
+
+    private final List<Integer> deletedIds;
+    private final List<Integer> blockedIds;
+    private final List<Integer> failedIds;
+    private final String message;
+
+    public DeleteResult(List<Integer> deletedIds, List<Integer> blockedIds, List<Integer> failedIds, String message) {
+        this.deletedIds = deletedIds;
+        this.blockedIds = blockedIds;
+        this.failedIds = failedIds;
+        this.message = message;
+    }
+
+    public List<Integer> getDeletedIds() { return deletedIds; }
+    public List<Integer> getBlockedIds() { return blockedIds; }
+    public List<Integer> getFailedIds() { return failedIds; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return deletedIds.size() + " supprimé(s), " + blockedIds.size() + " bloqué(s)"
+                + (failedIds.isEmpty() ? "" : ", " + failedIds.size() + " non traité(s) (" + message + ")");
+    }
+}
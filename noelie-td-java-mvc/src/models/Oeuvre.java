@@ -1,10 +1,14 @@
 package models;
 
 import config.DBConnection;
+import config.QueryHandle;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Classe Oeuvre (fusion Modèle + DAO pour débutants)
@@ -16,7 +20,7 @@ import java.util.List;
  * 1. Comprendre le rôle du Modèle dans MVC.
  * 2. Encapsuler les données via getters et setters.
  * 3. Apprendre JDBC avec PreparedStatement et paramètres positionnés.
- * 4. Vérifier les doublons avant insertion/modification.
+ * 4. Laisser la base refuser les doublons (index unique) lors de l'insertion/modification.
  * 5. Gérer les transactions lors des suppressions.
  */
 public class Oeuvre {
@@ -55,38 +59,6 @@ public class Oeuvre {
     // ================== PARTIE "DAO" (Accès base de données) =============
     // ====================================================================
 
-    /**
-     * Vérifie si une œuvre existe déjà (titre + auteur)
-     * -----------------------------------------------
-     * - Utilisation de PreparedStatement avec "?" → paramètre positionné
-     * (sécurise contre injections SQL et facilite maintenance)
-     * - excludeId permet d'exclure une œuvre existante lors d'une modification
-     */
-    private static boolean oeuvreExists(String nomOeuvre, int idAuteur, Integer excludeId) {
-        String sql = "SELECT COUNT(*) FROM oeuvre WHERE nom_oeuvre = ? AND id_auteur = ?";
-        if (excludeId != null)
-            sql += " AND id_oeuvre != ?";
-
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            // ⚠️ Les paramètres "?" sont numérotés à partir de 1
-            ps.setString(1, nomOeuvre);
-            ps.setInt(2, idAuteur);
-            if (excludeId != null)
-                ps.setInt(3, excludeId);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next())
-                    return rs.getInt(1) > 0; // COUNT(*) > 0 → existe
-            }
-
-        } catch (SQLException e) {
-            System.err.println("Erreur oeuvreExists : " + e.getMessage());
-        }
-        return false;
-    }
-
     /**
      * Lire toutes les œuvres
      * -----------------------
@@ -117,6 +89,244 @@ public class Oeuvre {
         return oeuvres;
     }
 
+    /**
+     * Lire toutes les œuvres avec le nom de leur auteur
+     * -------------------------------------------------
+     * - Même jointure que getAllOeuvres, mais les colonnes de l'auteur sont conservées
+     * - Une seule requête pour tout le catalogue (pas de recherche d'auteur par ligne)
+     */
+    public static List<OeuvreAuteur> getAllOeuvresAvecAuteur() {
+        List<OeuvreAuteur> lignes = new ArrayList<>();
+        String sql = "SELECT o.id_oeuvre, o.nom_oeuvre, o.id_auteur, " +
+                "a.prenom_auteur, a.nom_auteur " +
+                "FROM oeuvre o INNER JOIN auteur a ON o.id_auteur = a.id_auteur";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                lignes.add(mapOeuvreAuteur(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getAllOeuvresAvecAuteur : " + e.getMessage());
+        }
+        return lignes;
+    }
+
+    /**
+     * Parcourir toutes les œuvres en flux
+     * -----------------------------------
+     * - Curseur en avant seulement : pas de liste de millions d'œuvres en mémoire
+     * - try (Stream<Oeuvre> oeuvres = Oeuvre.streamOeuvres(false)) { ... }
+     *   → la fermeture du Stream rend la connexion au pool
+     * param reuseRow true : un seul objet Oeuvre, rempli à chaque ligne (ne pas le conserver)
+     */
+    public static Stream<Oeuvre> streamOeuvres(boolean reuseRow) {
+        return RowStream.open("SELECT id_oeuvre, nom_oeuvre, id_auteur FROM oeuvre ORDER BY id_oeuvre",
+                Oeuvre::mapOeuvre, reuseRow);
+    }
+
+    /**
+     * Parcourir toutes les œuvres avec leur auteur en flux (jointure)
+     * - OeuvreAuteur est immuable : un objet par ligne, pas de réutilisation
+     */
+    public static Stream<OeuvreAuteur> streamOeuvresAvecAuteur() {
+        String sql = "SELECT o.id_oeuvre, o.nom_oeuvre, o.id_auteur, a.prenom_auteur, a.nom_auteur " +
+                "FROM oeuvre o INNER JOIN auteur a ON o.id_auteur = a.id_auteur ORDER BY o.id_oeuvre";
+        return RowStream.open(sql, (rs, reuse) -> mapOeuvreAuteur(rs), false);
+    }
+
+    /**
+     * Visiter toutes les œuvres (la fermeture du curseur est faite ici)
+     * return le nombre d'œuvres visitées
+     */
+    public static long forEachOeuvre(Consumer<? super Oeuvre> visitor, boolean reuseRow) {
+        long[] count = {0};
+        try (Stream<Oeuvre> oeuvres = streamOeuvres(reuseRow)) {
+            oeuvres.forEach(o -> {
+                visitor.accept(o);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    // Remplit "reuse" (ou une nouvelle Oeuvre) avec la ligne courante
+    private static Oeuvre mapOeuvre(ResultSet rs, Oeuvre reuse) throws SQLException {
+        Oeuvre o = reuse != null ? reuse : new Oeuvre();
+        o.setIdOeuvre(rs.getInt("id_oeuvre"));
+        o.setNomOeuvre(rs.getString("nom_oeuvre"));
+        o.setIdAuteur(rs.getInt("id_auteur"));
+        return o;
+    }
+
+    /**
+     * Lire une page d'œuvres avec leur auteur (pagination par clé)
+     * ------------------------------------------------------------
+     * - WHERE id_oeuvre > dernier id affiché + ORDER BY + LIMIT : pas d'OFFSET,
+     *   le coût ne dépend pas de la position dans le catalogue.
+     * param afterId dernier id de la page précédente (0 pour la première page)
+     * param limit nombre maximum de lignes
+     */
+    public static List<OeuvreAuteur> getOeuvresAvecAuteurPage(int afterId, int limit) {
+        List<OeuvreAuteur> lignes = new ArrayList<>();
+        String sql = "SELECT o.id_oeuvre, o.nom_oeuvre, o.id_auteur, " +
+                "a.prenom_auteur, a.nom_auteur " +
+                "FROM oeuvre o INNER JOIN auteur a ON o.id_auteur = a.id_auteur " +
+                "WHERE o.id_oeuvre > ? ORDER BY o.id_oeuvre LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lignes.add(mapOeuvreAuteur(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getOeuvresAvecAuteurPage : " + e.getMessage());
+        }
+        return lignes;
+    }
+
+    /**
+     * Rechercher en base les œuvres dont le titre commence par prefix, avec leur auteur
+     * (sans casse ni accents ; l'index unique (nom_oeuvre, id_auteur) sert à la recherche et au tri).
+     * param handle permet d'annuler la requête depuis un autre thread (nouvelle saisie)
+     * return lignes triées par titre ; liste vide (ou partielle) si annulée, trop longue ou en erreur
+     */
+    public static List<OeuvreAuteur> searchOeuvresAvecAuteur(String prefix, int limit, QueryHandle handle) {
+        List<OeuvreAuteur> lignes = new ArrayList<>();
+        String sql = "SELECT o.id_oeuvre, o.nom_oeuvre, o.id_auteur, " +
+                "a.prenom_auteur, a.nom_auteur " +
+                "FROM oeuvre o INNER JOIN auteur a ON o.id_auteur = a.id_auteur " +
+                "WHERE o.nom_oeuvre LIKE ? ORDER BY o.nom_oeuvre LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, DBConnection.likePrefix(prefix));
+            ps.setInt(2, limit);
+            ps.setQueryTimeout(DBConnection.SEARCH_TIMEOUT_SECONDS); // au-delà : SQLTimeoutException
+
+            handle.attach(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next() && !handle.isCancelled()) {
+                    lignes.add(mapOeuvreAuteur(rs));
+                }
+            } finally {
+                handle.detach(); // avant de rendre la connexion au pool
+            }
+
+        } catch (SQLException e) {
+            if (!handle.isCancelled()) System.err.println("Erreur searchOeuvresAvecAuteur : " + e.getMessage());
+        }
+        return lignes;
+    }
+
+    /**
+     * Lire seulement les identifiants d'œuvres (requête légère pour "sauter" de page en page)
+     */
+    public static int[] getOeuvreIds(int afterId, int limit) {
+        String sql = "SELECT id_oeuvre FROM oeuvre WHERE id_oeuvre > ? ORDER BY id_oeuvre LIMIT ?";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                int[] ids = new int[Math.min(limit, 1024)];
+                int n = 0;
+                while (rs.next()) {
+                    if (n == ids.length)
+                        ids = Arrays.copyOf(ids, ids.length * 2);
+                    ids[n++] = rs.getInt(1);
+                }
+                return Arrays.copyOf(ids, n);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getOeuvreIds : " + e.getMessage());
+        }
+        return new int[0];
+    }
+
+    /**
+     * Compter les œuvres
+     */
+    public static int countOeuvres() {
+        String sql = "SELECT COUNT(*) FROM oeuvre";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next())
+                return rs.getInt(1);
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countOeuvres : " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Compter les œuvres et lire le plus grand id, en une seule requête (même instant)
+     * return {nombre, plus grand id (0 si table vide)}, ou {0, -1} en cas d'erreur
+     */
+    public static int[] countOeuvresAndMaxId() {
+        String sql = "SELECT COUNT(*), COALESCE(MAX(id_oeuvre), 0) FROM oeuvre";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next())
+                return new int[]{rs.getInt(1), rs.getInt(2)};
+
+        } catch (SQLException e) {
+            System.err.println("Erreur countOeuvresAndMaxId : " + e.getMessage());
+        }
+        return new int[]{0, -1};
+    }
+
+    /**
+     * Changements depuis un repère (autres postes compris)
+     * - Œuvres créées ou modifiées et id supprimés depuis la version "since" (voir ChangeLog).
+     * - Jointure avec l'auteur : il est mis en cache au passage, l'affichage des lignes
+     *   reçues ne relance pas un getAuteurById par œuvre.
+     * return null en cas d'erreur (garder l'ancien repère)
+     */
+    public static ChangeSet<Oeuvre> getOeuvreChanges(long since, int limit) {
+        long generation = Auteur.cacheGeneration();
+        return ChangeLog.read("oeuvre", "oeuvre INNER JOIN auteur a ON oeuvre.id_auteur = a.id_auteur",
+                "oeuvre.id_oeuvre, oeuvre.nom_oeuvre, oeuvre.id_auteur, a.prenom_auteur, a.nom_auteur",
+                (rs, reuse) -> {
+                    Auteur.cacheFromRow(rs, generation);
+                    return mapOeuvre(rs, null);
+                }, since, limit);
+    }
+
+    /**
+     * Convertit la ligne courante du ResultSet (jointure œuvre + auteur) en OeuvreAuteur
+     */
+    static OeuvreAuteur mapOeuvreAuteur(ResultSet rs) throws SQLException {
+        return new OeuvreAuteur(
+                rs.getInt("id_oeuvre"),
+                rs.getString("nom_oeuvre"),
+                rs.getInt("id_auteur"),
+                rs.getString("prenom_auteur"),
+                rs.getString("nom_auteur"));
+    }
+
     /**
      * Récupérer une œuvre par son ID
      */
@@ -147,41 +357,131 @@ public class Oeuvre {
         return null;
     }
 
+    /**
+     * Récupérer les œuvres d'un auteur
+     * - Utilise l'index de la clé étrangère id_auteur (pas de parcours de la table)
+     */
+    public static List<Oeuvre> getOeuvresByAuteur(int idAuteur) {
+        List<Oeuvre> oeuvres = new ArrayList<>();
+        String sql = "SELECT id_oeuvre, nom_oeuvre, id_auteur FROM oeuvre WHERE id_auteur = ? ORDER BY id_oeuvre";
+
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, idAuteur);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    oeuvres.add(mapOeuvre(rs, null));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur getOeuvresByAuteur : " + e.getMessage());
+        }
+        return oeuvres;
+    }
+
     /**
      * Ajouter une nouvelle œuvre
      * ---------------------------
-     * - Vérifie si l'œuvre existe déjà (évite doublon)
-     * - INSERT avec paramètres positionnés
+     * - INSERT avec paramètres positionnés, sans SELECT préalable
+     * - Doublon (même titre pour le même auteur) refusé par l'index unique
+     *   (nom_oeuvre, id_auteur) : un seul aller-retour, sûr même en accès concurrent
+     * - Retourne l'œuvre enregistrée avec l'id généré par la base,
+     *   ou null si doublon / erreur
      */
-    public static boolean addOeuvre(String nomOeuvre, int idAuteur) {
-        if (oeuvreExists(nomOeuvre, idAuteur, null))
-            return false;
-
+    public static Oeuvre addOeuvre(String nomOeuvre, int idAuteur) {
         String sql = "INSERT INTO oeuvre (nom_oeuvre, id_auteur) VALUES (?, ?)";
 
         try (Connection conn = DBConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
+                PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, nomOeuvre); // premier "?"
             ps.setInt(2, idAuteur); // deuxième "?"
-            return ps.executeUpdate() > 0; // executeUpdate → nombre de lignes insérées
+            if (ps.executeUpdate() == 0) // executeUpdate → nombre de lignes insérées
+                return null;
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next())
+                    return null;
+                Oeuvre o = new Oeuvre();
+                o.setIdOeuvre(keys.getInt(1)); // id auto-incrémenté
+                o.setNomOeuvre(nomOeuvre);
+                o.setIdAuteur(idAuteur);
+                return o;
+            }
 
         } catch (SQLException e) {
+            if (DBConnection.isDuplicateKey(e))
+                return null; // doublon refusé par la base
             System.err.println("Erreur addOeuvre : " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Ajouter plusieurs œuvres en lot
+     * --------------------------------
+     * - Paquets de chunkSize œuvres : un executeBatch() et un commit par paquet
+     * - Doublons (même titre, même auteur) signalés sans être insérés
+     * - Auteur inexistant (clé étrangère) → FAILED pour cette seule œuvre
+     * - Retourne un résultat par œuvre, dans l'ordre de la liste
+     */
+    public static List<BatchResult<Oeuvre>> addOeuvres(List<Oeuvre> oeuvres, int chunkSize) {
+        return BatchInsert.insert(oeuvres, chunkSize, OEUVRE_BATCH, "addOeuvres");
+    }
+
+    // Particularités de la table oeuvre pour l'insertion en lot
+    private static final BatchInsert.Spec<Oeuvre> OEUVRE_BATCH = new BatchInsert.Spec<>() {
+        @Override
+        public String insertSql() {
+            return "INSERT INTO oeuvre (nom_oeuvre, id_auteur) VALUES (?, ?)";
+        }
+
+        @Override
+        public String existingSql(int n) {
+            return "SELECT nom_oeuvre, id_auteur FROM oeuvre WHERE (nom_oeuvre, id_auteur) IN ("
+                    + BatchInsert.placeholders(n, 2) + ")";
+        }
+
+        @Override
+        public int bindKey(PreparedStatement ps, int index, Oeuvre o) throws SQLException {
+            ps.setString(index, o.getNomOeuvre());
+            ps.setInt(index + 1, o.getIdAuteur());
+            return index + 2;
+        }
+
+        @Override
+        public void bindInsert(PreparedStatement ps, Oeuvre o) throws SQLException {
+            bindKey(ps, 1, o);
+        }
+
+        @Override
+        public String keyOf(Oeuvre o) {
+            return BatchInsert.foldKey(o.getNomOeuvre()) + '\u0000' + o.getIdAuteur();
+        }
+
+        @Override
+        public String keyOf(ResultSet rs) throws SQLException {
+            return BatchInsert.foldKey(rs.getString(1)) + '\u0000' + rs.getInt(2);
+        }
+
+        @Override
+        public void setId(Oeuvre o, int id) {
+            o.setIdOeuvre(id);
+        }
+    };
+
     /**
      * Modifier une œuvre existante
      * -----------------------------
-     * - Vérifie doublon avant UPDATE
      * - UPDATE avec paramètres positionnés
+     * - Doublon refusé par l'index unique (nom_oeuvre, id_auteur) → false
      */
 
     // --------- CODER ICI ---------
     public static boolean updateOeuvre(int idOeuvre ,int idAuteur, String nomOeuvre) {
-    if (oeuvreExists(nomOeuvre, idAuteur, idOeuvre)) return false; 
     String sql = "UPDATE oeuvre SET nom_oeuvre = ?, id_auteur = ? WHERE id_oeuvre = ?";
     
     try (Connection conn = DBConnection.getConnection();
@@ -195,6 +495,7 @@ public class Oeuvre {
             return ps.executeUpdate() > 0;
 
          } catch (SQLException e){
+            if (DBConnection.isDuplicateKey(e)) return false; // doublon
             System.err.println("Erreur updateOeuvre : " + e.getMessage());
             return false;
          }
@@ -224,8 +525,6 @@ public class Oeuvre {
 
         try (Connection conn = DBConnection.getConnection()) {
             conn.setAutoCommit(false);
-
-
             try (PreparedStatement psDelete = conn.prepareStatement(deleteSql)){
                 psDelete.setInt(1, idOeuvre);
                 if (psDelete.executeUpdate()> 0) {
@@ -234,6 +533,11 @@ public class Oeuvre {
                 } else {
                     conn.rollback();
                 }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true); // rendue au pool en mode auto-commit
             }
         } catch (SQLException e){
             System.err.println("Erreur deleteOeuvre :" + e.getMessage());
@@ -241,6 +545,30 @@ public class Oeuvre {
         return false;
     }
 
+    /**
+     * Supprimer plusieurs œuvres en une fois
+     * --------------------------------------
+     * - Par paquets de chunkSize : un SELECT ... FOR UPDATE (œuvres existantes)
+     *   puis UN DELETE ... WHERE id_oeuvre IN (...), et un commit (voir BulkDelete).
+     * - Une œuvre n'est jamais bloquée (rien ne la référence).
+     */
+    public static DeleteResult deleteOeuvres(List<Integer> ids, int chunkSize) {
+        return BulkDelete.delete(ids, chunkSize, OEUVRE_DELETE, "deleteOeuvres");
+    }
+
+    // Particularités de la table oeuvre pour la suppression en lot
+    private static final BulkDelete.Spec OEUVRE_DELETE = new BulkDelete.Spec() {
+        @Override
+        public String lockSql(int n) {
+            return "SELECT id_oeuvre, 0 FROM oeuvre WHERE id_oeuvre IN (" + BulkDelete.placeholders(n) + ") FOR UPDATE";
+        }
+
+        @Override
+        public String deleteSql(int n) {
+            return "DELETE FROM oeuvre WHERE id_oeuvre IN (" + BulkDelete.placeholders(n) + ")";
+        }
+    };
+
     // Ligne 202 : Création des méthodes pour modifier une œuvre
     // Ces méthodes permettront de mettre à jour les informations d'une œuvre
     // dans la base de données tout en respectant le modèle MVC.
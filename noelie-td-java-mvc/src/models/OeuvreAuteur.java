@@ -0,0 +1,67 @@
+package models;
+
+/**
+ * Classe OeuvreAuteur (modèle de lecture)
+ * ---------------------------------------
+ * Une ligne "œuvre + auteur" telle que renvoyée par la jointure
+ * oeuvre INNER JOIN auteur.
+ *
+ * Pourquoi ?
+ * - Pour afficher le catalogue, la vue a besoin du nom de l'auteur de chaque œuvre.
+ * - Demander l'auteur ligne par ligne (findAuteurById) fait 1 requête par œuvre (problème "N+1").
+ * - Avec cette projection, une seule requête suffit, quelle que soit la taille du catalogue.
+ *
+ * Objet en lecture seule : pour modifier une œuvre on repasse par Oeuvre (toOeuvre()).
+ */
+public class OeuvreAuteur {
+
+    private final int idOeuvre;
+    private final String nomOeuvre;
+    private final int idAuteur;
+    private final String prenomAuteur;
+    private final String nomAuteur;
+
+    public OeuvreAuteur(int idOeuvre, String nomOeuvre, int idAuteur, String prenomAuteur, String nomAuteur) {
+        this.idOeuvre = idOeuvre;
+        this.nomOeuvre = nomOeuvre;
+        this.idAuteur = idAuteur;
+        this.prenomAuteur = prenomAuteur;
+        this.nomAuteur = nomAuteur;
+    }
+
+    // ----- Getters -----
+    public int getIdOeuvre() { return idOeuvre; }
+    public String getNomOeuvre() { return nomOeuvre; }
+    public int getIdAuteur() { return idAuteur; }
+    public String getPrenomAuteur() { return prenomAuteur; }
+    public String getNomAuteur() { return nomAuteur; }
+
+    /**
+     * Prénom + nom de l'auteur, comme Auteur.toString()
+     */
+    public String getNomCompletAuteur() {
+        return prenomAuteur + " " + nomAuteur;
+    }
+
+    /**
+     * Convertit la ligne en objet Oeuvre (ex: pour le formulaire de modification)
+     */
+    public Oeuvre toOeuvre() {
+        Oeuvre o = new Oeuvre();
+        o.setIdOeuvre(idOeuvre);
+        o.setNomOeuvre(nomOeuvre);
+        o.setIdAuteur(idAuteur);
+        return o;
+    }
+
+    /**
+     * Auteur de la ligne (ex: présélection dans le formulaire, sans nouvelle requête)
+     */
+    public Auteur toAuteur() {
+        Auteur a = new Auteur();
+        a.setIdAuteur(idAuteur);
+        a.setPrenomAuteur(prenomAuteur);
+        a.setNomAuteur(nomAuteur);
+        return a;
+    }
+}
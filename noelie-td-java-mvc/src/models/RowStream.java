@@ -0,0 +1,118 @@
+package models;
+
+import config.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lecture en flux d'un résultat SQL (Stream)
+ * -------------------------------------------
+ * Pour parcourir des millions de lignes sans les stocker dans une ArrayList.
+ *
+ * - La requête est lue en flux (DBConnection.prepareStreaming) : un curseur en avant seulement.
+ * - Chaque ligne est convertie par un RowMapper au moment où le Stream la demande.
+ * - Le Stream DOIT être fermé (try-with-resources) : close() ferme le ResultSet,
+ *   le statement et rend la connexion au pool. Il est aussi fermé automatiquement
+ *   quand la dernière ligne a été lue ou en cas d'erreur.
+ * - Une erreur SQL pendant le parcours est relancée en IllegalStateException
+ *   (les lambdas d'un Stream ne peuvent pas lancer de SQLException).
+ * - Le Stream est séquentiel : un ResultSet se lit dans l'ordre, par un seul thread.
+ */
+final class RowStream {
+
+    private RowStream() {}
+
+    /**
+     * Convertit la ligne courante.
+     * param reuse objet à remplir (réutilisation), ou null pour en créer un nouveau
+     */
+    interface RowMapper<T> {
+        T map(ResultSet rs, T reuse) throws SQLException;
+    }
+
+    /**
+     * param reuseRow true : le même objet est rempli à chaque ligne (aucune allocation) ;
+     *                il ne faut alors ni le conserver ni le mettre dans une collection.
+     */
+    static <T> Stream<T> open(String sql, RowMapper<T> mapper, boolean reuseRow) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = DBConnection.getConnection();
+            ps = DBConnection.prepareStreaming(conn, sql);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(rs, ps, conn);
+            throw new IllegalStateException("Erreur ouverture du curseur : " + e.getMessage(), e);
+        }
+
+        Cursor<T> cursor = new Cursor<>(conn, ps, rs, mapper, reuseRow);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable r : resources) {
+            if (r == null) continue;
+            try {
+                r.close();
+            } catch (Exception e) {
+                System.err.println("Erreur fermeture du curseur : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Spliterator qui avance le ResultSet d'une ligne à chaque tryAdvance.
+     */
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection conn;
+        private final PreparedStatement ps;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private final boolean reuseRow;
+        private T row;
+        private boolean closed;
+
+        Cursor(Connection conn, PreparedStatement ps, ResultSet rs, RowMapper<T> mapper, boolean reuseRow) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.ps = ps;
+            this.rs = rs;
+            this.mapper = mapper;
+            this.reuseRow = reuseRow;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) return false;
+            try {
+                if (!rs.next()) {
+                    close(); // fin du résultat : on libère la connexion sans attendre close() du Stream
+                    return false;
+                }
+                row = mapper.map(rs, reuseRow ? row : null);
+            } catch (SQLException e) {
+                close();
+                throw new IllegalStateException("Erreur lecture du curseur : " + e.getMessage(), e);
+            }
+            action.accept(row);
+            return true;
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            row = null;
+            closeQuietly(rs, ps, conn);
+        }
+    }
+}
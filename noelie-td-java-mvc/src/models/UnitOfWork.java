@@ -0,0 +1,174 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unité de travail : modifications en attente
+ * --------------------------------------------
+ * En mode "brouillon", les ajouts, modifications et suppressions ne sont pas envoyés
+ * un par un à la base (un aller-retour et une transaction par clic) : ils sont notés ici,
+ * puis enregistrés tous ensemble, dans UNE transaction (voir CatalogTransaction) :
+ * tout est enregistré, ou rien.
+ *
+ * Une seule modification est gardée par ligne, son état final :
+ * - ajout puis modification        → ajout avec les nouvelles valeurs ;
+ * - ajout puis suppression         → plus rien ;
+ * - modification puis suppression  → suppression.
+ * Une ligne ajoutée reçoit un identifiant provisoire NÉGATIF (jamais utilisé par la base) ;
+ * une œuvre peut référencer un auteur ajouté dans la même unité de travail.
+ *
+ * Objet non partagé entre threads (utilisé depuis l'EDT, puis lu par l'enregistrement).
+ */
+public class UnitOfWork {
+
+    public enum Kind { CREATE, UPDATE, DELETE }
+
+    /**
+     * Une modification en attente : son type et la ligne dans son état final
+     * (pour une suppression, seul l'identifiant compte).
+     */
+    public static final class Edit<T> {
+        private final Kind kind;
+        private final T item;
+
+        Edit(Kind kind, T item) {
+            this.kind = kind;
+            this.item = item;
+        }
+
+        public Kind getKind() { return kind; }
+        public T getItem() { return item; }
+    }
+
+    // Identifiants provisoires uniques dans toute l'application
+    private static final AtomicInteger TEMPORARY_IDS = new AtomicInteger();
+
+    // id → modification, dans l'ordre où les lignes ont été modifiées pour la première fois
+    private final Map<Integer, Edit<Auteur>> auteurs = new LinkedHashMap<>();
+    private final Map<Integer, Edit<Oeuvre>> oeuvres = new LinkedHashMap<>();
+
+    public static boolean isTemporaryId(int id) {
+        return id < 0;
+    }
+
+    // ----- Auteurs -----
+
+    /**
+     * return l'auteur à ajouter, avec son identifiant provisoire
+     */
+    public Auteur createAuteur(String prenom, String nom) {
+        Auteur a = auteur(TEMPORARY_IDS.decrementAndGet(), prenom, nom);
+        auteurs.put(a.getIdAuteur(), new Edit<>(Kind.CREATE, a));
+        return a;
+    }
+
+    public void updateAuteur(int idAuteur, String prenom, String nom) {
+        Edit<Auteur> previous = auteurs.get(idAuteur);
+        if (previous != null && previous.kind == Kind.DELETE) return; // déjà supprimé
+        Kind kind = previous != null && previous.kind == Kind.CREATE ? Kind.CREATE : Kind.UPDATE;
+        auteurs.put(idAuteur, new Edit<>(kind, auteur(idAuteur, prenom, nom)));
+    }
+
+    public void deleteAuteur(int idAuteur) {
+        Edit<Auteur> previous = auteurs.get(idAuteur);
+        if (previous != null && previous.kind == Kind.CREATE) {
+            auteurs.remove(idAuteur); // jamais enregistré : rien à supprimer en base
+        } else {
+            auteurs.put(idAuteur, new Edit<>(Kind.DELETE, auteur(idAuteur, null, null)));
+        }
+    }
+
+    // ----- Œuvres -----
+
+    /**
+     * param idAuteur auteur existant, ou provisoire (ajouté dans cette unité de travail)
+     * return l'œuvre à ajouter, avec son identifiant provisoire
+     */
+    public Oeuvre createOeuvre(String nom, int idAuteur) {
+        Oeuvre o = oeuvre(TEMPORARY_IDS.decrementAndGet(), nom, idAuteur);
+        oeuvres.put(o.getIdOeuvre(), new Edit<>(Kind.CREATE, o));
+        return o;
+    }
+
+    public void updateOeuvre(int idOeuvre, String nom, int idAuteur) {
+        Edit<Oeuvre> previous = oeuvres.get(idOeuvre);
+        if (previous != null && previous.kind == Kind.DELETE) return;
+        Kind kind = previous != null && previous.kind == Kind.CREATE ? Kind.CREATE : Kind.UPDATE;
+        oeuvres.put(idOeuvre, new Edit<>(kind, oeuvre(idOeuvre, nom, idAuteur)));
+    }
+
+    public void deleteOeuvre(int idOeuvre) {
+        Edit<Oeuvre> previous = oeuvres.get(idOeuvre);
+        if (previous != null && previous.kind == Kind.CREATE) {
+            oeuvres.remove(idOeuvre);
+        } else {
+            oeuvres.put(idOeuvre, new Edit<>(Kind.DELETE, oeuvre(idOeuvre, null, 0)));
+        }
+    }
+
+    // ----- Lecture -----
+
+    /** return la modification en attente pour cet auteur, ou null */
+    public Edit<Auteur> getAuteurEdit(int idAuteur) {
+        return auteurs.get(idAuteur);
+    }
+
+    /** return la modification en attente pour cette œuvre, ou null */
+    public Edit<Oeuvre> getOeuvreEdit(int idOeuvre) {
+        return oeuvres.get(idOeuvre);
+    }
+
+    /** Auteurs concernés par ce type de modification, dans l'ordre des modifications. */
+    public List<Auteur> getAuteurs(Kind kind) {
+        return itemsOf(auteurs, kind);
+    }
+
+    /** Œuvres concernées par ce type de modification, dans l'ordre des modifications. */
+    public List<Oeuvre> getOeuvres(Kind kind) {
+        return itemsOf(oeuvres, kind);
+    }
+
+    public int size() {
+        return auteurs.size() + oeuvres.size();
+    }
+
+    public boolean isEmpty() {
+        return auteurs.isEmpty() && oeuvres.isEmpty();
+    }
+
+    /**
+     * Oublie toutes les modifications (abandon, ou après l'enregistrement).
+     */
+    public void clear() {
+        auteurs.clear();
+        oeuvres.clear();
+    }
+
+    private static <T> List<T> itemsOf(Map<Integer, Edit<T>> edits, Kind kind) {
+        List<T> items = new ArrayList<>();
+        for (Edit<T> e : edits.values()) {
+            if (e.kind == kind) items.add(e.item);
+        }
+        return items;
+    }
+
+    private static Auteur auteur(int id, String prenom, String nom) {
+        Auteur a = new Auteur();
+        a.setIdAuteur(id);
+        a.setPrenomAuteur(prenom);
+        a.setNomAuteur(nom);
+        return a;
+    }
+
+    private static Oeuvre oeuvre(int id, String nom, int idAuteur) {
+        Oeuvre o = new Oeuvre();
+        o.setIdOeuvre(id);
+        o.setNomOeuvre(nom);
+        o.setIdAuteur(idAuteur);
+        return o;
+    }
+}
@@ -0,0 +1,64 @@
+package repositories;
+
+import config.QueryHandle;
+import models.Auteur;
+import models.BatchResult;
+import models.ChangeSet;
+import models.DeleteResult;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Interface AuteurRepository
+ * ---------------------------
+ * Accès aux auteurs, indépendamment du stockage :
+ * - JdbcAuteurRepository : base MySQL (méthodes statiques de models.Auteur)
+ * - InMemoryCatalog.auteurs() : tout en mémoire (tests, démos, benchmarks)
+ *
+ * Le contrôleur ne connaît que cette interface : on choisit le stockage au démarrage.
+ * Les contrats (retours null / false, doublons refusés...) sont ceux de models.Auteur.
+ */
+public interface AuteurRepository {
+
+    List<Auteur> findAll();
+
+    /** Auteurs dont l'id est strictement supérieur à afterId, triés par id. */
+    List<Auteur> findPage(int afterId, int limit);
+
+    int[] findIds(int afterId, int limit);
+
+    /** Auteurs dont le nom ou le prénom commence par prefix (sans casse ni accents), triés par nom. */
+    List<Auteur> findByPrefix(String prefix, int limit, QueryHandle handle);
+
+    int count();
+
+    /** {nombre de lignes, plus grand id}, lus ensemble ; {0, -1} en cas d'erreur. */
+    int[] countAndMaxId();
+
+    /** Version actuelle du catalogue (repère de départ), -1 en cas d'erreur. */
+    long currentVersion();
+
+    /** Changements depuis la version since (voir models.ChangeLog) ; null en cas d'erreur. */
+    ChangeSet<Auteur> findChangesSince(long since, int limit);
+
+    /** return l'auteur, ou null s'il n'existe pas */
+    Auteur findById(int idAuteur);
+
+    /** return l'auteur créé avec son id, ou null si doublon / erreur */
+    Auteur add(String prenom, String nom);
+
+    List<BatchResult<Auteur>> addAll(List<Auteur> auteurs, int chunkSize);
+
+    /** return false si l'auteur n'existe pas, doublon ou erreur */
+    boolean update(int idAuteur, String prenom, String nom);
+
+    /** return false si l'auteur a encore des œuvres, n'existe pas ou erreur */
+    boolean delete(int idAuteur);
+
+    /** Suppression en lot : les auteurs qui ont encore des œuvres sont bloqués, pas supprimés. */
+    DeleteResult deleteAll(List<Integer> ids, int chunkSize);
+
+    /** Parcours complet, à fermer (try-with-resources). */
+    Stream<Auteur> stream(boolean reuseRow);
+}
@@ -0,0 +1,34 @@
+package repositories;
+
+import java.util.Locale;
+
+/**
+ * Choix du stockage au démarrage
+ * -------------------------------
+ * - JDBC    : base MySQL (par défaut)
+ * - MEMOIRE : InMemoryCatalog, aucune base nécessaire
+ *
+ * Sélection : java -Dmangaworldo.backend=memoire Main   (ou argument "--memoire")
+ */
+public enum Backend {
+    JDBC, MEMOIRE;
+
+    public static final String PROPERTY = "mangaworldo.backend";
+
+    /**
+     * Lit le choix dans les arguments de main puis dans la propriété système.
+     */
+    public static Backend select(String[] args) {
+        for (String arg : args) {
+            if ("--memoire".equals(arg)) return MEMOIRE;
+            if ("--jdbc".equals(arg)) return JDBC;
+        }
+        String value = System.getProperty(PROPERTY, "jdbc").trim().toUpperCase(Locale.ROOT);
+        try {
+            return valueOf(value);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Stockage inconnu \"" + value + "\", utilisation de JDBC");
+            return JDBC;
+        }
+    }
+}
@@ -0,0 +1,721 @@
+package repositories;
+
+import config.QueryHandle;
+import models.Auteur;
+import models.BatchResult;
+import models.ChangeSet;
+import models.CommitResult;
+import models.DeleteResult;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+import models.UnitOfWork;
+import util.IntObjectMap;
+import util.SortedIntList;
+import util.TextFold;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Catalogue en mémoire (auteurs + œuvres)
+ * ----------------------------------------
+ * Deuxième stockage, sans base de données : tests, démos et benchmarks à la vitesse de la mémoire.
+ * Il respecte les mêmes règles que la base MySQL :
+ * - id auto-incrémentés ;
+ * - unicité (prénom, nom) d'un auteur et (titre, auteur) d'une œuvre ;
+ * - une œuvre doit référencer un auteur existant (clé étrangère) ;
+ * - un auteur qui a encore des œuvres ne peut pas être supprimé.
+ *
+ * Structures :
+ * - IntObjectMap : id → ligne, clés int primitives (pas d'Integer par ligne) ;
+ * - SortedIntList : id triés, pour la pagination par clé (afterId, limit) ;
+ * - index secondaires : clé d'unicité → id (doublons en O(1)),
+ *   et id auteur → id de ses œuvres (refus de suppression, findByAuteur).
+ *
+ * Les objets stockés ne sortent jamais : chaque lecture renvoie une copie.
+ * Un verrou lecture/écriture permet plusieurs lectures simultanées (SwingWorker).
+ */
+public class InMemoryCatalog {
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Auteurs
+    private final IntObjectMap<Auteur> auteursById = new IntObjectMap<>(INITIAL_CAPACITY);
+    private final SortedIntList auteurIds = new SortedIntList(INITIAL_CAPACITY);
+    private final Map<String, Integer> auteurIdByKey = new HashMap<>();
+    private int nextAuteurId = 1;
+
+    // Œuvres
+    private final IntObjectMap<Oeuvre> oeuvresById = new IntObjectMap<>(INITIAL_CAPACITY);
+    private final SortedIntList oeuvreIds = new SortedIntList(INITIAL_CAPACITY);
+    private final Map<String, Integer> oeuvreIdByKey = new HashMap<>();
+    private final IntObjectMap<SortedIntList> oeuvreIdsByAuteur = new IntObjectMap<>(INITIAL_CAPACITY);
+    private int nextOeuvreId = 1;
+
+    private final Auteurs auteurs = new Auteurs();
+    private final Oeuvres oeuvres = new Oeuvres();
+    private final UnitOfWorkRepository unitOfWork = new Commits();
+
+    public AuteurRepository auteurs() {
+        return auteurs;
+    }
+
+    public OeuvreRepository oeuvres() {
+        return oeuvres;
+    }
+
+    public UnitOfWorkRepository unitOfWork() {
+        return unitOfWork;
+    }
+
+    /*
+     * Clés d'unicité comparées comme la collation MySQL par défaut (utf8mb4_0900_ai_ci) :
+     * sans tenir compte de la casse ni des accents ("Éric" = "eric"), voir TextFold.
+     */
+    private static String auteurKey(String prenom, String nom) {
+        return TextFold.fold(prenom) + '\u0000' + TextFold.fold(nom);
+    }
+
+    private static String oeuvreKey(String nomOeuvre, int idAuteur) {
+        return TextFold.fold(nomOeuvre) + '\u0000' + idAuteur;
+    }
+
+    private static Auteur copy(Auteur source, Auteur target) {
+        Auteur a = target != null ? target : new Auteur();
+        a.setIdAuteur(source.getIdAuteur());
+        a.setPrenomAuteur(source.getPrenomAuteur());
+        a.setNomAuteur(source.getNomAuteur());
+        return a;
+    }
+
+    private static Oeuvre copy(Oeuvre source, Oeuvre target) {
+        Oeuvre o = target != null ? target : new Oeuvre();
+        o.setIdOeuvre(source.getIdOeuvre());
+        o.setNomOeuvre(source.getNomOeuvre());
+        o.setIdAuteur(source.getIdAuteur());
+        return o;
+    }
+
+    // À appeler sous verrou (lecture ou écriture)
+    private OeuvreAuteur join(Oeuvre o) {
+        Auteur a = auteursById.get(o.getIdAuteur());
+        return new OeuvreAuteur(o.getIdOeuvre(), o.getNomOeuvre(), o.getIdAuteur(),
+                a != null ? a.getPrenomAuteur() : null, a != null ? a.getNomAuteur() : null);
+    }
+
+    /**
+     * Parcours en flux : on photographie la liste des id (un int[]),
+     * puis chaque ligne est lue (copiée) au moment où le Stream la demande.
+     * Une ligne supprimée entre-temps est simplement sautée.
+     */
+    private <T> Stream<T> streamOf(SortedIntList ids, IntFunction<T> reader) {
+        int[] snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = ids.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(snapshot).mapToObj(id -> {
+            lock.readLock().lock();
+            try {
+                return reader.apply(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }).filter(Objects::nonNull);
+    }
+
+    /**
+     * Auteurs en mémoire
+     */
+    private final class Auteurs implements AuteurRepository {
+
+        @Override
+        public List<Auteur> findAll() {
+            return findPage(0, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public List<Auteur> findPage(int afterId, int limit) {
+            lock.readLock().lock();
+            try {
+                int[] ids = auteurIds.after(afterId, limit);
+                List<Auteur> page = new ArrayList<>(ids.length);
+                for (int id : ids) page.add(copy(auteursById.get(id), null));
+                return page;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public List<Auteur> findByPrefix(String prefix, int limit, QueryHandle handle) {
+            String folded = TextFold.fold(prefix);
+            List<Auteur> found = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                for (int i = 0; i < auteurIds.size() && !handle.isCancelled(); i++) {
+                    Auteur a = auteursById.get(auteurIds.get(i));
+                    if (TextFold.fold(a.getNomAuteur()).startsWith(folded)
+                            || TextFold.fold(a.getPrenomAuteur()).startsWith(folded)) {
+                        found.add(copy(a, null));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            found.sort(Comparator.comparing((Auteur a) -> TextFold.fold(a.getNomAuteur()))
+                    .thenComparing(a -> TextFold.fold(a.getPrenomAuteur())));
+            return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+        }
+
+        @Override
+        public int[] findIds(int afterId, int limit) {
+            lock.readLock().lock();
+            try {
+                return auteurIds.after(afterId, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int count() {
+            lock.readLock().lock();
+            try {
+                return auteursById.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int[] countAndMaxId() {
+            lock.readLock().lock();
+            try {
+                return new int[]{auteursById.size(), auteurIds.isEmpty() ? 0 : auteurIds.get(auteurIds.size() - 1)};
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public long currentVersion() {
+            return 0;
+        }
+
+        /**
+         * Personne d'autre ne modifie ce catalogue : ses changements sont déjà tous
+         * publiés par les contrôleurs, il n'y a jamais rien à rattraper.
+         */
+        @Override
+        public ChangeSet<Auteur> findChangesSince(long since, int limit) {
+            return new ChangeSet<>(List.of(), List.of(), new int[0], since, true);
+        }
+
+        @Override
+        public Auteur findById(int idAuteur) {
+            lock.readLock().lock();
+            try {
+                Auteur a = auteursById.get(idAuteur);
+                return a != null ? copy(a, null) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Auteur add(String prenom, String nom) {
+            lock.writeLock().lock();
+            try {
+                return insert(prenom, nom);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Sous verrou d'écriture ; null si doublon
+        private Auteur insert(String prenom, String nom) {
+            String key = auteurKey(prenom, nom);
+            if (auteurIdByKey.containsKey(key)) return null;
+            Auteur a = new Auteur();
+            a.setIdAuteur(nextAuteurId++);
+            a.setPrenomAuteur(prenom);
+            a.setNomAuteur(nom);
+            auteursById.put(a.getIdAuteur(), a);
+            auteurIds.add(a.getIdAuteur());
+            auteurIdByKey.put(key, a.getIdAuteur());
+            return copy(a, null);
+        }
+
+        @Override
+        public List<BatchResult<Auteur>> addAll(List<Auteur> items, int chunkSize) {
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize doit être > 0");
+            List<BatchResult<Auteur>> results = new ArrayList<>(items.size());
+            lock.writeLock().lock();
+            try {
+                for (Auteur item : items) {
+                    Auteur created = insert(item.getPrenomAuteur(), item.getNomAuteur());
+                    if (created == null) {
+                        results.add(new BatchResult<>(BatchResult.Status.DUPLICATE, item, null));
+                    } else {
+                        item.setIdAuteur(created.getIdAuteur());
+                        results.add(new BatchResult<>(BatchResult.Status.INSERTED, item, null));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return results;
+        }
+
+        @Override
+        public boolean update(int idAuteur, String prenom, String nom) {
+            lock.writeLock().lock();
+            try {
+                Auteur a = auteursById.get(idAuteur);
+                if (a == null) return false;
+                String oldKey = auteurKey(a.getPrenomAuteur(), a.getNomAuteur());
+                String newKey = auteurKey(prenom, nom);
+                Integer owner = auteurIdByKey.get(newKey);
+                if (owner != null && owner != idAuteur) return false; // doublon
+                auteurIdByKey.remove(oldKey);
+                auteurIdByKey.put(newKey, idAuteur);
+                a.setPrenomAuteur(prenom);
+                a.setNomAuteur(nom);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean delete(int idAuteur) {
+            lock.writeLock().lock();
+            try {
+                SortedIntList linked = oeuvreIdsByAuteur.get(idAuteur);
+                if (linked != null && !linked.isEmpty()) return false; // auteur lié à des œuvres
+                Auteur a = auteursById.remove(idAuteur);
+                if (a == null) return false;
+                auteurIds.remove(idAuteur);
+                auteurIdByKey.remove(auteurKey(a.getPrenomAuteur(), a.getNomAuteur()));
+                oeuvreIdsByAuteur.remove(idAuteur);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public DeleteResult deleteAll(List<Integer> ids, int chunkSize) {
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize doit être > 0");
+            List<Integer> deleted = new ArrayList<>();
+            List<Integer> blocked = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                for (int id : new LinkedHashSet<>(ids)) {
+                    if (delete(id)) deleted.add(id);
+                    else if (auteursById.containsKey(id)) blocked.add(id); // encore lié à des œuvres
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return new DeleteResult(deleted, blocked, List.of(), null);
+        }
+
+        @Override
+        public Stream<Auteur> stream(boolean reuseRow) {
+            Auteur[] row = {null};
+            return streamOf(auteurIds, id -> {
+                Auteur a = auteursById.get(id);
+                if (a == null) return null;
+                Auteur copied = copy(a, reuseRow ? row[0] : null);
+                row[0] = copied;
+                return copied;
+            });
+        }
+    }
+
+    /**
+     * Œuvres en mémoire
+     */
+    private final class Oeuvres implements OeuvreRepository {
+
+        @Override
+        public List<Oeuvre> findAll() {
+            lock.readLock().lock();
+            try {
+                List<Oeuvre> all = new ArrayList<>(oeuvreIds.size());
+                for (int id : oeuvreIds.toArray()) all.add(copy(oeuvresById.get(id), null));
+                return all;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public List<OeuvreAuteur> findAllAvecAuteur() {
+            return findAvecAuteurPage(0, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public List<OeuvreAuteur> findAvecAuteurPage(int afterId, int limit) {
+            lock.readLock().lock();
+            try {
+                int[] ids = oeuvreIds.after(afterId, limit);
+                List<OeuvreAuteur> page = new ArrayList<>(ids.length);
+                for (int id : ids) page.add(join(oeuvresById.get(id)));
+                return page;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public List<OeuvreAuteur> findAvecAuteurByPrefix(String prefix, int limit, QueryHandle handle) {
+            String folded = TextFold.fold(prefix);
+            List<OeuvreAuteur> found = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                for (int i = 0; i < oeuvreIds.size() && !handle.isCancelled(); i++) {
+                    Oeuvre o = oeuvresById.get(oeuvreIds.get(i));
+                    if (TextFold.fold(o.getNomOeuvre()).startsWith(folded)) found.add(join(o));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            found.sort(Comparator.comparing((OeuvreAuteur o) -> TextFold.fold(o.getNomOeuvre())));
+            return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+        }
+
+        @Override
+        public int[] findIds(int afterId, int limit) {
+            lock.readLock().lock();
+            try {
+                return oeuvreIds.after(afterId, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int count() {
+            lock.readLock().lock();
+            try {
+                return oeuvresById.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int[] countAndMaxId() {
+            lock.readLock().lock();
+            try {
+                return new int[]{oeuvresById.size(), oeuvreIds.isEmpty() ? 0 : oeuvreIds.get(oeuvreIds.size() - 1)};
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public long currentVersion() {
+            return 0;
+        }
+
+        /**
+         * Personne d'autre ne modifie ce catalogue : ses changements sont déjà tous
+         * publiés par les contrôleurs, il n'y a jamais rien à rattraper.
+         */
+        @Override
+        public ChangeSet<Oeuvre> findChangesSince(long since, int limit) {
+            return new ChangeSet<>(List.of(), List.of(), new int[0], since, true);
+        }
+
+        @Override
+        public Oeuvre findById(int idOeuvre) {
+            lock.readLock().lock();
+            try {
+                Oeuvre o = oeuvresById.get(idOeuvre);
+                return o != null ? copy(o, null) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public List<Oeuvre> findByAuteur(int idAuteur) {
+            lock.readLock().lock();
+            try {
+                SortedIntList ids = oeuvreIdsByAuteur.get(idAuteur);
+                if (ids == null) return new ArrayList<>();
+                List<Oeuvre> list = new ArrayList<>(ids.size());
+                for (int i = 0; i < ids.size(); i++) list.add(copy(oeuvresById.get(ids.get(i)), null));
+                return list;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Oeuvre add(String nomOeuvre, int idAuteur) {
+            lock.writeLock().lock();
+            try {
+                return insert(nomOeuvre, idAuteur);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Sous verrou d'écriture ; null si auteur inconnu ou doublon
+        private Oeuvre insert(String nomOeuvre, int idAuteur) {
+            if (!auteursById.containsKey(idAuteur)) return null; // clé étrangère
+            String key = oeuvreKey(nomOeuvre, idAuteur);
+            if (oeuvreIdByKey.containsKey(key)) return null;
+            Oeuvre o = new Oeuvre();
+            o.setIdOeuvre(nextOeuvreId++);
+            o.setNomOeuvre(nomOeuvre);
+            o.setIdAuteur(idAuteur);
+            oeuvresById.put(o.getIdOeuvre(), o);
+            oeuvreIds.add(o.getIdOeuvre());
+            oeuvreIdByKey.put(key, o.getIdOeuvre());
+            link(idAuteur, o.getIdOeuvre());
+            return copy(o, null);
+        }
+
+        private void link(int idAuteur, int idOeuvre) {
+            SortedIntList ids = oeuvreIdsByAuteur.get(idAuteur);
+            if (ids == null) {
+                ids = new SortedIntList(4);
+                oeuvreIdsByAuteur.put(idAuteur, ids);
+            }
+            ids.add(idOeuvre);
+        }
+
+        private void unlink(int idAuteur, int idOeuvre) {
+            SortedIntList ids = oeuvreIdsByAuteur.get(idAuteur);
+            if (ids == null) return;
+            ids.remove(idOeuvre);
+            if (ids.isEmpty()) oeuvreIdsByAuteur.remove(idAuteur);
+        }
+
+        @Override
+        public List<BatchResult<Oeuvre>> addAll(List<Oeuvre> items, int chunkSize) {
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize doit être > 0");
+            List<BatchResult<Oeuvre>> results = new ArrayList<>(items.size());
+            lock.writeLock().lock();
+            try {
+                for (Oeuvre item : items) {
+                    if (!auteursById.containsKey(item.getIdAuteur())) {
+                        results.add(new BatchResult<>(BatchResult.Status.FAILED, item, "auteur inconnu : " + item.getIdAuteur()));
+                        continue;
+                    }
+                    Oeuvre created = insert(item.getNomOeuvre(), item.getIdAuteur());
+                    if (created == null) {
+                        results.add(new BatchResult<>(BatchResult.Status.DUPLICATE, item, null));
+                    } else {
+                        item.setIdOeuvre(created.getIdOeuvre());
+                        results.add(new BatchResult<>(BatchResult.Status.INSERTED, item, null));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return results;
+        }
+
+        @Override
+        public boolean update(int idOeuvre, String nomOeuvre, int idAuteur) {
+            lock.writeLock().lock();
+            try {
+                Oeuvre o = oeuvresById.get(idOeuvre);
+                if (o == null || !auteursById.containsKey(idAuteur)) return false;
+                String oldKey = oeuvreKey(o.getNomOeuvre(), o.getIdAuteur());
+                String newKey = oeuvreKey(nomOeuvre, idAuteur);
+                Integer owner = oeuvreIdByKey.get(newKey);
+                if (owner != null && owner != idOeuvre) return false; // doublon
+                oeuvreIdByKey.remove(oldKey);
+                oeuvreIdByKey.put(newKey, idOeuvre);
+                if (o.getIdAuteur() != idAuteur) {
+                    unlink(o.getIdAuteur(), idOeuvre);
+                    link(idAuteur, idOeuvre);
+                }
+                o.setNomOeuvre(nomOeuvre);
+                o.setIdAuteur(idAuteur);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean delete(int idOeuvre) {
+            lock.writeLock().lock();
+            try {
+                Oeuvre o = oeuvresById.remove(idOeuvre);
+                if (o == null) return false;
+                oeuvreIds.remove(idOeuvre);
+                oeuvreIdByKey.remove(oeuvreKey(o.getNomOeuvre(), o.getIdAuteur()));
+                unlink(o.getIdAuteur(), idOeuvre);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public DeleteResult deleteAll(List<Integer> ids, int chunkSize) {
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize doit être > 0");
+            List<Integer> deleted = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                for (int id : new LinkedHashSet<>(ids)) {
+                    if (delete(id)) deleted.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return new DeleteResult(deleted, List.of(), List.of(), null);
+        }
+
+        @Override
+        public Stream<Oeuvre> stream(boolean reuseRow) {
+            Oeuvre[] row = {null};
+            return streamOf(oeuvreIds, id -> {
+                Oeuvre o = oeuvresById.get(id);
+                if (o == null) return null;
+                Oeuvre copied = copy(o, reuseRow ? row[0] : null);
+                row[0] = copied;
+                return copied;
+            });
+        }
+
+        @Override
+        public Stream<OeuvreAuteur> streamAvecAuteur() {
+            return streamOf(oeuvreIds, id -> {
+                Oeuvre o = oeuvresById.get(id);
+                return o != null ? join(o) : null;
+            });
+        }
+    }
+
+    /**
+     * Unité de travail en mémoire : tout ou rien
+     * Les modifications sont appliquées une à une sous le verrou d'écriture (aucune lecture
+     * ne voit d'état intermédiaire) ; à la première refusée, celles déjà faites sont
+     * défaites dans l'ordre inverse, comme un ROLLBACK.
+     */
+    private final class Commits implements UnitOfWorkRepository {
+
+        @Override
+        public CommitResult commit(UnitOfWork work) {
+            List<Runnable> undo = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                List<Auteur> createdAuteurs = new ArrayList<>();
+                Map<Integer, Integer> auteurIds = new HashMap<>();
+                for (Auteur a : work.getAuteurs(UnitOfWork.Kind.CREATE)) {
+                    Auteur created = auteurs.insert(a.getPrenomAuteur(), a.getNomAuteur());
+                    if (created == null) return rollback(undo, "Doublon refusé (ajout d'auteur)");
+                    undo.add(() -> auteurs.delete(created.getIdAuteur()));
+                    auteurIds.put(a.getIdAuteur(), created.getIdAuteur());
+                    createdAuteurs.add(created);
+                }
+
+                List<Auteur> updatedAuteurs = work.getAuteurs(UnitOfWork.Kind.UPDATE);
+                for (Auteur a : updatedAuteurs) {
+                    Auteur old = auteursById.get(a.getIdAuteur());
+                    Auteur before = old != null ? copy(old, null) : null;
+                    if (!auteurs.update(a.getIdAuteur(), a.getPrenomAuteur(), a.getNomAuteur())) {
+                        return rollback(undo, "Auteur " + a.getIdAuteur() + " introuvable, ou doublon");
+                    }
+                    undo.add(() -> auteurs.update(before.getIdAuteur(), before.getPrenomAuteur(), before.getNomAuteur()));
+                }
+
+                List<Oeuvre> createdOeuvres = new ArrayList<>();
+                for (Oeuvre o : work.getOeuvres(UnitOfWork.Kind.CREATE)) {
+                    Integer idAuteur = realAuteurId(o.getIdAuteur(), auteurIds);
+                    Oeuvre created = idAuteur == null ? null : oeuvres.insert(o.getNomOeuvre(), idAuteur);
+                    if (created == null) return rollback(undo, "Doublon ou auteur inconnu (ajout d'œuvre)");
+                    undo.add(() -> oeuvres.delete(created.getIdOeuvre()));
+                    createdOeuvres.add(created);
+                }
+
+                List<Oeuvre> updatedOeuvres = new ArrayList<>();
+                for (Oeuvre o : work.getOeuvres(UnitOfWork.Kind.UPDATE)) {
+                    Oeuvre old = oeuvresById.get(o.getIdOeuvre());
+                    Oeuvre before = old != null ? copy(old, null) : null;
+                    Integer idAuteur = realAuteurId(o.getIdAuteur(), auteurIds);
+                    if (idAuteur == null || !oeuvres.update(o.getIdOeuvre(), o.getNomOeuvre(), idAuteur)) {
+                        return rollback(undo, "Œuvre " + o.getIdOeuvre() + " introuvable, ou doublon");
+                    }
+                    undo.add(() -> oeuvres.update(before.getIdOeuvre(), before.getNomOeuvre(), before.getIdAuteur()));
+                    Oeuvre updated = copy(o, null);
+                    updated.setIdAuteur(idAuteur);
+                    updatedOeuvres.add(updated);
+                }
+
+                List<Integer> deletedOeuvreIds = new ArrayList<>();
+                for (Oeuvre o : work.getOeuvres(UnitOfWork.Kind.DELETE)) {
+                    Oeuvre old = oeuvresById.get(o.getIdOeuvre());
+                    if (old == null || !oeuvres.delete(o.getIdOeuvre())) {
+                        return rollback(undo, "Œuvre " + o.getIdOeuvre() + " déjà supprimée");
+                    }
+                    undo.add(() -> restore(old));
+                    deletedOeuvreIds.add(o.getIdOeuvre());
+                }
+
+                List<Integer> deletedAuteurIds = new ArrayList<>();
+                for (Auteur a : work.getAuteurs(UnitOfWork.Kind.DELETE)) {
+                    Auteur old = auteursById.get(a.getIdAuteur());
+                    if (old == null || !auteurs.delete(a.getIdAuteur())) {
+                        return rollback(undo, "Auteur " + a.getIdAuteur() + " encore lié à des œuvres, ou déjà supprimé");
+                    }
+                    undo.add(() -> restore(old));
+                    deletedAuteurIds.add(a.getIdAuteur());
+                }
+
+                return CommitResult.success(createdAuteurs, updatedAuteurs, deletedAuteurIds,
+                        createdOeuvres, updatedOeuvres, deletedOeuvreIds);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private Integer realAuteurId(int idAuteur, Map<Integer, Integer> auteurIds) {
+            return UnitOfWork.isTemporaryId(idAuteur) ? auteurIds.get(idAuteur) : Integer.valueOf(idAuteur);
+        }
+
+        // Sous verrou d'écriture
+        private CommitResult rollback(List<Runnable> undo, String message) {
+            for (int i = undo.size() - 1; i >= 0; i--) undo.get(i).run();
+            return CommitResult.failure(message);
+        }
+
+        // Remet une ligne supprimée, avec son id d'origine (sous verrou d'écriture)
+        private void restore(Auteur a) {
+            auteursById.put(a.getIdAuteur(), a);
+            auteurIds.add(a.getIdAuteur());
+            auteurIdByKey.put(auteurKey(a.getPrenomAuteur(), a.getNomAuteur()), a.getIdAuteur());
+        }
+
+        private void restore(Oeuvre o) {
+            oeuvresById.put(o.getIdOeuvre(), o);
+            oeuvreIds.add(o.getIdOeuvre());
+            oeuvreIdByKey.put(oeuvreKey(o.getNomOeuvre(), o.getIdAuteur()), o.getIdOeuvre());
+            oeuvres.link(o.getIdAuteur(), o.getIdOeuvre());
+        }
+    }
+}
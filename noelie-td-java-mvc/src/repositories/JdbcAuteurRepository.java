@@ -0,0 +1,92 @@
+package repositories;
+
+import config.QueryHandle;
+import models.Auteur;
+import models.BatchResult;
+import models.ChangeLog;
+import models.ChangeSet;
+import models.DeleteResult;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Stockage MySQL des auteurs : délègue aux méthodes statiques (DAO) de models.Auteur.
+ */
+public class JdbcAuteurRepository implements AuteurRepository {
+
+    @Override
+    public List<Auteur> findAll() {
+        return Auteur.getAllAuteurs();
+    }
+
+    @Override
+    public List<Auteur> findPage(int afterId, int limit) {
+        return Auteur.getAuteursPage(afterId, limit);
+    }
+
+    @Override
+    public List<Auteur> findByPrefix(String prefix, int limit, QueryHandle handle) {
+        return Auteur.searchAuteurs(prefix, limit, handle);
+    }
+
+    @Override
+    public int[] findIds(int afterId, int limit) {
+        return Auteur.getAuteurIds(afterId, limit);
+    }
+
+    @Override
+    public int count() {
+        return Auteur.countAuteurs();
+    }
+
+    @Override
+    public int[] countAndMaxId() {
+        return Auteur.countAuteursAndMaxId();
+    }
+
+    @Override
+    public long currentVersion() {
+        return ChangeLog.getCurrentVersion();
+    }
+
+    @Override
+    public ChangeSet<Auteur> findChangesSince(long since, int limit) {
+        return Auteur.getAuteurChanges(since, limit);
+    }
+
+    @Override
+    public Auteur findById(int idAuteur) {
+        return Auteur.getAuteurById(idAuteur);
+    }
+
+    @Override
+    public Auteur add(String prenom, String nom) {
+        return Auteur.addAuteur(prenom, nom);
+    }
+
+    @Override
+    public List<BatchResult<Auteur>> addAll(List<Auteur> auteurs, int chunkSize) {
+        return Auteur.addAuteurs(auteurs, chunkSize);
+    }
+
+    @Override
+    public boolean update(int idAuteur, String prenom, String nom) {
+        return Auteur.updateAuteur(idAuteur, prenom, nom);
+    }
+
+    @Override
+    public boolean delete(int idAuteur) {
+        return Auteur.deleteAuteur(idAuteur);
+    }
+
+    @Override
+    public DeleteResult deleteAll(List<Integer> ids, int chunkSize) {
+        return Auteur.deleteAuteurs(ids, chunkSize);
+    }
+
+    @Override
+    public Stream<Auteur> stream(boolean reuseRow) {
+        return Auteur.streamAuteurs(reuseRow);
+    }
+}
@@ -0,0 +1,108 @@
+package repositories;
+
+import config.QueryHandle;
+import models.BatchResult;
+import models.ChangeLog;
+import models.ChangeSet;
+import models.DeleteResult;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Stockage MySQL des œuvres : délègue aux méthodes statiques (DAO) de models.Oeuvre.
+ */
+public class JdbcOeuvreRepository implements OeuvreRepository {
+
+    @Override
+    public List<Oeuvre> findAll() {
+        return Oeuvre.getAllOeuvres();
+    }
+
+    @Override
+    public List<OeuvreAuteur> findAllAvecAuteur() {
+        return Oeuvre.getAllOeuvresAvecAuteur();
+    }
+
+    @Override
+    public List<OeuvreAuteur> findAvecAuteurPage(int afterId, int limit) {
+        return Oeuvre.getOeuvresAvecAuteurPage(afterId, limit);
+    }
+
+    @Override
+    public List<OeuvreAuteur> findAvecAuteurByPrefix(String prefix, int limit, QueryHandle handle) {
+        return Oeuvre.searchOeuvresAvecAuteur(prefix, limit, handle);
+    }
+
+    @Override
+    public int[] findIds(int afterId, int limit) {
+        return Oeuvre.getOeuvreIds(afterId, limit);
+    }
+
+    @Override
+    public int count() {
+        return Oeuvre.countOeuvres();
+    }
+
+    @Override
+    public int[] countAndMaxId() {
+        return Oeuvre.countOeuvresAndMaxId();
+    }
+
+    @Override
+    public long currentVersion() {
+        return ChangeLog.getCurrentVersion();
+    }
+
+    @Override
+    public ChangeSet<Oeuvre> findChangesSince(long since, int limit) {
+        return Oeuvre.getOeuvreChanges(since, limit);
+    }
+
+    @Override
+    public Oeuvre findById(int idOeuvre) {
+        return Oeuvre.getOeuvreById(idOeuvre);
+    }
+
+    @Override
+    public List<Oeuvre> findByAuteur(int idAuteur) {
+        return Oeuvre.getOeuvresByAuteur(idAuteur);
+    }
+
+    @Override
+    public Oeuvre add(String nomOeuvre, int idAuteur) {
+        return Oeuvre.addOeuvre(nomOeuvre, idAuteur);
+    }
+
+    @Override
+    public List<BatchResult<Oeuvre>> addAll(List<Oeuvre> oeuvres, int chunkSize) {
+        return Oeuvre.addOeuvres(oeuvres, chunkSize);
+    }
+
+    @Override
+    public boolean update(int idOeuvre, String nomOeuvre, int idAuteur) {
+        return Oeuvre.updateOeuvre(idOeuvre, idAuteur, nomOeuvre);
+    }
+
+    @Override
+    public boolean delete(int idOeuvre) {
+        return Oeuvre.deleteOeuvre(idOeuvre);
+    }
+
+    @Override
+    public DeleteResult deleteAll(List<Integer> ids, int chunkSize) {
+        return Oeuvre.deleteOeuvres(ids, chunkSize);
+    }
+
+    @Override
+    public Stream<Oeuvre> stream(boolean reuseRow) {
+        return Oeuvre.streamOeuvres(reuseRow);
+    }
+
+    @Override
+    public Stream<OeuvreAuteur> streamAvecAuteur() {
+        return Oeuvre.streamOeuvresAvecAuteur();
+    }
+}
@@ -0,0 +1,16 @@
+package repositories;
+
+import models.CatalogTransaction;
+import models.CommitResult;
+import models.UnitOfWork;
+
+/**
+ * Enregistrement MySQL d'une unité de travail : délègue à models.CatalogTransaction.
+ */
+public class JdbcUnitOfWorkRepository implements UnitOfWorkRepository {
+
+    @Override
+    public CommitResult commit(UnitOfWork work) {
+        return CatalogTransaction.commit(work);
+    }
+}
@@ -0,0 +1,69 @@
+package repositories;
+
+import config.QueryHandle;
+import models.BatchResult;
+import models.ChangeSet;
+import models.DeleteResult;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Interface OeuvreRepository
+ * ---------------------------
+ * Accès aux œuvres, indépendamment du stockage :
+ * - JdbcOeuvreRepository : base MySQL (méthodes statiques de models.Oeuvre)
+ * - InMemoryCatalog.oeuvres() : tout en mémoire
+ *
+ * Les contrats (retours null / false, doublons refusés...) sont ceux de models.Oeuvre.
+ */
+public interface OeuvreRepository {
+
+    List<Oeuvre> findAll();
+
+    List<OeuvreAuteur> findAllAvecAuteur();
+
+    /** Œuvres (avec auteur) dont l'id est strictement supérieur à afterId, triées par id. */
+    List<OeuvreAuteur> findAvecAuteurPage(int afterId, int limit);
+
+    /** Œuvres dont le titre commence par prefix (sans casse ni accents), triées par titre. */
+    List<OeuvreAuteur> findAvecAuteurByPrefix(String prefix, int limit, QueryHandle handle);
+
+    int[] findIds(int afterId, int limit);
+
+    int count();
+
+    /** {nombre de lignes, plus grand id}, lus ensemble ; {0, -1} en cas d'erreur. */
+    int[] countAndMaxId();
+
+    /** Version actuelle du catalogue (repère de départ), -1 en cas d'erreur. */
+    long currentVersion();
+
+    /** Changements depuis la version since (voir models.ChangeLog) ; null en cas d'erreur. */
+    ChangeSet<Oeuvre> findChangesSince(long since, int limit);
+
+    /** return l'œuvre, ou null si elle n'existe pas */
+    Oeuvre findById(int idOeuvre);
+
+    /** Œuvres d'un auteur, triées par id. */
+    List<Oeuvre> findByAuteur(int idAuteur);
+
+    /** return l'œuvre créée avec son id, ou null si doublon / auteur inconnu / erreur */
+    Oeuvre add(String nomOeuvre, int idAuteur);
+
+    List<BatchResult<Oeuvre>> addAll(List<Oeuvre> oeuvres, int chunkSize);
+
+    /** return false si l'œuvre n'existe pas, doublon ou erreur */
+    boolean update(int idOeuvre, String nomOeuvre, int idAuteur);
+
+    boolean delete(int idOeuvre);
+
+    DeleteResult deleteAll(List<Integer> ids, int chunkSize);
+
+    /** Parcours complet, à fermer (try-with-resources). */
+    Stream<Oeuvre> stream(boolean reuseRow);
+
+    Stream<OeuvreAuteur> streamAvecAuteur();
+}
@@ -0,0 +1,17 @@
+package repositories;
+
+import models.CommitResult;
+import models.UnitOfWork;
+
+/**
+ * Interface UnitOfWorkRepository
+ * -------------------------------
+ * Enregistrement d'une unité de travail (auteurs et œuvres ensemble), tout ou rien :
+ * - JdbcUnitOfWorkRepository : une transaction MySQL (models.CatalogTransaction)
+ * - InMemoryCatalog.unitOfWork() : catalogue en mémoire
+ */
+public interface UnitOfWorkRepository {
+
+    /** Enregistre toutes les modifications, ou aucune ; work n'est pas modifiée. */
+    CommitResult commit(UnitOfWork work);
+}
@@ -0,0 +1,379 @@
+package search;
+
+import models.Auteur;
+import models.CatalogListener;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+import repositories.AuteurRepository;
+import repositories.OeuvreRepository;
+import util.IntObjectMap;
+import util.SortedIntList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Recherche dans le catalogue, en mémoire
+ * ----------------------------------------
+ * Filtre instantané des vues : aucune requête SQL par frappe au clavier.
+ * - Auteurs : recherche dans "prénom nom".
+ * - Œuvres : recherche dans "titre + prénom nom de l'auteur" ("piece oda" trouve One Piece).
+ * Sans casse ni accents : "eric" trouve "Éric" (voir NgramIndex pour les règles).
+ *
+ * Cycle de vie :
+ * 1. build() lit tout le catalogue une fois (au démarrage, dans un thread à part) ;
+ * 2. abonné aux changements publiés par les contrôleurs (CatalogEvents), il reçoit ensuite
+ *    chaque création, modification et suppression : l'index est tenu à jour sans relecture.
+ *
+ * Un verrou lecture/écriture protège l'index : les recherches (EDT) se font en parallèle,
+ * les mises à jour (threads des SwingWorker) une par une.
+ */
+public final class CatalogSearch implements CatalogListener {
+
+    // Nombre maximum de lignes renvoyées par défaut (au-delà, le résultat est "incomplet")
+    public static final int DEFAULT_LIMIT = 1_000;
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NgramIndex auteurIndex = new NgramIndex(INITIAL_CAPACITY);
+    private final NgramIndex oeuvreIndex = new NgramIndex(INITIAL_CAPACITY);
+    private final IntObjectMap<AuteurDoc> auteurs = new IntObjectMap<>(INITIAL_CAPACITY);
+    private final IntObjectMap<OeuvreDoc> oeuvres = new IntObjectMap<>(INITIAL_CAPACITY);
+    private volatile boolean ready;
+
+    /**
+     * true une fois build() terminé (avant, les recherches seraient incomplètes).
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Construit l'index à partir de tout le catalogue (lecture en flux, ligne par ligne).
+     * Les mises à jour des contrôleurs pendant la construction attendent la fin :
+     * elles sont appliquées ensuite (ajout et modification remplacent la ligne existante).
+     */
+    public void build(AuteurRepository auteurRepository, OeuvreRepository oeuvreRepository) {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            auteurIndex.clear();
+            oeuvreIndex.clear();
+            auteurs.clear();
+            oeuvres.clear();
+            try (Stream<Auteur> stream = auteurRepository.stream(true)) {
+                stream.forEach(a -> putAuteur(a.getIdAuteur(), a.getPrenomAuteur(), a.getNomAuteur()));
+            }
+            try (Stream<Oeuvre> stream = oeuvreRepository.stream(true)) {
+                stream.forEach(o -> putOeuvre(o.getIdOeuvre(), o.getNomOeuvre(), o.getIdAuteur()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lance build() dans un thread d'arrière-plan (l'application reste utilisable,
+     * le filtre des vues attend isReady()).
+     * param done appelé dans ce thread à la fin, même en cas d'erreur (ex: durée
+     *        du démarrage, voir StartupTimer.begin) ; peut être null
+     */
+    public Thread buildInBackground(AuteurRepository auteurRepository, OeuvreRepository oeuvreRepository,
+                                    Runnable done) {
+        Thread thread = new Thread(() -> {
+            try {
+                build(auteurRepository, oeuvreRepository);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur construction de l'index de recherche : " + e.getMessage());
+            } finally {
+                if (done != null) done.run();
+            }
+        }, "search-index");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // ----- Recherche -----
+
+    /**
+     * Auteurs dont le prénom ou le nom contient tous les mots de la requête.
+     * param limit nombre maximum d'auteurs renvoyés
+     * return auteurs triés par id (copies) ; aucun si la requête est vide
+     */
+    public SearchResult<Auteur> searchAuteurs(String query, int limit) {
+        long start = System.nanoTime();
+        String[] words = NgramIndex.words(NgramIndex.normalize(query));
+        String[] needles = needles(words);
+        List<Auteur> rows = new ArrayList<>();
+        boolean complete = true;
+        lock.readLock().lock();
+        try {
+            NgramIndex.Intersection candidates = words.length == 0 ? null : auteurIndex.candidates(words);
+            for (int id = candidates != null ? candidates.next() : -1; id > 0; id = candidates.next()) {
+                AuteurDoc doc = auteurs.get(id);
+                if (doc == null || !matches(needles, doc.text, "")) continue;
+                if (rows.size() == limit) {
+                    complete = false;
+                    break;
+                }
+                rows.add(doc.toAuteur());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SearchResult<>(rows, complete, System.nanoTime() - start);
+    }
+
+    /**
+     * Œuvres dont le titre ou le nom de l'auteur contient tous les mots de la requête.
+     * return lignes triées par id (avec le nom de l'auteur, comme le tableau des œuvres)
+     */
+    public SearchResult<OeuvreAuteur> searchOeuvres(String query, int limit) {
+        long start = System.nanoTime();
+        String[] words = NgramIndex.words(NgramIndex.normalize(query));
+        String[] needles = needles(words);
+        List<OeuvreAuteur> rows = new ArrayList<>();
+        boolean complete = true;
+        lock.readLock().lock();
+        try {
+            NgramIndex.Intersection candidates = words.length == 0 ? null : oeuvreIndex.candidates(words);
+            for (int id = candidates != null ? candidates.next() : -1; id > 0; id = candidates.next()) {
+                OeuvreDoc doc = oeuvres.get(id);
+                if (doc == null) continue;
+                AuteurDoc auteur = auteurs.get(doc.idAuteur);
+                if (!matches(needles, doc.text, auteur != null ? auteur.text : "")) continue;
+                if (rows.size() == limit) {
+                    complete = false;
+                    break;
+                }
+                rows.add(new OeuvreAuteur(doc.id, doc.nom, doc.idAuteur,
+                        auteur != null ? auteur.prenom : null, auteur != null ? auteur.nom : null));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SearchResult<>(rows, complete, System.nanoTime() - start);
+    }
+
+    private static String[] needles(String[] words) {
+        String[] needles = new String[words.length];
+        for (int i = 0; i < words.length; i++) needles[i] = NgramIndex.needle(words[i]);
+        return needles;
+    }
+
+    /**
+     * Chaque motif doit apparaître dans l'un des deux textes.
+     */
+    private static boolean matches(String[] needles, String text, String otherText) {
+        for (String needle : needles) {
+            if (!text.contains(needle) && !otherText.contains(needle)) return false;
+        }
+        return true;
+    }
+
+    // ----- Mises à jour (après succès en base) -----
+
+    /**
+     * Auteur créé ou modifié.
+     */
+    public void auteurSaved(Auteur auteur) {
+        lock.writeLock().lock();
+        try {
+            putAuteur(auteur.getIdAuteur(), auteur.getPrenomAuteur(), auteur.getNomAuteur());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void auteurRemoved(int idAuteur) {
+        lock.writeLock().lock();
+        try {
+            AuteurDoc doc = auteurs.remove(idAuteur);
+            if (doc == null) return;
+            auteurIndex.remove(idAuteur, doc.text);
+            reindexOeuvres(doc, doc.text, ""); // en principe aucune (clé étrangère)
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Œuvre créée ou modifiée (titre et/ou auteur).
+     */
+    public void oeuvreSaved(int idOeuvre, String nomOeuvre, int idAuteur) {
+        lock.writeLock().lock();
+        try {
+            putOeuvre(idOeuvre, nomOeuvre, idAuteur);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void oeuvreRemoved(int idOeuvre) {
+        lock.writeLock().lock();
+        try {
+            OeuvreDoc doc = oeuvres.remove(idOeuvre);
+            if (doc == null) return;
+            oeuvreIndex.remove(idOeuvre, doc.text + auteurText(doc.idAuteur));
+            unlink(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ----- CatalogListener -----
+
+    @Override
+    public void auteurCreated(Auteur auteur) {
+        auteurSaved(auteur);
+    }
+
+    @Override
+    public void auteurUpdated(Auteur auteur) {
+        auteurSaved(auteur);
+    }
+
+    @Override
+    public void auteurDeleted(int idAuteur) {
+        auteurRemoved(idAuteur);
+    }
+
+    @Override
+    public void oeuvreCreated(Oeuvre oeuvre) {
+        oeuvreSaved(oeuvre.getIdOeuvre(), oeuvre.getNomOeuvre(), oeuvre.getIdAuteur());
+    }
+
+    @Override
+    public void oeuvreUpdated(Oeuvre oeuvre) {
+        oeuvreSaved(oeuvre.getIdOeuvre(), oeuvre.getNomOeuvre(), oeuvre.getIdAuteur());
+    }
+
+    @Override
+    public void oeuvreDeleted(int idOeuvre) {
+        oeuvreRemoved(idOeuvre);
+    }
+
+    // ----- Sous verrou d'écriture -----
+
+    private void putAuteur(int id, String prenom, String nom) {
+        String text = NgramIndex.normalize(prenom + " " + nom);
+        AuteurDoc doc = auteurs.get(id);
+        if (doc == null) {
+            auteurs.put(id, new AuteurDoc(id, prenom, nom, text));
+            auteurIndex.add(id, text);
+            return;
+        }
+        doc.prenom = prenom;
+        doc.nom = nom;
+        if (text.equals(doc.text)) return; // casse ou accents seulement : mêmes grammes
+        String old = doc.text;
+        auteurIndex.remove(id, old);
+        doc.text = text;
+        auteurIndex.add(id, text);
+        reindexOeuvres(doc, old, text); // le nom de l'auteur fait partie du texte de ses œuvres
+    }
+
+    private void reindexOeuvres(AuteurDoc auteur, String oldText, String newText) {
+        if (auteur.oeuvreIds == null || auteur.oeuvreIds.isEmpty()) return;
+        int[] ids = auteur.oeuvreIds.toArray();
+        String[] oldTexts = new String[ids.length];
+        String[] newTexts = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            String title = oeuvres.get(ids[i]).text;
+            oldTexts[i] = title + oldText;
+            newTexts[i] = title + newText;
+        }
+        oeuvreIndex.replaceAll(ids, oldTexts, newTexts);
+    }
+
+    private void putOeuvre(int id, String nom, int idAuteur) {
+        OeuvreDoc doc = oeuvres.get(id);
+        if (doc == null) {
+            doc = new OeuvreDoc(id);
+            oeuvres.put(id, doc);
+        } else {
+            oeuvreIndex.remove(id, doc.text + auteurText(doc.idAuteur));
+            unlink(doc);
+        }
+        doc.nom = nom;
+        doc.idAuteur = idAuteur;
+        doc.text = NgramIndex.normalize(nom);
+        oeuvreIndex.add(id, doc.text + auteurText(idAuteur));
+        AuteurDoc auteur = auteurs.get(idAuteur);
+        if (auteur != null) {
+            if (auteur.oeuvreIds == null) auteur.oeuvreIds = new SortedIntList(4);
+            auteur.oeuvreIds.add(id);
+        }
+    }
+
+    private void unlink(OeuvreDoc doc) {
+        AuteurDoc auteur = auteurs.get(doc.idAuteur);
+        if (auteur != null && auteur.oeuvreIds != null) auteur.oeuvreIds.remove(doc.id);
+    }
+
+    private String auteurText(int idAuteur) {
+        AuteurDoc auteur = idAuteur > 0 ? auteurs.get(idAuteur) : null;
+        return auteur != null ? auteur.text : "";
+    }
+
+    /**
+     * Nombre d'auteurs et d'œuvres indexés.
+     */
+    public int getAuteurCount() {
+        lock.readLock().lock();
+        try {
+            return auteurs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getOeuvreCount() {
+        lock.readLock().lock();
+        try {
+            return oeuvres.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ----- Documents indexés -----
+
+    private static final class AuteurDoc {
+        final int id;
+        String prenom;
+        String nom;
+        String text;               // " prenom nom" normalisé
+        SortedIntList oeuvreIds;   // œuvres de l'auteur (créée au premier besoin)
+
+        AuteurDoc(int id, String prenom, String nom, String text) {
+            this.id = id;
+            this.prenom = prenom;
+            this.nom = nom;
+            this.text = text;
+        }
+
+        Auteur toAuteur() {
+            Auteur a = new Auteur();
+            a.setIdAuteur(id);
+            a.setPrenomAuteur(prenom);
+            a.setNomAuteur(nom);
+            return a;
+        }
+    }
+
+    private static final class OeuvreDoc {
+        final int id;
+        String nom;
+        int idAuteur;
+        String text;               // titre normalisé (le texte de l'auteur est ajouté à l'indexation)
+
+        OeuvreDoc(int id) {
+            this.id = id;
+        }
+    }
+}
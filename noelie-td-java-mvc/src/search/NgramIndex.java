@@ -0,0 +1,289 @@
+package search;
+
+import util.IntObjectMap;
+import util.SortedIntList;
+import util.TextFold;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index de n-grammes (trigrammes + préfixes de mots)
+ * ---------------------------------------------------
+ * Pour chaque document (un id + son texte), on range l'id dans une liste triée
+ * (SortedIntList) par "gramme" du texte :
+ * - chaque trigramme de chaque mot : "naruto" → nar, aru, rut, uto ;
+ * - le début de chaque mot sur 1 et 2 lettres : n, na.
+ *
+ * Recherche d'un mot :
+ * - 3 lettres ou plus : n'importe où dans un mot ("ruto" trouve "Naruto") ;
+ *   les candidats sont les id présents dans les listes de tous ses trigrammes ;
+ * - 1 ou 2 lettres : début de mot seulement ("na" trouve "Naruto", pas "Banana") ;
+ * - plusieurs mots : tous doivent être présents, dans n'importe quel ordre.
+ * Chaque candidat est ensuite vérifié sur son texte (contains), ce qui élimine
+ * les faux positifs : les grammes sont hachés en int, deux grammes peuvent se confondre.
+ *
+ * Les textes sont "normalisés" (normalize) : sans casse ni accents (TextFold),
+ * mots séparés par un seul espace et précédés d'un espace (" one piece").
+ * Non synchronisé : CatalogSearch protège l'accès par un verrou.
+ */
+final class NgramIndex {
+
+    private static final int PREFIX_1 = 1; // sortes de grammes (mélangées dans la clé)
+    private static final int PREFIX_2 = 2;
+    private static final int TRIGRAM = 3;
+
+    private final IntObjectMap<SortedIntList> postings;
+
+    NgramIndex(int expectedGrams) {
+        postings = new IntObjectMap<>(expectedGrams);
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Range id sous tous les grammes du texte normalisé.
+     */
+    void add(int id, String text) {
+        forEachGram(text, key -> {
+            SortedIntList ids = postings.get(key);
+            if (ids == null) {
+                ids = new SortedIntList(4);
+                postings.put(key, ids);
+            }
+            ids.add(id); // sans effet si le gramme apparaît deux fois dans le texte
+        });
+    }
+
+    /**
+     * Retire id des grammes du texte (le même texte que lors de add).
+     */
+    void remove(int id, String text) {
+        forEachGram(text, key -> {
+            SortedIntList ids = postings.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) postings.remove(key);
+        });
+    }
+
+    /**
+     * Change le texte de plusieurs documents d'un coup (ex: les œuvres d'un auteur renommé).
+     * Seuls les grammes qui changent sont touchés, et chaque liste d'id n'est parcourue
+     * qu'une fois pour tous les documents (au lieu d'un décalage de tableau par document).
+     * param ids id triés par ordre croissant
+     */
+    void replaceAll(int[] ids, String[] oldTexts, String[] newTexts) {
+        Map<Integer, IdBuffer> removals = new HashMap<>();
+        Map<Integer, IdBuffer> additions = new HashMap<>();
+        for (int d = 0; d < ids.length; d++) {
+            int[] before = gramKeys(oldTexts[d]);
+            int[] after = gramKeys(newTexts[d]);
+            int i = 0;
+            int j = 0;
+            while (i < before.length || j < after.length) { // différence de deux tableaux triés
+                if (j == after.length || (i < before.length && before[i] < after[j])) {
+                    removals.computeIfAbsent(before[i++], k -> new IdBuffer()).add(ids[d]);
+                } else if (i == before.length || after[j] < before[i]) {
+                    additions.computeIfAbsent(after[j++], k -> new IdBuffer()).add(ids[d]);
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+        }
+        for (Map.Entry<Integer, IdBuffer> e : removals.entrySet()) {
+            SortedIntList list = postings.get(e.getKey());
+            if (list == null) continue;
+            list.removeAll(e.getValue().ids, e.getValue().count);
+            if (list.isEmpty()) postings.remove(e.getKey());
+        }
+        for (Map.Entry<Integer, IdBuffer> e : additions.entrySet()) {
+            SortedIntList list = postings.get(e.getKey());
+            if (list == null) {
+                list = new SortedIntList(e.getValue().count);
+                postings.put(e.getKey(), list);
+            }
+            list.addAll(e.getValue().ids, e.getValue().count);
+        }
+    }
+
+    /**
+     * Candidats pour les mots recherchés : id présents dans les listes de tous leurs grammes.
+     * return null si un gramme n'existe pas (aucun résultat possible)
+     */
+    Intersection candidates(String[] words) {
+        List<SortedIntList> lists = new ArrayList<>();
+        for (String word : words) {
+            int[] keys = word.length() < 3
+                    ? new int[]{prefixKey(word)}
+                    : trigramKeys(word);
+            for (int key : keys) {
+                SortedIntList ids = postings.get(key);
+                if (ids == null) return null;
+                if (!lists.contains(ids)) lists.add(ids);
+            }
+        }
+        if (lists.isEmpty()) return null;
+        lists.sort(Comparator.comparingInt(SortedIntList::size)); // la plus courte mène le parcours
+        return new Intersection(lists.toArray(new SortedIntList[0]));
+    }
+
+    /**
+     * Intersection de listes triées, calculée au fur et à mesure (next) :
+     * la recherche s'arrête dès qu'elle a assez de résultats.
+     * Chaque id de la liste la plus courte est cherché dans les autres
+     * à partir de la position précédente (SortedIntList.lowerBound).
+     */
+    static final class Intersection {
+        private final SortedIntList[] lists;
+        private final int[] positions;
+        private int index;
+
+        Intersection(SortedIntList[] lists) {
+            this.lists = lists;
+            this.positions = new int[lists.length];
+        }
+
+        /**
+         * return id suivant présent dans toutes les listes, ou -1 à la fin
+         */
+        int next() {
+            SortedIntList first = lists[0];
+            candidates:
+            while (index < first.size()) {
+                int id = first.get(index++);
+                for (int k = 1; k < lists.length; k++) {
+                    int pos = lists[k].lowerBound(id, positions[k]);
+                    positions[k] = pos;
+                    if (pos == lists[k].size()) {
+                        index = first.size(); // une liste est épuisée : plus aucun id commun
+                        return -1;
+                    }
+                    if (lists[k].get(pos) != id) continue candidates;
+                }
+                return id;
+            }
+            return -1;
+        }
+    }
+
+    // ----- Textes -----
+
+    /**
+     * Texte sans casse ni accents, chaque mot précédé d'un espace :
+     * "One Piece !" → " one piece". Tout caractère qui n'est ni lettre ni chiffre sépare les mots.
+     */
+    static String normalize(String text) {
+        String folded = TextFold.fold(text);
+        StringBuilder sb = new StringBuilder(folded.length() + 1);
+        boolean inWord = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord) sb.append(' ');
+                sb.append(c);
+                inWord = true;
+            } else {
+                inWord = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Mots d'un texte normalisé.
+     */
+    static String[] words(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.substring(1).split(" ");
+    }
+
+    /**
+     * Motif à chercher dans un texte normalisé pour un mot de la requête :
+     * le mot lui-même, ou " mot" (début de mot) s'il fait moins de 3 lettres.
+     */
+    static String needle(String word) {
+        return word.length() < 3 ? " " + word : word;
+    }
+
+    // ----- Grammes -----
+
+    private interface GramConsumer {
+        void accept(int key);
+    }
+
+    private static void forEachGram(String text, GramConsumer consumer) {
+        int start = 0;
+        while (start < text.length()) {
+            start++; // espace avant le mot
+            int end = text.indexOf(' ', start);
+            if (end < 0) end = text.length();
+            char first = text.charAt(start);
+            consumer.accept(key(PREFIX_1, first, '\0', '\0'));
+            if (end - start >= 2) consumer.accept(key(PREFIX_2, first, text.charAt(start + 1), '\0'));
+            for (int i = start; i + 3 <= end; i++) {
+                consumer.accept(key(TRIGRAM, text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Clés distinctes des grammes d'un texte, triées.
+     */
+    private static int[] gramKeys(String text) {
+        IdBuffer keys = new IdBuffer();
+        forEachGram(text, keys::add);
+        int[] sorted = Arrays.copyOf(keys.ids, keys.count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[distinct++] = sorted[i];
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static int prefixKey(String word) {
+        return word.length() == 1
+                ? key(PREFIX_1, word.charAt(0), '\0', '\0')
+                : key(PREFIX_2, word.charAt(0), word.charAt(1), '\0');
+    }
+
+    private static int[] trigramKeys(String word) {
+        int[] keys = new int[word.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(TRIGRAM, word.charAt(i), word.charAt(i + 1), word.charAt(i + 2));
+        }
+        return keys;
+    }
+
+    /**
+     * Clé int (> 0, exigé par IntObjectMap) d'un gramme : les collisions sont
+     * possibles mais rares, et corrigées par la vérification des candidats.
+     */
+    private static int key(int kind, char a, char b, char c) {
+        int h = kind;
+        h = h * 65_599 + a;
+        h = h * 65_599 + b;
+        h = h * 65_599 + c;
+        h &= Integer.MAX_VALUE;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Tableau d'int extensible (ajouts en fin seulement).
+     */
+    private static final class IdBuffer {
+        int[] ids = new int[8];
+        int count;
+
+        void add(int value) {
+            if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+            ids[count++] = value;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package search;
+
+import java.util.List;
+
+/**
+ * Résultat d'une recherche dans l'index
+ * --------------------------------------
+ * Lignes trouvées, triées par id, et limitées à la taille demandée :
+ * complete = false si d'autres lignes correspondent au-delà de la limite.
+ * param <T> type d'une ligne (Auteur, OeuvreAuteur)
+ */
+public final class SearchResult<T> {
+
+    private final List<T> rows;
+    private final boolean complete;
+    private final long nanos;
+
+    public SearchResult(List<T> rows, boolean complete, long nanos) {
+        this.rows = rows;
+        this.complete = complete;
+        this.nanos = nanos;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Durée de la recherche (nanosecondes).
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return rows.size() + (complete ? "" : "+") + " résultat(s) en " + nanos / 1000 + " µs";
+    }
+}
@@ -1,12 +1,28 @@
 package tests;
 
 import models.Auteur;
+import models.CommitResult;
 import models.Oeuvre;
+import models.OeuvreAuteur;
+import models.UnitOfWork;
 import controllers.AuteurController;
 import controllers.OeuvreController;
+import metrics.SqlMetrics;
+import repositories.AuteurRepository;
+import repositories.InMemoryCatalog;
+import repositories.OeuvreRepository;
+import search.CatalogSearch;
+import util.IntObjectMap;
+import util.SortedIntList;
+import views.LazyTableModel;
 import views.MainWindow;
+import views.TaskGroup;
 
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Classe de tests
@@ -18,11 +34,28 @@ import java.util.List;
  * 2. Tester l'affichage via la vue graphique.
  * 3. Vérifier les méthodes CRUD : insert, update, delete.
  * 4. Vérifier les retours des opérations pour gérer les erreurs.
+ *
+ * Avant les tests sur la base, des vérifications automatiques sans base de données
+ * (logique pure, stockage en mémoire) affichent OK / ÉCHEC ;
+ * avec l'argument "--verifications", le programme s'arrête après elles (code 1 si échec).
  */
 public class TestMain {
 
+    // Vérifications automatiques : nombre lancées / échouées
+    private static int verifications;
+    private static int echecs;
+
     public static void main(String[] args) {
 
+        // -----------------------------
+        // 0. VÉRIFICATIONS SANS BASE
+        // -----------------------------
+        verifierSansBase();
+        System.out.println((verifications - echecs) + "/" + verifications + " vérification(s) réussie(s)\n");
+        if (Arrays.asList(args).contains("--verifications")) {
+            System.exit(echecs == 0 ? 0 : 1);
+        }
+
         // -----------------------------
         // 1. TEST CRUD AUTEUR
         // -----------------------------
@@ -35,8 +68,8 @@ public class TestMain {
         }
 
         // Exemple d'ajout d'un auteur
-        boolean ajoutAuteur = auteurController.createAuteur("Jean", "Dupont");
-        if (!ajoutAuteur) {
+        Auteur ajoutAuteur = auteurController.createAuteur("Jean", "Dupont");
+        if (ajoutAuteur == null) {
             System.err.println("Erreur : impossible d'ajouter l'auteur Jean Dupont (doublon ou problème DB).");
         }
 
@@ -54,8 +87,8 @@ public class TestMain {
         // Exemple d'ajout d'une œuvre (si un auteur existe)
         if (!auteurs.isEmpty()) {
             int auteurId = auteurs.get(0).getIdAuteur(); // exemple : utiliser un auteur existant
-            boolean ajoutOeuvre = oeuvreController.createOeuvre("Nouveau Manga", auteurId);
-            if (!ajoutOeuvre) {
+            Oeuvre ajoutOeuvre = oeuvreController.createOeuvre("Nouveau Manga", auteurId);
+            if (ajoutOeuvre == null) {
                 System.err.println("Erreur : impossible d'ajouter l'œuvre Nouveau Manga (doublon ou problème DB).");
             }
         }
@@ -72,4 +105,343 @@ public class TestMain {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Vérifications qui n'ont besoin ni de MySQL ni d'écran.
+     */
+    static void verifierSansBase() {
+        verifierFormesSql();
+        verifierStructures();
+        verifierCatalogueEnMemoire();
+        verifierRecherche();
+        verifierUnitOfWork();
+        verifierEnregistrementEnMemoire();
+        verifierSuppressionsTableau();
+    }
+
+    private static void verifier(boolean condition, String description) {
+        verifications++;
+        if (condition) {
+            System.out.println("OK     " + description);
+        } else {
+            echecs++;
+            System.err.println("ÉCHEC  " + description);
+        }
+    }
+
+    /**
+     * SqlMetrics.shapeOf : listes de "?" réduites, même très longues
+     * (un paquet de BatchInsert = 500 couples, une suppression en lot = 500 id).
+     */
+    private static void verifierFormesSql() {
+        verifier("SELECT a FROM t WHERE id = ?".equals(SqlMetrics.shapeOf("SELECT  a\n FROM t WHERE id = ?")),
+                "shapeOf : espaces normalisés");
+        verifier("SELECT a FROM t WHERE id IN (?, ...)".equals(SqlMetrics.shapeOf("SELECT a FROM t WHERE id IN (?)")),
+                "shapeOf : IN (?) réduit");
+        for (int n : new int[]{500, 2000}) {
+            String shape;
+            try {
+                shape = SqlMetrics.shapeOf("SELECT prenom_auteur, nom_auteur FROM auteur"
+                        + " WHERE (prenom_auteur, nom_auteur) IN (" + repeter("(?, ?)", n) + ")");
+            } catch (StackOverflowError e) {
+                shape = "StackOverflowError";
+            }
+            verifier(("SELECT prenom_auteur, nom_auteur FROM auteur WHERE (prenom_auteur, nom_auteur) IN ((?, ?), ...)")
+                    .equals(shape), "shapeOf : IN de " + n + " couples");
+            try {
+                shape = SqlMetrics.shapeOf("DELETE FROM oeuvre WHERE id_oeuvre IN (" + repeter("?", n) + ")");
+            } catch (StackOverflowError e) {
+                shape = "StackOverflowError";
+            }
+            verifier("DELETE FROM oeuvre WHERE id_oeuvre IN (?, ...)".equals(shape), "shapeOf : IN de " + n + " id");
+            try {
+                shape = SqlMetrics.shapeOf("INSERT INTO auteur (prenom_auteur, nom_auteur) VALUES " + repeter("(?, ?)", n));
+            } catch (StackOverflowError e) {
+                shape = "StackOverflowError";
+            }
+            verifier("INSERT INTO auteur (prenom_auteur, nom_auteur) VALUES (?, ?), ...".equals(shape),
+                    "shapeOf : VALUES de " + n + " lignes");
+        }
+    }
+
+    /**
+     * IntObjectMap (sondage linéaire, suppression par décalage) et SortedIntList.
+     */
+    private static void verifierStructures() {
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        for (int i = 1; i <= 1000; i++) map.put(i, "v" + i); // plusieurs agrandissements
+        for (int i = 2; i <= 1000; i += 2) map.remove(i);
+        boolean ok = map.size() == 500;
+        for (int i = 1; i <= 1000; i++) ok &= i % 2 == 1 ? ("v" + i).equals(map.get(i)) : map.get(i) == null;
+        verifier(ok, "IntObjectMap : ajout, suppression, agrandissement");
+
+        // Clés qui tombent dans la même case : la suppression du milieu ne doit rien perdre
+        IntObjectMap<String> collisions = new IntObjectMap<>(4);
+        for (int k = 1; k <= 4; k++) collisions.put(k * 1024, "c" + k);
+        collisions.remove(2048);
+        verifier(collisions.size() == 3 && !collisions.containsKey(2048)
+                        && "c1".equals(collisions.get(1024)) && "c3".equals(collisions.get(3072))
+                        && "c4".equals(collisions.get(4096)),
+                "IntObjectMap : collisions puis suppression");
+
+        SortedIntList list = new SortedIntList(2);
+        for (int v : new int[]{5, 1, 9, 3, 5, 7}) list.add(v);
+        verifier(Arrays.equals(list.toArray(), new int[]{1, 3, 5, 7, 9}), "SortedIntList : ajout trié, sans doublon");
+        verifier(list.remove(5) && !list.remove(5) && Arrays.equals(list.toArray(), new int[]{1, 3, 7, 9}),
+                "SortedIntList : suppression");
+        list.addAll(new int[]{2, 3, 10}, 3);
+        verifier(Arrays.equals(list.toArray(), new int[]{1, 2, 3, 7, 9, 10}), "SortedIntList : fusion addAll");
+        list.removeAll(new int[]{1, 4, 9}, 3);
+        verifier(Arrays.equals(list.toArray(), new int[]{2, 3, 7, 10}), "SortedIntList : removeAll");
+        verifier(list.upperBound(3) == 2 && list.lowerBound(4, 0) == 2 && list.lowerBound(10, 1) == 3
+                        && Arrays.equals(list.after(2, 2), new int[]{3, 7}) && list.after(10, 5).length == 0,
+                "SortedIntList : upperBound, lowerBound, after");
+    }
+
+    /**
+     * InMemoryCatalog : mêmes règles que la base (unicité, clé étrangère, auteur lié),
+     * pagination par clé, copies renvoyées.
+     */
+    private static void verifierCatalogueEnMemoire() {
+        InMemoryCatalog catalog = new InMemoryCatalog();
+        AuteurRepository auteurs = catalog.auteurs();
+        OeuvreRepository oeuvres = catalog.oeuvres();
+        Auteur oda = auteurs.add("Eiichiro", "Oda");
+        Auteur toriyama = auteurs.add("Akira", "Toriyama");
+        verifier(oda.getIdAuteur() == 1 && toriyama.getIdAuteur() == 2 && auteurs.add("Eiichiro", "Oda") == null,
+                "InMemoryCatalog : id auto-incrémentés, doublon d'auteur refusé");
+        Oeuvre onePiece = oeuvres.add("One Piece", oda.getIdAuteur());
+        verifier(onePiece != null && oeuvres.add("One Piece", oda.getIdAuteur()) == null
+                        && oeuvres.add("Dragon Ball", 99) == null,
+                "InMemoryCatalog : doublon d'œuvre et auteur inconnu refusés");
+        verifier(!auteurs.delete(oda.getIdAuteur()) && auteurs.delete(toriyama.getIdAuteur()) && auteurs.count() == 1,
+                "InMemoryCatalog : un auteur qui a des œuvres n'est pas supprimé");
+
+        for (int i = 0; i < 5; i++) auteurs.add("Prénom" + i, "Nom" + i);
+        verifier(auteurs.findPage(3, 2).stream().map(Auteur::getIdAuteur).toList().equals(List.of(4, 5))
+                        && Arrays.equals(auteurs.findIds(5, 10), new int[]{6, 7}),
+                "InMemoryCatalog : pagination par clé (id 2 supprimé)");
+
+        Auteur copie = auteurs.findById(oda.getIdAuteur());
+        copie.setNomAuteur("Modifié sans update");
+        verifier("Oda".equals(auteurs.findById(oda.getIdAuteur()).getNomAuteur())
+                        && oeuvres.findByAuteur(oda.getIdAuteur()).size() == 1,
+                "InMemoryCatalog : les lectures renvoient des copies");
+    }
+
+    /**
+     * CatalogSearch (NgramIndex) sur le catalogue en mémoire : candidats par trigrammes
+     * ou par début de mot, puis auteur renommé (replaceAll sur les textes de ses œuvres).
+     */
+    private static void verifierRecherche() {
+        InMemoryCatalog catalog = new InMemoryCatalog();
+        Auteur kishimoto = catalog.auteurs().add("Masashi", "Kishimoto");
+        Auteur ishiguro = catalog.auteurs().add("Kazuo", "Ishiguro");
+        OeuvreRepository oeuvres = catalog.oeuvres();
+        oeuvres.add("Naruto", kishimoto.getIdAuteur());
+        oeuvres.add("Boruto", kishimoto.getIdAuteur());
+        oeuvres.add("Banana Fish", ishiguro.getIdAuteur());
+        oeuvres.add("Les Vestiges du jour", ishiguro.getIdAuteur());
+
+        CatalogSearch search = new CatalogSearch();
+        search.build(catalog.auteurs(), oeuvres);
+        verifier(titres(search, "ruto").equals(List.of("Naruto", "Boruto")), "recherche : trigrammes (\"ruto\")");
+        verifier(titres(search, "na").equals(List.of("Naruto")), "recherche : début de mot (\"na\" ≠ Banana)");
+        verifier(titres(search, "JOUR vestiges").equals(List.of("Les Vestiges du jour")),
+                "recherche : plusieurs mots, sans casse");
+        verifier(titres(search, "narutô").equals(List.of("Naruto")), "recherche : sans accents");
+        verifier(titres(search, "xyz").isEmpty(), "recherche : aucun candidat");
+
+        catalog.auteurs().update(kishimoto.getIdAuteur(), "Masashi", "Toriyama");
+        Auteur renomme = catalog.auteurs().findById(kishimoto.getIdAuteur());
+        search.auteurSaved(renomme);
+        verifier(titres(search, "kishimoto").isEmpty() && titres(search, "toriyama").equals(List.of("Naruto", "Boruto")),
+                "recherche : œuvres réindexées après renommage de l'auteur");
+        verifier(search.searchAuteurs("toriya", CatalogSearch.DEFAULT_LIMIT).getRows().size() == 1,
+                "recherche : auteur renommé");
+    }
+
+    private static List<String> titres(CatalogSearch search, String texte) {
+        return search.searchOeuvres(texte, CatalogSearch.DEFAULT_LIMIT).getRows().stream()
+                .map(OeuvreAuteur::getNomOeuvre).toList();
+    }
+
+    /**
+     * UnitOfWork : une seule modification gardée par ligne, son état final.
+     */
+    private static void verifierUnitOfWork() {
+        UnitOfWork work = new UnitOfWork();
+        Auteur cree = work.createAuteur("Jean", "Dupont");
+        work.updateAuteur(cree.getIdAuteur(), "Jean", "Durand");
+        List<Auteur> crees = work.getAuteurs(UnitOfWork.Kind.CREATE);
+        verifier(UnitOfWork.isTemporaryId(cree.getIdAuteur()) && crees.size() == 1
+                        && "Durand".equals(crees.get(0).getNomAuteur())
+                        && work.getAuteurs(UnitOfWork.Kind.UPDATE).isEmpty(),
+                "UnitOfWork : ajout puis modification → ajout modifié");
+        work.deleteAuteur(cree.getIdAuteur());
+        verifier(work.isEmpty(), "UnitOfWork : ajout puis suppression → plus rien");
+
+        work.updateOeuvre(7, "Titre", 1);
+        work.deleteOeuvre(7);
+        work.updateOeuvre(7, "Autre titre", 1);
+        verifier(work.size() == 1 && work.getOeuvreEdit(7).getKind() == UnitOfWork.Kind.DELETE,
+                "UnitOfWork : modification puis suppression → suppression (définitive)");
+    }
+
+    /**
+     * InMemoryCatalog : un enregistrement qui échoue ne laisse aucune trace (annulation).
+     */
+    private static void verifierEnregistrementEnMemoire() {
+        InMemoryCatalog catalog = new InMemoryCatalog();
+        AuteurRepository auteurs = catalog.auteurs();
+        Auteur lie = auteurs.add("Eiichiro", "Oda");
+        Auteur autre = auteurs.add("Akira", "Toriyama");
+        Oeuvre onePiece = catalog.oeuvres().add("One Piece", lie.getIdAuteur());
+
+        UnitOfWork work = new UnitOfWork();
+        Auteur nouveau = work.createAuteur("Naoki", "Urasawa");
+        work.createOeuvre("Monster", nouveau.getIdAuteur());
+        work.updateAuteur(autre.getIdAuteur(), "Akira", "Renommé");
+        work.updateOeuvre(onePiece.getIdOeuvre(), "One Piece (nouveau titre)", lie.getIdAuteur());
+        work.deleteAuteur(lie.getIdAuteur()); // refusé : il a encore une œuvre
+        CommitResult echec = catalog.unitOfWork().commit(work);
+        verifier(!echec.isSuccess() && auteurs.count() == 2 && catalog.oeuvres().count() == 1
+                        && "Toriyama".equals(auteurs.findById(autre.getIdAuteur()).getNomAuteur())
+                        && "One Piece".equals(catalog.oeuvres().findById(onePiece.getIdOeuvre()).getNomOeuvre()),
+                "InMemoryCatalog : échec → tout est annulé");
+        verifier(auteurs.add("Naoki", "Urasawa") != null, "InMemoryCatalog : clés d'unicité remises après annulation");
+
+        UnitOfWork suppression = new UnitOfWork();
+        suppression.deleteOeuvre(onePiece.getIdOeuvre());
+        suppression.deleteAuteur(lie.getIdAuteur());
+        CommitResult succes = catalog.unitOfWork().commit(suppression);
+        verifier(succes.isSuccess() && auteurs.findById(lie.getIdAuteur()) == null && catalog.oeuvres().count() == 0,
+                "InMemoryCatalog : œuvre puis auteur supprimés dans le même enregistrement");
+    }
+
+    /**
+     * LazyTableModel sur le catalogue en mémoire : une suppression signalée deux fois
+     * (par ce poste, puis par la synchronisation) n'est retirée qu'une fois, même en lot ;
+     * deux ajouts arrivés dans le désordre sont comptés tous les deux.
+     */
+    private static void verifierSuppressionsTableau() {
+        InMemoryCatalog catalog = new InMemoryCatalog();
+        AuteurRepository auteurs = catalog.auteurs();
+        for (int i = 1; i <= 25; i++) auteurs.add("Prénom" + i, "Nom" + i);
+        TaskGroup tasks = new TaskGroup();
+        AtomicReference<LazyTableModel<Auteur>> model = new AtomicReference<>();
+        try {
+            surEdt(() -> model.set(new LazyTableModel<>(new String[]{"ID"}, 1, new LazyTableModel.PageSource<Auteur>() {
+                @Override
+                public int count() {
+                    return auteurs.count();
+                }
+
+                @Override
+                public int[] countAndLastKey() {
+                    return auteurs.countAndMaxId();
+                }
+
+                @Override
+                public List<Auteur> loadPage(int afterId, int limit) {
+                    return auteurs.findPage(afterId, limit);
+                }
+
+                @Override
+                public int[] loadKeys(int afterId, int limit) {
+                    return auteurs.findIds(afterId, limit);
+                }
+
+                @Override
+                public int keyOf(Auteur a) {
+                    return a.getIdAuteur();
+                }
+            }, (a, column) -> a.getIdAuteur(), 10, 2, tasks)));
+            attendre(tasks);
+            surEdt(() -> model.get().getRowAt(0)); // charge la page 0 (id 1 à 10)
+            attendre(tasks);
+
+            auteurs.delete(3);
+            surEdt(() -> {
+                model.get().rowDeleted(3);
+                model.get().rowDeleted(3);
+            });
+            attendre(tasks);
+            verifier(nombreDeLignes(model.get()) == 24, "LazyTableModel : rowDeleted signalé deux fois");
+
+            auteurs.delete(4);
+            auteurs.delete(5);
+            surEdt(() -> model.get().rowsDeleted(List.of(4, 5, 3, 5)));
+            attendre(tasks);
+            surEdt(() -> model.get().rowsDeleted(List.of(4, 5)));
+            attendre(tasks);
+            verifier(nombreDeLignes(model.get()) == 22 && model.get().getRowAt(2).getIdAuteur() == 6,
+                    "LazyTableModel : rowsDeleted en double (lignes en mémoire)");
+
+            auteurs.delete(22); // page 2, pas en mémoire : nombre de lignes relu
+            auteurs.delete(23);
+            surEdt(() -> model.get().rowsDeleted(List.of(22, 23)));
+            attendre(tasks);
+            surEdt(() -> {
+                model.get().rowsDeleted(List.of(22, 23));
+                model.get().rowDeleted(22);
+            });
+            attendre(tasks);
+            verifier(nombreDeLignes(model.get()) == auteurs.count(), "LazyTableModel : rowsDeleted en double (après relecture)");
+
+            Auteur a26 = auteurs.add("Prénom26", "Nom26");
+            Auteur a27 = auteurs.add("Prénom27", "Nom27");
+            surEdt(() -> {
+                model.get().rowInserted(a27);
+                model.get().rowInserted(a26);
+                model.get().rowInserted(a27);
+            });
+            attendre(tasks);
+            verifier(nombreDeLignes(model.get()) == auteurs.count(), "LazyTableModel : ajouts dans le désordre");
+        } catch (RuntimeException e) {
+            verifier(false, "LazyTableModel : " + e);
+        } finally {
+            tasks.dispose();
+        }
+    }
+
+    private static int nombreDeLignes(LazyTableModel<?> model) {
+        int[] count = new int[1];
+        surEdt(() -> count[0] = model.getRowCount());
+        return count[0];
+    }
+
+    // Exécute sur l'EDT et attend la fin (le modèle de tableau ne s'utilise que depuis l'EDT)
+    private static void surEdt(Runnable action) {
+        try {
+            SwingUtilities.invokeAndWait(action);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Attend la fin des chargements d'arrière-plan (et de ceux qu'ils relancent), 5 s au plus
+    private static void attendre(TaskGroup tasks) {
+        boolean[] busy = {true};
+        long limite = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < limite) {
+            surEdt(() -> busy[0] = tasks.isBusy());
+            if (!busy[0]) return;
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static String repeter(String element, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) sb.append(i == 0 ? "" : ", ").append(element);
+        return sb.toString();
+    }
 }
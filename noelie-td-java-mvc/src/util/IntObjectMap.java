@@ -0,0 +1,136 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage à clés int primitives
+ * ---------------------------------------
+ * Équivalent de HashMap<Integer, V> sans Integer ni objet Entry par élément :
+ * - deux tableaux parallèles (clés int, valeurs) ;
+ * - adressage ouvert avec sondage linéaire (on essaie la case suivante) ;
+ * - suppression par décalage arrière : pas de "pierre tombale", la table reste compacte.
+ *
+ * Les clés doivent être strictement positives (id auto-incrémentés, clés de hachage
+ * ramenées au-dessus de 0) : la valeur 0 marque une case vide.
+ * Non synchronisée : l'appelant protège l'accès (InMemoryCatalog, CatalogSearch : verrou).
+ */
+public final class IntObjectMap<V> {
+
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return (V) values[i];
+            if (k == EMPTY) return null;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * return l'ancienne valeur, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (key <= 0) throw new IllegalArgumentException("Clé invalide : " + key);
+        if (value == null) throw new IllegalArgumentException("Valeur null interdite");
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size > keys.length * LOAD_FACTOR) resize(keys.length << 1);
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == EMPTY) return null;
+            if (k == key) {
+                V old = (V) values[i];
+                shiftBack(i);
+                size--;
+                return old;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Après une suppression en "hole", remonte les éléments suivants du même groupe
+     * pour qu'aucune recherche ne s'arrête trop tôt sur une case vide.
+     */
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            int k = keys[i];
+            if (k == EMPTY) break;
+            int home = slot(k);
+            // L'élément en i peut-il aller dans le trou ? (distance circulaire)
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int j = slot(k);
+            while (keys[j] != EMPTY) j = (j + 1) & mask;
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9; // mélange (hachage de Fibonacci) : id consécutifs → cases dispersées
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,141 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Liste triée d'int primitifs (sans doublon)
+ * -------------------------------------------
+ * Sert d'index ordonné des id :
+ * - pagination par clé : upperBound(afterId) par recherche dichotomique, puis copie ;
+ * - les id auto-incrémentés arrivent dans l'ordre → add() est un simple ajout en fin ;
+ * - remove() décale la fin du tableau (System.arraycopy, très rapide en pratique).
+ */
+public final class SortedIntList {
+
+    private int[] values;
+    private int size;
+
+    public SortedIntList(int initialCapacity) {
+        values = new int[Math.max(4, initialCapacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public void add(int value) {
+        if (size == values.length) values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        if (size == 0 || values[size - 1] < value) {
+            values[size++] = value; // cas courant : id croissant
+            return;
+        }
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos >= 0) return; // déjà présent
+        pos = -pos - 1;
+        System.arraycopy(values, pos, values, pos + 1, size - pos);
+        values[pos] = value;
+        size++;
+    }
+
+    public boolean remove(int value) {
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        if (pos < 0) return false;
+        System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Ajoute plusieurs valeurs triées en une seule fusion (coût proportionnel à la taille
+     * de la liste, au lieu d'un décalage du tableau par valeur).
+     * param sorted valeurs triées, sans doublon, lues de 0 à count - 1
+     */
+    public void addAll(int[] sorted, int count) {
+        if (count == 0) return;
+        if (size == 0 || values[size - 1] < sorted[0]) { // tout à la fin
+            if (size + count > values.length) values = Arrays.copyOf(values, size + count + (size >> 1));
+            System.arraycopy(sorted, 0, values, size, count);
+            size += count;
+            return;
+        }
+        int[] merged = new int[size + count + (size >> 1)];
+        int i = 0, j = 0, k = 0;
+        while (i < size && j < count) {
+            int a = values[i], b = sorted[j];
+            if (a < b) merged[k++] = values[i++];
+            else if (a > b) merged[k++] = sorted[j++];
+            else { // déjà présente
+                merged[k++] = a;
+                i++;
+                j++;
+            }
+        }
+        while (i < size) merged[k++] = values[i++];
+        while (j < count) merged[k++] = sorted[j++];
+        values = merged;
+        size = k;
+    }
+
+    /**
+     * Retire plusieurs valeurs triées en un seul passage sur la liste.
+     * param sorted valeurs triées, lues de 0 à count - 1 (les absentes sont ignorées)
+     */
+    public void removeAll(int[] sorted, int count) {
+        int i = 0, j = 0, k = 0;
+        while (i < size) {
+            int v = values[i++];
+            while (j < count && sorted[j] < v) j++;
+            if (j < count && sorted[j] == v) continue;
+            values[k++] = v;
+        }
+        size = k;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Index du premier élément strictement supérieur à value.
+     */
+    public int upperBound(int value) {
+        int pos = Arrays.binarySearch(values, 0, size, value);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    /**
+     * Index du premier élément supérieur ou égal à value, en partant de from
+     * (recherche exponentielle : rapide quand la réponse est proche de from,
+     * cas d'un parcours de plusieurs listes en parallèle).
+     */
+    public int lowerBound(int value, int from) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while (high < size && values[high] < value) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        int pos = Arrays.binarySearch(values, low, high, value);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * Jusqu'à limit valeurs strictement supérieures à after.
+     */
+    public int[] after(int after, int limit) {
+        int from = upperBound(after);
+        int to = (int) Math.min(size, (long) from + Math.max(0, limit));
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,35 @@
+package util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Comparaison de textes sans casse ni accents
+ * --------------------------------------------
+ * fold("Éric") = fold("ERIC") = "eric" : même règle que la collation MySQL par défaut
+ * (utf8mb4_0900_ai_ci), utilisée par le catalogue en mémoire (unicité)
+ * et par l'index de recherche.
+ */
+public final class TextFold {
+
+    private TextFold() {
+    }
+
+    /**
+     * Décomposition NFD ("é" → "e" + accent), suppression des accents, minuscules.
+     * Texte entièrement ASCII (cas le plus courant) : simple passage en minuscules.
+     */
+    public static String fold(String value) {
+        if (value == null) return "";
+        if (isAscii(value)) return value.toLowerCase(Locale.ROOT);
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+}
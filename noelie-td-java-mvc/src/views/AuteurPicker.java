@@ -0,0 +1,279 @@
+package views;
+
+import config.QueryHandle;
+import controllers.AuteurController;
+import models.Auteur;
+import search.CatalogSearch;
+import search.SearchResult;
+import util.TextFold;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Choix d'un auteur par saisie (formulaire d'œuvre)
+ * --------------------------------------------------
+ * Avant : la liste déroulante recevait TOUS les auteurs (fetchAllAuteurs + addItem),
+ * ce qui prend plusieurs secondes avec 100 000 auteurs.
+ *
+ * Ici :
+ * 1. La liste ne contient que les auteurs qui correspondent à la saisie,
+ *    au plus MAX_MATCHES (ceux qu'on peut réellement afficher) : ouverture immédiate.
+ * 2. Recherche à chaque frappe :
+ *    - index en mémoire (CatalogSearch) s'il est prêt : aucune requête SQL.
+ *      L'index trouve les auteurs qui "contiennent" la saisie, dans l'ordre des id ;
+ *      on lui en demande jusqu'à MAX_CANDIDATES, puis on applique la même règle
+ *      que la base (le nom ou le prénom commence par la saisie), on trie par nom
+ *      et on garde les MAX_MATCHES premiers. Au-delà de MAX_CANDIDATES (saisie
+ *      d'une ou deux lettres), le tri ne serait pas juste : on passe par la base ;
+ *    - sinon requête "commence par" en base, après DEBOUNCE_MILLIS sans frappe,
+ *      la précédente étant annulée (comme FilterBar).
+ * 3. Cache des recherches en base : si "ta" a renvoyé moins de MAX_MATCHES auteurs
+ *    (résultat complet), "tak" est filtré en mémoire à partir de ce résultat, sans requête.
+ * 4. Modification d'une œuvre : l'auteur actuel est déjà connu (ligne du tableau),
+ *    il est présélectionné sans requête.
+ *
+ * Toutes les méthodes s'appellent depuis l'EDT.
+ */
+public class AuteurPicker extends JPanel {
+
+    private static final int MAX_MATCHES = 50;
+    private static final int MAX_CANDIDATES = CatalogSearch.DEFAULT_LIMIT; // demandés à l'index
+    private static final int DEBOUNCE_MILLIS = 250;
+    private static final int MAX_CACHED_PREFIXES = 32;
+
+    private final AuteurController auteurController;
+    private final TaskGroup tasks;
+    private final JTextField field = new JTextField();
+    private final MatchModel model = new MatchModel();
+    private final JComboBox<Auteur> combo = new JComboBox<>(model);
+    private final Timer debounce;
+
+    // Recherches en base déjà faites : préfixe (sans casse ni accents) → auteurs trouvés
+    private final Map<String, Matches> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Matches> eldest) {
+            return size() > MAX_CACHED_PREFIXES;
+        }
+    };
+    private long sequence;       // numéro de la dernière recherche demandée
+    private QueryHandle running; // requête en base en cours, ou null
+
+    /**
+     * param tasks tâches d'arrière-plan de la fenêtre
+     * param initial auteur présélectionné (modification), ou null
+     */
+    public AuteurPicker(AuteurController auteurController, TaskGroup tasks, Auteur initial) {
+        super(new BorderLayout(0, 2));
+        this.auteurController = auteurController;
+        this.tasks = tasks;
+        this.debounce = new Timer(DEBOUNCE_MILLIS, e -> searchDatabase());
+        debounce.setRepeats(false);
+
+        field.setToolTipText("Tapez le début du nom ou du prénom");
+        combo.setMaximumRowCount(12);
+        add(field, BorderLayout.NORTH);
+        add(combo, BorderLayout.CENTER);
+
+        if (initial != null) {
+            model.setMatches(List.of(initial));
+            model.setSelectedItem(initial);
+        }
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                search();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                search();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                search();
+            }
+        });
+        // Entrée : le premier auteur trouvé est choisi
+        field.addActionListener(e -> {
+            if (model.getSize() > 0) combo.setSelectedIndex(0);
+            combo.hidePopup();
+        });
+    }
+
+    /**
+     * Auteur choisi, ou null.
+     */
+    public Auteur getSelectedAuteur() {
+        return (Auteur) combo.getSelectedItem();
+    }
+
+    /**
+     * Nouvelle saisie : index en mémoire, cache, ou requête en base (différée).
+     */
+    private void search() {
+        debounce.stop();
+        cancelRunning();
+        sequence++; // une réponse encore en route ne doit plus s'afficher
+        String text = field.getText().trim();
+        if (text.isEmpty()) return; // la liste garde les derniers auteurs trouvés
+
+        String prefix = TextFold.fold(text);
+        SearchResult<Auteur> indexed = auteurController.searchAuteurs(text, MAX_CANDIDATES);
+        if (indexed != null && indexed.isComplete()) {
+            List<Auteur> found = sorted(startingWith(indexed.getRows(), prefix));
+            show(found.size() > MAX_MATCHES ? found.subList(0, MAX_MATCHES) : found);
+            return;
+        }
+        Matches known = completeMatchesFor(prefix);
+        if (known != null) {
+            show(known.startingWith(prefix));
+            return;
+        }
+        debounce.restart();
+    }
+
+    /**
+     * Fin de l'anti-rebond : requête "commence par" en base, hors de l'EDT.
+     */
+    private void searchDatabase() {
+        String text = field.getText().trim();
+        if (text.isEmpty()) return;
+        String prefix = TextFold.fold(text);
+        long seq = ++sequence;
+        QueryHandle handle = new QueryHandle();
+        running = handle;
+        tasks.submit(() -> auteurController.fetchAuteursByPrefix(text, MAX_MATCHES + 1, handle), rows -> {
+            if (seq != sequence) return; // une saisie plus récente a eu lieu entre-temps
+            running = null;
+            boolean complete = rows.size() <= MAX_MATCHES;
+            List<Auteur> found = complete ? rows : rows.subList(0, MAX_MATCHES);
+            cache.put(prefix, new Matches(found, complete));
+            show(found);
+        }, e -> {
+            if (seq == sequence) running = null;
+        });
+    }
+
+    /**
+     * Résultat complet déjà en cache pour un début de la saisie ("ta" pour "tak").
+     */
+    private Matches completeMatchesFor(String prefix) {
+        for (int end = prefix.length(); end > 0; end--) {
+            Matches m = cache.get(prefix.substring(0, end));
+            if (m != null && (m.complete || end == prefix.length())) return m;
+        }
+        return null;
+    }
+
+    private void show(List<Auteur> matches) {
+        Auteur selected = getSelectedAuteur();
+        model.setMatches(matches);
+        // L'auteur choisi reste choisi s'il fait partie des résultats ; sinon, le premier trouvé
+        if (matches.isEmpty()) {
+            model.setSelectedItem(null);
+        } else if (selected == null || !matches.contains(selected)) {
+            model.setSelectedItem(matches.get(0));
+        }
+        if (field.hasFocus() && !matches.isEmpty() && combo.isShowing()) combo.showPopup();
+    }
+
+    /** Même règle que la requête en base : le nom ou le prénom commence par prefix (déjà replié). */
+    private static List<Auteur> startingWith(List<Auteur> auteurs, String prefix) {
+        List<Auteur> found = new ArrayList<>();
+        for (Auteur a : auteurs) {
+            if (TextFold.fold(a.getNomAuteur()).startsWith(prefix)
+                    || TextFold.fold(a.getPrenomAuteur()).startsWith(prefix)) {
+                found.add(a);
+            }
+        }
+        return found;
+    }
+
+    private static List<Auteur> sorted(List<Auteur> auteurs) {
+        List<Auteur> copy = new ArrayList<>(auteurs);
+        copy.sort(Comparator.comparing((Auteur a) -> TextFold.fold(a.getNomAuteur()))
+                .thenComparing(a -> TextFold.fold(a.getPrenomAuteur())));
+        return copy;
+    }
+
+    private void cancelRunning() {
+        QueryHandle handle = running;
+        running = null;
+        if (handle != null) CompletableFuture.runAsync(handle::cancel); // aller-retour serveur : hors EDT
+    }
+
+    /**
+     * Fermeture du formulaire : arrête la minuterie et la requête en cours.
+     */
+    public void dispose() {
+        debounce.stop();
+        cancelRunning();
+        sequence++;
+    }
+
+    /**
+     * Auteurs trouvés pour un préfixe.
+     */
+    private static final class Matches {
+        final List<Auteur> auteurs;
+        final boolean complete; // false : d'autres auteurs correspondent au-delà de MAX_MATCHES
+
+        Matches(List<Auteur> auteurs, boolean complete) {
+            this.auteurs = auteurs;
+            this.complete = complete;
+        }
+
+        List<Auteur> startingWith(String prefix) {
+            return AuteurPicker.startingWith(auteurs, prefix);
+        }
+    }
+
+    /**
+     * Modèle de la liste déroulante : seulement les auteurs trouvés (au plus MAX_MATCHES).
+     * L'auteur choisi peut ne pas en faire partie (auteur actuel avant toute saisie).
+     */
+    private static final class MatchModel extends AbstractListModel<Auteur> implements ComboBoxModel<Auteur> {
+        private List<Auteur> matches = List.of();
+        private Object selected;
+
+        void setMatches(List<Auteur> matches) {
+            int before = this.matches.size();
+            this.matches = matches;
+            if (before > 0) fireIntervalRemoved(this, 0, before - 1);
+            if (!matches.isEmpty()) fireIntervalAdded(this, 0, matches.size() - 1);
+        }
+
+        @Override
+        public int getSize() {
+            return matches.size();
+        }
+
+        @Override
+        public Auteur getElementAt(int index) {
+            return matches.get(index);
+        }
+
+        @Override
+        public void setSelectedItem(Object item) {
+            if (item == null ? selected == null : item.equals(selected)) return;
+            selected = item;
+            fireContentsChanged(this, -1, -1);
+        }
+
+        @Override
+        public Object getSelectedItem() {
+            return selected;
+        }
+    }
+}
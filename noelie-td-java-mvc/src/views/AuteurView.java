@@ -2,14 +2,18 @@ package views;
 
 import controllers.AuteurController;
 import models.Auteur;
+import models.DeleteResult;
+import search.CatalogSearch;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Vue pour afficher la liste des auteurs avec actions
@@ -22,18 +26,46 @@ import java.util.List;
  */
 public class AuteurView extends JFrame {
 
+    // Colonnes du tableau (le modèle est créé par SharedCatalog)
+    static final String[] COLONNES = {"ID", "Prénom", "Nom", "Modifier", "Supprimer"};
+
     // Le contrôleur permet de dialoguer avec le modèle (la base de données)
     private AuteurController auteurController;
-    private DefaultTableModel tableModel; // Modèle du tableau (contient les données affichées)
+    private final SharedCatalog catalog; // Modèle partagé avec les autres fenêtres ouvertes
+    private final boolean catalogPropre; // true : catalogue créé pour cette seule fenêtre
+    private FilteredTableModel<Auteur> tableModel; // Modèle du tableau (filtre propre à la fenêtre)
     private JTable table; // Tableau graphique affiché à l'écran
+    private FilterBar<Auteur> filterBar; // Champ de recherche (index en mémoire ou requêtes en base)
+    private PendingBar pendingBar; // Mode brouillon : modifications en attente, enregistrées en une fois
+
+    // Requêtes exécutées hors du thread graphique (annulées à la fermeture de la fenêtre)
+    private final TaskGroup tasks = new TaskGroup();
+    private final JLabel chargementLabel = new JLabel("Chargement...");
+    private final Consumer<Boolean> chargementListener = busy -> majChargement();
+    private final SharedCatalog.TableListener<Auteur> changementListener = this::rafraichirFiltre;
 
     /**
      * Constructeur de la Vue
      * ----------------------
      * On prépare ici la fenêtre principale (titre, taille, contenu...).
+     * Fenêtre seule : elle a son propre catalogue (voir l'autre constructeur).
      */
     public AuteurView(AuteurController auteurController) {
+        this(auteurController, new SharedCatalog(auteurController, null), true);
+    }
+
+    /**
+     * param catalog catalogue partagé par toutes les fenêtres (créé par MainWindow) :
+     *        les auteurs déjà lus par une autre fenêtre ne sont pas relus
+     */
+    public AuteurView(AuteurController auteurController, SharedCatalog catalog) {
+        this(auteurController, catalog, false);
+    }
+
+    private AuteurView(AuteurController auteurController, SharedCatalog catalog, boolean catalogPropre) {
         this.auteurController = auteurController;
+        this.catalog = catalog;
+        this.catalogPropre = catalogPropre;
 
         // Paramètres de la fenêtre principale
         setTitle("Liste des auteurs");
@@ -41,32 +73,20 @@ public class AuteurView extends JFrame {
         setLocationRelativeTo(null); // Centre la fenêtre sur l’écran
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // Ferme uniquement cette fenêtre
 
-        // 1. Récupération des auteurs depuis le contrôleur
-        List<Auteur> auteurs = auteurController.fetchAllAuteurs();
+        // 1. Colonnes du tableau : voir COLONNES
+        //    On rend seulement les colonnes "Modifier" et "Supprimer" éditables (index >= 3).
 
-        // 2. Définition des colonnes du tableau
-        String[] colonnes = {"ID", "Prénom", "Nom", "Modifier", "Supprimer"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
-            // On rend seulement les colonnes "Modifier" et "Supprimer" éditables
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column >= 3;
-            }
-        };
-
-        // 3. Remplissage du tableau avec les données
-        for (Auteur a : auteurs) {
-            tableModel.addRow(new Object[]{
-                    a.getIdAuteur(),
-                    a.getPrenomAuteur(),
-                    a.getNomAuteur(),
-                    "Modifier",   // bouton texte
-                    "Supprimer"   // bouton texte
-            });
-        }
+        // 2. Modèle "paresseux" partagé : seules les pages visibles sont lues en base,
+        //    par pagination sur la clé primaire (voir LazyTableModel), une seule fois
+        //    pour toutes les fenêtres ouvertes (voir SharedCatalog).
+        tableModel = new FilteredTableModel<>(catalog.auteurs());
+
+        // 3. Les lignes sont chargées par le modèle quand le tableau les affiche
 
         // 4. Création du tableau graphique
         table = new JTable(tableModel);
+        table.setDefaultRenderer(Object.class, new PendingRowRenderer(tableModel)); // lignes en attente
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // Ctrl / Maj + clic
 
         // 5. Ajout de boutons dans les colonnes "Modifier" et "Supprimer"
         table.getColumn("Modifier").setCellRenderer(new ButtonRenderer());
@@ -79,12 +99,145 @@ public class AuteurView extends JFrame {
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
 
+        // 6 bis. Champ de recherche au-dessus du tableau : filtre en mémoire, sans requête,
+        //        ou (catalogue trop gros pour l'index) requête en base après la frappe
+        if (auteurController.getSearch() != null) {
+            filterBar = new FilterBar<>(texte -> auteurController.searchAuteurs(texte, CatalogSearch.DEFAULT_LIMIT),
+                    tableModel);
+        } else {
+            filterBar = new FilterBar<>(auteurController::fetchAuteursByPrefix, CatalogSearch.DEFAULT_LIMIT,
+                    tasks, (a, texte) -> FilterBar.startsWith(a.getNomAuteur(), texte)
+                            || FilterBar.startsWith(a.getPrenomAuteur(), texte), tableModel);
+        }
+        pendingBar = new PendingBar(catalog);
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(filterBar, BorderLayout.NORTH);
+        topPanel.add(pendingBar, BorderLayout.SOUTH);
+        add(topPanel, BorderLayout.NORTH);
+
         // 7. Bouton pour ajouter un auteur (en bas de la fenêtre)
         JButton addButton = new JButton("Ajouter un auteur");
         addButton.addActionListener(e -> showAuteurForm(null)); // null = on crée un nouvel auteur
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
+
+        // 7 bis. Suppression des lignes sélectionnées (Ctrl / Maj + clic) : une requête par lot
+        JButton deleteSelectionButton = new JButton("Supprimer la sélection");
+        deleteSelectionButton.addActionListener(e -> supprimerSelection());
+        bottomPanel.add(deleteSelectionButton);
+
+        // 8. Indicateur de chargement : visible tant qu'une requête est en cours
+        //    (celles de la fenêtre ou celles du catalogue partagé)
+        majChargement();
+        tasks.addBusyListener(chargementListener);
+        catalog.getTasks().addBusyListener(chargementListener);
+        bottomPanel.add(chargementLabel);
         add(bottomPanel, BorderLayout.SOUTH);
+
+        // 9. Un auteur ajouté, modifié ou supprimé (ici ou dans une autre fenêtre) : filtre recalculé
+        catalog.addAuteurListener(changementListener);
+    }
+
+    private void majChargement() {
+        chargementLabel.setVisible(tasks.isBusy() || catalog.getTasks().isBusy());
+    }
+
+    /**
+     * Fermeture de la fenêtre : les requêtes encore en cours sont annulées
+     * (leurs résultats ne seront pas appliqués à une fenêtre disparue).
+     */
+    @Override
+    public void dispose() {
+        tasks.dispose();
+        filterBar.dispose();
+        pendingBar.dispose();
+        tableModel.dispose();
+        catalog.getTasks().removeBusyListener(chargementListener);
+        catalog.removeAuteurListener(changementListener);
+        if (catalogPropre) catalog.dispose();
+        super.dispose();
+    }
+
+    /**
+     * Après une modification : le filtre en cours est recalculé (l'index est déjà à jour),
+     * ou, recherche en base, relancé seulement s'il est concerné (voir FilterBar.refreshAfterChange).
+     * Le tableau complet, lui, a déjà été mis à jour par le catalogue partagé.
+     */
+    private void rafraichirFiltre(Predicate<Auteur> touchees, List<Auteur> lignes) {
+        filterBar.refreshAfterChange(touchees, lignes);
+    }
+
+    /**
+     * Supprime tous les auteurs sélectionnés en une fois (voir AuteurController.removeAuteurs) ;
+     * ceux qui ont encore des œuvres sont gardés et signalés.
+     * Les lignes sélectionnées dont la page n'est pas encore lue sont ignorées
+     * (leur nombre est indiqué dans la confirmation).
+     */
+    private void supprimerSelection() {
+        List<Integer> ids = new ArrayList<>();
+        int nonCharges = 0;
+        for (int row : table.getSelectedRows()) {
+            Auteur a = tableModel.getRowAt(row);
+            if (a != null) ids.add(a.getIdAuteur());
+            else nonCharges++; // page pas encore lue
+        }
+        if (ids.isEmpty()) {
+            JOptionPane.showMessageDialog(this, nonCharges > 0
+                    ? "Lignes pas encore chargées, réessayez dans un instant." : "Aucun auteur sélectionné.");
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Supprimer les " + ids.size() + " auteur(s) sélectionné(s) ?"
+                        + (nonCharges > 0 ? "\n" + nonCharges + " ligne(s) sélectionnée(s) pas encore chargée(s) : ignorée(s)." : ""),
+                "Confirmer", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) return;
+
+        // Mode brouillon : suppressions notées (lignes barrées)
+        if (catalog.isDraftMode()) {
+            if (catalog.isCommitting()) {
+                JOptionPane.showMessageDialog(this, "Enregistrement en cours, réessayez dans un instant.");
+            } else {
+                catalog.queueAuteurDeletes(ids);
+                table.clearSelection();
+            }
+            return;
+        }
+
+        tasks.submit(() -> auteurController.removeAuteurs(ids), result -> {
+            table.clearSelection();
+            JOptionPane.showMessageDialog(this, messageSuppression(result, "auteur(s) supprimé(s)",
+                    "auteur(s) encore lié(s) à des œuvres, non supprimé(s)"));
+        }, ex -> JOptionPane.showMessageDialog(this, "Erreur : " + ex.getMessage()));
+    }
+
+    /**
+     * Bilan d'une suppression en lot (les premiers identifiants bloqués sont cités).
+     */
+    static String messageSuppression(DeleteResult result, String supprimes, String bloques) {
+        StringBuilder sb = new StringBuilder(result.getDeletedIds().size() + " " + supprimes + ".");
+        List<Integer> ids = result.getBlockedIds();
+        if (!ids.isEmpty()) {
+            sb.append("\n").append(ids.size()).append(' ').append(bloques).append(" : ")
+                    .append(ids.subList(0, Math.min(20, ids.size())))
+                    .append(ids.size() > 20 ? "..." : "");
+        }
+        if (!result.getFailedIds().isEmpty()) {
+            sb.append("\n").append(result.getFailedIds().size()).append(" non traité(s) : ").append(result.getMessage());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Valeur affichée dans chaque colonne pour un auteur.
+     */
+    static Object valeurCellule(Auteur a, int column) {
+        switch (column) {
+            case 0: return a.getIdAuteur();
+            case 1: return a.getPrenomAuteur();
+            case 2: return a.getNomAuteur();
+            case 3: return "Modifier";  // bouton texte
+            default: return "Supprimer"; // bouton texte
+        }
     }
 
     /**
@@ -122,21 +275,48 @@ public class AuteurView extends JFrame {
                 return;
             }
 
-            // Cas 1 : ajout d’un nouvel auteur
+            // Mode brouillon : la modification est seulement notée (enregistrée avec les autres)
+            if (catalog.isDraftMode()) {
+                if (catalog.isCommitting()) {
+                    JOptionPane.showMessageDialog(dialog, "Enregistrement en cours, réessayez dans un instant.");
+                    return;
+                }
+                if (auteur == null) catalog.queueAuteurCreate(prenom, nom);
+                else catalog.queueAuteurUpdate(auteur.getIdAuteur(), prenom, nom);
+                dialog.dispose();
+                return;
+            }
+
+            // L'enregistrement se fait en arrière-plan : le bouton est désactivé en attendant
+            saveButton.setEnabled(false);
+            Consumer<Throwable> onError = ex -> {
+                saveButton.setEnabled(true);
+                JOptionPane.showMessageDialog(dialog, "Erreur : " + ex.getMessage());
+            };
+
+            // Cas 1 : ajout d’un nouvel auteur → la ligne créée est ajoutée au tableau
+            //         de toutes les fenêtres ouvertes (changement publié par le contrôleur)
             if (auteur == null) {
-                boolean success = auteurController.createAuteur(prenom, nom);
-                if (success) JOptionPane.showMessageDialog(dialog, "Auteur ajouté !");
-                else JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+                tasks.submit(() -> auteurController.createAuteur(prenom, nom), cree -> {
+                    if (cree != null) {
+                        JOptionPane.showMessageDialog(dialog, "Auteur ajouté !");
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+                    }
+                    dialog.dispose(); // ferme le formulaire
+                }, onError);
             }
-            // Cas 2 : modification d’un auteur existant
+            // Cas 2 : modification d’un auteur existant → seule sa ligne est mise à jour
             else {
-                boolean success = auteurController.modifyAuteur(auteur.getIdAuteur(), prenom, nom);
-                if (success) JOptionPane.showMessageDialog(dialog, "Auteur modifié !");
-                else JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+                tasks.submit(() -> auteurController.modifyAuteur(auteur.getIdAuteur(), prenom, nom), success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(dialog, "Auteur modifié !");
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+                    }
+                    dialog.dispose(); // ferme le formulaire
+                }, onError);
             }
-
-            dialog.dispose(); // ferme le formulaire
-            refreshTable();   // recharge le tableau
         });
 
         // Ajout des composants dans la fenêtre
@@ -150,24 +330,6 @@ public class AuteurView extends JFrame {
         dialog.setVisible(true);
     }
 
-    /**
-     * Rafraîchit le tableau après une modification de la base
-     * (ajout, suppression ou modification d’un auteur).
-     */
-    private void refreshTable() {
-        tableModel.setRowCount(0); // vide le tableau
-        List<Auteur> auteurs = auteurController.fetchAllAuteurs();
-        for (Auteur a : auteurs) {
-            tableModel.addRow(new Object[]{
-                    a.getIdAuteur(),
-                    a.getPrenomAuteur(),
-                    a.getNomAuteur(),
-                    "Modifier",
-                    "Supprimer"
-            });
-        }
-    }
-
     // ---------------------------------------------------
     // Classes internes pour gérer les boutons dans le tableau
     // ---------------------------------------------------
@@ -219,29 +381,38 @@ public class AuteurView extends JFrame {
         @Override
         public Object getCellEditorValue() {
             if (clicked) {
-                int id = (int) table.getValueAt(row, 0); // Récupère l’ID de l’auteur sélectionné
+                Auteur selection = tableModel.getRowAt(row); // Auteur de la ligne cliquée (page affichée)
+                if (selection == null) {
+                    clicked = false;
+                    return label;
+                }
+                int id = selection.getIdAuteur();
 
                 // Cas 1 : suppression
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(AuteurView.this,
                             "Supprimer cet auteur ?", "Confirmer", JOptionPane.YES_NO_OPTION);
-                    if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = auteurController.removeAuteur(id);
-                        if (success) JOptionPane.showMessageDialog(AuteurView.this, "Auteur supprimé !");
-                        else JOptionPane.showMessageDialog(AuteurView.this, "Erreur ou auteur lié à des œuvres !");
-                        refreshTable();
+                    if (confirm == JOptionPane.YES_OPTION && catalog.isDraftMode()) {
+                        // Mode brouillon : suppression notée (la ligne reste affichée, barrée)
+                        if (catalog.isCommitting()) {
+                            JOptionPane.showMessageDialog(AuteurView.this, "Enregistrement en cours, réessayez dans un instant.");
+                        } else {
+                            catalog.queueAuteurDelete(id);
+                        }
+                    } else if (confirm == JOptionPane.YES_OPTION) {
+                        // Suppression en arrière-plan, message à la fin
+                        tasks.submit(() -> auteurController.removeAuteur(id), success -> {
+                            if (success) {
+                                JOptionPane.showMessageDialog(AuteurView.this, "Auteur supprimé !");
+                            } else {
+                                JOptionPane.showMessageDialog(AuteurView.this, "Erreur ou auteur lié à des œuvres !");
+                            }
+                        }, ex -> JOptionPane.showMessageDialog(AuteurView.this, "Erreur : " + ex.getMessage()));
                     }
                 }
                 // Cas 2 : modification
                 else if (label.equals("Modifier")) {
-                    Auteur a = null;
-                    for (Auteur auteur : auteurController.fetchAllAuteurs()) {
-                        if (auteur.getIdAuteur() == id) {
-                            a = auteur;
-                            break;
-                        }
-                    }
-                    if (a != null) showAuteurForm(a);
+                    showAuteurForm(selection);
                 }
             }
             clicked = false;
@@ -0,0 +1,175 @@
+package views;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Panneau avec image de fond mise à l'échelle
+ * --------------------------------------------
+ * Avant : un JLabel avec l'ImageIcon de l'image d'origine, décodée dans le constructeur
+ * de la fenêtre, affichée à sa taille d'origine quelle que soit la taille de la fenêtre.
+ *
+ * Ici :
+ * 1. decode : lecture hors de l'EDT ; une image bien plus grande que l'écran est
+ *    sous-échantillonnée pendant la lecture (pas de décodage en pleine résolution inutile).
+ * 2. L'image est mise à l'échelle de la fenêtre (couvre tout le panneau, sans déformation)
+ *    une seule fois par taille, en arrière-plan, DEBOUNCE_MILLIS après la fin d'un redimensionnement.
+ * 3. Cache des dernières tailles (MAX_VARIANTS) : agrandir puis restaurer la fenêtre
+ *    ne refait pas le calcul.
+ * 4. paintComponent ne fait que copier l'image déjà à la bonne taille ; pendant un
+ *    redimensionnement, la dernière image calculée est étirée rapidement en attendant.
+ *
+ * Les composants ajoutés (titre, boutons) se placent dessus (BorderLayout).
+ * Toutes les méthodes non statiques s'appellent depuis l'EDT.
+ */
+public class BackgroundPanel extends JPanel {
+
+    private static final int MAX_VARIANTS = 3;
+    private static final int DEBOUNCE_MILLIS = 100;
+
+    private final TaskGroup tasks = new TaskGroup();
+    private final Timer resizeTimer;
+
+    private BufferedImage source;   // image décodée, null tant qu'elle n'est pas prête
+    private BufferedImage lastScaled; // dernière image mise à l'échelle (affichage provisoire)
+    private int generation;         // change avec l'image source : anciens calculs ignorés
+    private final Map<Dimension, BufferedImage> variants = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Dimension, BufferedImage> eldest) {
+            return size() > MAX_VARIANTS;
+        }
+    };
+
+    public BackgroundPanel() {
+        super(new BorderLayout());
+        setBackground(Color.DARK_GRAY); // en attendant l'image
+        resizeTimer = new Timer(DEBOUNCE_MILLIS, e -> scaleToCurrentSize());
+        resizeTimer.setRepeats(false);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                resizeTimer.restart();
+            }
+        });
+    }
+
+    /**
+     * Nouvelle image de fond (déjà décodée). null : fond uni.
+     */
+    public void setImage(BufferedImage image) {
+        generation++;
+        source = image;
+        lastScaled = null;
+        variants.clear();
+        scaleToCurrentSize();
+        repaint();
+    }
+
+    /**
+     * Met l'image à la taille actuelle du panneau (cache, sinon calcul en arrière-plan).
+     */
+    private void scaleToCurrentSize() {
+        Dimension size = getSize();
+        if (source == null || size.width <= 0 || size.height <= 0) return;
+        BufferedImage cached = variants.get(size);
+        if (cached != null) {
+            lastScaled = cached;
+            repaint();
+            return;
+        }
+        BufferedImage image = source;
+        int gen = generation;
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        tasks.submit(() -> scale(image, size.width, size.height, gc), scaled -> {
+            if (gen != generation) return; // image remplacée entre-temps
+            variants.put(size, scaled);
+            if (size.equals(getSize())) {
+                lastScaled = scaled;
+                repaint();
+            }
+        }, e -> System.err.println("Erreur mise à l'échelle de l'image de fond : " + e.getMessage()));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        BufferedImage image = lastScaled;
+        if (image == null) return;
+        if (image.getWidth() == getWidth() && image.getHeight() == getHeight()) {
+            g.drawImage(image, 0, 0, null); // cas normal : simple copie
+        } else {
+            g.drawImage(image, 0, 0, getWidth(), getHeight(), null); // redimensionnement en cours
+        }
+    }
+
+    /**
+     * Arrête les calculs en cours (fermeture de la fenêtre).
+     */
+    public void dispose() {
+        resizeTimer.stop();
+        tasks.dispose();
+    }
+
+    // ----- Hors de l'EDT -----
+
+    /**
+     * Image qui couvre width x height sans déformation (les bords qui dépassent sont coupés).
+     * param gc configuration de l'écran (image au format de l'affichage : copie plus rapide), ou null
+     */
+    static BufferedImage scale(BufferedImage image, int width, int height, GraphicsConfiguration gc) {
+        double ratio = Math.max((double) width / image.getWidth(), (double) height / image.getHeight());
+        int w = (int) Math.ceil(image.getWidth() * ratio);
+        int h = (int) Math.ceil(image.getHeight() * ratio);
+        BufferedImage scaled = gc != null
+                ? gc.createCompatibleImage(width, height)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, (width - w) / 2, (height - h) / 2, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Lit une image ; si elle fait au moins deux fois maxSize, un pixel sur n seulement
+     * est décodé (la taille reste supérieure ou égale à maxSize).
+     * param maxSize taille utile (ex: écran), ou null pour la pleine résolution
+     * return null si le format n'est pas reconnu
+     */
+    public static BufferedImage decode(File file, Dimension maxSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in == null) throw new IOException("Fichier illisible : " + file);
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (maxSize != null && maxSize.width > 0 && maxSize.height > 0) {
+                    // Dimensions lues dans l'en-tête : rien n'est encore décodé
+                    int step = Math.min(reader.getWidth(0) / maxSize.width, reader.getHeight(0) / maxSize.height);
+                    if (step >= 2) param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
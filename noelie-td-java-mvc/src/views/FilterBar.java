@@ -0,0 +1,235 @@
+package views;
+
+import config.QueryHandle;
+import search.SearchResult;
+import util.TextFold;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Barre de filtre au-dessus d'un tableau
+ * ---------------------------------------
+ * Deux façons de chercher, selon le constructeur :
+ *
+ * 1. Index en mémoire (CatalogSearch) : à chaque frappe, la recherche est faite
+ *    tout de suite sur l'EDT, sans requête SQL. Si l'index est encore en construction
+ *    (démarrage), elle est retentée toutes les RETRY_MILLIS jusqu'à ce qu'il soit prêt.
+ *
+ * 2. En base (catalogue trop gros pour l'index) : requête LIKE "commence par".
+ *    - Anti-rebond : la requête part DEBOUNCE_MILLIS après la dernière frappe.
+ *    - Une nouvelle frappe annule la requête en cours (QueryHandle → Statement.cancel()).
+ *    - Chaque requête a un numéro : un résultat arrivé après une requête plus récente
+ *      est ignoré (il ne remplace jamais un résultat plus récent).
+ *    - La requête s'exécute hors de l'EDT (TaskGroup), avec un délai maximum (setQueryTimeout).
+ *    - Après un changement du catalogue (refreshAfterChange), la requête n'est relancée que si
+ *      le résultat affiché est concerné : ligne affichée modifiée ou supprimée, ligne ajoutée ou
+ *      modifiée qui commence par le texte saisi (matches), ou saisie différente de la dernière recherche.
+ *
+ * Dans les deux cas, le tableau affiche les lignes trouvées (FilteredTableModel.setFilter) ;
+ * champ vide → retour à la table complète.
+ * param <T> type d'une ligne du tableau
+ */
+public class FilterBar<T> extends JPanel {
+
+    /**
+     * Recherche en base (ex: oeuvreController::fetchOeuvresAvecAuteurByPrefix).
+     */
+    public interface DatabaseSearch<T> {
+        List<T> search(String prefix, int limit, QueryHandle handle);
+    }
+
+    private static final int RETRY_MILLIS = 500;
+    private static final int DEBOUNCE_MILLIS = 250;
+
+    private final FilteredTableModel<T> tableModel;
+    private final JTextField field = new JTextField(25);
+    private final JLabel resultLabel = new JLabel();
+
+    // Mode 1 : index en mémoire
+    private final Function<String, SearchResult<T>> indexSearch;
+    private final Timer retry;
+
+    // Mode 2 : en base
+    private final DatabaseSearch<T> databaseSearch;
+    private final int limit;
+    private final TaskGroup tasks;
+    private final Timer debounce;
+    private final BiPredicate<T, String> matches;
+    private String searchedText;  // texte de la dernière requête lancée (null : aucune)
+    private long sequence;        // numéro de la dernière requête lancée (EDT uniquement)
+    private QueryHandle running;  // poignée de la requête en cours, ou null
+
+    /**
+     * Recherche dans l'index en mémoire.
+     * param search recherche (texte → résultat), qui renvoie null si l'index n'est pas prêt
+     */
+    public FilterBar(Function<String, SearchResult<T>> search, FilteredTableModel<T> tableModel) {
+        this(search, null, 0, null, null, tableModel);
+    }
+
+    /**
+     * Recherche en base.
+     * param limit nombre maximum de lignes demandées
+     * param tasks tâches d'arrière-plan de la fenêtre
+     * param matches vrai si une ligne serait trouvée par la requête pour ce texte (voir startsWith)
+     */
+    public FilterBar(DatabaseSearch<T> search, int limit, TaskGroup tasks, BiPredicate<T, String> matches,
+                     FilteredTableModel<T> tableModel) {
+        this(null, search, limit, tasks, matches, tableModel);
+    }
+
+    private FilterBar(Function<String, SearchResult<T>> indexSearch, DatabaseSearch<T> databaseSearch,
+                      int limit, TaskGroup tasks, BiPredicate<T, String> matches, FilteredTableModel<T> tableModel) {
+        super(new FlowLayout(FlowLayout.LEFT));
+        this.indexSearch = indexSearch;
+        this.databaseSearch = databaseSearch;
+        this.limit = limit;
+        this.tasks = tasks;
+        this.matches = matches;
+        this.tableModel = tableModel;
+        this.retry = new Timer(RETRY_MILLIS, e -> refresh());
+        retry.setRepeats(false);
+        this.debounce = new Timer(DEBOUNCE_MILLIS, e -> launchDatabaseSearch());
+        debounce.setRepeats(false);
+
+        add(new JLabel(databaseSearch != null ? "Rechercher (début) :" : "Rechercher :"));
+        add(field);
+        add(resultLabel);
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                refresh();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * Refait la recherche avec le texte saisi.
+     */
+    public void refresh() {
+        String text = field.getText().trim();
+        if (text.isEmpty()) {
+            retry.stop();
+            debounce.stop();
+            cancelRunning();
+            sequence++; // une réponse encore en route ne doit plus s'afficher
+            searchedText = null;
+            tableModel.clearFilter();
+            resultLabel.setText("");
+            return;
+        }
+        if (databaseSearch != null) {
+            cancelRunning();    // la requête en cours ne correspond plus à la saisie
+            sequence++;         // ... et sa réponse, si elle arrive quand même, sera ignorée
+            debounce.restart(); // la nouvelle partira quand l'utilisateur s'arrête de taper
+            return;
+        }
+        SearchResult<T> result = indexSearch.apply(text);
+        if (result == null) {
+            resultLabel.setText("Indexation en cours...");
+            retry.restart();
+            return;
+        }
+        tableModel.setFilter(result.getRows());
+        resultLabel.setText(String.format(Locale.FRANCE, "%s%,d résultat(s) (%.2f ms)",
+                result.isComplete() ? "" : "plus de ", result.getRows().size(), result.getNanos() / 1_000_000.0));
+    }
+
+    /**
+     * Après un ajout, une modification ou une suppression (voir SharedCatalog.TableListener).
+     * Index en mémoire : la recherche est simplement refaite (aucune requête).
+     * En base : nouvelle requête seulement si le résultat affiché est concerné.
+     */
+    public void refreshAfterChange(Predicate<T> touched, List<T> rows) {
+        String text = field.getText().trim();
+        if (databaseSearch == null || text.isEmpty()) {
+            refresh();
+            return;
+        }
+        if (debounce.isRunning()) return; // la requête qui va partir verra déjà le changement
+        if (running != null || !text.equals(searchedText) || tableModel.anyFilteredRow(touched)) {
+            refresh();
+            return;
+        }
+        for (T row : rows) {
+            if (matches.test(row, text)) {
+                refresh();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Vrai si value commence par text, sans casse ni accents (comme le LIKE 'texte%' en base).
+     */
+    public static boolean startsWith(String value, String text) {
+        return TextFold.fold(value).startsWith(TextFold.fold(text));
+    }
+
+    /**
+     * Lance la requête en base pour le texte actuel (fin de l'anti-rebond, sur l'EDT).
+     */
+    private void launchDatabaseSearch() {
+        String text = field.getText().trim();
+        if (text.isEmpty()) return;
+        long seq = ++sequence;
+        searchedText = text;
+        QueryHandle handle = new QueryHandle();
+        running = handle;
+        long start = System.nanoTime();
+        resultLabel.setText("Recherche...");
+        // Une ligne de plus que la limite : pour savoir s'il y en a d'autres
+        tasks.submit(() -> databaseSearch.search(text, limit + 1, handle), rows -> {
+            if (seq != sequence) return; // une requête plus récente a été lancée entre-temps
+            running = null;
+            boolean complete = rows.size() <= limit;
+            tableModel.setFilter(complete ? rows : rows.subList(0, limit));
+            resultLabel.setText(String.format(Locale.FRANCE, "%s%,d résultat(s) (%.0f ms)",
+                    complete ? "" : "plus de ", Math.min(rows.size(), limit),
+                    (System.nanoTime() - start) / 1_000_000.0));
+        }, e -> {
+            if (seq != sequence) return;
+            running = null;
+            resultLabel.setText("Erreur de recherche : " + e.getMessage());
+        });
+    }
+
+    /**
+     * Annule la requête en base en cours : Statement.cancel() fait un aller-retour
+     * vers le serveur, il est donc appelé hors de l'EDT.
+     */
+    private void cancelRunning() {
+        QueryHandle handle = running;
+        running = null;
+        if (handle != null) CompletableFuture.runAsync(handle::cancel);
+    }
+
+    /**
+     * Arrête les minuteries et la requête en cours (fermeture de la fenêtre).
+     */
+    public void dispose() {
+        retry.stop();
+        debounce.stop();
+        cancelRunning();
+    }
+}
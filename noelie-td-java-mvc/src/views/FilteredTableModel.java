@@ -0,0 +1,126 @@
+package views;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Vue d'une fenêtre sur un modèle de tableau partagé
+ * ---------------------------------------------------
+ * Le LazyTableModel est partagé par toutes les fenêtres ouvertes (voir SharedCatalog) :
+ * ses pages ne sont lues qu'une fois. Chaque fenêtre l'affiche à travers ce modèle,
+ * qui ajoute ce qui lui est propre : le filtre de sa barre de recherche.
+ *
+ * - Sans filtre : les lignes et les événements du modèle partagé sont relayés tels quels.
+ * - Avec filtre (setFilter) : seules les lignes trouvées sont affichées, sans requête ;
+ *   les changements du modèle partagé sont ignorés (la vue refait alors sa recherche).
+ * - dispose() : à la fermeture de la fenêtre, se désabonne du modèle partagé.
+ * - Mode brouillon : les lignes filtrées s'affichent aussi avec leurs modifications en attente.
+ *
+ * Toutes les méthodes s'appellent depuis l'EDT.
+ * param <T> type d'une ligne (Auteur, OeuvreAuteur...)
+ */
+public class FilteredTableModel<T> extends AbstractTableModel implements TableModelListener {
+
+    private final LazyTableModel<T> source;
+    // Lignes affichées quand un filtre est actif (null : toute la table, page par page)
+    private List<T> filter;
+
+    public FilteredTableModel(LazyTableModel<T> source) {
+        this.source = source;
+        source.addTableModelListener(this);
+    }
+
+    /**
+     * Affiche seulement ces lignes (déjà chargées, aucune requête).
+     */
+    public void setFilter(List<T> rows) {
+        filter = new ArrayList<>(rows);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Revient à la table complète (les pages du modèle partagé sont toujours valables).
+     */
+    public void clearFilter() {
+        if (filter == null) return;
+        filter = null;
+        fireTableDataChanged();
+    }
+
+    public boolean isFiltered() {
+        return filter != null;
+    }
+
+    /**
+     * Vrai si une des lignes du filtre actif vérifie condition (false sans filtre).
+     */
+    public boolean anyFilteredRow(Predicate<T> condition) {
+        if (filter == null) return false;
+        for (T row : filter) {
+            if (condition.test(row)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Objet affiché à la ligne donnée (null si sa page n'est pas encore chargée).
+     */
+    public T getRowAt(int row) {
+        if (filter != null) return row >= 0 && row < filter.size() ? source.displayed(filter.get(row)) : null;
+        return source.getRowAt(row);
+    }
+
+    /**
+     * État de la ligne donnée par rapport à la base (mode brouillon).
+     */
+    public LazyTableModel.PendingState getPendingState(int row) {
+        T data = getRowAt(row);
+        return data == null ? LazyTableModel.PendingState.NONE : source.pendingStateOf(data);
+    }
+
+    @Override
+    public int getRowCount() {
+        return filter != null ? filter.size() : source.getRowCount();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return source.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return source.getColumnName(column);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return source.isCellEditable(row, column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T data = getRowAt(row);
+        return data == null ? null : source.valueOf(data, column);
+    }
+
+    /**
+     * Changement du modèle partagé : relayé au tableau de la fenêtre s'il n'est pas filtré.
+     */
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        if (filter != null) return;
+        fireTableChanged(new TableModelEvent(this, e.getFirstRow(), e.getLastRow(), e.getColumn(), e.getType()));
+    }
+
+    /**
+     * Fermeture de la fenêtre : le modèle partagé ne la prévient plus.
+     */
+    public void dispose() {
+        source.removeTableModelListener(this);
+    }
+}
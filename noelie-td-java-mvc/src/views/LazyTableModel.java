@@ -0,0 +1,548 @@
+package views;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Modèle de tableau "paresseux" (chargement à la demande)
+ * --------------------------------------------------------
+ * Au lieu de copier toute la table dans un DefaultTableModel, on ne charge
+ * que les pages de lignes réellement affichées quand l'utilisateur fait défiler.
+ *
+ * Principe :
+ * 1. Le nombre total de lignes vient d'un COUNT(*).
+ * 2. Les lignes sont découpées en pages de pageSize lignes, triées par clé primaire.
+ * 3. Une page se charge par "pagination par clé" (keyset) :
+ *    WHERE id > (dernier id de la page précédente) ORDER BY id LIMIT pageSize
+ *    → pas d'OFFSET, le coût ne dépend pas de la position dans la table.
+ * 4. Seules maxPages pages restent en mémoire (les moins récemment vues sont oubliées).
+ *    On garde en revanche la clé de début de chaque page (un int par page).
+ * 5. Les requêtes s'exécutent hors de l'EDT (voir TaskGroup) : une ligne pas
+ *    encore chargée s'affiche vide, puis le tableau est rafraîchi à l'arrivée de sa page.
+ * 6. Après un ajout / une modification / une suppression, seule la ligne concernée
+ *    est mise à jour (rowInserted, rowUpdated, rowDeleted) au lieu de tout recharger.
+ * 7. Un même changement peut être signalé deux fois (par ce poste, puis par la synchronisation) :
+ *    une ligne dont la clé a déjà été comptée n'est pas ajoutée une deuxième fois
+ *    (clé <= lastKey, lue par le COUNT(*), ou clé ajoutée depuis : insertedKeys),
+ *    une ligne déjà retirée n'est pas retirée une deuxième fois.
+ *    Deux ajouts peuvent arriver dans le désordre (102 avant 101) : le second est
+ *    compté lui aussi et rangé à sa place.
+ * 8. Un même modèle peut être affiché par plusieurs fenêtres (voir SharedCatalog) :
+ *    chacune l'enveloppe dans un FilteredTableModel, qui porte son propre filtre.
+ * 9. Mode brouillon (setPending) : les modifications pas encore enregistrées s'affichent
+ *    par-dessus les lignes lues en base (lignes modifiées, supprimées), les ajouts à la fin ;
+ *    pendingStateOf indique l'état d'une ligne (voir PendingRowRenderer).
+ *
+ * Toutes les méthodes publiques s'appellent depuis l'EDT.
+ * param <T> type d'une ligne (Auteur, OeuvreAuteur...)
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+
+    /**
+     * Source des données : le modèle de tableau ne connaît que ces opérations.
+     */
+    public interface PageSource<T> {
+        /** Nombre total de lignes. */
+        int count();
+
+        /**
+         * Nombre total de lignes et plus grande clé, lus au même instant.
+         * Clé -1 : inconnue (les ajouts sont alors toujours considérés comme nouveaux).
+         */
+        default int[] countAndLastKey() {
+            return new int[]{count(), -1};
+        }
+
+        /** Au plus limit lignes de clé strictement supérieure à afterKey, triées par clé. */
+        List<T> loadPage(int afterKey, int limit);
+
+        /** Au plus limit clés strictement supérieures à afterKey, triées (requête légère sur l'index). */
+        int[] loadKeys(int afterKey, int limit);
+
+        /** Clé primaire d'une ligne. */
+        int keyOf(T row);
+    }
+
+    /**
+     * Valeur d'une cellule pour une ligne donnée.
+     */
+    public interface CellValue<T> {
+        Object valueAt(T row, int column);
+    }
+
+    /**
+     * État d'une ligne par rapport à la base (mode brouillon).
+     */
+    public enum PendingState { NONE, CREATED, UPDATED, DELETED }
+
+    // Clé placée avant la toute première ligne (les identifiants auto-incrémentés commencent à 1)
+    private static final int FIRST_KEY = 0;
+    // Nombre de clés lues d'un coup pour découvrir le début des pages lors d'un saut
+    private static final int KEY_SCAN_CHUNK = 100_000;
+
+    private final String[] columns;
+    private final int firstEditableColumn;
+    private final PageSource<T> source;
+    private final CellValue<T> cells;
+    private final int pageSize;
+    private final int maxPages;
+    private final TaskGroup tasks;
+
+    private int rowCount;
+    // Plus grande clé lue par le dernier COUNT(*) (-1 : inconnue)
+    private int lastKey = -1;
+    // Clés > lastKey comptées depuis par rowInserted (pas forcément dans l'ordre)
+    private final Set<Integer> insertedKeys = new HashSet<>();
+    private int maxInsertedKey = -1;
+    // Clés retirées depuis le dernier reload() (une suppression signalée deux fois est ignorée)
+    private final Set<Integer> deletedKeys = new HashSet<>();
+    // pageStartKeys[p] = clé après laquelle commence la page p (connue pour p < knownPages)
+    private int[] pageStartKeys = new int[16];
+    private int knownPages;
+    private final LinkedHashMap<Integer, List<T>> pages;
+    private final Set<Integer> loadingPages = new HashSet<>();
+    // Incrémenté à chaque reload() (et modification) : une page demandée avant ne doit pas être appliquée après
+    private int generation;
+    private int countGeneration; // idem pour le COUNT(*) lancé par reload()
+
+    // Modifications en attente (mode brouillon), affichées par-dessus les pages
+    private Map<Integer, T> pendingRows = Map.of();  // clé → ligne modifiée
+    private Set<Integer> pendingDeletes = Set.of();  // clés supprimées
+    private List<T> pendingCreated = List.of();      // lignes ajoutées, après la dernière ligne
+
+    /**
+     * param columns noms des colonnes
+     * param firstEditableColumn colonnes éditables à partir de cet index (boutons)
+     * param pageSize nombre de lignes par page
+     * param maxPages nombre maximum de pages gardées en mémoire
+     * param tasks tâches d'arrière-plan de la fenêtre (annulées à sa fermeture)
+     */
+    public LazyTableModel(String[] columns, int firstEditableColumn, PageSource<T> source,
+                          CellValue<T> cells, int pageSize, int maxPages, TaskGroup tasks) {
+        this.columns = columns;
+        this.firstEditableColumn = firstEditableColumn;
+        this.source = source;
+        this.cells = cells;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.tasks = tasks;
+        this.pages = new LinkedHashMap<>(maxPages * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > LazyTableModel.this.maxPages;
+            }
+        };
+        reload();
+    }
+
+    /**
+     * Oublie toutes les pages et relit le nombre de lignes en arrière-plan
+     * (à appeler après une modification de la base).
+     */
+    public void reload() {
+        generation++;
+        countGeneration++;
+        pages.clear();
+        loadingPages.clear();
+        deletedKeys.clear();
+        insertedKeys.clear();
+        maxInsertedKey = -1;
+        pageStartKeys[0] = FIRST_KEY;
+        knownPages = 1;
+        int gen = countGeneration;
+        tasks.submit(source::countAndLastKey, countAndKey -> {
+            if (gen != countGeneration) return;
+            lastKey = countAndKey[1];
+            // Ajouts signalés pendant le COUNT(*) mais pas vus par lui : toujours comptés
+            insertedKeys.removeIf(key -> lastKey < 0 || key <= lastKey);
+            rowCount = countAndKey[0] + insertedKeys.size();
+            fireTableDataChanged();
+        }, e -> System.err.println("Erreur chargement du nombre de lignes : " + e.getMessage()));
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount + pendingCreated.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column >= firstEditableColumn;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T data = getRowAt(row);
+        return data == null ? null : valueOf(data, column);
+    }
+
+    /**
+     * Valeur d'une cellule pour une ligne qui n'est pas forcément dans les pages (ex: ligne filtrée).
+     */
+    public Object valueOf(T row, int column) {
+        return cells.valueAt(row, column);
+    }
+
+    /**
+     * Objet affiché à la ligne donnée.
+     * return null si sa page n'est pas encore chargée (le chargement est alors lancé)
+     *        ou si la ligne n'existe plus (table modifiée entre-temps)
+     */
+    public T getRowAt(int row) {
+        if (row >= rowCount) {
+            int created = row - rowCount;
+            return created < pendingCreated.size() ? pendingCreated.get(created) : null;
+        }
+        if (row < 0) return null;
+        int p = row / pageSize;
+        List<T> page = pages.get(p);
+        if (page == null) {
+            requestPage(p);
+            return null;
+        }
+        int index = row % pageSize;
+        return index < page.size() ? displayed(page.get(index)) : null;
+    }
+
+    /**
+     * Ligne telle qu'elle s'affiche : sa version modifiée en attente s'il y en a une
+     * (sert aussi aux lignes d'un filtre, lues hors des pages).
+     */
+    public T displayed(T row) {
+        if (pendingRows.isEmpty()) return row;
+        T pending = pendingRows.get(source.keyOf(row));
+        return pending != null ? pending : row;
+    }
+
+    /**
+     * État de la ligne par rapport à la base.
+     */
+    public PendingState pendingStateOf(T row) {
+        int key = source.keyOf(row);
+        if (pendingDeletes.contains(key)) return PendingState.DELETED;
+        if (pendingRows.containsKey(key)) return PendingState.UPDATED;
+        for (T created : pendingCreated) {
+            if (source.keyOf(created) == key) return PendingState.CREATED;
+        }
+        return PendingState.NONE;
+    }
+
+    /**
+     * Modifications en attente à afficher (copiées). Collections vides : plus rien en attente.
+     * param updated clé → ligne modifiée
+     * param deleted clés des lignes supprimées (toujours affichées, barrées)
+     * param created lignes ajoutées (clés provisoires), affichées à la fin du tableau
+     */
+    public void setPending(Map<Integer, T> updated, Set<Integer> deleted, List<T> created) {
+        pendingRows = Map.copyOf(updated);
+        pendingDeletes = Set.copyOf(deleted);
+        pendingCreated = List.copyOf(created);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Ajoute une ligne qui vient d'être créée en base.
+     * Les clés sont auto-incrémentées : la nouvelle ligne a la plus grande clé,
+     * elle se place donc à la fin du tableau.
+     * Ligne déjà comptée (clé <= lastKey ou déjà ajoutée) : simple mise à jour.
+     * Ligne arrivée après une clé plus grande : voir insertOutOfOrder.
+     */
+    public void rowInserted(T row) {
+        int key = source.keyOf(row);
+        if (lastKey >= 0) {
+            if (key <= lastKey || !insertedKeys.add(key)) {
+                rowUpdated(row);
+                return;
+            }
+            if (key < maxInsertedKey) {
+                insertOutOfOrder(row, key);
+                return;
+            }
+            maxInsertedKey = key;
+        }
+        int index = rowCount;
+        List<T> lastPage = pages.get(index / pageSize);
+        if (lastPage != null && lastPage.size() == index % pageSize) {
+            lastPage.add(row);
+            if (lastPage.size() == pageSize) recordStartKey(index / pageSize + 1, source.keyOf(row));
+        }
+        invalidatePendingLoads(); // une page en cours de chargement peut ne pas contenir la ligne
+        rowCount++;
+        fireTableRowsInserted(index, index);
+    }
+
+    /**
+     * Ajout dans le désordre : la ligne ne va pas à la fin mais dans la page p dont
+     * la clé de début la précède. Cette page garde sa clé de début ; si elle est en
+     * mémoire, la ligne y est rangée (sa dernière ligne passe à la page suivante).
+     * Les pages d'après sont décalées d'un cran : oubliées, relues à l'affichage.
+     */
+    private void insertOutOfOrder(T row, int key) {
+        int p = knownPages - 1;
+        while (p > 0 && pageStartKeys[p] >= key) p--;
+        List<T> page = pages.get(p);
+        if (page != null) {
+            int i = page.size();
+            while (i > 0 && source.keyOf(page.get(i - 1)) > key) i--;
+            page.add(i, row);
+            if (page.size() > pageSize) page.remove(pageSize);
+        }
+        int first = page != null ? p + 1 : p;
+        pages.keySet().removeIf(q -> q >= first);
+        knownPages = p + 1;
+        invalidatePendingLoads();
+        rowCount++;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Remplace une ligne modifiée en base (si elle est en mémoire ; sinon elle
+     * sera lue à jour quand sa page sera chargée).
+     */
+    public void rowUpdated(T row) {
+        int index = indexOfKey(source.keyOf(row));
+        if (index < 0) return;
+        pages.get(index / pageSize).set(index % pageSize, row);
+        fireTableRowsUpdated(index, index);
+    }
+
+    /**
+     * Remplace les lignes en mémoire qui vérifient condition (ex: les œuvres d'un auteur renommé).
+     * Les lignes pas encore chargées seront lues à jour.
+     */
+    public void updateRows(Predicate<T> condition, UnaryOperator<T> update) {
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            List<T> page = entry.getValue();
+            for (int i = 0; i < page.size(); i++) {
+                if (!condition.test(page.get(i))) continue;
+                page.set(i, update.apply(page.get(i)));
+                int index = entry.getKey() * pageSize + i;
+                fireTableRowsUpdated(index, index);
+            }
+        }
+    }
+
+    /**
+     * Retire une ligne supprimée en base.
+     * Les lignes suivantes remontent d'un cran : leur page est relue en arrière-plan,
+     * les pages d'après sont oubliées (elles seront relues à l'affichage).
+     */
+    public void rowDeleted(int key) {
+        if (deletedKeys.contains(key)) return; // déjà retirée
+        if (!counted(key)) return; // jamais comptée (créée puis supprimée ailleurs)
+        int index = indexOfKey(key);
+        if (index < 0) {
+            reload(); // ligne pas en mémoire : on ne connaît pas sa position
+            deletedKeys.add(key); // après reload() : un 2e signalement ne relance pas tout
+            return;
+        }
+        deletedKeys.add(key);
+        int p = index / pageSize;
+        pages.get(p).remove(index % pageSize);
+        pages.keySet().removeIf(page -> page > p);
+        knownPages = Math.min(knownPages, p + 1); // la clé de début de la page p reste valable
+        invalidatePendingLoads();
+        rowCount--;
+        fireTableRowsDeleted(index, index);
+        if (index < rowCount) requestPage(p); // complète la page avec la ligne suivante
+    }
+
+    /**
+     * Retire plusieurs lignes supprimées en base (suppression en lot) : un seul
+     * rafraîchissement du tableau, une seule page relue, au lieu d'un par ligne.
+     * Une ligne pas en mémoire : tout est rechargé (un COUNT(*)).
+     */
+    public void rowsDeleted(Collection<Integer> keys) {
+        List<Integer> nouvelles = new ArrayList<>();
+        for (int key : new LinkedHashSet<>(keys)) { // une clé en double dans le lot : retirée une fois
+            if (deletedKeys.contains(key)) continue;
+            if (!counted(key)) continue;
+            nouvelles.add(key);
+        }
+        if (nouvelles.isEmpty()) return;
+        if (nouvelles.size() == 1) {
+            rowDeleted(nouvelles.get(0));
+            return;
+        }
+        int firstPage = Integer.MAX_VALUE;
+        for (int key : nouvelles) {
+            int index = indexOfKey(key);
+            if (index < 0) {
+                reload();
+                deletedKeys.addAll(nouvelles); // après reload() : la synchronisation ne les retire pas une 2e fois
+                return;
+            }
+            firstPage = Math.min(firstPage, index / pageSize);
+        }
+        Set<Integer> retirees = new HashSet<>(nouvelles);
+        for (List<T> page : pages.values()) page.removeIf(row -> retirees.contains(source.keyOf(row)));
+        int p = firstPage;
+        pages.keySet().removeIf(page -> page > p); // décalées : relues à l'affichage
+        knownPages = Math.min(knownPages, p + 1);
+        deletedKeys.addAll(nouvelles);
+        invalidatePendingLoads();
+        rowCount -= nouvelles.size();
+        fireTableDataChanged();
+        if (p * pageSize < rowCount) requestPage(p); // complète la première page touchée
+    }
+
+    // Ligne comptée dans rowCount : lue par le COUNT(*) ou ajoutée depuis
+    private boolean counted(int key) {
+        return lastKey < 0 || key <= lastKey || insertedKeys.contains(key);
+    }
+
+    /**
+     * Position de la ligne de clé donnée parmi les pages en mémoire, ou -1.
+     * Chaque page est triée par clé : recherche dichotomique.
+     */
+    private int indexOfKey(int key) {
+        for (Map.Entry<Integer, List<T>> entry : pages.entrySet()) {
+            List<T> page = entry.getValue();
+            int low = 0;
+            int high = page.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midKey = source.keyOf(page.get(mid));
+                if (midKey < key) low = mid + 1;
+                else if (midKey > key) high = mid - 1;
+                else return entry.getKey() * pageSize + mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Les chargements en cours ont été lancés avant la modification : leurs résultats
+     * sont ignorés et les pages manquantes seront redemandées à l'affichage.
+     */
+    private void invalidatePendingLoads() {
+        if (loadingPages.isEmpty()) return;
+        generation++;
+        loadingPages.clear();
+    }
+
+    /**
+     * Charge la première page à l'avance (démarrage), sans attendre qu'un tableau l'affiche.
+     */
+    public void prefetchFirstPage() {
+        if (!pages.containsKey(0)) requestPage(0);
+    }
+
+    /**
+     * Nombre de pages actuellement en mémoire.
+     */
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Lance le chargement de la page p en arrière-plan (une seule fois).
+     */
+    private void requestPage(int p) {
+        if (!loadingPages.add(p)) return; // déjà en cours
+        int gen = generation;
+        // Point de départ connu le plus proche : la page elle-même, ou la dernière page connue
+        int fromIndex = Math.min(p, knownPages - 1);
+        int fromKey = pageStartKeys[fromIndex];
+        tasks.submit(() -> fetch(p, fromIndex, fromKey), result -> apply(gen, result), e -> {
+            if (gen == generation) loadingPages.remove(p);
+            System.err.println("Erreur chargement de page : " + e.getMessage());
+        });
+    }
+
+    /**
+     * Exécuté HORS de l'EDT : découvre si besoin les clés de début des pages
+     * entre fromIndex et p (saut direct, ex: ascenseur tiré en bas) en ne lisant
+     * que les clés par gros paquets, puis charge la page p.
+     */
+    private PageResult<T> fetch(int p, int fromIndex, int fromKey) {
+        int[] discovered = new int[0];
+        int count = 0;
+        int index = fromIndex;
+        int key = fromKey;
+        while (index < p) {
+            int[] keys = source.loadKeys(key, KEY_SCAN_CHUNK);
+            int before = count;
+            // keys[pageSize - 1] est la dernière clé de la page courante, donc le début de la suivante
+            for (int i = pageSize - 1; i < keys.length; i += pageSize) {
+                if (count == discovered.length) discovered = Arrays.copyOf(discovered, Math.max(16, count * 2));
+                discovered[count++] = keys[i];
+            }
+            index += count - before;
+            if (count == before) break; // fin de la table
+            key = discovered[count - 1];
+            if (keys.length < KEY_SCAN_CHUNK) break;
+        }
+        discovered = Arrays.copyOf(discovered, count);
+        if (index < p) return new PageResult<>(p, fromIndex, discovered, List.of()); // au-delà de la fin
+
+        int startKey = p == fromIndex ? fromKey : discovered[p - fromIndex - 1];
+        return new PageResult<>(p, fromIndex, discovered, source.loadPage(startKey, pageSize));
+    }
+
+    /**
+     * Exécuté sur l'EDT : enregistre la page chargée et rafraîchit ses lignes.
+     */
+    private void apply(int gen, PageResult<T> result) {
+        if (gen != generation) return; // rechargement demandé entre-temps
+        loadingPages.remove(result.page);
+        for (int j = 0; j < result.startKeys.length; j++) {
+            recordStartKey(result.fromIndex + 1 + j, result.startKeys[j]);
+        }
+        List<T> rows = new ArrayList<>(result.rows); // modifiable (rowInserted, rowDeleted)
+        pages.put(result.page, rows);
+        if (rows.size() == pageSize) {
+            recordStartKey(result.page + 1, source.keyOf(rows.get(rows.size() - 1)));
+        }
+        int first = result.page * pageSize;
+        int last = Math.min(rowCount, first + pageSize) - 1;
+        if (first <= last) fireTableRowsUpdated(first, last);
+    }
+
+    private void recordStartKey(int p, int key) {
+        if (p < knownPages || p > knownPages) return; // déjà connue, ou trou dans la séquence
+        if (p >= pageStartKeys.length) {
+            pageStartKeys = Arrays.copyOf(pageStartKeys, pageStartKeys.length * 2);
+        }
+        pageStartKeys[p] = key;
+        knownPages = p + 1;
+    }
+
+    /**
+     * Résultat d'un chargement de page (transmis du thread de travail à l'EDT).
+     */
+    private static final class PageResult<T> {
+        final int page;
+        final int fromIndex;
+        final int[] startKeys; // clés de début des pages fromIndex+1, fromIndex+2...
+        final List<T> rows;
+
+        PageResult(int page, int fromIndex, int[] startKeys, List<T> rows) {
+            this.page = page;
+            this.fromIndex = fromIndex;
+            this.startKeys = startKeys;
+            this.rows = rows;
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package views;
 
 import controllers.AuteurController;
+import controllers.ExportController;
 import controllers.OeuvreController;
+import export.CatalogExporter;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Fenêtre principale avec image de fond
@@ -17,9 +25,20 @@ import java.awt.*;
  */
 public class MainWindow extends JFrame {
 
+    private static final String BACKGROUND_IMAGE = "img/books.jpg"; // L’image doit être dans /img
+
     // Références vers les contrôleurs
     private AuteurController auteurController;
     private OeuvreController oeuvreController;
+    private ExportController exportController;
+
+    // Tableaux des auteurs et des œuvres, partagés par toutes les fenêtres ouvertes
+    private final SharedCatalog catalog;
+
+    // Progression de l'export en cours (vide sinon)
+    private final JLabel exportLabel = new JLabel(" ", JLabel.CENTER);
+    private JButton exportButton;
+    private final BackgroundPanel backgroundPanel = new BackgroundPanel(); // image mise à l'échelle de la fenêtre
 
     /**
      * Constructeur de la fenêtre principale
@@ -28,8 +47,32 @@ public class MainWindow extends JFrame {
      * param oeuvreController Contrôleur pour gérer les œuvres
      */
     public MainWindow(AuteurController auteurController, OeuvreController oeuvreController) {
+        this(auteurController, oeuvreController, new ExportController());
+    }
+
+    /**
+     * param exportController Contrôleur pour exporter le catalogue (CSV / JSON)
+     */
+    public MainWindow(AuteurController auteurController, OeuvreController oeuvreController,
+                      ExportController exportController) {
+        this(auteurController, oeuvreController, exportController,
+                new SharedCatalog(auteurController, oeuvreController));
+        // Image décodée hors de l'EDT : la fenêtre s'affiche sans l'attendre
+        CompletableFuture.supplyAsync(MainWindow::loadBackgroundImage)
+                .thenAccept(image -> SwingUtilities.invokeLater(() -> setBackgroundImage(image)));
+    }
+
+    /**
+     * Démarrage (Main) : catalogue déjà en cours de préchargement, image de fond
+     * décodée en parallèle puis donnée par setBackgroundImage.
+     * param catalog tableaux partagés par toutes les fenêtres ouvertes
+     */
+    public MainWindow(AuteurController auteurController, OeuvreController oeuvreController,
+                      ExportController exportController, SharedCatalog catalog) {
         this.auteurController = auteurController;
         this.oeuvreController = oeuvreController;
+        this.exportController = exportController;
+        this.catalog = catalog;
 
         // -----------------------------
         // 1. Paramètres de la fenêtre
@@ -40,11 +83,9 @@ public class MainWindow extends JFrame {
         setLocationRelativeTo(null); // Centre la fenêtre
 
         // -----------------------------
-        // 2. Chargement de l’image de fond
+        // 2. Image de fond : ajoutée par setBackgroundImage une fois décodée
+        //    (BackgroundPanel utilise un BorderLayout : on peut placer des composants dessus)
         // -----------------------------
-        ImageIcon backgroundIcon = new ImageIcon("img/books.jpg"); // L’image doit être dans /img
-        JLabel backgroundLabel = new JLabel(backgroundIcon);
-        backgroundLabel.setLayout(new BorderLayout()); // Permet de placer des composants dessus
 
         // -----------------------------
         // 3. Titre principal
@@ -64,8 +105,8 @@ public class MainWindow extends JFrame {
         JButton auteursButton = new JButton("Gérer les auteurs");
         auteursButton.addActionListener(e -> {
             try {
-                // Passage du contrôleur à la vue
-                AuteurView auteurView = new AuteurView(auteurController);
+                // Passage du contrôleur et du catalogue partagé à la vue
+                AuteurView auteurView = new AuteurView(auteurController, catalog);
                 auteurView.showWindow();
             } catch (Exception ex) {
                 // Gestion des erreurs (pédagogique : éviter crash)
@@ -81,7 +122,7 @@ public class MainWindow extends JFrame {
         oeuvresButton.addActionListener(e -> {
             try {
                 // Passage des deux contrôleurs (nécessaire pour la comboBox Auteur)
-                OeuvreView oeuvreView = new OeuvreView(oeuvreController, auteurController);
+                OeuvreView oeuvreView = new OeuvreView(oeuvreController, auteurController, catalog);
                 oeuvreView.showWindow();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this,
@@ -91,16 +132,116 @@ public class MainWindow extends JFrame {
             }
         });
 
+        // --- Bouton "Exporter le catalogue" ---
+        exportButton = new JButton("Exporter le catalogue");
+        exportButton.addActionListener(e -> exporterCatalogue());
+
         // Ajout des boutons au panel
         buttonPanel.add(auteursButton);
         buttonPanel.add(oeuvresButton);
+        buttonPanel.add(exportButton);
 
         // -----------------------------
         // 5. Placement dans l’interface
         // -----------------------------
-        backgroundLabel.add(titre, BorderLayout.CENTER); // Le titre au centre
-        backgroundLabel.add(buttonPanel, BorderLayout.SOUTH); // Les boutons en bas
-        setContentPane(backgroundLabel);
+        backgroundPanel.add(titre, BorderLayout.CENTER); // Le titre au centre
+        backgroundPanel.add(buttonPanel, BorderLayout.SOUTH); // Les boutons en bas
+        exportLabel.setForeground(Color.WHITE);
+        backgroundPanel.add(exportLabel, BorderLayout.NORTH); // Progression de l'export en haut
+        setContentPane(backgroundPanel);
+    }
+
+    /**
+     * Lit et décode l'image de fond (plusieurs dizaines de ms : à appeler hors de l'EDT).
+     * Jamais décodée plus grande que nécessaire pour couvrir l'écran.
+     * return null si l'image est absente ou illisible
+     */
+    public static BufferedImage loadBackgroundImage() {
+        Dimension ecran = GraphicsEnvironment.isHeadless() ? null : Toolkit.getDefaultToolkit().getScreenSize();
+        try {
+            BufferedImage image = BackgroundPanel.decode(new File(BACKGROUND_IMAGE), ecran);
+            if (image == null) System.err.println("Erreur image de fond : format inconnu (" + BACKGROUND_IMAGE + ")");
+            return image;
+        } catch (IOException e) {
+            System.err.println("Erreur image de fond : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Affiche l'image de fond (EDT). null : le fond uni reste.
+     */
+    public void setBackgroundImage(BufferedImage image) {
+        backgroundPanel.setImage(image);
+    }
+
+    /**
+     * Export du catalogue
+     * --------------------
+     * 1. Choix des données et du format, puis du fichier.
+     * 2. L'export tourne dans un SwingWorker : la fenêtre reste utilisable.
+     * 3. publish() remonte la progression (lignes/s) vers l'EDT.
+     */
+    private void exporterCatalogue() {
+        JComboBox<CatalogExporter.Dataset> datasetCombo = new JComboBox<>(CatalogExporter.Dataset.values());
+        JComboBox<CatalogExporter.Format> formatCombo = new JComboBox<>(CatalogExporter.Format.values());
+        JPanel choix = new JPanel(new GridLayout(2, 2, 5, 5));
+        choix.add(new JLabel("Données :"));
+        choix.add(datasetCombo);
+        choix.add(new JLabel("Format :"));
+        choix.add(formatCombo);
+        if (JOptionPane.showConfirmDialog(this, choix, "Exporter le catalogue",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+
+        CatalogExporter.Dataset dataset = (CatalogExporter.Dataset) datasetCombo.getSelectedItem();
+        CatalogExporter.Format format = (CatalogExporter.Format) formatCombo.getSelectedItem();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(dataset.name().toLowerCase() + "." + format.getExtension()));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File fichier = chooser.getSelectedFile();
+
+        exportButton.setEnabled(false);
+        exportLabel.setText("Export en cours...");
+
+        new SwingWorker<CatalogExporter.Report, String>() {
+            @Override
+            protected CatalogExporter.Report doInBackground() throws Exception {
+                return exportController.exportCatalog(dataset, format, fichier.toPath(),
+                        (rows, rowsPerSecond) -> publish(String.format("Export : %,d lignes (%,.0f lignes/s)", rows, rowsPerSecond)));
+            }
+
+            @Override
+            protected void process(List<String> messages) {
+                exportLabel.setText(messages.get(messages.size() - 1)); // seule la dernière compte
+            }
+
+            @Override
+            protected void done() {
+                exportButton.setEnabled(true);
+                try {
+                    CatalogExporter.Report report = get();
+                    exportLabel.setText("Export terminé : " + report);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    exportLabel.setText(" ");
+                    JOptionPane.showMessageDialog(MainWindow.this,
+                            "Erreur lors de l'export : " + ex.getCause().getMessage(),
+                            "Erreur",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Fermeture : arrête les mises à l'échelle de l'image encore en cours.
+     */
+    @Override
+    public void dispose() {
+        backgroundPanel.dispose();
+        super.dispose();
     }
 
     /**
@@ -1,22 +1,22 @@
-
-
-pa
-
-ckage views;
+package views;
 
 import controllers.AuteurController;
 import controllers.OeuvreController;
 import models.Auteur;
 import models.Oeuvre;
+import models.OeuvreAuteur;
+import search.CatalogSearch;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableCellEditor;
 import java.awt.*;
 import java.awt.event.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Vue pour afficher la liste des Å“uvres avec actions
@@ -28,21 +28,49 @@ import java.util.List;
  */
 public class OeuvreView extends JFrame {
 
+    // Colonnes du tableau (le modèle est créé par SharedCatalog)
+    static final String[] COLONNES = {"ID", "Nom de l'Å“uvre", "Auteur", "Modifier", "Supprimer"};
+
     // ContrÃ´leurs (lien entre la Vue et le ModÃ¨le / base de donnÃ©es)
     private OeuvreController oeuvreController;
     private AuteurController auteurController;
 
     // ModÃ¨le de donnÃ©es du tableau et tableau graphique
-    private DefaultTableModel tableModel;
+    private final SharedCatalog catalog; // Modèle partagé avec les autres fenêtres ouvertes
+    private final boolean catalogPropre; // true : catalogue créé pour cette seule fenêtre
+    private FilteredTableModel<OeuvreAuteur> tableModel; // filtre propre à la fenêtre
     private JTable table;
+    private FilterBar<OeuvreAuteur> filterBar; // Champ de recherche (index en mémoire ou requêtes en base)
+    private PendingBar pendingBar; // Mode brouillon : modifications en attente, enregistrées en une fois
+
+    // Requêtes exécutées hors du thread graphique (annulées à la fermeture de la fenêtre)
+    private final TaskGroup tasks = new TaskGroup();
+    private final JLabel chargementLabel = new JLabel("Chargement...");
+    private final Consumer<Boolean> chargementListener = busy -> majChargement();
+    private final SharedCatalog.TableListener<OeuvreAuteur> changementListener = this::rafraichirFiltre;
 
     /**
      * Constructeur de la Vue ---------------------- On prÃ©pare ici la fenÃªtre
      * principale (titre, taille, contenu...).
      */
     public OeuvreView(OeuvreController oeuvreController, AuteurController auteurController) {
+        this(oeuvreController, auteurController, new SharedCatalog(auteurController, oeuvreController), true);
+    }
+
+    /**
+     * param catalog catalogue partagé par toutes les fenêtres (créé par MainWindow) :
+     *        les œuvres déjà lues par une autre fenêtre ne sont pas relues
+     */
+    public OeuvreView(OeuvreController oeuvreController, AuteurController auteurController, SharedCatalog catalog) {
+        this(oeuvreController, auteurController, catalog, false);
+    }
+
+    private OeuvreView(OeuvreController oeuvreController, AuteurController auteurController,
+                       SharedCatalog catalog, boolean catalogPropre) {
         this.oeuvreController = oeuvreController;
         this.auteurController = auteurController;
+        this.catalog = catalog;
+        this.catalogPropre = catalogPropre;
 
         // ParamÃ¨tres de la fenÃªtre principale
         setTitle("Liste des Å“uvres");
@@ -50,33 +78,20 @@ public class OeuvreView extends JFrame {
         setLocationRelativeTo(null); // Centre la fenÃªtre
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
-        // 1. RÃ©cupÃ©ration de toutes les Å“uvres depuis le contrÃ´leur
-        List<Oeuvre> oeuvres = oeuvreController.fetchAllOeuvres();
+        // 1. Colonnes du tableau : voir COLONNES
+        //    Seules les colonnes "Modifier" et "Supprimer" sont interactives (index >= 3).
 
-        // 2. DÃ©finition des colonnes du tableau
-        String[] colonnes = {"ID", "Nom de l'Å“uvre", "Auteur", "Modifier", "Supprimer"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                // seules les colonnes "Modifier" et "Supprimer" sont interactives
-                return column >= 3;
-            }
-        };
-
-        // 3. Remplissage du tableau avec les Å“uvres existantes
-        for (Oeuvre o : oeuvres) {
-            Auteur auteur = auteurController.findAuteurById(o.getIdAuteur());
-            tableModel.addRow(new Object[]{
-                o.getIdOeuvre(),
-                o.getNomOeuvre(),
-                auteur != null ? auteur.toString() : "Inconnu", // si pas trouvÃ©
-                "Modifier",
-                "Supprimer"
-            });
-        }
+        // 2. Modèle "paresseux" partagé : les œuvres (avec leur auteur, par jointure) sont lues
+        //    page par page quand le tableau les affiche (voir LazyTableModel), une seule fois
+        //    pour toutes les fenêtres ouvertes (voir SharedCatalog).
+        tableModel = new FilteredTableModel<>(catalog.oeuvres());
+
+        // 3. Les lignes sont chargées par le modèle quand le tableau les affiche
 
         // 4. CrÃ©ation du tableau graphique
         table = new JTable(tableModel);
+        table.setDefaultRenderer(Object.class, new PendingRowRenderer(tableModel)); // lignes en attente
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // Ctrl / Maj + clic
 
         // 5. Ajout de boutons dans les colonnes "Modifier" et "Supprimer"
         table.getColumn("Modifier").setCellRenderer(new ButtonRenderer());
@@ -89,13 +104,73 @@ public class OeuvreView extends JFrame {
         JScrollPane scrollPane = new JScrollPane(table);
         add(scrollPane, BorderLayout.CENTER);
 
+        // 6 bis. Champ de recherche (titre ou auteur) : filtre en mémoire, sans requête,
+        //        ou (catalogue trop gros pour l'index) requête en base sur le début du titre
+        if (oeuvreController.getSearch() != null) {
+            filterBar = new FilterBar<>(texte -> oeuvreController.searchOeuvres(texte, CatalogSearch.DEFAULT_LIMIT),
+                    tableModel);
+        } else {
+            filterBar = new FilterBar<>(oeuvreController::fetchOeuvresAvecAuteurByPrefix,
+                    CatalogSearch.DEFAULT_LIMIT, tasks, (o, texte) -> FilterBar.startsWith(o.getNomOeuvre(), texte),
+                    tableModel);
+        }
+        pendingBar = new PendingBar(catalog);
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.add(filterBar, BorderLayout.NORTH);
+        topPanel.add(pendingBar, BorderLayout.SOUTH);
+        add(topPanel, BorderLayout.NORTH);
+
         // ------ CODER ICI ----
         // 7. Bouton dâ€™ajout dâ€™une nouvelle Å“uvre (en bas de la fenÃªtre)
         JButton addButton = new JButton("ajouter une oeuvre");
-        addButton.addActionListener(e -> showOeuvreForm(null));
+        addButton.addActionListener(e -> showOeuvreForm(null, null));
         JPanel bottomPanel = new JPanel();
         bottomPanel.add(addButton);
+
+        // Suppression des lignes sélectionnées (Ctrl / Maj + clic) : une requête par lot
+        JButton deleteSelectionButton = new JButton("Supprimer la sélection");
+        deleteSelectionButton.addActionListener(e -> supprimerSelection());
+        bottomPanel.add(deleteSelectionButton);
+
+        // 8. Indicateur de chargement : visible tant qu'une requête est en cours
+        //    (celles de la fenêtre ou celles du catalogue partagé)
+        majChargement();
+        tasks.addBusyListener(chargementListener);
+        catalog.getTasks().addBusyListener(chargementListener);
+        bottomPanel.add(chargementLabel);
         add(bottomPanel, BorderLayout.SOUTH);
+
+        // 9. Une œuvre ajoutée, modifiée ou supprimée (ici ou dans une autre fenêtre) : filtre recalculé
+        catalog.addOeuvreListener(changementListener);
+    }
+
+    private void majChargement() {
+        chargementLabel.setVisible(tasks.isBusy() || catalog.getTasks().isBusy());
+    }
+
+    /**
+     * Fermeture de la fenêtre : les requêtes encore en cours sont annulées
+     * (leurs résultats ne seront pas appliqués à une fenêtre disparue).
+     */
+    @Override
+    public void dispose() {
+        tasks.dispose();
+        filterBar.dispose();
+        pendingBar.dispose();
+        tableModel.dispose();
+        catalog.getTasks().removeBusyListener(chargementListener);
+        catalog.removeOeuvreListener(changementListener);
+        if (catalogPropre) catalog.dispose();
+        super.dispose();
+    }
+
+    /**
+     * Après une modification : le filtre en cours est recalculé (l'index est déjà à jour),
+     * ou, recherche en base, relancé seulement s'il est concerné (voir FilterBar.refreshAfterChange).
+     * Le tableau complet, lui, a déjà été mis à jour par le catalogue partagé.
+     */
+    private void rafraichirFiltre(Predicate<OeuvreAuteur> touchees, List<OeuvreAuteur> lignes) {
+        filterBar.refreshAfterChange(touchees, lignes);
     }
 
     // Ligne 93 : Ajout d'un bouton "Ajouter Oeuvre" Ã  l'interface
@@ -105,15 +180,70 @@ public class OeuvreView extends JFrame {
     // 1. Comprendre l'ajout de composants Swing Ã  une interface.
     // 2. Utiliser les ActionListener pour gÃ©rer les interactions.
     // 3. Respecter le modÃ¨le MVC en appelant le contrÃ´leur appropriÃ©.
+    /**
+     * Supprime toutes les œuvres sélectionnées en une fois (voir OeuvreController.removeOeuvres).
+     * Les lignes sélectionnées dont la page n'est pas encore lue sont ignorées
+     * (leur nombre est indiqué dans la confirmation).
+     */
+    private void supprimerSelection() {
+        List<Integer> ids = new ArrayList<>();
+        int nonChargees = 0;
+        for (int row : table.getSelectedRows()) {
+            OeuvreAuteur o = tableModel.getRowAt(row);
+            if (o != null) ids.add(o.getIdOeuvre());
+            else nonChargees++; // page pas encore lue
+        }
+        if (ids.isEmpty()) {
+            JOptionPane.showMessageDialog(this, nonChargees > 0
+                    ? "Lignes pas encore chargées, réessayez dans un instant." : "Aucune œuvre sélectionnée.");
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Supprimer les " + ids.size() + " œuvre(s) sélectionnée(s) ?"
+                        + (nonChargees > 0 ? "\n" + nonChargees + " ligne(s) sélectionnée(s) pas encore chargée(s) : ignorée(s)." : ""),
+                "Confirmer", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) return;
+
+        // Mode brouillon : suppressions notées (lignes barrées)
+        if (catalog.isDraftMode()) {
+            if (catalog.isCommitting()) {
+                JOptionPane.showMessageDialog(this, "Enregistrement en cours, réessayez dans un instant.");
+            } else {
+                catalog.queueOeuvreDeletes(ids);
+                table.clearSelection();
+            }
+            return;
+        }
+
+        tasks.submit(() -> oeuvreController.removeOeuvres(ids), result -> {
+            table.clearSelection();
+            JOptionPane.showMessageDialog(this, AuteurView.messageSuppression(result, "œuvre(s) supprimée(s)", ""));
+        }, ex -> JOptionPane.showMessageDialog(this, "Erreur : " + ex.getMessage()));
+    }
+
+    /**
+     * Valeur affichée dans chaque colonne pour une ligne œuvre + auteur.
+     */
+    static Object valeurCellule(OeuvreAuteur o, int column) {
+        switch (column) {
+            case 0: return o.getIdOeuvre();
+            case 1: return o.getNomOeuvre();
+            case 2: return o.getNomCompletAuteur(); // déjà fourni par la jointure
+            case 3: return "Modifier";
+            default: return "Supprimer";
+        }
+    }
+
     /**
      * Formulaire pour ajouter ou modifier une Å“uvre
      * ---------------------------------------------
      *
      * @param oeuvre : objet existant si modification, sinon null pour un ajout
+     * @param auteurActuel : auteur de l'œuvre modifiée (déjà connu par la ligne du tableau), sinon null
      */
-    private void showOeuvreForm(Oeuvre oeuvre) {
+    private void showOeuvreForm(Oeuvre oeuvre, Auteur auteurActuel) {
         JDialog dialog = new JDialog(this, "Formulaire Å“uvre", true);
-        dialog.setSize(350, 200);
+        dialog.setSize(380, 230);
         dialog.setLayout(new GridLayout(3, 2, 10, 10));
         dialog.setLocationRelativeTo(this);
 
@@ -121,26 +251,20 @@ public class OeuvreView extends JFrame {
         JLabel nomLabel = new JLabel("Nom de l'Å“uvre :");
         JTextField nomField = new JTextField();
         JLabel auteurLabel = new JLabel("Auteur :");
-        JComboBox<Auteur> auteurCombo = new JComboBox<>();
-
-        // Remplissage de la liste dÃ©roulante avec les auteurs disponibles
-        List<Auteur> auteurs = auteurController.fetchAllAuteurs();
-        for (Auteur a : auteurs) {
-            auteurCombo.addItem(a);
-        }
+        // Choix de l'auteur par saisie : seuls les auteurs correspondants sont chargés
+        // (ouverture immédiate, même avec un très grand nombre d'auteurs)
+        AuteurPicker auteurPicker = new AuteurPicker(auteurController, tasks, auteurActuel);
 
         // PrÃ©-remplissage si modification
         if (oeuvre != null) {
             nomField.setText(oeuvre.getNomOeuvre());
-            Auteur selectedAuteur = auteurController.findAuteurById(oeuvre.getIdAuteur());
-            auteurCombo.setSelectedItem(selectedAuteur);
         }
 
         // Bouton dâ€™enregistrement
         JButton saveButton = new JButton("Enregistrer");
         saveButton.addActionListener(e -> {
             String nom = nomField.getText().trim();
-            Auteur auteurSelectionne = (Auteur) auteurCombo.getSelectedItem();
+            Auteur auteurSelectionne = auteurPicker.getSelectedAuteur();
 
             // VÃ©rification des champs
             if (nom.isEmpty() || auteurSelectionne == null) {
@@ -148,56 +272,60 @@ public class OeuvreView extends JFrame {
                 return;
             }
 
-            // Cas 1 : ajout
-            if (oeuvre == null) {
-                boolean success = oeuvreController.createOeuvre(nom, auteurSelectionne.getIdAuteur());
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Å’uvre ajoutÃ©e !");
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
-                }
-            } // Cas 2 : modification
-            else {
-                boolean success = oeuvreController.modifyOeuvre(
-                        oeuvre.getIdOeuvre(), nom, auteurSelectionne.getIdAuteur());
-                if (success) {
-                    JOptionPane.showMessageDialog(dialog, "Å’uvre modifiÃ©e !");
-                } else {
-                    JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+            // Mode brouillon : la modification est seulement notée (enregistrée avec les autres)
+            if (catalog.isDraftMode()) {
+                if (catalog.isCommitting()) {
+                    JOptionPane.showMessageDialog(dialog, "Enregistrement en cours, réessayez dans un instant.");
+                    return;
                 }
+                if (oeuvre == null) catalog.queueOeuvreCreate(nom, auteurSelectionne);
+                else catalog.queueOeuvreUpdate(oeuvre.getIdOeuvre(), nom, auteurSelectionne);
+                dialog.dispose();
+                return;
             }
 
-            dialog.dispose();
-            refreshTable(); // met Ã  jour le tableau
+            // Enregistrement en arrière-plan : le bouton est désactivé en attendant
+            saveButton.setEnabled(false);
+            Consumer<Throwable> onError = ex -> {
+                saveButton.setEnabled(true);
+                JOptionPane.showMessageDialog(dialog, "Erreur : " + ex.getMessage());
+            };
+
+            // Cas 1 : ajout → la ligne créée (avec son id) est ajoutée au tableau
+            //         de toutes les fenêtres ouvertes (changement publié par le contrôleur)
+            if (oeuvre == null) {
+                tasks.submit(() -> oeuvreController.createOeuvre(nom, auteurSelectionne.getIdAuteur()), creee -> {
+                    if (creee != null) {
+                        JOptionPane.showMessageDialog(dialog, "Å’uvre ajoutÃ©e !");
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+                    }
+                    dialog.dispose();
+                }, onError);
+            } // Cas 2 : modification → seule la ligne modifiée est mise à jour
+            else {
+                tasks.submit(() -> oeuvreController.modifyOeuvre(
+                        oeuvre.getIdOeuvre(), nom, auteurSelectionne.getIdAuteur()), success -> {
+                    if (success) {
+                        JOptionPane.showMessageDialog(dialog, "Å’uvre modifiÃ©e !");
+                    } else {
+                        JOptionPane.showMessageDialog(dialog, "Erreur ou doublon !");
+                    }
+                    dialog.dispose();
+                }, onError);
+            }
         });
 
         // Ajout des composants dans la fenÃªtre
         dialog.add(nomLabel);
         dialog.add(nomField);
         dialog.add(auteurLabel);
-        dialog.add(auteurCombo);
+        dialog.add(auteurPicker);
         dialog.add(new JLabel()); // espace vide
         dialog.add(saveButton);
 
-        dialog.setVisible(true);
-    }
-
-    /**
-     * RafraÃ®chit le tableau aprÃ¨s ajout / modification / suppression
-     */
-    private void refreshTable() {
-        tableModel.setRowCount(0); // vide le tableau
-        List<Oeuvre> oeuvres = oeuvreController.fetchAllOeuvres();
-        for (Oeuvre o : oeuvres) {
-            Auteur auteur = auteurController.findAuteurById(o.getIdAuteur());
-            tableModel.addRow(new Object[]{
-                o.getIdOeuvre(),
-                o.getNomOeuvre(),
-                auteur != null ? auteur.toString() : "Inconnu",
-                "Modifier",
-                "Supprimer"
-            });
-        }
+        dialog.setVisible(true); // fenêtre modale : bloque jusqu'à la fermeture
+        auteurPicker.dispose();
     }
 
     // ---------------------
@@ -251,33 +379,37 @@ public class OeuvreView extends JFrame {
         @Override
         public Object getCellEditorValue() {
             if (clicked) {
-                int id = (int) table.getValueAt(row, 0); // rÃ©cupÃ¨re lâ€™ID de lâ€™Å“uvre
+                OeuvreAuteur ligne = tableModel.getRowAt(row); // ligne cliquée (page affichée)
+                if (ligne == null) {
+                    clicked = false;
+                    return label;
+                }
+                int id = ligne.getIdOeuvre();
 
                 // Cas 1 : suppression
                 if (label.equals("Supprimer")) {
                     int confirm = JOptionPane.showConfirmDialog(OeuvreView.this,
                             "Supprimer cette Å“uvre ?", "Confirmer", JOptionPane.YES_NO_OPTION);
-                    if (confirm == JOptionPane.YES_OPTION) {
-                        boolean success = oeuvreController.removeOeuvre(id);
-                        if (success) {
-                            JOptionPane.showMessageDialog(OeuvreView.this, "Å’uvre supprimÃ©e !");
+                    if (confirm == JOptionPane.YES_OPTION && catalog.isDraftMode()) {
+                        // Mode brouillon : suppression notée (la ligne reste affichée, barrée)
+                        if (catalog.isCommitting()) {
+                            JOptionPane.showMessageDialog(OeuvreView.this, "Enregistrement en cours, réessayez dans un instant.");
                         } else {
-                            JOptionPane.showMessageDialog(OeuvreView.this, "Erreur ou Å“uvre liÃ©e !");
+                            catalog.queueOeuvreDelete(id);
                         }
-                        refreshTable();
+                    } else if (confirm == JOptionPane.YES_OPTION) {
+                        // Suppression en arrière-plan, message à la fin
+                        tasks.submit(() -> oeuvreController.removeOeuvre(id), success -> {
+                            if (success) {
+                                JOptionPane.showMessageDialog(OeuvreView.this, "Å’uvre supprimÃ©e !");
+                            } else {
+                                JOptionPane.showMessageDialog(OeuvreView.this, "Erreur ou Å“uvre liÃ©e !");
+                            }
+                        }, ex -> JOptionPane.showMessageDialog(OeuvreView.this, "Erreur : " + ex.getMessage()));
                     }
                 } // Cas 2 : modification
                 else if (label.equals("Modifier")) {
-                    Oeuvre o = null;
-                    for (Oeuvre oeuvre : oeuvreController.fetchAllOeuvres()) {
-                        if (oeuvre.getIdOeuvre() == id) {
-                            o = oeuvre;
-                            break;
-                        }
-                    }
-                    if (o != null) {
-                        showOeuvreForm(o);
-                    }
+                    showOeuvreForm(ligne.toOeuvre(), ligne.toAuteur());
                 }
             }
             clicked = false;
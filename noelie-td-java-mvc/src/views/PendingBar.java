@@ -0,0 +1,76 @@
+package views;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Barre du mode brouillon (fenêtres Auteurs et Œuvres)
+ * -----------------------------------------------------
+ * - "Mode brouillon" : les ajouts, modifications et suppressions sont notés au lieu
+ *   d'être enregistrés tout de suite (ne se désactive pas tant qu'il reste des modifications) ;
+ * - nombre de modifications en attente (communes à toutes les fenêtres) ;
+ * - "Enregistrer tout" : une seule transaction, tout ou rien ;
+ * - "Annuler les modifications" : oublie les modifications en attente.
+ */
+public class PendingBar extends JPanel {
+
+    private final SharedCatalog catalog;
+    private final JCheckBox brouillonBox = new JCheckBox("Mode brouillon");
+    private final JLabel compteurLabel = new JLabel();
+    private final JButton enregistrerButton = new JButton("Enregistrer tout");
+    private final JButton annulerButton = new JButton("Annuler les modifications");
+    private final Runnable pendingListener = this::majEtat;
+
+    public PendingBar(SharedCatalog catalog) {
+        super(new FlowLayout(FlowLayout.LEFT));
+        this.catalog = catalog;
+
+        brouillonBox.addActionListener(e -> catalog.setDraftMode(brouillonBox.isSelected()));
+        enregistrerButton.addActionListener(e -> enregistrer());
+        annulerButton.addActionListener(e -> {
+            int confirm = JOptionPane.showConfirmDialog(this,
+                    "Oublier les " + catalog.getPendingCount() + " modification(s) en attente ?",
+                    "Confirmer", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION && !catalog.isCommitting()) catalog.discardPending();
+        });
+
+        add(brouillonBox);
+        add(compteurLabel);
+        add(enregistrerButton);
+        add(annulerButton);
+
+        majEtat();
+        catalog.addPendingListener(pendingListener);
+    }
+
+    private void enregistrer() {
+        catalog.commitPending(result -> {
+            if (result.isSuccess()) {
+                JOptionPane.showMessageDialog(this, result.toString());
+            } else {
+                JOptionPane.showMessageDialog(this, "Rien n'a été enregistré.\n" + result.getMessage(),
+                        "Erreur", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    private void majEtat() {
+        int enAttente = catalog.getPendingCount();
+        boolean enCours = catalog.isCommitting();
+        brouillonBox.setSelected(catalog.isDraftMode());
+        brouillonBox.setEnabled(enAttente == 0 && !enCours);
+        compteurLabel.setText(enCours ? "Enregistrement..." : enAttente + " modification(s) en attente");
+        compteurLabel.setVisible(catalog.isDraftMode());
+        enregistrerButton.setVisible(catalog.isDraftMode());
+        annulerButton.setVisible(catalog.isDraftMode());
+        enregistrerButton.setEnabled(enAttente > 0 && !enCours);
+        annulerButton.setEnabled(enAttente > 0 && !enCours);
+    }
+
+    /**
+     * Fermeture de la fenêtre : le catalogue partagé ne prévient plus cette barre.
+     */
+    public void dispose() {
+        catalog.removePendingListener(pendingListener);
+    }
+}
@@ -0,0 +1,47 @@
+package views;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.font.TextAttribute;
+import java.util.Map;
+
+/**
+ * Affichage des lignes en attente (mode brouillon)
+ * -------------------------------------------------
+ * - ligne ajoutée ou modifiée, pas encore enregistrée : en italique, en bleu ;
+ * - ligne supprimée, pas encore enregistrée : barrée, en gris.
+ * Les autres lignes s'affichent normalement.
+ */
+public class PendingRowRenderer extends DefaultTableCellRenderer {
+
+    private static final Color EN_ATTENTE = new Color(0, 70, 160);
+
+    private final FilteredTableModel<?> tableModel;
+
+    public PendingRowRenderer(FilteredTableModel<?> tableModel) {
+        this.tableModel = tableModel;
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        Font font = table.getFont();
+        switch (tableModel.getPendingState(row)) {
+            case CREATED:
+            case UPDATED:
+                setFont(font.deriveFont(Font.ITALIC));
+                if (!isSelected) setForeground(EN_ATTENTE);
+                break;
+            case DELETED:
+                setFont(font.deriveFont(Map.of(TextAttribute.STRIKETHROUGH, TextAttribute.STRIKETHROUGH_ON)));
+                if (!isSelected) setForeground(Color.GRAY);
+                break;
+            default:
+                setFont(font);
+                if (!isSelected) setForeground(table.getForeground());
+        }
+        return this;
+    }
+}
@@ -0,0 +1,620 @@
+package views;
+
+import controllers.AuteurController;
+import controllers.OeuvreController;
+import controllers.UnitOfWorkController;
+import models.Auteur;
+import models.CatalogListener;
+import models.ChangeSet;
+import models.CommitResult;
+import models.Oeuvre;
+import models.OeuvreAuteur;
+import models.UnitOfWork;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Catalogue partagé entre les fenêtres
+ * -------------------------------------
+ * Avant : chaque fenêtre Auteurs / Œuvres avait son propre modèle de tableau,
+ * donc ses propres requêtes (COUNT(*), pages...) : N fenêtres ouvertes = N fois les mêmes lectures.
+ *
+ * Ici :
+ * 1. Un seul LazyTableModel par table, créé à la première ouverture et gardé ensuite :
+ *    N fenêtres (ou une fenêtre rouverte) coûtent une seule lecture de chaque page.
+ * 2. Chaque fenêtre l'affiche à travers son FilteredTableModel (filtre de recherche propre).
+ * 3. Abonné aux changements publiés par les contrôleurs (CatalogEvents) : toute création,
+ *    modification ou suppression, faite depuis n'importe quelle fenêtre, met à jour la ligne
+ *    concernée dans toutes les fenêtres, sans relire la base.
+ * 4. addAuteurListener / addOeuvreListener : prévient les fenêtres après chaque changement,
+ *    avec les lignes concernées (pour ne refaire leur filtre que s'il est touché).
+ * 5. Synchronisation : les changements faits par les AUTRES postes sont lus en arrière-plan,
+ *    par différence depuis un repère (voir models.ChangeLog), puis publiés comme les nôtres.
+ *    Intervalle adaptatif : SYNC_MIN_MILLIS après une synchronisation qui a trouvé des
+ *    changements (d'autres vont sans doute suivre), puis doublé à chaque synchronisation
+ *    vide, jusqu'à -Dmangaworldo.sync.max.seconds (60 s par défaut, 0 = désactivée).
+ * 6. prefetch : au démarrage, nombre de lignes et première page de chaque table sont lus
+ *    avant toute ouverture de fenêtre (après le repère, pour ne manquer aucun changement).
+ * 7. Mode brouillon : les ajouts, modifications et suppressions des fenêtres sont notés
+ *    (queue*) dans une unité de travail commune, affichés "en attente" dans les tableaux,
+ *    puis enregistrés en une seule transaction (commitPending) ou abandonnés (discardPending).
+ *
+ * Créé par Main (ou par MainWindow). Toutes les méthodes publiques s'appellent depuis l'EDT ;
+ * les événements arrivent du thread de la modification et sont repassés sur l'EDT.
+ */
+public class SharedCatalog implements CatalogListener {
+
+    // Pagination des tableaux : lignes par page et pages gardées en mémoire
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES_EN_MEMOIRE = 20;
+
+    // Synchronisation avec les autres postes
+    private static final int SYNC_MIN_MILLIS = 2_000;
+    private static final int SYNC_MAX_MILLIS = Integer.getInteger("mangaworldo.sync.max.seconds", 60) * 1_000;
+    private static final int SYNC_LIMIT = 1_000; // lignes changées lues par requête
+
+    private final AuteurController auteurController;
+    private final OeuvreController oeuvreController;
+    private final UnitOfWorkController unitOfWorkController;
+    // Chargements des pages partagées : durent autant que l'application, pas qu'une fenêtre
+    private final TaskGroup tasks = new TaskGroup();
+    private final List<TableListener<Auteur>> auteurListeners = new ArrayList<>();
+    private final List<TableListener<OeuvreAuteur>> oeuvreListeners = new ArrayList<>();
+    // Synchronisation : ses requêtes n'allument pas l'indicateur "Chargement..." des fenêtres
+    private final TaskGroup syncTasks = new TaskGroup();
+    private final Timer syncTimer;
+    private int syncDelay = SYNC_MIN_MILLIS;
+    private long auteurWatermark = -1; // repères (EDT uniquement), -1 : pas encore lus
+    private long oeuvreWatermark = -1;
+    private boolean repereEnCours;        // lecture du repère pas encore terminée
+    private Runnable prefetchEnAttente;   // préchargement demandé pendant cette lecture
+
+    private LazyTableModel<Auteur> auteurs;
+    private LazyTableModel<OeuvreAuteur> oeuvres;
+    // Lu par le thread de la modification : inutile de chercher l'auteur d'une œuvre si aucune n'est affichée
+    private volatile boolean oeuvresCreees;
+
+    // Mode brouillon : modifications en attente, communes à toutes les fenêtres
+    private final UnitOfWork enAttente = new UnitOfWork();
+    // Lignes d'œuvres en attente telles qu'affichées (avec le nom de leur auteur)
+    private final Map<Integer, OeuvreAuteur> oeuvresEnAttente = new HashMap<>();
+    private boolean brouillon;
+    private boolean enregistrementEnCours;
+    private final List<Runnable> pendingListeners = new ArrayList<>();
+
+    /**
+     * param oeuvreController peut être null si les œuvres ne sont jamais affichées
+     */
+    public SharedCatalog(AuteurController auteurController, OeuvreController oeuvreController) {
+        this(auteurController, oeuvreController, new UnitOfWorkController(auteurController.getEvents()));
+    }
+
+    /**
+     * param unitOfWorkController enregistrement du mode brouillon (même stockage que les contrôleurs)
+     */
+    public SharedCatalog(AuteurController auteurController, OeuvreController oeuvreController,
+                         UnitOfWorkController unitOfWorkController) {
+        this.auteurController = auteurController;
+        this.oeuvreController = oeuvreController;
+        this.unitOfWorkController = unitOfWorkController;
+        auteurController.getEvents().addListener(this);
+        if (oeuvreController != null && oeuvreController.getEvents() != auteurController.getEvents()) {
+            oeuvreController.getEvents().addListener(this);
+        }
+        syncTimer = new Timer(SYNC_MIN_MILLIS, e -> synchroniser());
+        syncTimer.setRepeats(false);
+        if (SYNC_MAX_MILLIS > 0) lireRepere();
+    }
+
+    /**
+     * Tâches des chargements partagés (pour l'indicateur "Chargement..." des fenêtres).
+     */
+    public TaskGroup getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Modèle partagé des auteurs (créé au premier appel : COUNT(*) puis pages à la demande).
+     */
+    public LazyTableModel<Auteur> auteurs() {
+        if (auteurs == null) {
+            auteurs = new LazyTableModel<>(AuteurView.COLONNES, 3, new LazyTableModel.PageSource<Auteur>() {
+                @Override
+                public int count() {
+                    return auteurController.countAuteurs();
+                }
+
+                @Override
+                public int[] countAndLastKey() {
+                    return auteurController.countAuteursAndMaxId();
+                }
+
+                @Override
+                public List<Auteur> loadPage(int afterId, int limit) {
+                    return auteurController.fetchAuteursPage(afterId, limit);
+                }
+
+                @Override
+                public int[] loadKeys(int afterId, int limit) {
+                    return auteurController.fetchAuteurIds(afterId, limit);
+                }
+
+                @Override
+                public int keyOf(Auteur a) {
+                    return a.getIdAuteur();
+                }
+            }, AuteurView::valeurCellule, PAGE_SIZE, MAX_PAGES_EN_MEMOIRE, tasks);
+            if (!enAttente.isEmpty()) afficherAuteursEnAttente();
+        }
+        return auteurs;
+    }
+
+    /**
+     * Modèle partagé des œuvres avec leur auteur (jointure), créé au premier appel.
+     */
+    public LazyTableModel<OeuvreAuteur> oeuvres() {
+        if (oeuvreController == null) throw new IllegalStateException("Pas de contrôleur des œuvres");
+        if (oeuvres == null) {
+            oeuvres = new LazyTableModel<>(OeuvreView.COLONNES, 3, new LazyTableModel.PageSource<OeuvreAuteur>() {
+                @Override
+                public int count() {
+                    return oeuvreController.countOeuvres();
+                }
+
+                @Override
+                public int[] countAndLastKey() {
+                    return oeuvreController.countOeuvresAndMaxId();
+                }
+
+                @Override
+                public List<OeuvreAuteur> loadPage(int afterId, int limit) {
+                    return oeuvreController.fetchOeuvresAvecAuteurPage(afterId, limit);
+                }
+
+                @Override
+                public int[] loadKeys(int afterId, int limit) {
+                    return oeuvreController.fetchOeuvreIds(afterId, limit);
+                }
+
+                @Override
+                public int keyOf(OeuvreAuteur o) {
+                    return o.getIdOeuvre();
+                }
+            }, OeuvreView::valeurCellule, PAGE_SIZE, MAX_PAGES_EN_MEMOIRE, tasks);
+            oeuvresCreees = true;
+            if (!enAttente.isEmpty()) afficherOeuvresEnAttente();
+        }
+        return oeuvres;
+    }
+
+    /**
+     * Prévenu sur l'EDT après chaque changement appliqué à une table.
+     */
+    public interface TableListener<T> {
+        /**
+         * param touched vrai pour une ligne existante que le changement modifie ou supprime
+         * param rows nouvelles versions des lignes ajoutées ou modifiées (elles peuvent entrer dans un filtre)
+         */
+        void changed(Predicate<T> touched, List<T> rows);
+    }
+
+    public void addAuteurListener(TableListener<Auteur> listener) {
+        auteurListeners.add(listener);
+    }
+
+    public void removeAuteurListener(TableListener<Auteur> listener) {
+        auteurListeners.remove(listener);
+    }
+
+    /**
+     * Prévenu aussi quand un auteur est renommé (son nom s'affiche sur ses œuvres).
+     */
+    public void addOeuvreListener(TableListener<OeuvreAuteur> listener) {
+        oeuvreListeners.add(listener);
+    }
+
+    public void removeOeuvreListener(TableListener<OeuvreAuteur> listener) {
+        oeuvreListeners.remove(listener);
+    }
+
+    private static <T> void notifier(List<TableListener<T>> listeners, Predicate<T> touched, List<T> rows) {
+        for (TableListener<T> listener : new ArrayList<>(listeners)) listener.changed(touched, rows);
+    }
+
+    // ----- Mode brouillon (EDT) -----
+
+    public boolean isDraftMode() {
+        return brouillon;
+    }
+
+    /**
+     * Active ou désactive le mode brouillon (impossible tant que des modifications sont en attente).
+     */
+    public void setDraftMode(boolean draft) {
+        if (draft == brouillon) return;
+        if (!enAttente.isEmpty()) throw new IllegalStateException("Modifications en attente : enregistrer ou annuler d'abord");
+        brouillon = draft;
+        firePendingChanged();
+    }
+
+    public int getPendingCount() {
+        return enAttente.size();
+    }
+
+    /**
+     * true pendant l'enregistrement : les modifications en attente ne peuvent plus changer.
+     */
+    public boolean isCommitting() {
+        return enregistrementEnCours;
+    }
+
+    /**
+     * param listener appelé sur l'EDT quand le mode, le nombre de modifications en attente
+     *        ou l'état de l'enregistrement change (barre "Mode brouillon" des fenêtres)
+     */
+    public void addPendingListener(Runnable listener) {
+        pendingListeners.add(listener);
+    }
+
+    public void removePendingListener(Runnable listener) {
+        pendingListeners.remove(listener);
+    }
+
+    public void queueAuteurCreate(String prenom, String nom) {
+        verifierModifiable();
+        enAttente.createAuteur(prenom, nom);
+        afficherEnAttente();
+    }
+
+    public void queueAuteurUpdate(int idAuteur, String prenom, String nom) {
+        verifierModifiable();
+        enAttente.updateAuteur(idAuteur, prenom, nom);
+        afficherEnAttente();
+    }
+
+    public void queueAuteurDelete(int idAuteur) {
+        queueAuteurDeletes(List.of(idAuteur));
+    }
+
+    /** Sélection multiple : les tableaux ne sont rafraîchis qu'une fois. */
+    public void queueAuteurDeletes(List<Integer> idAuteurs) {
+        verifierModifiable();
+        for (int id : idAuteurs) enAttente.deleteAuteur(id);
+        afficherEnAttente();
+    }
+
+    public void queueOeuvreCreate(String nom, Auteur auteur) {
+        verifierModifiable();
+        Oeuvre o = enAttente.createOeuvre(nom, auteur.getIdAuteur());
+        oeuvresEnAttente.put(o.getIdOeuvre(), ligneEnAttente(o.getIdOeuvre(), nom, auteur));
+        afficherEnAttente();
+    }
+
+    public void queueOeuvreUpdate(int idOeuvre, String nom, Auteur auteur) {
+        verifierModifiable();
+        enAttente.updateOeuvre(idOeuvre, nom, auteur.getIdAuteur());
+        if (enAttente.getOeuvreEdit(idOeuvre).getKind() != UnitOfWork.Kind.DELETE) {
+            oeuvresEnAttente.put(idOeuvre, ligneEnAttente(idOeuvre, nom, auteur));
+        }
+        afficherEnAttente();
+    }
+
+    public void queueOeuvreDelete(int idOeuvre) {
+        queueOeuvreDeletes(List.of(idOeuvre));
+    }
+
+    /** Sélection multiple : les tableaux ne sont rafraîchis qu'une fois. */
+    public void queueOeuvreDeletes(List<Integer> idOeuvres) {
+        verifierModifiable();
+        for (int id : idOeuvres) {
+            enAttente.deleteOeuvre(id);
+            oeuvresEnAttente.remove(id);
+        }
+        afficherEnAttente();
+    }
+
+    /**
+     * Enregistre toutes les modifications en attente en une transaction (en arrière-plan).
+     * Succès : les lignes enregistrées sont publiées (tableaux et index à jour), puis la
+     * liste d'attente est vidée. Échec : rien n'est enregistré, les modifications restent en attente.
+     * param done appelé sur l'EDT avec le résultat
+     */
+    public void commitPending(Consumer<CommitResult> done) {
+        verifierModifiable();
+        enregistrementEnCours = true;
+        firePendingChanged();
+        tasks.submit(() -> unitOfWorkController.commit(enAttente), result -> {
+            // Les changements publiés par le contrôleur sont déjà appliqués (invokeLater antérieurs)
+            enregistrementEnCours = false;
+            if (result.isSuccess()) {
+                enAttente.clear();
+                oeuvresEnAttente.clear();
+            }
+            afficherEnAttente();
+            done.accept(result);
+        }, e -> {
+            enregistrementEnCours = false;
+            firePendingChanged();
+            done.accept(CommitResult.failure(e.getMessage()));
+        });
+    }
+
+    /**
+     * Abandonne toutes les modifications en attente (rien n'a été envoyé à la base).
+     */
+    public void discardPending() {
+        verifierModifiable();
+        enAttente.clear();
+        oeuvresEnAttente.clear();
+        afficherEnAttente();
+    }
+
+    private void verifierModifiable() {
+        if (enregistrementEnCours) throw new IllegalStateException("Enregistrement en cours");
+    }
+
+    private static OeuvreAuteur ligneEnAttente(int idOeuvre, String nom, Auteur auteur) {
+        return new OeuvreAuteur(idOeuvre, nom, auteur.getIdAuteur(), auteur.getPrenomAuteur(), auteur.getNomAuteur());
+    }
+
+    /**
+     * Affiche les modifications en attente dans les tableaux, puis prévient les fenêtres.
+     */
+    private void afficherEnAttente() {
+        if (auteurs != null) afficherAuteursEnAttente();
+        if (oeuvres != null) afficherOeuvresEnAttente();
+        // Rien n'est encore écrit en base : aucune ligne touchée
+        notifier(auteurListeners, a -> false, List.of());
+        notifier(oeuvreListeners, o -> false, List.of());
+        firePendingChanged();
+    }
+
+    private void afficherAuteursEnAttente() {
+        Map<Integer, Auteur> modifies = new HashMap<>();
+        for (Auteur a : enAttente.getAuteurs(UnitOfWork.Kind.UPDATE)) modifies.put(a.getIdAuteur(), a);
+        Set<Integer> supprimes = new HashSet<>();
+        for (Auteur a : enAttente.getAuteurs(UnitOfWork.Kind.DELETE)) supprimes.add(a.getIdAuteur());
+        auteurs.setPending(modifies, supprimes, enAttente.getAuteurs(UnitOfWork.Kind.CREATE));
+    }
+
+    private void afficherOeuvresEnAttente() {
+        Map<Integer, OeuvreAuteur> modifies = new LinkedHashMap<>();
+        List<OeuvreAuteur> ajoutees = new ArrayList<>();
+        for (Oeuvre o : enAttente.getOeuvres(UnitOfWork.Kind.UPDATE)) {
+            modifies.put(o.getIdOeuvre(), oeuvresEnAttente.get(o.getIdOeuvre()));
+        }
+        for (Oeuvre o : enAttente.getOeuvres(UnitOfWork.Kind.CREATE)) ajoutees.add(oeuvresEnAttente.get(o.getIdOeuvre()));
+        Set<Integer> supprimees = new HashSet<>();
+        for (Oeuvre o : enAttente.getOeuvres(UnitOfWork.Kind.DELETE)) supprimees.add(o.getIdOeuvre());
+        oeuvres.setPending(modifies, supprimees, ajoutees);
+    }
+
+    private void firePendingChanged() {
+        for (Runnable listener : new ArrayList<>(pendingListeners)) listener.run();
+    }
+
+    /**
+     * Préchargement (démarrage) : crée les deux modèles partagés et charge leur première page.
+     * Attend la lecture du repère si elle est en cours.
+     * param done appelé sur l'EDT quand les chargements sont terminés (peut être null)
+     */
+    public void prefetch(Runnable done) {
+        if (repereEnCours) {
+            prefetchEnAttente = () -> prefetch(done);
+            return;
+        }
+        auteurs().prefetchFirstPage();
+        if (oeuvreController != null) oeuvres().prefetchFirstPage();
+        if (done == null) return;
+        if (!tasks.isBusy()) {
+            done.run();
+            return;
+        }
+        tasks.addBusyListener(new Consumer<Boolean>() {
+            @Override
+            public void accept(Boolean busy) {
+                if (busy) return;
+                tasks.removeBusyListener(this);
+                done.run();
+            }
+        });
+    }
+
+    /**
+     * Se désabonne des changements et arrête les chargements (catalogue propre à une fenêtre).
+     */
+    public void dispose() {
+        auteurController.getEvents().removeListener(this);
+        if (oeuvreController != null) oeuvreController.getEvents().removeListener(this);
+        tasks.dispose();
+        syncTimer.stop();
+        syncTasks.dispose();
+        auteurListeners.clear();
+        oeuvreListeners.clear();
+        pendingListeners.clear();
+    }
+
+    // ----- Synchronisation avec les autres postes (EDT) -----
+
+    /**
+     * Repère de départ : lu au démarrage, avant l'ouverture des fenêtres (donc avant
+     * le chargement des tableaux). Un changement fait entre-temps sera relu : sans risque,
+     * un même changement peut arriver deux fois (voir CatalogListener).
+     */
+    private void lireRepere() {
+        repereEnCours = true;
+        syncTasks.submit(auteurController::fetchCatalogVersion, version -> {
+            repereLu();
+            if (version < 0) {
+                System.err.println("Synchronisation désactivée : versions de lignes indisponibles (sql/004 appliqué ?)");
+                return;
+            }
+            auteurWatermark = version;
+            oeuvreWatermark = version;
+            planifier(SYNC_MIN_MILLIS);
+        }, e -> {
+            repereLu();
+            System.err.println("Erreur lecture de la version du catalogue : " + e.getMessage());
+        });
+    }
+
+    private void repereLu() {
+        repereEnCours = false;
+        Runnable enAttente = prefetchEnAttente;
+        prefetchEnAttente = null;
+        if (enAttente != null) enAttente.run();
+    }
+
+    private void planifier(int delay) {
+        syncTimer.setInitialDelay(delay);
+        syncTimer.restart();
+    }
+
+    /**
+     * Lit et publie les changements depuis les repères (auteurs d'abord : les noms
+     * d'auteurs sont à jour quand les œuvres sont affichées), puis replanifie.
+     */
+    private void synchroniser() {
+        long sinceAuteurs = auteurWatermark;
+        long sinceOeuvres = oeuvreWatermark;
+        syncTasks.submit(() -> {
+            ChangeSet<Auteur> auteurChanges = auteurController.fetchAuteurChangesSince(sinceAuteurs, SYNC_LIMIT);
+            ChangeSet<Oeuvre> oeuvreChanges = oeuvreController != null
+                    ? oeuvreController.fetchOeuvreChangesSince(sinceOeuvres, SYNC_LIMIT)
+                    : new ChangeSet<>(List.of(), List.of(), new int[0], sinceOeuvres, true);
+            return new Object[]{auteurChanges, oeuvreChanges};
+        }, result -> {
+            @SuppressWarnings("unchecked")
+            ChangeSet<Auteur> auteurChanges = (ChangeSet<Auteur>) result[0];
+            @SuppressWarnings("unchecked")
+            ChangeSet<Oeuvre> oeuvreChanges = (ChangeSet<Oeuvre>) result[1];
+            if (auteurChanges != null) auteurWatermark = auteurChanges.getWatermark();
+            if (oeuvreChanges != null) oeuvreWatermark = oeuvreChanges.getWatermark();
+
+            if (auteurChanges == null || oeuvreChanges == null) {
+                syncDelay = Math.min(syncDelay * 2, SYNC_MAX_MILLIS); // erreur : on insiste moins
+                planifier(syncDelay);
+            } else if (!auteurChanges.isComplete() || !oeuvreChanges.isComplete()) {
+                planifier(0); // beaucoup de changements : la suite tout de suite
+            } else if (!auteurChanges.isEmpty() || !oeuvreChanges.isEmpty()) {
+                syncDelay = SYNC_MIN_MILLIS;
+                planifier(syncDelay);
+            } else {
+                syncDelay = Math.min(syncDelay * 2, SYNC_MAX_MILLIS);
+                planifier(syncDelay);
+            }
+        }, e -> {
+            System.err.println("Erreur synchronisation : " + e.getMessage());
+            planifier(SYNC_MAX_MILLIS);
+        });
+    }
+
+    // ----- CatalogListener (thread de la modification) -----
+
+    @Override
+    public void auteurCreated(Auteur auteur) {
+        onEdt(() -> {
+            if (auteurs != null) auteurs.rowInserted(auteur);
+            notifier(auteurListeners, a -> false, List.of(auteur));
+        });
+    }
+
+    @Override
+    public void auteurUpdated(Auteur auteur) {
+        int id = auteur.getIdAuteur();
+        onEdt(() -> {
+            if (auteurs != null) auteurs.rowUpdated(auteur);
+            // Le nom de l'auteur est aussi affiché sur chacune de ses œuvres
+            if (oeuvres != null) {
+                oeuvres.updateRows(o -> o.getIdAuteur() == id, o -> new OeuvreAuteur(o.getIdOeuvre(),
+                        o.getNomOeuvre(), id, auteur.getPrenomAuteur(), auteur.getNomAuteur()));
+            }
+            notifier(auteurListeners, a -> a.getIdAuteur() == id, List.of(auteur));
+            notifier(oeuvreListeners, o -> o.getIdAuteur() == id, List.of());
+        });
+    }
+
+    @Override
+    public void auteurDeleted(int idAuteur) {
+        onEdt(() -> {
+            if (auteurs != null) auteurs.rowDeleted(idAuteur);
+            notifier(auteurListeners, a -> a.getIdAuteur() == idAuteur, List.of());
+        });
+    }
+
+    @Override
+    public void auteursDeleted(List<Integer> idAuteurs) {
+        onEdt(() -> {
+            if (auteurs != null) auteurs.rowsDeleted(idAuteurs);
+            Set<Integer> ids = new HashSet<>(idAuteurs);
+            notifier(auteurListeners, a -> ids.contains(a.getIdAuteur()), List.of());
+        });
+    }
+
+    @Override
+    public void oeuvreCreated(Oeuvre oeuvre) {
+        OeuvreAuteur ligne = ligne(oeuvre);
+        onEdt(() -> {
+            if (oeuvres != null && ligne != null) oeuvres.rowInserted(ligne);
+            if (ligne != null) notifier(oeuvreListeners, o -> false, List.of(ligne));
+        });
+    }
+
+    @Override
+    public void oeuvreUpdated(Oeuvre oeuvre) {
+        OeuvreAuteur ligne = ligne(oeuvre);
+        int id = oeuvre.getIdOeuvre();
+        onEdt(() -> {
+            if (oeuvres != null && ligne != null) oeuvres.rowUpdated(ligne);
+            notifier(oeuvreListeners, o -> o.getIdOeuvre() == id, ligne != null ? List.of(ligne) : List.of());
+        });
+    }
+
+    @Override
+    public void oeuvreDeleted(int idOeuvre) {
+        onEdt(() -> {
+            if (oeuvres != null) oeuvres.rowDeleted(idOeuvre);
+            notifier(oeuvreListeners, o -> o.getIdOeuvre() == idOeuvre, List.of());
+        });
+    }
+
+    @Override
+    public void oeuvresDeleted(List<Integer> idOeuvres) {
+        onEdt(() -> {
+            if (oeuvres != null) oeuvres.rowsDeleted(idOeuvres);
+            Set<Integer> ids = new HashSet<>(idOeuvres);
+            notifier(oeuvreListeners, o -> ids.contains(o.getIdOeuvre()), List.of());
+        });
+    }
+
+    /**
+     * Ligne à afficher pour une œuvre enregistrée : le nom de l'auteur est lu ici,
+     * hors de l'EDT, une seule fois quel que soit le nombre de fenêtres ouvertes.
+     * return null si aucune fenêtre n'affiche les œuvres (rien à mettre à jour)
+     */
+    private OeuvreAuteur ligne(Oeuvre oeuvre) {
+        if (!oeuvresCreees) return null;
+        Auteur auteur = auteurController.findAuteurById(oeuvre.getIdAuteur());
+        return new OeuvreAuteur(oeuvre.getIdOeuvre(), oeuvre.getNomOeuvre(), oeuvre.getIdAuteur(),
+                auteur != null ? auteur.getPrenomAuteur() : "", auteur != null ? auteur.getNomAuteur() : "");
+    }
+
+    /**
+     * Applique le changement sur l'EDT (dans l'ordre des publications) ; il prévient lui-même les fenêtres.
+     */
+    private void onEdt(Runnable change) {
+        SwingUtilities.invokeLater(() -> {
+            if (!tasks.isDisposed()) change.run();
+        });
+    }
+}
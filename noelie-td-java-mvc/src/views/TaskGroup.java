@@ -0,0 +1,124 @@
+package views;
+
+import javax.swing.SwingWorker;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Groupe de tâches d'arrière-plan d'une fenêtre
+ * ----------------------------------------------
+ * Règle d'or de Swing : le thread graphique (EDT) ne doit jamais attendre la base
+ * de données, sinon toute l'interface se fige.
+ *
+ * Ce groupe :
+ * 1. Exécute le travail (requête SQL) dans un SwingWorker, hors de l'EDT.
+ * 2. Rappelle onSuccess / onError sur l'EDT, où l'on peut toucher aux composants.
+ * 3. Signale quand la fenêtre est occupée (indicateur "Chargement...").
+ * 4. Annule tout lorsque la fenêtre est fermée : les résultats arrivés trop tard sont ignorés.
+ *
+ * Toutes les méthodes s'appellent depuis l'EDT.
+ */
+public class TaskGroup {
+
+    private final Set<SwingWorker<?, ?>> running = new HashSet<>();
+    private final List<Consumer<Boolean>> busyListeners = new ArrayList<>();
+    private boolean disposed;
+
+    /**
+     * Lance un travail en arrière-plan.
+     * param work travail exécuté hors de l'EDT (ex: appel au contrôleur)
+     * param onSuccess appelé sur l'EDT avec le résultat
+     * param onError appelé sur l'EDT en cas d'exception (peut être null)
+     */
+    public <T> SwingWorker<T, Void> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        if (disposed) return null;
+
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return work.call();
+            }
+
+            @Override
+            protected void done() {
+                finished(this);
+                if (disposed || isCancelled()) return; // fenêtre fermée ou tâche annulée
+                try {
+                    T result = get();
+                    if (onSuccess != null) onSuccess.accept(result);
+                } catch (CancellationException e) {
+                    // annulée entre-temps : rien à faire
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (onError != null) onError.accept(cause);
+                    else System.err.println("Erreur tâche d'arrière-plan : " + cause.getMessage());
+                }
+            }
+        };
+
+        boolean wasIdle = running.isEmpty();
+        running.add(worker);
+        if (wasIdle) fireBusy(true);
+        worker.execute();
+        return worker;
+    }
+
+    private void finished(SwingWorker<?, ?> worker) {
+        if (running.remove(worker) && running.isEmpty()) fireBusy(false);
+    }
+
+    /**
+     * Annule toutes les tâches en cours (leurs résultats seront ignorés).
+     */
+    public void cancelAll() {
+        for (SwingWorker<?, ?> worker : new ArrayList<>(running)) {
+            worker.cancel(true);
+        }
+        if (!running.isEmpty()) {
+            running.clear();
+            fireBusy(false);
+        }
+    }
+
+    /**
+     * À appeler à la fermeture de la fenêtre : annule tout et refuse les nouvelles tâches.
+     */
+    public void dispose() {
+        cancelAll();
+        disposed = true;
+        busyListeners.clear();
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public boolean isBusy() {
+        return !running.isEmpty();
+    }
+
+    /**
+     * param listener reçoit true quand une première tâche démarre, false quand la dernière se termine
+     */
+    public void addBusyListener(Consumer<Boolean> listener) {
+        busyListeners.add(listener);
+    }
+
+    public void removeBusyListener(Consumer<Boolean> listener) {
+        busyListeners.remove(listener);
+    }
+
+    private void fireBusy(boolean busy) {
+        for (Consumer<Boolean> listener : new ArrayList<>(busyListeners)) {
+            listener.accept(busy);
+        }
+    }
+}